@@ -3,6 +3,7 @@ package org.vadere.gui.onlinevisualization;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.vadere.gui.onlinevisualization.model.OnlineVisualizationModel;
+import org.vadere.gui.onlinevisualization.model.AgentSnapshot;
 import org.vadere.gui.onlinevisualization.view.MainPanel;
 import org.vadere.gui.onlinevisualization.view.OnlineVisualisationWindow;
 import org.vadere.meshing.mesh.inter.IMesh;
@@ -11,9 +12,12 @@ import org.vadere.simulator.models.potential.fields.IPotentialField;
 import org.vadere.simulator.models.potential.fields.IPotentialFieldTarget;
 import org.vadere.simulator.projects.Domain;
 import org.vadere.state.scenario.Agent;
-import org.vadere.state.scenario.Topography;
+import org.vadere.state.scenario.Car;
+import org.vadere.state.scenario.Pedestrian;
+import org.vadere.util.config.VadereConfig;
 import org.vadere.util.geometry.shapes.VRectangle;
 
+import java.awt.*;
 import java.util.function.Function;
 
 public class OnlineVisualization implements PassiveCallback {
@@ -22,28 +26,35 @@ public class OnlineVisualization implements PassiveCallback {
 	 * Holds a snapshot of the observation area of a frame. This class is used
 	 * to provide simulation data for visualization to the draw thread. To avoid
 	 * threading issues, the class holds a partial copy of the original
-	 * scenario.
+	 * scenario without agents, see {@link Domain#shallowClone()}, and a copy of the values
+	 * of the pedestrians and cars which are drawn, see {@link AgentSnapshot}.
 	 */
 	public class ObservationAreaSnapshotData {
 		public final double simTimeInSec;
 		public final Domain domain;
+		public final AgentSnapshot agents;
 		public final IPotentialField potentialFieldTarget;
-		public final Agent selectedAgent;
+		public final int selectedAgentId;
+		public final boolean isSelectedAgentCar;
 		public final IPotentialField potentialField;
 		public final Function<Agent, IMesh<?, ?, ?>> discretizations;
 
 		public ObservationAreaSnapshotData(
 				final double simTimeInSec,
 				@NotNull final Domain scenario,
+				@NotNull final AgentSnapshot agents,
 				@Nullable final IPotentialField potentialFieldTarget,
 				@Nullable final IPotentialField potentialField,
-				@Nullable final Agent selectedAgent,
+				final int selectedAgentId,
+				final boolean isSelectedAgentCar,
 				@Nullable final Function<Agent, IMesh<?, ?, ?>> discretizations) {
 			this.simTimeInSec = simTimeInSec;
 			this.domain = scenario;
+			this.agents = agents;
 			this.potentialFieldTarget = potentialFieldTarget;
 			this.potentialField = potentialField;
-			this.selectedAgent = selectedAgent;
+			this.selectedAgentId = selectedAgentId;
+			this.isSelectedAgentCar = isSelectedAgentCar;
 			this.discretizations = discretizations;
 		}
 	}
@@ -65,9 +76,16 @@ public class OnlineVisualization implements PassiveCallback {
 
 	private boolean enableVisualization;
 
+	/**
+	 * Snapshots are taken at most at this rate, see {@link #postUpdate(double)}.
+	 */
+	private final long minNanosBetweenSnapshots;
+	private long lastSnapshotNanos;
+
 	public OnlineVisualization(boolean enableVisualization) {
 		this.enableVisualization = enableVisualization;
 		this.model = new OnlineVisualizationModel();
+		this.minNanosBetweenSnapshots = 1_000_000_000L / Math.max(1, VadereConfig.getConfig().getInt("OnlineVis.maxFramesPerSecond", 40));
 
 		this.window = new MainPanel(model);
 		this.window.setVisible(enableVisualization);
@@ -92,6 +110,9 @@ public class OnlineVisualization implements PassiveCallback {
 
 	@Override
 	public void preLoop(double simTimeInSec) {
+		// the first snapshot after the initial one can be taken immediately
+		lastSnapshotNanos = System.nanoTime() - minNanosBetweenSnapshots;
+
 		// [issue 280] ensure OnlineVisualisation model is completely setup before
 		// OnlineVisualisation renderer is initialized in window.preLoop()
 		// push pop DrawData once at the beginning. This will completely initialize the model
@@ -117,39 +138,61 @@ public class OnlineVisualization implements PassiveCallback {
 	@Override
 	public void preUpdate(double simTimeInSec) {}
 
+	/**
+	 * Takes a snapshot if the draw thread has taken the last one and the last snapshot is older than one frame,
+	 * i.e. snapshots are taken at the frame rate of the display instead of each simulation step. The snapshot
+	 * is taken over by the event dispatch thread before the next repaint, i.e. the model is never changed
+	 * while it is drawn.
+	 */
 	@Override
 	public void postUpdate(double simTimeInSec) {
-		pushDrawData(simTimeInSec);
-		model.popDrawData();
-		model.notifyObservers();
+		long now = System.nanoTime();
+		if (model.isObservationAreaSnapshotTaken() && now - lastSnapshotNanos >= minNanosBetweenSnapshots) {
+			lastSnapshotNanos = now;
+			pushDrawData(simTimeInSec);
+			EventQueue.invokeLater(() -> {
+				if (model.popDrawData()) {
+					model.notifyObservers();
+				}
+			});
+		}
 	}
 
 	/**
 	 * Pushes (by copy) required data from current simulation into data queues
 	 * for being displayed by draw thread (thread-safe). These may be for
 	 * example the physical world representation and potential field of
-	 * perception.
+	 * perception. No agent of the simulation is handed to the draw thread.
 	 */
 	private void pushDrawData(double simTimeInSec) {
+		/* Push new snapshot of the observation area to the draw thread. */
+		IPotentialField pft = (model.config.isShowTargetPotentialField() && potentialFieldTarget != null) ? potentialFieldTarget.getSolution() : null;
+		Function<Agent, IMesh<?, ?, ?>> discretizations = (model.config.isShowTargetPotentielFieldMesh() && potentialFieldTarget != null) ? potentialFieldTarget.getDiscretization() : null;
+		IPotentialField pedPotentialField = null;
+		int selectedAgentId = -1;
+		boolean isSelectedAgentCar = model.getSelectedElement() instanceof Car;
+		Agent selectedAgent = null;
+
+		// the selected element is an agent of the draw thread, the potential is computed for the one of the simulation
+		if(isSelectedAgentCar) {
+			selectedAgentId = model.getSelectedElement().getId();
+			selectedAgent = domain.getTopography().getElement(Car.class, selectedAgentId);
+		} else if(model.getSelectedElement() instanceof Pedestrian) {
+			selectedAgentId = model.getSelectedElement().getId();
+			selectedAgent = domain.getTopography().getElement(Pedestrian.class, selectedAgentId);
+		}
 
-		synchronized (model.getDataSynchronizer()) {
-			/* Push new snapshot of the observation area to the draw thread. */
-			IPotentialField pft = (model.config.isShowTargetPotentialField() && potentialFieldTarget != null) ? potentialFieldTarget.getSolution() : null;
-			Function<Agent, IMesh<?, ?, ?>> discretizations = (model.config.isShowTargetPotentielFieldMesh() && potentialFieldTarget != null) ? potentialFieldTarget.getDiscretization() : null;
-			IPotentialField pedPotentialField = null;
-			Agent selectedAgent = null;
-
-			if(model.getSelectedElement() instanceof Agent){
-				selectedAgent = (Agent)model.getSelectedElement();
-			}
+		if(model.config.isShowPotentialField() && selectedAgent != null && potentialField != null) {
+			IPotentialField agentPotentialField = IPotentialField.copyAgentField(potentialField, selectedAgent, new VRectangle(model.getTopographyBound()), 0.1);
+			Agent agent = selectedAgent;
+			pedPotentialField = (pos, ped) -> agentPotentialField.getPotential(pos, agent);
+		}
 
-			if(model.config.isShowPotentialField() && selectedAgent != null && potentialField != null) {
-				pedPotentialField = IPotentialField.copyAgentField(potentialField, selectedAgent, new VRectangle(model.getTopographyBound()), 0.1);
-			}
+		AgentSnapshot agents = model.obtainAgentSnapshot();
+		agents.copy(domain.getTopography().getElements(Pedestrian.class), domain.getTopography().getElements(Car.class));
 
-			ObservationAreaSnapshotData data = new ObservationAreaSnapshotData(simTimeInSec, domain.clone(), pft, pedPotentialField, selectedAgent, discretizations);
-			model.pushObservationAreaSnapshot(data);
-		}
+		ObservationAreaSnapshotData data = new ObservationAreaSnapshotData(simTimeInSec, domain.shallowClone(), agents, pft, pedPotentialField, selectedAgentId, isSelectedAgentCar, discretizations);
+		model.pushObservationAreaSnapshot(data);
 	}
 
 
@@ -0,0 +1,290 @@
+package org.vadere.gui.onlinevisualization.model;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.vadere.state.attributes.scenario.AttributesAgent;
+import org.vadere.state.attributes.scenario.AttributesCar;
+import org.vadere.state.health.BasicExposureModelHealthStatus;
+import org.vadere.state.health.ExposureModelHealthStatus;
+import org.vadere.state.psychology.cognition.SelfCategory;
+import org.vadere.state.psychology.information.InformationState;
+import org.vadere.state.scenario.Agent;
+import org.vadere.state.scenario.Car;
+import org.vadere.state.scenario.Pedestrian;
+import org.vadere.state.simulation.FootStep;
+import org.vadere.util.geometry.shapes.VPoint;
+import org.vadere.util.geometry.shapes.Vector2D;
+
+import java.util.Collection;
+import java.util.LinkedList;
+import java.util.Random;
+
+/**
+ * A copy of the agents of a simulation state which contains only the values the online visualization
+ * draws and colors the agents by. For pedestrians these are the id, the position, the radius, the latest foot step
+ * (to interpolate the position), the next target, the group, the self category, the information state and
+ * the health status. For cars these are the id, the position, the velocity (the direction of the car), the next
+ * target and the attributes, which are shared since they are not changed during a simulation run. The values
+ * are stored in primitive arrays which are reused, i.e. refilling a snapshot does not allocate anything unless
+ * the number of agents exceeds its capacity.
+ *
+ * These values cover all agent colorings of the online visualization. The colorings PREDICATE and
+ * EVACUATION_TIMES are only supported by the post visualization. Other values of the agents, e.g. their
+ * trajectory or their psychology apart from the self category, are not copied. Hence, the selected agent
+ * shows only the copied values.
+ *
+ * The simulation thread fills a snapshot by {@link #copy(Collection, Collection)}, the draw thread transfers
+ * the values to its own agents by {@link #toPedestrian(int, Pedestrian)} and {@link #toCar(int, Car)}.
+ * Hence, the draw thread never accesses the agents of the simulation. A snapshot must not be filled while
+ * it is read.
+ */
+public class AgentSnapshot {
+
+	private static final SelfCategory[] selfCategories = SelfCategory.values();
+	private static final InformationState[] informationStates = InformationState.values();
+
+	/** no next target, group, self category, information state or health status */
+	private static final int NONE = -1;
+
+	private int numberOfPedestrians;
+
+	private int[] ids;
+	private double[] xs;
+	private double[] ys;
+	private double[] radii;
+
+	private boolean[] hasFootStep;
+	private double[] footStepStartXs;
+	private double[] footStepStartYs;
+	private double[] footStepEndXs;
+	private double[] footStepEndYs;
+	private double[] footStepStartTimes;
+	private double[] footStepEndTimes;
+
+	private int[] targetIds;
+	private int[] groupIds;
+	private int[] groupSizes;
+	private byte[] selfCategoryOrdinals;
+	private byte[] informationStateOrdinals;
+	private byte[] infectious;
+	private double[] degreesOfExposure;
+
+	private int numberOfCars;
+
+	private int[] carIds;
+	private double[] carXs;
+	private double[] carYs;
+	private double[] carVelocityXs;
+	private double[] carVelocityYs;
+	private int[] carTargetIds;
+	private AttributesCar[] carAttributes;
+
+	public AgentSnapshot() {
+		allocatePedestrians(16);
+		allocateCars(0);
+	}
+
+	/**
+	 * Overwrites this snapshot by the values of the pedestrians and cars.
+	 */
+	public void copy(@NotNull final Collection<Pedestrian> pedestrians, @NotNull final Collection<Car> cars) {
+		if (pedestrians.size() > ids.length) {
+			allocatePedestrians(Math.max(pedestrians.size(), 2 * ids.length));
+		}
+		if (cars.size() > carIds.length) {
+			allocateCars(Math.max(cars.size(), 2 * carIds.length));
+		}
+
+		numberOfPedestrians = 0;
+		for (Pedestrian pedestrian : pedestrians) {
+			int i = numberOfPedestrians++;
+			ids[i] = pedestrian.getId();
+			xs[i] = pedestrian.getPosition().getX();
+			ys[i] = pedestrian.getPosition().getY();
+			radii[i] = pedestrian.getRadius();
+
+			FootStep footStep = pedestrian.getFootstepHistory().getYoungestFootStep();
+			hasFootStep[i] = footStep != null;
+			if (footStep != null) {
+				footStepStartXs[i] = footStep.getStart().getX();
+				footStepStartYs[i] = footStep.getStart().getY();
+				footStepEndXs[i] = footStep.getEnd().getX();
+				footStepEndYs[i] = footStep.getEnd().getY();
+				footStepStartTimes[i] = footStep.getStartTime();
+				footStepEndTimes[i] = footStep.getEndTime();
+			}
+
+			targetIds[i] = nextTargetId(pedestrian);
+			boolean isInGroup = !pedestrian.getGroupIds().isEmpty();
+			groupIds[i] = isInGroup ? pedestrian.getGroupIds().getFirst() : NONE;
+			groupSizes[i] = isInGroup && !pedestrian.getGroupSizes().isEmpty() ? pedestrian.getGroupSizes().getFirst() : NONE;
+
+			SelfCategory selfCategory = pedestrian.getSelfCategory();
+			selfCategoryOrdinals[i] = (byte) (selfCategory == null ? NONE : selfCategory.ordinal());
+			InformationState informationState = pedestrian.getKnowledgeBase().getInformationState();
+			informationStateOrdinals[i] = (byte) (informationState == null ? NONE : informationState.ordinal());
+
+			ExposureModelHealthStatus healthStatus = pedestrian.getHealthStatus();
+			infectious[i] = (byte) (healthStatus == null ? NONE : (healthStatus.isInfectious() ? 1 : 0));
+			degreesOfExposure[i] = healthStatus == null ? 0.0 : healthStatus.getDegreeOfExposure();
+		}
+
+		numberOfCars = 0;
+		for (Car car : cars) {
+			int i = numberOfCars++;
+			carIds[i] = car.getId();
+			carXs[i] = car.getPosition().getX();
+			carYs[i] = car.getPosition().getY();
+			carVelocityXs[i] = car.getVelocity().getX();
+			carVelocityYs[i] = car.getVelocity().getY();
+			carTargetIds[i] = nextTargetId(car);
+			carAttributes[i] = car.getAttributes();
+		}
+	}
+
+	/**
+	 * Returns the number of pedestrians.
+	 */
+	public int getNumberOfPedestrians() {
+		return numberOfPedestrians;
+	}
+
+	public int getPedestrianId(final int i) {
+		return ids[i];
+	}
+
+	/**
+	 * Returns the number of cars.
+	 */
+	public int getNumberOfCars() {
+		return numberOfCars;
+	}
+
+	public int getCarId(final int i) {
+		return carIds[i];
+	}
+
+	/**
+	 * Transfers the values of the i-th pedestrian of this snapshot to a pedestrian of the draw thread.
+	 *
+	 * @param i             the index of the pedestrian in this snapshot
+	 * @param pedestrian    the pedestrian of the draw thread with the same id which displayed this pedestrian
+	 *                      before or <tt>null</tt> if there is none
+	 *
+	 * @return the pedestrian of the draw thread, i.e. the given pedestrian or a new one
+	 */
+	public Pedestrian toPedestrian(final int i, @Nullable Pedestrian pedestrian) {
+		if (pedestrian == null) {
+			AttributesAgent attributesAgent = new AttributesAgent(ids[i]);
+			// only the latest foot step is displayed
+			attributesAgent.setFootstepHistorySize(1);
+			pedestrian = new Pedestrian(attributesAgent, new Random(ids[i]));
+		}
+
+		pedestrian.getAttributes().setRadius(radii[i]);
+		pedestrian.setPosition(new VPoint(xs[i], ys[i]));
+
+		if (hasFootStep[i]) {
+			pedestrian.getFootstepHistory().add(new FootStep(
+					new VPoint(footStepStartXs[i], footStepStartYs[i]),
+					new VPoint(footStepEndXs[i], footStepEndYs[i]),
+					footStepStartTimes[i],
+					footStepEndTimes[i]));
+		} else if (pedestrian.getFootstepHistory().size() > 0) {
+			pedestrian.getFootstepHistory().removeLast();
+		}
+
+		setNextTargetId(pedestrian, targetIds[i]);
+
+		pedestrian.getGroupIds().clear();
+		pedestrian.getGroupSizes().clear();
+		if (groupIds[i] != NONE) {
+			pedestrian.getGroupIds().add(groupIds[i]);
+		}
+		if (groupSizes[i] != NONE) {
+			pedestrian.getGroupSizes().add(groupSizes[i]);
+		}
+
+		pedestrian.setSelfCategory(selfCategoryOrdinals[i] == NONE ? null : selfCategories[selfCategoryOrdinals[i]]);
+		pedestrian.getKnowledgeBase().setInformationState(
+				informationStateOrdinals[i] == NONE ? null : informationStates[informationStateOrdinals[i]]);
+
+		if (infectious[i] == NONE) {
+			pedestrian.setHealthStatus(null);
+		} else {
+			if (pedestrian.getHealthStatus() == null) {
+				pedestrian.setHealthStatus(new BasicExposureModelHealthStatus());
+			}
+			pedestrian.setInfectious(infectious[i] == 1);
+			pedestrian.setDegreeOfExposure(degreesOfExposure[i]);
+		}
+
+		return pedestrian;
+	}
+
+	/**
+	 * Transfers the values of the i-th car of this snapshot to a car of the draw thread.
+	 *
+	 * @param i     the index of the car in this snapshot
+	 * @param car   the car of the draw thread with the same id which displayed this car before or
+	 *              <tt>null</tt> if there is none
+	 *
+	 * @return the car of the draw thread, i.e. the given car or a new one
+	 */
+	public Car toCar(final int i, @Nullable Car car) {
+		if (car == null) {
+			car = new Car(carAttributes[i], new Random(carIds[i]));
+		} else {
+			car.setAttributes(carAttributes[i]);
+		}
+
+		car.setPosition(new VPoint(carXs[i], carYs[i]));
+		car.setVelocity(new Vector2D(carVelocityXs[i], carVelocityYs[i]));
+		setNextTargetId(car, carTargetIds[i]);
+		return car;
+	}
+
+	private static int nextTargetId(@NotNull final Agent agent) {
+		return agent.hasNextTarget() ? agent.getNextTargetId() : NONE;
+	}
+
+	private static void setNextTargetId(@NotNull final Agent agent, final int targetId) {
+		LinkedList<Integer> targets = new LinkedList<>();
+		if (targetId != NONE) {
+			targets.add(targetId);
+		}
+		agent.setTargets(targets);
+		agent.setNextTargetListIndex(0);
+	}
+
+	private void allocatePedestrians(final int capacity) {
+		ids = new int[capacity];
+		xs = new double[capacity];
+		ys = new double[capacity];
+		radii = new double[capacity];
+		hasFootStep = new boolean[capacity];
+		footStepStartXs = new double[capacity];
+		footStepStartYs = new double[capacity];
+		footStepEndXs = new double[capacity];
+		footStepEndYs = new double[capacity];
+		footStepStartTimes = new double[capacity];
+		footStepEndTimes = new double[capacity];
+		targetIds = new int[capacity];
+		groupIds = new int[capacity];
+		groupSizes = new int[capacity];
+		selfCategoryOrdinals = new byte[capacity];
+		informationStateOrdinals = new byte[capacity];
+		infectious = new byte[capacity];
+		degreesOfExposure = new double[capacity];
+	}
+
+	private void allocateCars(final int capacity) {
+		carIds = new int[capacity];
+		carXs = new double[capacity];
+		carYs = new double[capacity];
+		carVelocityXs = new double[capacity];
+		carVelocityYs = new double[capacity];
+		carTargetIds = new int[capacity];
+		carAttributes = new AttributesCar[capacity];
+	}
+}
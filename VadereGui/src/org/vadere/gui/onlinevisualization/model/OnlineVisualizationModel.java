@@ -4,8 +4,12 @@ import java.awt.*;
 import java.awt.geom.Rectangle2D;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.Iterator;
-import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -25,10 +29,26 @@ import org.vadere.util.voronoi.VoronoiDiagram;
 public class OnlineVisualizationModel extends SimulationModel<DefaultSimulationConfig> {
 
 	/**
-	 * Lists for thread safe data exchange between main and draw thread.
+	 * The latest snapshot which has not been displayed yet. The simulation thread publishes snapshots, the draw thread
+	 * takes them, i.e. the data exchange between both threads requires no lock. The simulation thread fills a snapshot
+	 * completely before it publishes it. The {@link AgentSnapshot} of a snapshot is refilled by the simulation
+	 * thread after the draw thread has taken the snapshot and returned it to {@link #agentSnapshots}.
 	 */
-	private LinkedList<VoronoiDiagram> voronoiSnapshots;
-	private LinkedList<OnlineVisualization.ObservationAreaSnapshotData> observationAreaSnapshots;
+	private final AtomicReference<OnlineVisualization.ObservationAreaSnapshotData> observationAreaSnapshot;
+
+	/**
+	 * Agent snapshots which are not in use, i.e. which can be refilled by the simulation thread.
+	 */
+	private final ConcurrentLinkedQueue<AgentSnapshot> agentSnapshots;
+
+	/**
+	 * The pedestrians and cars to display in the order of the latest snapshot. These are copies which are only
+	 * accessed by the draw thread and which are updated by popDrawData().
+	 */
+	private final List<Pedestrian> pedestrians;
+	private final Map<Integer, Pedestrian> pedestriansById;
+	private final List<Car> cars;
+	private final Map<Integer, Car> carsById;
 
 	/**
 	 * Latest snapshot of the potential field to be displayed. This is a certain
@@ -51,13 +71,6 @@ public class OnlineVisualizationModel extends SimulationModel<DefaultSimulationC
 
 	private boolean drawArrows;
 
-	/**
-	 * Synchronizer object used to control access to the simulation data
-	 * exchange structures to avoid threading issues.
-	 */
-	private Object drawDataSynchronizer;
-
-
 	/**
 	 * The observation area to display. Updated by popDrawData() with the latest
 	 * observation area snapshot.
@@ -66,30 +79,26 @@ public class OnlineVisualizationModel extends SimulationModel<DefaultSimulationC
 
 	public OnlineVisualizationModel() {
 		super(new DefaultSimulationConfig());
-		this.drawDataSynchronizer = new Object();
-		this.voronoiSnapshots = new LinkedList<>();
-		this.observationAreaSnapshots = new LinkedList<>();
+		this.observationAreaSnapshot = new AtomicReference<>();
+		this.agentSnapshots = new ConcurrentLinkedQueue<>();
+		this.pedestrians = new ArrayList<>();
+		this.pedestriansById = new HashMap<>();
+		this.cars = new ArrayList<>();
+		this.carsById = new HashMap<>();
 		this.config.setInterpolatePositions(false);
 	}
 
 	@Override
 	public Collection<Agent> getAgents() {
-		if (domain == null || domain.getTopography() == null) {
-			return new ArrayList<>();
-		}
-		Collection<Agent> result = new LinkedList<>();
-		result.addAll(domain.getTopography().getElements(Agent.class));
-		return result;
+		List<Agent> agents = new ArrayList<>(pedestrians.size() + cars.size());
+		agents.addAll(pedestrians);
+		agents.addAll(cars);
+		return agents;
 	}
 
 	@Override
 	public Collection<Pedestrian> getPedestrians() {
-		if (domain == null) {
-			return new ArrayList<>();
-		}
-		Collection<Pedestrian> result = new LinkedList<>();
-		result.addAll(domain.getTopography().getElements(Pedestrian.class));
-		return result;
+		return new ArrayList<>(pedestrians);
 	}
 
 	@Override
@@ -110,102 +119,137 @@ public class OnlineVisualizationModel extends SimulationModel<DefaultSimulationC
 		if (domain == null) {
 			return new ArrayList<ScenarioElement>().iterator();
 		}
-		return new TopographyIterator(domain.getTopography());
+		return new TopographyIterator(domain.getTopography(), getAgents());
 	}
 
 	/**
-	 * Retrieve latest simulation data from data exchange structures. As these
-	 * structures may be accessed by the main thread at the same time, access is
-	 * controlled by drawDataSynchronizer.
+	 * Retrieve the latest snapshot of the simulation data which has been published by the simulation thread
+	 * via {@link #pushObservationAreaSnapshot(OnlineVisualization.ObservationAreaSnapshotData)}. This changes the
+	 * displayed agents and the selected element, therefore, it is called by the event dispatch thread between two
+	 * repaints (or before the display is set up), i.e. never while the model is drawn.
+	 *
+	 * @return true if there was a new snapshot, false otherwise
 	 */
 	public boolean popDrawData() {
-		synchronized (drawDataSynchronizer) {
-			if (observationAreaSnapshots.isEmpty()) {
-				return false;
-			}
-
-			OnlineVisualization.ObservationAreaSnapshotData observationAreaSnapshot =
-					observationAreaSnapshots.getFirst();
-			simTimeInSec = observationAreaSnapshot.simTimeInSec;
-
-			// potentialFieldTarget might be null!
-            potentialFieldTarget = observationAreaSnapshot.potentialFieldTarget;
-			potentialField = observationAreaSnapshot.potentialField;
-			agent = observationAreaSnapshot.selectedAgent;
-
-			/*
-			 * if(topography == null ||
-			 * !topography.getBounds().equals(observationAreaSnapshot.scenario.getBounds())) {
-			 * setViewportBound(observationAreaSnapshot.scenario.getBounds());
-			 * }
-			 */
-
-			if (domain == null) {
-				domain = observationAreaSnapshot.domain;
-				// recalculate GUI (fireChangeViewportEvent will synchronize on model which is also
-				// needed by some awt event. Therefore do this in EDT (Event Dispatching Thread)
-				EventQueue.invokeLater(() -> {
-					fireChangeViewportEvent(new Rectangle2D.Double(getTopography().getBounds().x, getTopography().getBounds().y,
-							getTopography().getBounds().width, getTopography().getBounds().height));
-				});
-			} else {
-				domain = observationAreaSnapshot.domain;
-			}
-
-			if (getSelectedElement() instanceof Car) {
-				int carId = getSelectedElement().getId();
-				Car car = domain.getTopography().getElement(Car.class, carId);
-				setSelectedElement(car);
-			} else if (getSelectedElement() instanceof Pedestrian) {
-				int pedId = getSelectedElement().getId();
-				Pedestrian ped = domain.getTopography().getElement(Pedestrian.class, pedId);
-				setSelectedElement(ped);
-			}
-
-			if (isVoronoiDiagramAvailable() && isVoronoiDiagramVisible()) {
-				getVoronoiDiagram().computeVoronoiDiagram(domain.getTopography().getPedestrianDynamicElements().getElements()
-								.stream()
-								.map(ped -> ped.getPosition())
-								.collect(Collectors.toList()));
-			}
-
-			return true;
+		OnlineVisualization.ObservationAreaSnapshotData observationAreaSnapshot = this.observationAreaSnapshot.getAndSet(null);
+		if (observationAreaSnapshot == null) {
+			return false;
 		}
-	}
 
-	public void pushObservationAreaSnapshot(final OnlineVisualization.ObservationAreaSnapshotData observationAreaSnapshotData) {
-        if (observationAreaSnapshots.size() > 0) {
-            observationAreaSnapshots.pop();
-        }
-        observationAreaSnapshots.push(observationAreaSnapshotData);
-        setChanged();
+		simTimeInSec = observationAreaSnapshot.simTimeInSec;
+		updateAgents(observationAreaSnapshot.agents);
+		agentSnapshots.offer(observationAreaSnapshot.agents);
+
+		// potentialFieldTarget might be null!
+		potentialFieldTarget = observationAreaSnapshot.potentialFieldTarget;
+		potentialField = observationAreaSnapshot.potentialField;
+		agent = observationAreaSnapshot.isSelectedAgentCar
+				? carsById.get(observationAreaSnapshot.selectedAgentId)
+				: pedestriansById.get(observationAreaSnapshot.selectedAgentId);
+
+		/*
+		 * if(topography == null ||
+		 * !topography.getBounds().equals(observationAreaSnapshot.scenario.getBounds())) {
+		 * setViewportBound(observationAreaSnapshot.scenario.getBounds());
+		 * }
+		 */
+
+		if (domain == null) {
+			domain = observationAreaSnapshot.domain;
+			// recalculate GUI (fireChangeViewportEvent will synchronize on model which is also
+			// needed by some awt event. Therefore do this in EDT (Event Dispatching Thread)
+			EventQueue.invokeLater(() -> {
+				fireChangeViewportEvent(new Rectangle2D.Double(getTopography().getBounds().x, getTopography().getBounds().y,
+						getTopography().getBounds().width, getTopography().getBounds().height));
+			});
+		} else {
+			domain = observationAreaSnapshot.domain;
+		}
+
+		if (getSelectedElement() instanceof Car) {
+			int carId = getSelectedElement().getId();
+			setSelectedElement(carsById.get(carId));
+		} else if (getSelectedElement() instanceof Pedestrian) {
+			int pedId = getSelectedElement().getId();
+			setSelectedElement(pedestriansById.get(pedId));
+		}
+
+		if (isVoronoiDiagramAvailable() && isVoronoiDiagramVisible()) {
+			getVoronoiDiagram().computeVoronoiDiagram(pedestrians
+							.stream()
+							.map(ped -> ped.getPosition())
+							.collect(Collectors.toList()));
+		}
+
+		return true;
 	}
 
-	public void reset() {
-		voronoiSnapshots.clear();
-		observationAreaSnapshots.clear();
-		selectedElement = null;
+	/**
+	 * Updates the pedestrians and cars of the draw thread by the snapshot. Agents which are still in the simulation
+	 * are reused.
+	 */
+	private void updateAgents(@NotNull final AgentSnapshot snapshot) {
+		pedestrians.clear();
+		for (int i = 0; i < snapshot.getNumberOfPedestrians(); i++) {
+			pedestrians.add(snapshot.toPedestrian(i, pedestriansById.get(snapshot.getPedestrianId(i))));
+		}
+		if (pedestriansById.size() != pedestrians.size()) {
+			pedestriansById.clear();
+		}
+		for (Pedestrian pedestrian : pedestrians) {
+			pedestriansById.put(pedestrian.getId(), pedestrian);
+		}
 
-		voronoiDiagram = null;
-		domain = null;
-		simTimeInSec = 0.0;
+		cars.clear();
+		for (int i = 0; i < snapshot.getNumberOfCars(); i++) {
+			cars.add(snapshot.toCar(i, carsById.get(snapshot.getCarId(i))));
+		}
+		if (carsById.size() != cars.size()) {
+			carsById.clear();
+		}
+		for (Car car : cars) {
+			carsById.put(car.getId(), car);
+		}
 	}
 
 	/**
-	 * Returns the data synchronization object, used for thread safe data
-	 * exchange between main thread and draw thread. Ensure that there is no
-	 * simultaneous access to the shared data structures.
+	 * Returns an agent snapshot which is not in use, i.e. which can be filled by the simulation thread.
 	 */
-	public Object getDataSynchronizer() {
-		return drawDataSynchronizer;
+	public AgentSnapshot obtainAgentSnapshot() {
+		AgentSnapshot snapshot = agentSnapshots.poll();
+		return snapshot != null ? snapshot : new AgentSnapshot();
 	}
 
 	/**
-	 * Returns the list of jts diagram snapshots. Used for thread safe data
-	 * exchange between main thread and draw thread.
+	 * Publishes a new snapshot which replaces the latest snapshot if it has not been displayed yet.
 	 */
-	public LinkedList<VoronoiDiagram> getVoronoiSnapshots() {
-		return voronoiSnapshots;
+	public void pushObservationAreaSnapshot(final OnlineVisualization.ObservationAreaSnapshotData observationAreaSnapshotData) {
+		OnlineVisualization.ObservationAreaSnapshotData replaced = observationAreaSnapshot.getAndSet(observationAreaSnapshotData);
+		if (replaced != null) {
+			agentSnapshots.offer(replaced.agents);
+		}
+		setChanged();
+	}
+
+	/**
+	 * Tests whether the latest published snapshot has been taken by the draw thread.
+	 */
+	public boolean isObservationAreaSnapshotTaken() {
+		return observationAreaSnapshot.get() == null;
+	}
+
+	public void reset() {
+		observationAreaSnapshot.set(null);
+		selectedElement = null;
+		pedestrians.clear();
+		pedestriansById.clear();
+		cars.clear();
+		carsById.clear();
+		agent = null;
+
+		voronoiDiagram = null;
+		domain = null;
+		simTimeInSec = 0.0;
 	}
 
 	@Override
@@ -268,6 +312,6 @@ public class OnlineVisualizationModel extends SimulationModel<DefaultSimulationC
 
 	@Override
 	public boolean isAlive(int pedId) {
-		return domain.getTopography().getPedestrianDynamicElements().idExists(pedId);
+		return pedestriansById.containsKey(pedId);
 	}
 }
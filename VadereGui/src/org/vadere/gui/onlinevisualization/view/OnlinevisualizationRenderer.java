@@ -31,21 +31,6 @@ public class OnlinevisualizationRenderer extends SimulationRenderer {
 		this.pedestrianPositions = new HashMap<>();
 	}
 
-	@Override
-	public void render(final Graphics2D targetGraphics2D, int x, int y, int width, int height) {
-	    synchronized (model.getDataSynchronizer()) {
-            super.render(targetGraphics2D, x, y, width, height);
-        }
-
-	}
-
-	@Override
-	public void render(final Graphics2D targetGraphics2D, int width, int height) {
-        synchronized (model.getDataSynchronizer()) {
-            super.render(targetGraphics2D, width, height);
-        }
-	}
-
 	@Override
 	protected void renderSimulationContent(final Graphics2D g) {
 		if (model.config.isShowPedestrians()) {
@@ -71,7 +56,7 @@ public class OnlinevisualizationRenderer extends SimulationRenderer {
 			if(!model.config.isInterpolatePositions()) {
 				pedestrianPositions.get(ped.getId()).addFirst(ped.getPosition());
 			} else {
-				if(ped.getFootstepHistory().getCapacity() > 0) {
+				if(ped.getFootstepHistory().getYoungestFootStep() != null) {
 					pedestrianPositions.get(ped.getId()).addFirst(ped.getFootstepHistory().getYoungestFootStep().getStart());
 				} else {
 					pedestrianPositions.get(ped.getId()).addFirst(ped.getPosition());
@@ -0,0 +1,79 @@
+package org.vadere.gui.postvisualization.model;
+
+import org.jetbrains.annotations.NotNull;
+import org.vadere.util.logging.Logger;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import tech.tablesaw.api.Table;
+
+/**
+ * Keeps the footsteps of the current frame, see {@link TableTrajectoryFootStep#getAgentsWithDisappearedAgents(double)},
+ * such that they are decoded only once per frame, and decodes the footsteps of the next frame on a background thread
+ * while the current frame is rendered. During playback the next frame is ready when the player advances.
+ */
+class FootStepFramePrefetcher {
+
+	private static Logger logger = Logger.getLogger(FootStepFramePrefetcher.class);
+
+	private static final ExecutorService decoder = Executors.newSingleThreadExecutor(runnable -> {
+		Thread thread = new Thread(runnable, "postvis-frame-decoder");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	private final TableTrajectoryFootStep trajectories;
+
+	private double frameTime;
+	private Table frame;
+
+	private double nextFrameTime;
+	private Future<Table> nextFrame;
+
+	FootStepFramePrefetcher(@NotNull final TableTrajectoryFootStep trajectories) {
+		this.trajectories = trajectories;
+	}
+
+	/**
+	 * Returns the footsteps at <tt>simTimeInSec</tt> and starts decoding the footsteps at <tt>nextSimTimeInSec</tt>
+	 * if the frame changed.
+	 */
+	synchronized Table getAgentsWithDisappearedAgents(final double simTimeInSec, final double nextSimTimeInSec) {
+		if (frame == null || frameTime != simTimeInSec) {
+			frame = takeNextFrame(simTimeInSec);
+			if (frame == null) {
+				frame = trajectories.getAgentsWithDisappearedAgents(simTimeInSec);
+			}
+			frameTime = simTimeInSec;
+
+			if (nextSimTimeInSec != simTimeInSec) {
+				nextFrameTime = nextSimTimeInSec;
+				nextFrame = decoder.submit(() -> trajectories.getAgentsWithDisappearedAgents(nextSimTimeInSec));
+			}
+		}
+		return frame;
+	}
+
+	private Table takeNextFrame(final double simTimeInSec) {
+		Future<Table> future = nextFrame;
+		nextFrame = null;
+		if (future == null) {
+			return null;
+		} else if (nextFrameTime != simTimeInSec) {
+			future.cancel(false);
+			return null;
+		}
+
+		try {
+			return future.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} catch (ExecutionException e) {
+			logger.error("could not decode the frame at " + simTimeInSec + ": " + e.getCause());
+		}
+		return null;
+	}
+}
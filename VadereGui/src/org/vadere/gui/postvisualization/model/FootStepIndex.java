@@ -0,0 +1,209 @@
+package org.vadere.gui.postvisualization.model;
+
+import it.unimi.dsi.fastutil.ints.Int2IntMap;
+import it.unimi.dsi.fastutil.ints.Int2IntOpenHashMap;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.ints.IntArrays;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+
+import tech.tablesaw.api.DoubleColumn;
+import tech.tablesaw.api.IntColumn;
+
+/**
+ * An immutable index over the footsteps, i.e. the rows, of a trajectory table which answers the time queries of
+ * {@link TableTrajectoryFootStep} without scanning the whole table.
+ *
+ * The footsteps are sorted by their start time and the sorted array is used as an implicit balanced binary search
+ * tree whose nodes are augmented by the maximal end time of their subtree (an interval tree). Therefore, the
+ * <tt>k</tt> footsteps which overlap a time or a time interval are found in O(log(n) + k) for footsteps of bounded
+ * duration. In addition, the rows of each agent and its birth and death time, i.e. the minimal start and the maximal
+ * end time of its footsteps, are stored by agent to find the last footstep of an agent in O(log(n)).
+ *
+ * All queries return row numbers of the table in ascending order, that is, in the order of the table.
+ * The index is immutable, hence, it can be queried by multiple threads.
+ */
+class FootStepIndex {
+
+	/** row numbers sorted by the start time of the footstep */
+	private final int[] rows;
+	private final double[] startTimes;
+	private final double[] endTimes;
+	/** the maximal end time of the subtree whose root is the index */
+	private final double[] maxEndTimes;
+
+	/** agent ids in ascending order */
+	private final int[] agentIds;
+	private final Int2IntMap agentIndices;
+	private final double[] birthTimes;
+	private final double[] deathTimes;
+	/** the rows of agent i are agentRows[agentOffsets[i]] until agentRows[agentOffsets[i+1]-1] in ascending order */
+	private final int[] agentOffsets;
+	private final int[] agentRows;
+	/** the minimal start time of the agent's footsteps from the row at the index on, it is non-decreasing per agent */
+	private final double[] agentSuffixMinStartTimes;
+
+	FootStepIndex(@NotNull final IntColumn pedIds, @NotNull final DoubleColumn startTimeColumn, @NotNull final DoubleColumn endTimeColumn) {
+		int n = pedIds.size();
+
+		rows = new int[n];
+		for (int i = 0; i < n; i++) {
+			rows[i] = i;
+		}
+		IntArrays.mergeSort(rows, (row1, row2) -> Double.compare(startTimeColumn.getDouble(row1), startTimeColumn.getDouble(row2)));
+		startTimes = new double[n];
+		endTimes = new double[n];
+		for (int i = 0; i < n; i++) {
+			startTimes[i] = startTimeColumn.getDouble(rows[i]);
+			endTimes[i] = endTimeColumn.getDouble(rows[i]);
+		}
+		maxEndTimes = new double[n];
+		buildMaxEndTimes(0, n);
+
+		// group the rows by agent
+		int[] agentOrder = new int[n];
+		for (int i = 0; i < n; i++) {
+			agentOrder[i] = i;
+		}
+		IntArrays.mergeSort(agentOrder, (row1, row2) -> Integer.compare(pedIds.getInt(row1), pedIds.getInt(row2)));
+
+		IntArrayList ids = new IntArrayList();
+		IntArrayList offsets = new IntArrayList();
+		for (int i = 0; i < n; i++) {
+			int pedId = pedIds.getInt(agentOrder[i]);
+			if (ids.isEmpty() || ids.getInt(ids.size() - 1) != pedId) {
+				ids.add(pedId);
+				offsets.add(i);
+			}
+		}
+		offsets.add(n);
+
+		agentIds = ids.toIntArray();
+		agentOffsets = offsets.toIntArray();
+		agentRows = agentOrder;
+		agentIndices = new Int2IntOpenHashMap(agentIds.length);
+		agentIndices.defaultReturnValue(-1);
+		birthTimes = new double[agentIds.length];
+		deathTimes = new double[agentIds.length];
+		agentSuffixMinStartTimes = new double[n];
+
+		for (int agent = 0; agent < agentIds.length; agent++) {
+			agentIndices.put(agentIds[agent], agent);
+			double birthTime = Double.POSITIVE_INFINITY;
+			double deathTime = Double.NEGATIVE_INFINITY;
+			for (int i = agentOffsets[agent + 1] - 1; i >= agentOffsets[agent]; i--) {
+				birthTime = Math.min(birthTime, startTimeColumn.getDouble(agentRows[i]));
+				deathTime = Math.max(deathTime, endTimeColumn.getDouble(agentRows[i]));
+				agentSuffixMinStartTimes[i] = birthTime;
+			}
+			birthTimes[agent] = birthTime;
+			deathTimes[agent] = deathTime;
+		}
+	}
+
+	private double buildMaxEndTimes(final int from, final int to) {
+		int mid = (from + to) >>> 1;
+		double maxEndTime = endTimes[mid];
+		if (from < mid) {
+			maxEndTime = Math.max(maxEndTime, buildMaxEndTimes(from, mid));
+		}
+		if (mid + 1 < to) {
+			maxEndTime = Math.max(maxEndTime, buildMaxEndTimes(mid + 1, to));
+		}
+		maxEndTimes[mid] = maxEndTime;
+		return maxEndTime;
+	}
+
+	/**
+	 * Returns the rows of all footsteps <tt>fs</tt> with <tt>fs.startTime &lt;= maxStartTime</tt> and
+	 * <tt>fs.endTime &gt;= minEndTime</tt>.
+	 */
+	int[] getFootSteps(final double maxStartTime, final double minEndTime) {
+		// the footsteps before the bound start not later than maxStartTime
+		int low = 0;
+		int high = startTimes.length;
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			if (startTimes[mid] <= maxStartTime) {
+				low = mid + 1;
+			} else {
+				high = mid;
+			}
+		}
+
+		IntArrayList result = new IntArrayList();
+		collectFootSteps(0, startTimes.length, low, minEndTime, result);
+		int[] footSteps = result.toIntArray();
+		IntArrays.quickSort(footSteps);
+		return footSteps;
+	}
+
+	private void collectFootSteps(final int from, final int to, final int bound, final double minEndTime, final IntArrayList result) {
+		if (from >= to || from >= bound) {
+			return;
+		}
+		int mid = (from + to) >>> 1;
+		if (maxEndTimes[mid] < minEndTime) {
+			return;
+		}
+		collectFootSteps(from, mid, bound, minEndTime, result);
+		if (mid < bound && endTimes[mid] >= minEndTime) {
+			result.add(rows[mid]);
+		}
+		collectFootSteps(mid + 1, to, bound, minEndTime, result);
+	}
+
+	/**
+	 * Returns the last row of the agent whose footstep starts not later than <tt>maxStartTime</tt> or <tt>-1</tt>
+	 * if there is none.
+	 */
+	int getLastFootStep(final int agent, final double maxStartTime) {
+		int low = agentOffsets[agent];
+		int high = agentOffsets[agent + 1];
+		if (agentSuffixMinStartTimes[low] > maxStartTime) {
+			return -1;
+		}
+		// the last index whose suffix contains a footstep starting not later than maxStartTime, i.e. the footstep itself
+		while (high - low > 1) {
+			int mid = (low + high) >>> 1;
+			if (agentSuffixMinStartTimes[mid] <= maxStartTime) {
+				low = mid;
+			} else {
+				high = mid;
+			}
+		}
+		return agentRows[low];
+	}
+
+	/**
+	 * Returns the rows of all footsteps of the agent in ascending order.
+	 */
+	int[] getFootStepsOfAgent(final int agent) {
+		return Arrays.copyOfRange(agentRows, agentOffsets[agent], agentOffsets[agent + 1]);
+	}
+
+	/**
+	 * Returns the index of the agent or <tt>-1</tt> if there is no footstep of the agent.
+	 */
+	int getAgentIndex(final int pedId) {
+		return agentIndices.get(pedId);
+	}
+
+	int getAgentCount() {
+		return agentIds.length;
+	}
+
+	int getAgentId(final int agent) {
+		return agentIds[agent];
+	}
+
+	double getBirthTime(final int agent) {
+		return birthTimes[agent];
+	}
+
+	double getDeathTime(final int agent) {
+		return deathTimes[agent];
+	}
+}
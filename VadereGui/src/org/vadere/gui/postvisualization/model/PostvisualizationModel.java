@@ -58,6 +58,8 @@ public class PostvisualizationModel extends SimulationModel<PostvisualizationCon
 
 	private TableTrajectoryFootStep trajectories;
 
+	private FootStepFramePrefetcher frames;
+
 	private ContactData contactData;
 
 	private String outputPath;
@@ -69,6 +71,7 @@ public class PostvisualizationModel extends SimulationModel<PostvisualizationCon
 	public PostvisualizationModel() {
 		super(new PostvisualizationConfig());
 		this.trajectories = new TableTrajectoryFootStep(Table.create());
+		this.frames = new FootStepFramePrefetcher(trajectories);
 		this.contactData = new ContactData(Table.create());
 		this.scenario = new Scenario("");
 		this.topographyId = 0;
@@ -101,6 +104,7 @@ public class PostvisualizationModel extends SimulationModel<PostvisualizationCon
 		this.scenario = scenario;
 		this.simTimeStepLength = scenario.getAttributesSimulation().getSimTimeStepLength();
 		this.trajectories = new TableTrajectoryFootStep(trajectories);
+		this.frames = new FootStepFramePrefetcher(this.trajectories);
 		clearAdditionalTables();
 		for (HashMap.Entry<String, Table> entry : additionalTables.entrySet()) {
 			switch (entry.getKey()) {
@@ -128,6 +132,7 @@ public class PostvisualizationModel extends SimulationModel<PostvisualizationCon
 	public synchronized void init(final Scenario scenario, final String projectPath) {
 		this.scenario = scenario;
 		this.trajectories = new TableTrajectoryFootStep(Table.create());
+		this.frames = new FootStepFramePrefetcher(trajectories);
 		this.selectedElement = null;
 		this.outputPath = projectPath;
 		this.outputChanged = true;
@@ -212,8 +217,13 @@ public class PostvisualizationModel extends SimulationModel<PostvisualizationCon
 		return contactData;
 	}
 
+	/**
+	 * Returns the footsteps of the agents at the current time. The footsteps of the next frame of the playback are
+	 * decoded in the background.
+	 */
 	public synchronized Table getAgentTable() {
-		return trajectories.getAgentsWithDisappearedAgents(getSimTimeInSec());
+		double nextSimTimeInSec = Math.min(Math.max(trajectories.getMinStartTime(), getSimTimeInSec() + getTimeResolution()), trajectories.getMaxEndTime());
+		return frames.getAgentsWithDisappearedAgents(getSimTimeInSec(), nextSimTimeInSec);
 	}
 
 	public synchronized TableAerosolCloudData getTableAerosolCloudData() {
@@ -1,7 +1,7 @@
 package org.vadere.gui.postvisualization.model;
 
-import it.unimi.dsi.fastutil.ints.Int2IntAVLTreeMap;
-import it.unimi.dsi.fastutil.ints.Int2IntMap;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.ints.IntArrays;
 
 import org.jetbrains.annotations.NotNull;
 import org.vadere.simulator.projects.io.ColumnNames;
@@ -15,6 +15,7 @@ import org.vadere.state.scenario.Pedestrian;
 import org.vadere.state.simulation.FootStep;
 import org.vadere.util.geometry.shapes.VPoint;
 
+import java.util.Arrays;
 import java.util.Random;
 
 import tech.tablesaw.api.DoubleColumn;
@@ -27,6 +28,9 @@ import static tech.tablesaw.aggregate.AggregateFunctions.*;
 
 /**
  * The {@link TableTrajectoryFootStep}
+ *
+ * The time queries, which are executed for every rendered frame, use a {@link FootStepIndex} over the whole table
+ * instead of scanning all footsteps.
  */
 public class TableTrajectoryFootStep {
 
@@ -39,6 +43,8 @@ public class TableTrajectoryFootStep {
 	 */
 	private final Table agentDataFrame;
 
+	private final FootStepIndex footStepIndex;
+
 	private final double startTime;
 	private final double endTime;
 
@@ -100,6 +106,7 @@ public class TableTrajectoryFootStep {
 		this.trajectoryDataFrame = dataFrame;
 		this.currentSlice = trajectoryDataFrame;
 		this.agentDataFrame = generateAgentDataFrame();
+		this.footStepIndex = isEmpty() ? null : new FootStepIndex(getPedId(dataFrame), getStartTime(dataFrame), getEndTime(dataFrame));
 
 		if(!isEmpty()) {
 			this.startTime = agentDataFrame.summarize(birthTimeColName, min).apply().doubleColumn(0).get(0);
@@ -185,8 +192,10 @@ public class TableTrajectoryFootStep {
 	 * @return multiple foosteps for each agent
 	 */
 	public Table getAgents(final double startTime, final double endTime) {
-		return currentSlice.where(getStartTime().isLessThan(endTime)
-				.and(getEndTime().isGreaterThanOrEqualTo(startTime)));
+		if (isEmpty()) {
+			return trajectoryDataFrame.emptyCopy();
+		}
+		return toTable(footStepIndex.getFootSteps(Math.nextDown(endTime), startTime));
 	}
 
 	/**
@@ -199,10 +208,17 @@ public class TableTrajectoryFootStep {
 	 * @return multiple foosteps for each agent
 	 */
 	public Table getAliveAgents(final double startTime, final double endTime) {
-		Integer[] filteredPedIds = filterAgents(startTime, endTime);
-		return currentSlice.where(getPedId().isIn(filteredPedIds)
-				.and(getStartTime().isLessThan(endTime)
-						.and(getEndTime().isGreaterThanOrEqualTo(startTime))));
+		if (isEmpty()) {
+			return trajectoryDataFrame.emptyCopy();
+		}
+		IntColumn pedIds = getPedId(trajectoryDataFrame);
+		int[] footSteps = Arrays.stream(footStepIndex.getFootSteps(Math.nextDown(endTime), startTime))
+				.filter(row -> {
+					int agent = footStepIndex.getAgentIndex(pedIds.getInt(row));
+					return footStepIndex.getBirthTime(agent) >= startTime && footStepIndex.getDeathTime(agent) >= endTime;
+				})
+				.toArray();
+		return toTable(footSteps);
 	}
 
 	/**
@@ -212,27 +228,51 @@ public class TableTrajectoryFootStep {
 	 * @return for all agent at most one footstep
 	 */
 	public Table getAgents(final double simTimeInSec) {
-		return currentSlice.where(
-				getStartTime().isLessThanOrEqualTo(simTimeInSec)
-						.and(getEndTime().isGreaterThanOrEqualTo(simTimeInSec)))
-				.sortAscendingOn(getColumnName(pedIdCol));
+		if (isEmpty()) {
+			return trajectoryDataFrame.emptyCopy();
+		}
+		return toTable(getFootStepsByPedId(simTimeInSec));
 	}
 
+	/**
+	 * Returns the footsteps of {@link #getAgents(double)} followed by the last footstep which started before
+	 * <tt>simTimeInSec</tt> of each other agent, both sorted by the agent's identifier.
+	 *
+	 * @param simTimeInSec
+	 * @return for all agent which appeared at most one footstep
+	 */
 	public Table getAgentsWithDisappearedAgents(final double simTimeInSec) {
-		Table aliveAgents = getAgents(simTimeInSec);
-		Table deadAgents = currentSlice.where(getPedId().isNotIn(getPedId(aliveAgents).asObjectArray())
-						.and(getStartTime().isLessThanOrEqualTo(simTimeInSec)));
-
-		Int2IntMap idToRowNr = new Int2IntAVLTreeMap();
-
-		// get the last rows only, this might be computational expensive!
-		for(Row row : deadAgents) {
-			idToRowNr.put(row.getInt(pedIdCol), row.getRowNumber());
+		if (isEmpty()) {
+			return trajectoryDataFrame.emptyCopy();
+		}
+		int[] aliveFootSteps = getFootStepsByPedId(simTimeInSec);
+		IntColumn pedIds = getPedId(trajectoryDataFrame);
+		boolean[] isAlive = new boolean[footStepIndex.getAgentCount()];
+		for (int row : aliveFootSteps) {
+			isAlive[footStepIndex.getAgentIndex(pedIds.getInt(row))] = true;
 		}
 
-		idToRowNr.forEach((pedId, rowNr) -> Rows.appendRowToTable(rowNr, deadAgents, aliveAgents));
+		IntArrayList footSteps = new IntArrayList(aliveFootSteps);
+		for (int agent = 0; agent < isAlive.length; agent++) {
+			if (!isAlive[agent]) {
+				int row = footStepIndex.getLastFootStep(agent, simTimeInSec);
+				if (row >= 0) {
+					footSteps.add(row);
+				}
+			}
+		}
+		return toTable(footSteps.toIntArray());
+	}
 
-		return aliveAgents;
+	/**
+	 * Returns the rows of all footsteps which were processed at <tt>simTimeInSec</tt> sorted by the agent's
+	 * identifier and the row number.
+	 */
+	private int[] getFootStepsByPedId(final double simTimeInSec) {
+		IntColumn pedIds = getPedId(trajectoryDataFrame);
+		int[] footSteps = footStepIndex.getFootSteps(simTimeInSec, simTimeInSec);
+		IntArrays.mergeSort(footSteps, (row1, row2) -> Integer.compare(pedIds.getInt(row1), pedIds.getInt(row2)));
+		return footSteps;
 	}
 
 	/**
@@ -244,17 +284,25 @@ public class TableTrajectoryFootStep {
 	 * @return at most one footstep
 	 */
 	public Table getAgent(final double simTimeInSec, final int pedId) {
-		return currentSlice.where(
-				getStartTime().isLessThanOrEqualTo(simTimeInSec)
-						.and(getEndTime().isGreaterThanOrEqualTo(simTimeInSec))
-						.and(getPedId().isEqualTo(pedId)));
+		int agent = isEmpty() ? -1 : footStepIndex.getAgentIndex(pedId);
+		if (agent < 0) {
+			return trajectoryDataFrame.emptyCopy();
+		}
+		DoubleColumn startTimes = getStartTime(trajectoryDataFrame);
+		DoubleColumn endTimes = getEndTime(trajectoryDataFrame);
+		int[] footSteps = Arrays.stream(footStepIndex.getFootStepsOfAgent(agent))
+				.filter(row -> startTimes.getDouble(row) <= simTimeInSec && endTimes.getDouble(row) >= simTimeInSec)
+				.toArray();
+		return toTable(footSteps);
 	}
 
-	private Integer[] filterAgents(final double startTime, final double endTime) {
-		return agentDataFrame
-				.where(getBirthTime().isGreaterThanOrEqualTo(startTime).and(getDeathTime().isGreaterThanOrEqualTo(endTime)))
-				.intColumn(agentDFPedIdCol)
-				.asObjectArray();
+	/**
+	 * Returns the rows of the table in the given order.
+	 */
+	private Table toTable(final int[] rows) {
+		Table table = trajectoryDataFrame.emptyCopy(rows.length);
+		Rows.copyRowsToTable(rows, trajectoryDataFrame, table);
+		return table;
 	}
 
 	public Table getCurrentSlice() {
@@ -334,12 +382,19 @@ public class TableTrajectoryFootStep {
 	}
 
 	public double getBirthTime(final int pedId) {
-		return agentDataFrame.where(agentDataFrame.intColumn(pedIdCol).isEqualTo(pedId)).doubleColumn(birthTimeCol).get(0);
+		return footStepIndex.getBirthTime(getAgentIndex(pedId));
 	}
 
 	public double getDeathTime(final int pedId) {
-		double deathTime = agentDataFrame.where(agentDataFrame.intColumn(pedIdCol).isEqualTo(pedId)).doubleColumn(deathTimeCol).get(0);
-		return deathTime;
+		return footStepIndex.getDeathTime(getAgentIndex(pedId));
+	}
+
+	private int getAgentIndex(final int pedId) {
+		int agent = isEmpty() ? -1 : footStepIndex.getAgentIndex(pedId);
+		if (agent < 0) {
+			throw new IllegalArgumentException("there is no agent with id " + pedId);
+		}
+		return agent;
 	}
 
 	public IntColumn getPedId() {
@@ -0,0 +1,144 @@
+package org.vadere.gui.onlinevisualization.model;
+
+import org.junit.Test;
+import org.vadere.state.attributes.scenario.AttributesAgent;
+import org.vadere.state.attributes.scenario.AttributesCar;
+import org.vadere.state.health.BasicExposureModelHealthStatus;
+import org.vadere.state.psychology.cognition.SelfCategory;
+import org.vadere.state.scenario.Car;
+import org.vadere.state.scenario.Pedestrian;
+import org.vadere.state.simulation.FootStep;
+import org.vadere.util.geometry.shapes.VPoint;
+import org.vadere.util.geometry.shapes.Vector2D;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class AgentSnapshotTest {
+
+	@Test
+	public void testSnapshotReproducesTheDrawnValues() {
+		Pedestrian first = createPedestrian(3, new VPoint(1.0, 2.0));
+		first.getAttributes().setRadius(0.3);
+		first.getFootstepHistory().add(new FootStep(new VPoint(0.5, 2.0), new VPoint(1.0, 2.0), 0.4, 0.8));
+		first.setTargets(new LinkedList<>(Arrays.asList(7, 8)));
+		first.getGroupIds().add(4);
+		first.getGroupSizes().add(2);
+		first.setSelfCategory(SelfCategory.COOPERATIVE);
+		first.setHealthStatus(new BasicExposureModelHealthStatus());
+		first.setInfectious(true);
+		first.setDegreeOfExposure(0.25);
+
+		Pedestrian second = createPedestrian(5, new VPoint(4.0, 1.0));
+
+		AgentSnapshot snapshot = new AgentSnapshot();
+		snapshot.copy(Arrays.asList(first, second), Collections.emptyList());
+		assertEquals(2, snapshot.getNumberOfPedestrians());
+		assertEquals(0, snapshot.getNumberOfCars());
+
+		Pedestrian copy = snapshot.toPedestrian(0, null);
+		assertNotSame(first, copy);
+		assertEquals(3, copy.getId());
+		assertEquals(first.getPosition(), copy.getPosition());
+		assertEquals(0.3, copy.getRadius(), 0.0);
+		FootStep footStep = copy.getFootstepHistory().getYoungestFootStep();
+		assertEquals(new VPoint(0.5, 2.0), footStep.getStart());
+		assertEquals(new VPoint(1.0, 2.0), footStep.getEnd());
+		assertEquals(0.4, footStep.getStartTime(), 0.0);
+		assertEquals(0.8, footStep.getEndTime(), 0.0);
+		assertEquals(7, copy.getNextTargetId());
+		assertEquals(Collections.singletonList(4), copy.getGroupIds());
+		assertEquals(Collections.singletonList(2), copy.getGroupSizes());
+		assertEquals(SelfCategory.COOPERATIVE, copy.getSelfCategory());
+		assertTrue(copy.getHealthStatus().isInfectious());
+		assertEquals(0.25, copy.getHealthStatus().getDegreeOfExposure(), 0.0);
+
+		Pedestrian otherCopy = snapshot.toPedestrian(1, null);
+		assertEquals(5, otherCopy.getId());
+		assertEquals(second.getPosition(), otherCopy.getPosition());
+		assertNull(otherCopy.getFootstepHistory().getYoungestFootStep());
+		assertFalse(otherCopy.hasNextTarget());
+		assertTrue(otherCopy.getGroupIds().isEmpty());
+		assertNull(otherCopy.getHealthStatus());
+	}
+
+	@Test
+	public void testSnapshotAndDisplayedPedestriansAreReused() {
+		Pedestrian pedestrian = createPedestrian(1, new VPoint(1.0, 1.0));
+		pedestrian.getFootstepHistory().add(new FootStep(new VPoint(0.0, 1.0), new VPoint(1.0, 1.0), 0.0, 0.4));
+
+		AgentSnapshot snapshot = new AgentSnapshot();
+		snapshot.copy(Collections.singletonList(pedestrian), Collections.emptyList());
+		Pedestrian copy = snapshot.toPedestrian(0, null);
+
+		// the simulation moves on, the displayed pedestrian is updated
+		pedestrian.setPosition(new VPoint(2.0, 1.0));
+		pedestrian.getFootstepHistory().add(new FootStep(new VPoint(1.0, 1.0), new VPoint(2.0, 1.0), 0.4, 0.8));
+		snapshot.copy(Collections.singletonList(pedestrian), Collections.emptyList());
+		assertSame(copy, snapshot.toPedestrian(0, copy));
+		assertEquals(new VPoint(2.0, 1.0), copy.getPosition());
+		assertEquals(1, copy.getFootstepHistory().size());
+		assertEquals(0.8, copy.getFootstepHistory().getYoungestFootStep().getEndTime(), 0.0);
+
+		// the snapshot grows and still contains exactly the pedestrians of the last copy
+		List<Pedestrian> pedestrians = new ArrayList<>();
+		for (int id = 1; id <= 100; id++) {
+			pedestrians.add(createPedestrian(id, new VPoint(id, 0.0)));
+		}
+		snapshot.copy(pedestrians, Collections.emptyList());
+		assertEquals(100, snapshot.getNumberOfPedestrians());
+		snapshot.copy(pedestrians.subList(10, 20), Collections.emptyList());
+		assertEquals(10, snapshot.getNumberOfPedestrians());
+		for (int i = 0; i < snapshot.getNumberOfPedestrians(); i++) {
+			assertEquals(i + 11, snapshot.getPedestrianId(i));
+			assertEquals(new VPoint(i + 11, 0.0), snapshot.toPedestrian(i, null).getPosition());
+		}
+	}
+
+	@Test
+	public void testSnapshotReproducesTheDrawnCars() {
+		Car car = new Car(new AttributesCar(9), new Random(9));
+		car.setPosition(new VPoint(3.0, 4.0));
+		car.setVelocity(new Vector2D(0.0, 2.0));
+		car.setTargets(new LinkedList<>(Collections.singletonList(2)));
+		Pedestrian pedestrian = createPedestrian(1, new VPoint(1.0, 1.0));
+
+		AgentSnapshot snapshot = new AgentSnapshot();
+		snapshot.copy(Collections.singletonList(pedestrian), Collections.singletonList(car));
+		assertEquals(1, snapshot.getNumberOfPedestrians());
+		assertEquals(1, snapshot.getNumberOfCars());
+		assertEquals(9, snapshot.getCarId(0));
+
+		Car copy = snapshot.toCar(0, null);
+		assertNotSame(car, copy);
+		assertEquals(9, copy.getId());
+		assertEquals(car.getPosition(), copy.getPosition());
+		assertEquals(car.getVelocity(), copy.getVelocity());
+		assertEquals(2, copy.getNextTargetId());
+		assertEquals(car.getShape().getBounds2D(), copy.getShape().getBounds2D());
+
+		// the car is displayed by the same object after it moved
+		car.setPosition(new VPoint(3.0, 6.0));
+		snapshot.copy(Collections.emptyList(), Collections.singletonList(car));
+		assertEquals(0, snapshot.getNumberOfPedestrians());
+		assertSame(copy, snapshot.toCar(0, copy));
+		assertEquals(new VPoint(3.0, 6.0), copy.getPosition());
+	}
+
+	private Pedestrian createPedestrian(final int id, final VPoint position) {
+		Pedestrian pedestrian = new Pedestrian(new AttributesAgent(id), new Random(id));
+		pedestrian.setPosition(position);
+		return pedestrian;
+	}
+}
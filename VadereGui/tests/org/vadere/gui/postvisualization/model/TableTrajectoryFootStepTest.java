@@ -0,0 +1,158 @@
+package org.vadere.gui.postvisualization.model;
+
+import it.unimi.dsi.fastutil.ints.Int2IntAVLTreeMap;
+import it.unimi.dsi.fastutil.ints.Int2IntMap;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import tech.tablesaw.api.DoubleColumn;
+import tech.tablesaw.api.IntColumn;
+import tech.tablesaw.api.Row;
+import tech.tablesaw.api.Table;
+import tech.tablesaw.table.Rows;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Compares the indexed queries of {@link TableTrajectoryFootStep} with full table scans.
+ */
+public class TableTrajectoryFootStepTest {
+
+	private Table table;
+	private TableTrajectoryFootStep trajectories;
+	private List<Double> times;
+
+	@Before
+	public void setUp() {
+		Random random = new Random(1);
+		List<double[]> footSteps = new ArrayList<>();
+		for (int pedId = 1; pedId <= 40; pedId++) {
+			double time = random.nextInt(50) * 0.4;
+			int steps = 5 + random.nextInt(60);
+			for (int i = 0; i < steps; i++) {
+				if (random.nextDouble() < 0.1) {
+					// the agent waits
+					time += random.nextDouble() * 3;
+				}
+				double endTime = time + 0.2 + random.nextDouble() * 0.8;
+				footSteps.add(new double[]{pedId, time, endTime, random.nextDouble(), random.nextDouble(), random.nextDouble(), random.nextDouble()});
+				time = endTime;
+			}
+		}
+		// like footstep files, the rows are sorted by time and agent
+		footSteps.sort(Comparator.<double[]>comparingDouble(f -> f[1]).thenComparingDouble(f -> f[0]));
+
+		table = Table.create("postvis.traj",
+				IntColumn.create("pedestrianId", footSteps.stream().mapToInt(f -> (int) f[0]).toArray()),
+				DoubleColumn.create("simTime", footSteps.stream().mapToDouble(f -> f[1]).toArray()),
+				DoubleColumn.create("endTime-PID1", footSteps.stream().mapToDouble(f -> f[2]).toArray()),
+				DoubleColumn.create("startX-PID1", footSteps.stream().mapToDouble(f -> f[3]).toArray()),
+				DoubleColumn.create("startY-PID1", footSteps.stream().mapToDouble(f -> f[4]).toArray()),
+				DoubleColumn.create("endX-PID1", footSteps.stream().mapToDouble(f -> f[5]).toArray()),
+				DoubleColumn.create("endY-PID1", footSteps.stream().mapToDouble(f -> f[6]).toArray()));
+		trajectories = new TableTrajectoryFootStep(table);
+
+		// random times and times at which footsteps start or end
+		times = new ArrayList<>();
+		for (int i = 0; i < 60; i++) {
+			times.add(trajectories.getMinStartTime() + random.nextDouble() * (trajectories.getMaxEndTime() - trajectories.getMinStartTime()));
+			times.add(footSteps.get(random.nextInt(footSteps.size()))[1 + random.nextInt(2)]);
+		}
+		times.add(trajectories.getMinStartTime());
+		times.add(trajectories.getMaxEndTime());
+	}
+
+	@Test
+	public void testFootStepsAtTime() {
+		for (double time : times) {
+			Table expected = table.where(
+					startTime().isLessThanOrEqualTo(time).and(endTime().isGreaterThanOrEqualTo(time)))
+					.sortAscendingOn("pedestrianId");
+			assertRows(sorted(expected), trajectories.getAgents(time));
+		}
+	}
+
+	@Test
+	public void testFootStepsInInterval() {
+		double startTime = trajectories.getMinStartTime();
+		for (double time : times) {
+			Table expected = table.where(startTime().isLessThan(time).and(endTime().isGreaterThanOrEqualTo(startTime)));
+			assertRows(expected, trajectories.getAgents(startTime, time));
+
+			Integer[] pedIds = trajectories.getAgentDataFrame()
+					.where(trajectories.getBirthTime().isGreaterThanOrEqualTo(startTime).and(trajectories.getDeathTime().isGreaterThanOrEqualTo(time)))
+					.intColumn(TableTrajectoryFootStep.agentDFPedIdCol)
+					.asObjectArray();
+			expected = table.where(table.intColumn("pedestrianId").isIn(pedIds)
+					.and(startTime().isLessThan(time).and(endTime().isGreaterThanOrEqualTo(startTime))));
+			assertRows(expected, trajectories.getAliveAgents(startTime, time));
+		}
+	}
+
+	@Test
+	public void testFootStepsWithDisappearedAgents() {
+		int disappeared = 0;
+		for (double time : times) {
+			Table expected = table.where(
+					startTime().isLessThanOrEqualTo(time).and(endTime().isGreaterThanOrEqualTo(time)))
+					.sortAscendingOn("pedestrianId");
+			Table deadAgents = table.where(table.intColumn("pedestrianId").isNotIn(expected.intColumn("pedestrianId").asObjectArray())
+					.and(startTime().isLessThanOrEqualTo(time)));
+			Int2IntMap idToRowNr = new Int2IntAVLTreeMap();
+			for (Row row : deadAgents) {
+				idToRowNr.put(row.getInt("pedestrianId"), row.getRowNumber());
+			}
+			disappeared += idToRowNr.size();
+			Table aliveAgents = sorted(expected);
+			idToRowNr.forEach((pedId, rowNr) -> Rows.appendRowToTable(rowNr, deadAgents, aliveAgents));
+
+			assertRows(aliveAgents, trajectories.getAgentsWithDisappearedAgents(time));
+		}
+		assertTrue(disappeared > 0);
+	}
+
+	@Test
+	public void testAgentAndLifeTime() {
+		for (int pedId = 1; pedId <= 40; pedId++) {
+			Table footSteps = table.where(table.intColumn("pedestrianId").isEqualTo(pedId));
+			assertEquals(footSteps.doubleColumn("simTime").min(), trajectories.getBirthTime(pedId), 0.0);
+			assertEquals(footSteps.doubleColumn("endTime-PID1").max(), trajectories.getDeathTime(pedId), 0.0);
+
+			for (double time : times) {
+				Table expected = footSteps.where(footSteps.doubleColumn("simTime").isLessThanOrEqualTo(time)
+						.and(footSteps.doubleColumn("endTime-PID1").isGreaterThanOrEqualTo(time)));
+				assertRows(expected, trajectories.getAgent(time, pedId));
+			}
+		}
+	}
+
+	private DoubleColumn startTime() {
+		return table.doubleColumn("simTime");
+	}
+
+	private DoubleColumn endTime() {
+		return table.doubleColumn("endTime-PID1");
+	}
+
+	/**
+	 * Sorts footsteps of the same agent by time since the order of equal agents of a sorted table is not defined.
+	 */
+	private Table sorted(final Table footSteps) {
+		return footSteps.sortOn("pedestrianId", "simTime");
+	}
+
+	private void assertRows(final Table expected, final Table actual) {
+		assertEquals(expected.columnNames(), actual.columnNames());
+		assertEquals(expected.rowCount(), actual.rowCount());
+		for (int i = 0; i < expected.columnCount(); i++) {
+			assertEquals(expected.column(i).asList(), actual.column(i).asList());
+		}
+	}
+}
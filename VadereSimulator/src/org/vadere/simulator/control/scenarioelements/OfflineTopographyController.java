@@ -2,7 +2,7 @@ package org.vadere.simulator.control.scenarioelements;
 
 import org.vadere.meshing.mesh.triangulation.DistanceFunctionApproxBF;
 import org.vadere.simulator.context.VadereContext;
-import org.vadere.simulator.models.potential.fields.PotentialFieldDistancesBruteForce;
+import org.vadere.simulator.models.potential.fields.ObstacleDistanceFunction;
 import org.vadere.simulator.projects.Domain;
 import org.vadere.simulator.utils.cache.ScenarioCache;
 import org.vadere.state.attributes.models.AttributesFloorField;
@@ -16,7 +16,6 @@ import org.vadere.util.math.IDistanceFunctionCached;
 import org.vadere.util.random.SimpleReachablePointProvider;
 
 import java.util.Random;
-import java.util.stream.Collectors;
 
 public class OfflineTopographyController extends ScenarioElementController  {
 
@@ -58,20 +57,17 @@ public class OfflineTopographyController extends ScenarioElementController  {
 					iPoint -> distanceFunction.apply(iPoint, null)));
 
 		} else {
-			// add distance function
+			// add distance function which is recomputed if the obstacles change
 			ScenarioCache cache = (ScenarioCache) VadereContext.getCtx(getTopography()).getOrDefault("cache", ScenarioCache.empty());
-			PotentialFieldDistancesBruteForce distanceField = new PotentialFieldDistancesBruteForce(
-					getTopography().getObstacles().stream().map(obs -> obs.getShape()).collect(Collectors.toList()),
-					new VRectangle(getTopography().getBounds()),
-					attributesFloorField, cache);
+			ObstacleDistanceFunction distanceFunction = new ObstacleDistanceFunction(getTopography(), attributesFloorField, cache);
 
-			getTopography().setObstacleDistanceFunction(iPoint -> -distanceField.getPotential(iPoint, null));
+			getTopography().setObstacleDistanceFunction(distanceFunction);
 
 			// use PotentialFieldDistancesBruteForce as distance function
 			getTopography().setReachablePointProvider(SimpleReachablePointProvider.uniform(
 					random,
 					getTopography().getBounds(),
-					iPoint -> -distanceField.getPotential(iPoint, null)));
+					iPoint -> distanceFunction.apply(iPoint, null)));
 		}
 	}
 
@@ -84,8 +84,7 @@ public abstract class SourceController extends ScenarioElementController impleme
         final VShape freeSpaceModelSpecific = spawnerAttributes.isEventPositionGridCA() ? freeSpaceCA : freeSpace;
 
         boolean pedOverlap = blockPedestrianShapes.stream().noneMatch(shape -> shape.intersects(freeSpaceModelSpecific));
-        boolean obstOverlap = this.getTopography().getObstacles().stream()
-                .map(Obstacle::getShape).noneMatch(shape -> shape.intersects(freeSpaceModelSpecific));
+        boolean obstOverlap = !this.getTopography().intersectsObstacle(freeSpaceModelSpecific);
 
         return pedOverlap && obstOverlap;
     }
@@ -32,8 +32,10 @@ public class TeleporterController extends ScenarioElementController  {
 					+ teleporter.getTeleporterShift().x) {
 				VPoint newPos = new VPoint(position.x
 						- teleporter.getTeleporterShift().x, position.y);
+				// the pedestrian might have been teleported by the first case already
+				VPoint oldPosition = ped.getPosition();
 				ped.setPosition(newPos);
-				scenario.moveElement(ped, position);
+				scenario.moveElement(ped, oldPosition);
 			}
 		}
 	}
@@ -0,0 +1,344 @@
+package org.vadere.simulator.control.simulation;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.node.TextNode;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.vadere.simulator.projects.Scenario;
+import org.vadere.simulator.projects.SimulationResult;
+import org.vadere.simulator.projects.io.IOVadere;
+import org.vadere.simulator.projects.io.JsonConverter;
+import org.vadere.simulator.utils.cache.ScenarioCache;
+import org.vadere.state.util.StateJsonConverter;
+import org.vadere.util.io.IOUtils;
+import org.vadere.util.logging.Logger;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Runs a batch of scenario files, possibly with different seeds and parameter overrides, concurrently inside this
+ * JVM using a bounded number of worker threads. Each run reads its own copy of the scenario, writes its output into
+ * <tt>outputDir/runName</tt> and uses its own {@link org.vadere.simulator.context.VadereContext}. Floor fields are
+ * shared between the runs by the cache (see {@link org.vadere.simulator.utils.cache.SharedFloorFields}).
+ * After all runs are finished a summary (<tt>outputDir/summary.csv</tt>) containing the wall time, the state and the
+ * {@link SimulationResult} of each run is written.
+ */
+public class BatchRun {
+
+	private static Logger logger = Logger.getLogger(BatchRun.class);
+
+	public static final String SUMMARY_FILE = "summary.csv";
+	private static final char delimiter = ';';
+
+	private final List<Job> jobs;
+	private final Path outputDir;
+	private final int workers;
+
+	/**
+	 * @param scenarioFiles the scenario files to run
+	 * @param seeds         each scenario is run once for each seed, if empty it is run once with its own seed setting
+	 * @param overrides     parameter overrides of the form <tt>json-pointer=value</tt>, e.g.
+	 *                      <tt>/scenario/attributesSimulation/finishTime=100</tt>, applied to each scenario
+	 * @param outputDir     the directory containing the output directories of all runs
+	 * @param workers       the maximal number of runs executed at the same time
+	 */
+	public BatchRun(@NotNull final List<Path> scenarioFiles, @NotNull final List<Long> seeds,
+	                @NotNull final List<String> overrides, @NotNull final Path outputDir, final int workers) {
+		if(workers < 1) {
+			throw new IllegalArgumentException("at least one worker is required: " + workers);
+		}
+		this.outputDir = outputDir;
+		this.workers = workers;
+		this.jobs = createJobs(scenarioFiles, seeds, parseOverrides(overrides));
+	}
+
+	/**
+	 * Returns all scenario files of the paths in a deterministic order, directories are searched recursively.
+	 */
+	public static List<Path> findScenarioFiles(@NotNull final List<Path> paths) throws IOException {
+		List<Path> scenarioFiles = new ArrayList<>();
+		for (Path path : paths) {
+			if(Files.isDirectory(path)) {
+				try (Stream<Path> files = Files.walk(path)) {
+					scenarioFiles.addAll(files
+							.filter(Files::isRegularFile)
+							.filter(file -> file.getFileName().toString().endsWith(IOUtils.SCENARIO_FILE_EXTENSION))
+							.sorted()
+							.collect(Collectors.toList()));
+				}
+			} else if(Files.isRegularFile(path)) {
+				scenarioFiles.add(path);
+			} else {
+				throw new IOException("scenario file or directory does not exist: " + path);
+			}
+		}
+		return scenarioFiles;
+	}
+
+	/**
+	 * Executes all runs and writes the summary.
+	 *
+	 * @return the results of all runs in the order of the scenario files and seeds
+	 */
+	public List<Result> run() throws IOException {
+		Files.createDirectories(outputDir);
+		logger.infof("run %d scenario(s) using %d worker(s), output: %s", jobs.size(), workers, outputDir.toAbsolutePath());
+
+		ExecutorService executor = Executors.newFixedThreadPool(Math.min(workers, Math.max(1, jobs.size())), new WorkerFactory());
+		List<Result> results = new ArrayList<>(jobs.size());
+		try {
+			AtomicInteger finished = new AtomicInteger(0);
+			List<Future<Result>> futures = new ArrayList<>(jobs.size());
+			for (Job job : jobs) {
+				futures.add(executor.submit(() -> {
+					Result result = execute(job);
+					logger.infof("finished run %d/%d: %s (%s)", finished.incrementAndGet(), jobs.size(), job.runName, result.getState());
+					return result;
+				}));
+			}
+
+			for (Future<Result> future : futures) {
+				try {
+					results.add(future.get());
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					throw new IOException("batch run was interrupted", e);
+				} catch (ExecutionException e) {
+					// execute catches all exceptions of a run
+					throw new IllegalStateException(e.getCause());
+				}
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+
+		writeSummary(results);
+		return results;
+	}
+
+	public Path getSummaryFile() {
+		return outputDir.resolve(SUMMARY_FILE);
+	}
+
+	private Result execute(@NotNull final Job job) {
+		long start = System.nanoTime();
+		Path runOutputDir = outputDir.resolve(job.runName);
+		try {
+			Scenario scenario = loadScenario(job);
+			ScenarioCache cache = ScenarioCache.load(scenario, job.scenarioFile.toAbsolutePath().getParent());
+			ScenarioRun scenarioRun = new ScenarioRun(scenario, runOutputDir.toString(), true, null, job.scenarioFile, cache);
+			scenarioRun.setContextId(job.runName);
+			scenarioRun.run();
+			return new Result(job, runOutputDir, System.nanoTime() - start, scenarioRun.getSimulationResult(), null);
+		} catch (Throwable e) {
+			logger.errorf("run %s failed: %s", job.runName, e.getMessage());
+			return new Result(job, runOutputDir, System.nanoTime() - start, null, e);
+		}
+	}
+
+	/**
+	 * Reads a new copy of the scenario such that no state is shared with other runs.
+	 */
+	private static Scenario loadScenario(@NotNull final Job job) throws IOException {
+		Scenario scenario = IOVadere.fromJson(IOUtils.readTextFile(job.scenarioFile));
+		if(!job.overrides.isEmpty()) {
+			JsonNode node = JsonConverter.serializeScenarioRunManagerToNode(scenario, false);
+			for (Map.Entry<String, String> override : job.overrides.entrySet()) {
+				applyOverride(node, override.getKey(), override.getValue());
+			}
+			scenario = JsonConverter.deserializeScenarioRunManagerFromNode(node);
+		}
+
+		if(job.seed != null) {
+			scenario.getAttributesSimulation().setUseFixedSeed(true);
+			scenario.getAttributesSimulation().setFixedSeed(job.seed);
+		}
+		return scenario;
+	}
+
+	/**
+	 * Replaces the value the json pointer refers to. The value is interpreted as json and as a string if it is no
+	 * valid json. Only existing values can be replaced to detect misspelled pointers.
+	 */
+	static void applyOverride(@NotNull final JsonNode root, @NotNull final String pointer, @NotNull final String value) {
+		int split = pointer.lastIndexOf('/');
+		if(!pointer.startsWith("/") || split == pointer.length() - 1) {
+			throw new IllegalArgumentException("invalid json pointer: " + pointer);
+		}
+
+		JsonNode parent = root.at(pointer.substring(0, split));
+		String key = pointer.substring(split + 1).replace("~1", "/").replace("~0", "~");
+		JsonNode newValue;
+		try {
+			newValue = StateJsonConverter.readTree(value);
+		} catch (IOException e) {
+			newValue = null;
+		}
+		if(newValue == null || newValue.isMissingNode()) {
+			newValue = new TextNode(value);
+		}
+
+		if(parent.isObject() && parent.has(key)) {
+			((ObjectNode) parent).set(key, newValue);
+		} else if(parent.isArray() && key.matches("\\d+") && Integer.parseInt(key) < parent.size()) {
+			((ArrayNode) parent).set(Integer.parseInt(key), newValue);
+		} else {
+			throw new IllegalArgumentException("the scenario does not contain " + pointer);
+		}
+	}
+
+	private static Map<String, String> parseOverrides(@NotNull final List<String> overrides) {
+		Map<String, String> parsed = new LinkedHashMap<>();
+		for (String override : overrides) {
+			int split = override.indexOf('=');
+			if(split <= 0) {
+				throw new IllegalArgumentException("override has to be of the form json-pointer=value: " + override);
+			}
+			parsed.put(override.substring(0, split), override.substring(split + 1));
+		}
+		return parsed;
+	}
+
+	private static List<Job> createJobs(@NotNull final List<Path> scenarioFiles, @NotNull final List<Long> seeds,
+	                                    @NotNull final Map<String, String> overrides) {
+		List<Long> runSeeds = seeds.isEmpty() ? Collections.singletonList(null) : seeds;
+		List<Job> jobs = new ArrayList<>();
+		Set<String> runNames = new HashSet<>();
+		for (Path scenarioFile : scenarioFiles) {
+			String baseName = scenarioFile.getFileName().toString().replace(IOUtils.SCENARIO_FILE_EXTENSION, "");
+			for (Long seed : runSeeds) {
+				String runName = seed == null ? baseName : baseName + "_seed" + seed;
+				// equally named scenarios in different directories
+				String uniqueName = runName;
+				for (int i = 1; !runNames.add(uniqueName); i++) {
+					uniqueName = runName + "_" + i;
+				}
+				jobs.add(new Job(scenarioFile, seed, overrides, uniqueName));
+			}
+		}
+		return jobs;
+	}
+
+	private void writeSummary(@NotNull final List<Result> results) throws IOException {
+		Set<String> dataHeaders = new TreeSet<>();
+		for (Result result : results) {
+			if(result.simulationResult != null) {
+				dataHeaders.addAll(result.simulationResult.getData().keySet());
+			}
+		}
+
+		StringBuilder builder = new StringBuilder();
+		StringJoiner header = new StringJoiner(String.valueOf(delimiter));
+		Stream.of("Run", "Scenario_File", "Seed", "Wall_Time_s", "State").forEach(header::add);
+		dataHeaders.forEach(header::add);
+		builder.append(header).append('\n');
+
+		for (Result result : results) {
+			StringJoiner row = new StringJoiner(String.valueOf(delimiter));
+			row.add(result.getRunName());
+			row.add(result.job.scenarioFile.toString());
+			row.add(result.job.seed == null ? "" : result.job.seed.toString());
+			row.add(String.valueOf(result.getWallTimeInSeconds()));
+			row.add(result.getState().replaceAll("[;\\r\\n]", " "));
+			for (String dataHeader : dataHeaders) {
+				Object value = result.simulationResult != null ? result.simulationResult.getData().get(dataHeader) : null;
+				row.add(value == null ? "" : value.toString());
+			}
+			builder.append(row).append('\n');
+		}
+
+		IOUtils.writeTextFile(getSummaryFile().toString(), builder.toString());
+		logger.info("summary written to " + getSummaryFile().toAbsolutePath());
+	}
+
+	private static class Job {
+		private final Path scenarioFile;
+		private final Long seed;
+		private final Map<String, String> overrides;
+		private final String runName;
+
+		private Job(@NotNull final Path scenarioFile, @Nullable final Long seed, @NotNull final Map<String, String> overrides, @NotNull final String runName) {
+			this.scenarioFile = scenarioFile;
+			this.seed = seed;
+			this.overrides = overrides;
+			this.runName = runName;
+		}
+	}
+
+	public static class Result {
+		private final Job job;
+		private final Path outputDir;
+		private final long wallTimeNanos;
+		private final SimulationResult simulationResult;
+		private final Throwable error;
+
+		private Result(@NotNull final Job job, @NotNull final Path outputDir, final long wallTimeNanos,
+		               @Nullable final SimulationResult simulationResult, @Nullable final Throwable error) {
+			this.job = job;
+			this.outputDir = outputDir;
+			this.wallTimeNanos = wallTimeNanos;
+			this.simulationResult = simulationResult;
+			this.error = error;
+		}
+
+		public String getRunName() {
+			return job.runName;
+		}
+
+		public Path getOutputDir() {
+			return outputDir;
+		}
+
+		public double getWallTimeInSeconds() {
+			return wallTimeNanos / 1e9;
+		}
+
+		public boolean isSuccessful() {
+			return error == null;
+		}
+
+		public String getState() {
+			if(error != null) {
+				Throwable cause = error.getCause() != null ? error.getCause() : error;
+				return "SimulationRun failed: " + cause;
+			}
+			return simulationResult.getState();
+		}
+
+		@Nullable
+		public SimulationResult getSimulationResult() {
+			return simulationResult;
+		}
+	}
+
+	private static class WorkerFactory implements ThreadFactory {
+		private final AtomicInteger count = new AtomicInteger(0);
+
+		@Override
+		public Thread newThread(@NotNull final Runnable runnable) {
+			return new Thread(runnable, "batch-run-worker-" + count.incrementAndGet());
+		}
+	}
+}
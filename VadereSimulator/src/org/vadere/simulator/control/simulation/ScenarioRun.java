@@ -86,6 +86,9 @@ public class ScenarioRun implements Runnable {
 
 	protected SimulationResult simulationResult;
 
+	// identifies the VadereContext of this run, runs executed at the same time require different ids.
+	protected String contextId;
+
 	public ScenarioRun(final Scenario scenario, RunnableFinishedListener scenarioFinishedListener, Path scenarioFilePath, boolean singleStepMode, ScenarioCache scenarioCache) {
 		this(scenario, IOUtils.OUTPUT_DIR, scenarioFinishedListener, scenarioFilePath, scenarioCache);
 		this.singleStepMode = singleStepMode;
@@ -110,12 +113,12 @@ public class ScenarioRun implements Runnable {
 		this.simulationResult = new SimulationResult(scenario.getName());
 		this.scenarioFilePath = scenarioFilePath;
 		this.scenarioCache = scenarioCache;
+		this.contextId = scenario.getName();
 	}
 
 
 	private void initializeVadereContext(){
-		String scenarioName = scenario.getName();
-		this.scenarioStore.getTopography().setContextId(scenarioName);
+		this.scenarioStore.getTopography().setContextId(contextId);
 		VadereContext ctx = new VadereContext();
 
 		if (scenarioCache.isNotEmpty())
@@ -124,7 +127,7 @@ public class ScenarioRun implements Runnable {
 		ctx.put("cache", scenarioCache);
 		ctx.put(AirTransmissionModel.simStepLength, scenario.getAttributesSimulation().getSimTimeStepLength());
 
-		VadereContext.add(scenarioName, ctx);
+		VadereContext.add(contextId, ctx);
 		logger.info("scenario context initialized.");
 	}
 
@@ -369,6 +372,14 @@ public class ScenarioRun implements Runnable {
 		}
 	}
 
+	/**
+	 * Sets the id of the {@link VadereContext} of this run, which is the name of the scenario by default.
+	 * Runs of the same scenario executed at the same time have to use different ids.
+	 */
+	public void setContextId(@NotNull final String contextId) {
+		this.contextId = contextId;
+	}
+
 	public Path getOutputPath() {
 		return Paths.get(this.outputPath.toString());
 	}
@@ -228,25 +228,32 @@ public class Simulation implements ControllerProvider{
 	private void postLoop() {
 		simulationState = new SimulationState(name, topography, scenarioStore, simTimeInSec, step, mainModel, this);
 
-		for (Model m : models) {
-			m.postLoop(simTimeInSec);
-		}
+		try {
+			for (Model m : models) {
+				m.postLoop(simTimeInSec);
+			}
 
-		for (PassiveCallback c : passiveCallbacks) {
-			c.postLoop(simTimeInSec);
-		}
+			for (PassiveCallback c : passiveCallbacks) {
+				c.postLoop(simTimeInSec);
+			}
 
-		if (attributesSimulation.isWriteSimulationData()) {
-			processorManager.postLoop(this.simulationState);
-		}
+			if (attributesSimulation.isWriteSimulationData()) {
+				processorManager.postLoop(this.simulationState);
+			}
 
-		// Models and processors require the latest topography for post processing.
-		// Therefore, reset topography afterwards (I guess resetting the topography was introduced by Stefan).
-		topographyController.postLoop(this.simTimeInSec);
+			// Models and processors require the latest topography for post processing.
+			// Therefore, reset topography afterwards (I guess resetting the topography was introduced by Stefan).
+			topographyController.postLoop(this.simTimeInSec);
 
 
-		if (attributesSimulation.isWriteSimulationData()) {
-			processorManager.writeOutput();
+			if (attributesSimulation.isWriteSimulationData()) {
+				processorManager.writeOutput();
+			}
+		} finally {
+			// close the streamed output files and stop the output threads even if the post processing failed
+			if (attributesSimulation.isWriteSimulationData()) {
+				processorManager.close();
+			}
 		}
 		logger.info("Finished writing all output files");
 
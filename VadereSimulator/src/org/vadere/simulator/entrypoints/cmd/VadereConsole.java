@@ -8,6 +8,7 @@ import net.sourceforge.argparse4j.inf.Subparser;
 import net.sourceforge.argparse4j.inf.Subparsers;
 
 import org.vadere.util.version.Version;
+import org.vadere.simulator.entrypoints.cmd.commands.BatchRunSubCommand;
 import org.vadere.simulator.entrypoints.cmd.commands.MigrationSubCommand;
 import org.vadere.simulator.entrypoints.cmd.commands.ProjectRunSubCommand;
 import org.vadere.simulator.entrypoints.cmd.commands.ScenarioRunSubCommand;
@@ -128,6 +129,51 @@ public class VadereConsole {
 				.help("Scenario files to run.");
 
 
+		// Run Batch
+		Subparser batchRun = subparsers
+				.addParser(SubCommand.BATCH_RUN.getCmdName())
+				.help("Run multiple scenario files concurrently and write a summary of all runs.")
+				.setDefault("func", new BatchRunSubCommand());
+
+		batchRun.addArgument("paths")
+				.nargs("+")
+				.metavar("PATH")
+				.required(true)
+				.type(String.class)
+				.dest("paths")
+				.help("The scenario files or directories containing scenario files (searched recursively) to run.");
+
+		batchRun.addArgument("--output-dir", "-o")
+				.required(false)
+				.setDefault("output")
+				.dest("output-dir") // set name in namespace
+				.type(String.class)
+				.help("Directory containing the output directory of each run and the summary.csv.");
+
+		batchRun.addArgument("--workers", "-w")
+				.required(false)
+				.setDefault(Runtime.getRuntime().availableProcessors())
+				.dest("workers")
+				.type(Integer.class)
+				.help("Maximal number of runs executed at the same time. Default: number of processors.");
+
+		batchRun.addArgument("--seeds")
+				.nargs("*")
+				.required(false)
+				.type(Long.class)
+				.dest("seeds")
+				.help("Run each scenario once for each of these fixed seeds.");
+
+		batchRun.addArgument("--set")
+				.nargs("*")
+				.metavar("POINTER=VALUE")
+				.required(false)
+				.type(String.class)
+				.dest("overrides")
+				.help("Override scenario values by json pointers, e.g. /scenario/attributesSimulation/finishTime=100. " +
+						"The value is parsed as json.");
+
+
 		// Run Migration Assistant
 		Subparser migrationAssistant = subparsers
 				.addParser(SubCommand.MIGRATE.getCmdName())
@@ -0,0 +1,40 @@
+package org.vadere.simulator.entrypoints.cmd.commands;
+
+import net.sourceforge.argparse4j.inf.ArgumentParser;
+import net.sourceforge.argparse4j.inf.Namespace;
+
+import org.vadere.simulator.control.simulation.BatchRun;
+import org.vadere.simulator.entrypoints.cmd.SubCommandRunner;
+import org.vadere.util.logging.Logger;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+public class BatchRunSubCommand implements SubCommandRunner {
+	private final static Logger logger = Logger.getLogger(BatchRunSubCommand.class);
+
+	@Override
+	public void run(Namespace ns, ArgumentParser parser) throws Exception {
+		Path outputDir = Paths.get(ns.getString("output-dir"));
+		int workers = ns.getInt("workers");
+		List<Path> paths = ns.<String>getList("paths").stream().map(Paths::get).collect(Collectors.toList());
+		List<Long> seeds = ns.getList("seeds") != null ? ns.getList("seeds") : Collections.emptyList();
+		List<String> overrides = ns.getList("overrides") != null ? ns.getList("overrides") : Collections.emptyList();
+
+		List<Path> scenarioFiles = BatchRun.findScenarioFiles(paths);
+		if (scenarioFiles.isEmpty()){
+			logger.error("no scenario files found in: " + paths);
+			System.exit(-1);
+		}
+
+		List<BatchRun.Result> results = new BatchRun(scenarioFiles, seeds, overrides, outputDir, workers).run();
+		long failed = results.stream().filter(result -> !result.isSuccessful()).count();
+		if (failed > 0){
+			logger.errorf("%d of %d runs failed.", failed, results.size());
+			System.exit(-1);
+		}
+	}
+}
@@ -12,6 +12,7 @@ import org.vadere.simulator.models.potential.fields.PotentialFieldDistancesBrute
 import org.vadere.simulator.models.potential.solver.EikonalSolverCacheProvider;
 import org.vadere.simulator.projects.Domain;
 import org.vadere.simulator.projects.Scenario;
+import org.vadere.simulator.projects.io.TableFileConverter;
 import org.vadere.simulator.utils.cache.ScenarioCache;
 import org.vadere.state.attributes.models.AttributesFloorField;
 import org.vadere.state.scenario.Target;
@@ -38,6 +39,8 @@ public class UtilsSubCommand implements SubCommandRunner {
 		methods.put("getHash", Pair.of("[-i: file, -o: ignored]", this::getHash));
 		methods.put("binCache", Pair.of("[-i: file, -o: directory]",this::calculateBinCache));
 		methods.put("txtCache", Pair.of("[-i: file, -o: directory]",this::calculateTextCache));
+		methods.put("toColumnar", Pair.of("[-i: text output file, -o: columnar output file]", this::convertToColumnar));
+		methods.put("toText", Pair.of("[-i: columnar output file, -o: text output file]", this::convertToText));
 	}
 
 	public String[] methodsString(){
@@ -97,6 +100,30 @@ public class UtilsSubCommand implements SubCommandRunner {
 	}
 
 
+	/**
+	 * Converts an output file, e.g. a trajectory file, into the binary format of
+	 * {@link org.vadere.simulator.projects.dataprocessing.outputfile.ColumnarOutputFile}.
+	 */
+	private void convertToColumnar(Namespace ns, ArgumentParser parser) throws Exception {
+		TableFileConverter.toColumnar(getPath(ns, "input"), getPath(ns, "output"));
+	}
+
+	/**
+	 * Converts a binary output file of {@link org.vadere.simulator.projects.dataprocessing.outputfile.ColumnarOutputFile}
+	 * into the text format.
+	 */
+	private void convertToText(Namespace ns, ArgumentParser parser) throws Exception {
+		TableFileConverter.toText(getPath(ns, "input"), getPath(ns, "output"));
+	}
+
+	private Path getPath(Namespace ns, String dest) {
+		if (ns.getString(dest) == null){
+			logger.errorf("need %s file for this method", dest);
+			System.exit(-1);
+		}
+		return Paths.get(ns.getString(dest).replace("~", System.getProperty("user.home")));
+	}
+
 	/**
 	 * 	Recalculated cache and save to given location. This method does not lookup any preexisting
 	 * 	cache files anywhere on the system. Only existing files in the output folder will be checked.
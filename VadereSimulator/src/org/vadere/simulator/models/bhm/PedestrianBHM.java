@@ -409,33 +409,11 @@ public class PedestrianBHM extends Pedestrian {
 	 * This does not check collisions on the path, just collisions with position!
 	 */
 	public List<Obstacle> detectObstacleProximity(@NotNull VPoint position, double proximity) {
-
-		Collection<Obstacle> obstacles = topography.getObstacles();
-		List<Obstacle> result = new LinkedList<>();
-
-		for (Obstacle obstacle : obstacles) {
- 			if (obstacle.getShape().distance(position) < proximity) {
-				result.add(obstacle);
-			}
-		}
-
-		return result;
+		return topography.getObstaclesWithinDistance(position, proximity);
 	}
 
 	Optional<Obstacle> detectClosestObstacleProximity(@NotNull final VPoint position, double proximity) {
-
-		Collection<Obstacle> obstacles = topography.getObstacles();
-		Obstacle obs = null;
-		double minDistance = Double.MAX_VALUE;
-
-		for (Obstacle obstacle : obstacles) {
-			double distance = obstacle.getShape().distance(position);
-			if (distance < proximity && distance < minDistance) {
-				obs = obstacle;
-				minDistance = distance;
-			}
-		}
-		return Optional.ofNullable(obs);
+		return topography.getNearestObstacle(position, proximity);
 	}
 
 
@@ -43,6 +43,7 @@ public class OptimalStepsModel implements MainModel, PotentialFieldModel {
 	private Random random;
 	private StepCircleOptimizer stepCircleOptimizer;
 	private IPotentialFieldTarget potentialFieldTarget;
+	private IPotentialFieldTargetGrid potentialFieldTargetGrid;
 	private PotentialFieldObstacle potentialFieldObstacle;
 	private PotentialFieldAgent potentialFieldPedestrian;
 	private List<SpeedAdjuster> speedAdjusters;
@@ -85,6 +86,7 @@ public class OptimalStepsModel implements MainModel, PotentialFieldModel {
 				modelAttributesList, domain, attributesPedestrian, attributesOSM.getTargetPotentialModel());
 
 		this.potentialFieldTarget = iPotentialTargetGrid;
+		this.potentialFieldTargetGrid = iPotentialTargetGrid;
 		models.add(iPotentialTargetGrid);
 
 		this.potentialFieldObstacle = PotentialFieldObstacle.createPotentialField(
@@ -211,7 +213,7 @@ public class OptimalStepsModel implements MainModel, PotentialFieldModel {
 						}
 						);
 			*/}
-			default: return UpdateSchemeOSM.create(attributesOSM.getUpdateType(), topography, random, getPotentialFieldAgent().getMaximalInfluenceRadius());
+			default: return UpdateSchemeOSM.create(attributesOSM, topography, random, getPotentialFieldAgent().getMaximalInfluenceRadius());
 		}
 	}
 
@@ -251,24 +253,39 @@ public class OptimalStepsModel implements MainModel, PotentialFieldModel {
 		AttributesAgent pedAttributes = new AttributesAgent(
 				aAttr, registerDynamicElementId(domain.getTopography(), id));
 
-		PedestrianOSM pedestrianOSM = createElement(position, pedAttributes);
+		PedestrianOSM pedestrianOSM = createElement(position, pedAttributes, createStepCircleOptimizer());
 		return pedestrianOSM;
 	}
 
 	@Override
 	public VShape getDynamicElementRequiredPlace(@NotNull final VPoint position) {
-		return createElement(position,  new AttributesAgent(attributesPedestrian, -1)).getShape();
+		return createElement(position,  new AttributesAgent(attributesPedestrian, -1), stepCircleOptimizer.clone()).getShape();
 	}
 
-	private PedestrianOSM createElement(VPoint position, @NotNull final AttributesAgent attributesAgent) {
+	private PedestrianOSM createElement(VPoint position, @NotNull final AttributesAgent attributesAgent, @NotNull final StepCircleOptimizer stepCircleOptimizer) {
 		PedestrianOSM pedestrian = new PedestrianOSM(attributesOSM,
 				attributesAgent, domain.getTopography(), random, potentialFieldTarget,
 				potentialFieldObstacle.copy(), potentialFieldPedestrian,
-				speedAdjusters, stepCircleOptimizer.clone());
+				speedAdjusters, stepCircleOptimizer);
 		pedestrian.setPosition(position);
 		return pedestrian;
 	}
 
+	/**
+	 * Returns the optimizer of a new agent. If the agents are updated in parallel by the
+	 * {@link org.vadere.simulator.models.osm.updateScheme.UpdateSchemeParallelColored} each agent draws
+	 * from its own random number generator (seeded by the model's generator) such that the result does not
+	 * depend on the order in which the agents are updated concurrently.
+	 *
+	 * @return the optimizer of a new agent
+	 */
+	private StepCircleOptimizer createStepCircleOptimizer() {
+		if (attributesOSM.getUpdateType() == UpdateType.PARALLEL_COLORED) {
+			return StepCircleOptimizer.create(attributesOSM, new Random(random.nextLong()), domain.getTopography(), potentialFieldTargetGrid);
+		}
+		return stepCircleOptimizer.clone();
+	}
+
 	@Override
 	public List<Model> getSubmodels() {
 		return models;
@@ -300,20 +317,4 @@ public class OptimalStepsModel implements MainModel, PotentialFieldModel {
 
 		return new SingleSourceControllerFactory();
 	}
-
-	/**
-	 * Compares the time of the next possible move.
-	 */
-	private class ComparatorPedestrianOSM implements Comparator<PedestrianOSM> {
-
-		@Override
-		public int compare(PedestrianOSM ped1, PedestrianOSM ped2) {
-			// TODO [priority=low] [task=refactoring] use Double.compare() oder compareTo()
-			if (ped1.getTimeOfNextStep() < ped2.getTimeOfNextStep()) {
-				return -1;
-			} else {
-				return 1;
-			}
-		}
-	}
 }
@@ -301,6 +301,14 @@ public class PedestrianOSM extends Pedestrian {
 		return combinedPotentialStrategy.getValue(newPos, this, relevantPedestrians);
 	}
 
+	/**
+	 * Computes the potential {@link #getPotential(IPoint)} of the positions (xs[0], ys[0]), ..., (xs[n-1], ys[n-1])
+	 * at once and writes it into potentials.
+	 */
+	public void getPotentials(@NotNull final double[] xs, @NotNull final double[] ys, final int n, @NotNull final double[] potentials) {
+		combinedPotentialStrategy.getValues(xs, ys, n, this, relevantPedestrians, potentials);
+	}
+
 	public void clearStrides() {
 		strides.clear();
 	}
@@ -0,0 +1,131 @@
+package org.vadere.simulator.models.osm.optimization;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The discretization of the unit disc used by {@link StepCircleOptimizerDiscrete}, i.e. the same points as
+ * {@link org.vadere.util.geometry.GeometryUtils#getDiscDiscretizationPoints} computes for a full circle,
+ * stored as unit offsets (cos, sin) in primitive arrays. A stencil only depends on the number of circles and on the
+ * resolution (number of points) of the largest circle, therefore stencils are computed once and shared by all
+ * agents and threads.
+ *
+ * Circle j (1 &lt;= j &lt;= numberOfCircles) consists of ceil(j / numberOfCircles * numberOfPointsOfLargestCircle)
+ * points. Since {@link org.vadere.util.geometry.GeometryUtils#getDiscDiscretizationPoints} computes this number
+ * from the radius of the disc it might be one larger due to rounding errors. Therefore, the stencil contains both
+ * variants of each circle and the number of points is computed in the same way for each disc.
+ *
+ * Rotated points (<tt>varyStepDirection = true</tt>, the default) are computed by rotating the cached unit offsets,
+ * i.e. cos and sin are evaluated once per circle instead of once per point, see
+ * {@link #fill(double, double, double, double, double[], double[])}. These points differ from the ones of
+ * {@link org.vadere.util.geometry.GeometryUtils#getDiscDiscretizationPoints} in the last bits. If two candidates
+ * have almost the same potential, an agent may therefore choose another one, i.e. trajectories computed with
+ * <tt>varyStepDirection</tt> are not bit-identical to the ones computed without the stencil.
+ */
+final class DiscStencil {
+
+	private static final ConcurrentHashMap<Long, DiscStencil> stencils = new ConcurrentHashMap<>();
+
+	private final int numberOfCircles;
+	private final int numberOfPointsOfLargestCircle;
+
+	/**
+	 * the unit offsets of circle j with n points are <tt>cos[2(j-1)+k]</tt> and <tt>sin[2(j-1)+k]</tt>
+	 * where n = ceil(j / numberOfCircles * numberOfPointsOfLargestCircle) + k, k in {0, 1}.
+	 */
+	private final double[][] cos;
+	private final double[][] sin;
+	private final int maxSize;
+
+	private DiscStencil(final int numberOfCircles, final int numberOfPointsOfLargestCircle) {
+		this.numberOfCircles = numberOfCircles;
+		this.numberOfPointsOfLargestCircle = numberOfPointsOfLargestCircle;
+		this.cos = new double[2 * numberOfCircles][];
+		this.sin = new double[2 * numberOfCircles][];
+
+		int size = 0;
+		for(int j = 1; j <= numberOfCircles; j++) {
+			// ceil(j / numberOfCircles * numberOfPointsOfLargestCircle) without rounding errors
+			int numberOfGridPoints = (j * numberOfPointsOfLargestCircle + numberOfCircles - 1) / numberOfCircles;
+			for(int k = 0; k <= 1; k++) {
+				int n = numberOfGridPoints + k;
+				double angleDelta = 2.0 * Math.PI / n;
+				cos[2 * (j - 1) + k] = new double[n];
+				sin[2 * (j - 1) + k] = new double[n];
+				for(int i = 0; i < n; i++) {
+					cos[2 * (j - 1) + k][i] = Math.cos(angleDelta * i);
+					sin[2 * (j - 1) + k][i] = Math.sin(angleDelta * i);
+				}
+			}
+			size += numberOfGridPoints + 1;
+		}
+		this.maxSize = size;
+	}
+
+	/**
+	 * Returns an upper bound of the number of points of the stencil.
+	 */
+	int maxSize() {
+		return maxSize;
+	}
+
+	/**
+	 * Writes the points of the stencil scaled by the radius, rotated (circle-wise) by <tt>randOffset</tt>
+	 * times the angle between two neighbouring points of the circle and translated by the center into
+	 * <tt>xs</tt> and <tt>ys</tt>.
+	 *
+	 * The unit offsets of a circle are rotated by one (cos, sin) pair of the rotation angle (angle addition
+	 * theorem). Without rotation the points are exactly equal to the points computed by
+	 * {@link org.vadere.util.geometry.GeometryUtils#getDiscDiscretizationPoints}, rotated points differ from them
+	 * only by rounding errors. A disc of radius 0 contains no points.
+	 *
+	 * @param centerX       x-coordinate of the center of the disc
+	 * @param centerY       y-coordinate of the center of the disc
+	 * @param radius        the radius of the disc
+	 * @param randOffset    the rotation offset in [0, 1)
+	 * @param xs            the array of x-coordinates which has at least {@link #maxSize()} elements
+	 * @param ys            the array of y-coordinates which has at least {@link #maxSize()} elements
+	 *
+	 * @return the number of points written
+	 */
+	int fill(final double centerX, final double centerY, final double radius, final double randOffset, @NotNull final double[] xs, @NotNull final double[] ys) {
+		// the number of points of a circle would be ceil(0 / 0 * numberOfPointsOfLargestCircle), i.e. NaN
+		if(radius == 0) {
+			return 0;
+		}
+
+		int size = 0;
+		for(int j = 1; j <= numberOfCircles; j++) {
+			double circleOfGrid = radius * j / numberOfCircles;
+			int numberOfGridPoints = (int) Math.ceil(circleOfGrid / radius * numberOfPointsOfLargestCircle);
+			int ring = 2 * (j - 1) + (numberOfGridPoints == cos[2 * (j - 1)].length ? 0 : 1);
+			double[] cosRing = cos[ring];
+			double[] sinRing = sin[ring];
+			assert cosRing.length == numberOfGridPoints;
+
+			if(randOffset == 0) {
+				for(int i = 0; i < cosRing.length; i++) {
+					xs[size] = circleOfGrid * cosRing[i] + centerX;
+					ys[size] = circleOfGrid * sinRing[i] + centerY;
+					size++;
+				}
+			} else {
+				double angle = 2.0 * Math.PI / cosRing.length * randOffset;
+				double cosAngle = Math.cos(angle);
+				double sinAngle = Math.sin(angle);
+				for(int i = 0; i < cosRing.length; i++) {
+					xs[size] = circleOfGrid * (cosRing[i] * cosAngle - sinRing[i] * sinAngle) + centerX;
+					ys[size] = circleOfGrid * (sinRing[i] * cosAngle + cosRing[i] * sinAngle) + centerY;
+					size++;
+				}
+			}
+		}
+		return size;
+	}
+
+	static DiscStencil get(final int numberOfCircles, final int numberOfPointsOfLargestCircle) {
+		long key = ((long) numberOfCircles << 32) | (numberOfPointsOfLargestCircle & 0xffffffffL);
+		return stencils.computeIfAbsent(key, k -> new DiscStencil(numberOfCircles, numberOfPointsOfLargestCircle));
+	}
+}
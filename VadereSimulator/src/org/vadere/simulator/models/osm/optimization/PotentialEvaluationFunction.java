@@ -29,6 +29,16 @@ public class PotentialEvaluationFunction implements UnivariateRealFunction,
 	private double stepSize;
 	private double minStepSize;
 	private static int evaluationCounter = 0;
+	private static final double invalidPotential = 100000;
+
+	/** The reusable position used by {@link #getPotential(double, double)}. */
+	private final VPoint position;
+
+	/** The reusable positions and potentials used by {@link #getPotentials(double[], double[], int, double[])}. */
+	private double[] validXs;
+	private double[] validYs;
+	private double[] validPotentials;
+	private int[] validIndices;
 
 	public int counter;
 
@@ -43,6 +53,11 @@ public class PotentialEvaluationFunction implements UnivariateRealFunction,
 		this.minStepSize = pedestrian.getMinStepLength();
 		this.stepSize = 0;
 		this.counter = 0;
+		this.position = new VPoint();
+		this.validXs = new double[0];
+		this.validYs = new double[0];
+		this.validPotentials = new double[0];
+		this.validIndices = new int[0];
 	}
 
 	/**
@@ -130,28 +145,14 @@ public class PotentialEvaluationFunction implements UnivariateRealFunction,
 	 */
 	@Override
 	public double value(double[] pos) {
-		final VPoint pedPos = pedestrian.getPosition();
-		final VPoint newPos = new VPoint(pos[0], pos[1]);
+		return value(new VPoint(pos[0], pos[1]));
+	}
 
+	private double value(final VPoint newPos) {
 		// Large value, do not consider point when minimizing -- why not use Double.MAX_VALUE?
-		double result = 100000;
-		// TODO: this is a dirty hack, fix it!
-		if (pedestrian.getAttributesOSM().isSeeSmallWalls()) {
-			List<Obstacle> obstacles = pedestrian.getTopography().getObstacles();
-			for (Obstacle obstacle : obstacles) {
-				if (obstacle.getShape().intersects(new VLine(pedPos, newPos)))
-					return result;
-			}
-		}
+		double result = invalidPotential;
 
-		final double sqx = (newPos.x-pedPos.x)*(newPos.x-pedPos.x); // Math.pow(newPos.x - pedPos.x, 2)
-		final double sqy = (newPos.y-pedPos.y)*(newPos.y-pedPos.y); // Math.pow(newPos.y - pedPos.y, 2)
-		final double sqss = stepSize * stepSize; 					// Math.pow(stepSize, 2)
-
-		// the step has to be inside the circle with radius stepSize (the tolerance relaxes floating point comparisons
-		// on equality of the circle around the disk)
-		final double tolInsideCircle = 0.00001;
-		if (sqx + sqy <= sqss + tolInsideCircle) {
+		if (isValid(newPos)) {
 			result = pedestrian.getPotential(newPos);
 			evaluationCounter++;
 			/*if(evaluationCounter % 100 == 0) {
@@ -179,6 +180,84 @@ public class PotentialEvaluationFunction implements UnivariateRealFunction,
 		return value(this.pointToArray(position));
 	}
 
+	/**
+	 * Returns the value of the aggregated potential at (x, y) without allocating a new point for each
+	 * evaluation. Note that this method is not thread-safe.
+	 *
+	 * @param x the x-coordinate of the relevant position
+	 * @param y the y-coordinate of the relevant position
+	 * @return the potential value
+	 */
+	public double getPotential(final double x, final double y) {
+		position.x = x;
+		position.y = y;
+		return value(position);
+	}
+
+	/**
+	 * Computes the values of the aggregated potential at (xs[0], ys[0]), ..., (xs[n-1], ys[n-1]) at once, see
+	 * {@link PedestrianOSM#getPotentials(double[], double[], int, double[])}, and writes them into potentials.
+	 * The values are equal to the values of {@link #getPotential(double, double)}. Note that this method is not thread-safe.
+	 *
+	 * @param xs            the x-coordinates of the relevant positions
+	 * @param ys            the y-coordinates of the relevant positions
+	 * @param n             the number of relevant positions
+	 * @param potentials    the array the potential values are written into
+	 */
+	public void getPotentials(final double[] xs, final double[] ys, final int n, final double[] potentials) {
+		if (validXs.length < n) {
+			validXs = new double[n];
+			validYs = new double[n];
+			validPotentials = new double[n];
+			validIndices = new int[n];
+		}
+
+		int numberOfValid = 0;
+		for (int i = 0; i < n; i++) {
+			position.x = xs[i];
+			position.y = ys[i];
+			if (isValid(position)) {
+				validXs[numberOfValid] = xs[i];
+				validYs[numberOfValid] = ys[i];
+				validIndices[numberOfValid] = i;
+				numberOfValid++;
+			}
+			potentials[i] = invalidPotential;
+		}
+
+		pedestrian.getPotentials(validXs, validYs, numberOfValid, validPotentials);
+		for (int i = 0; i < numberOfValid; i++) {
+			potentials[validIndices[i]] = validPotentials[i];
+		}
+		evaluationCounter += numberOfValid;
+		counter += n;
+	}
+
+	/**
+	 * Tests whether the pedestrian can reach the position within one step.
+	 */
+	private boolean isValid(final VPoint newPos) {
+		final VPoint pedPos = pedestrian.getPosition();
+
+		// TODO: this is a dirty hack, fix it!
+		if (pedestrian.getAttributesOSM().isSeeSmallWalls()) {
+			List<Obstacle> obstacles = pedestrian.getTopography().getObstacles();
+			for (Obstacle obstacle : obstacles) {
+				if (obstacle.getShape().intersects(new VLine(pedPos, newPos)))
+					return false;
+			}
+		}
+
+		final double sqx = (newPos.x-pedPos.x)*(newPos.x-pedPos.x); // Math.pow(newPos.x - pedPos.x, 2)
+		final double sqy = (newPos.y-pedPos.y)*(newPos.y-pedPos.y); // Math.pow(newPos.y - pedPos.y, 2)
+		final double sqss = stepSize * stepSize; 					// Math.pow(stepSize, 2)
+
+		// the step has to be inside the circle with radius stepSize (the tolerance relaxes floating point comparisons
+		// on equality of the circle around the disk)
+		final double tolInsideCircle = 0.00001;
+		return sqx + sqy <= sqss + tolInsideCircle;
+	}
+
 	/**
 	 * Converts a point - position '(x,y)' - into an array.
 	 * 
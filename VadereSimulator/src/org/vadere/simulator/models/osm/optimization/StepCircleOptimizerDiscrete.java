@@ -19,7 +19,11 @@ import java.util.Random;
 /**
  * The Class StepCircleOptimizerDiscrete. Simple discrete optimizer, described
  * in [Seitz, 2012]
- * 
+ *
+ * If the step direction is not restricted (i.e. the movement type is not {@link MovementType#DIRECTIONAL}) the
+ * reachable positions are computed from a precomputed {@link DiscStencil} into primitive arrays which are reused
+ * for all steps, i.e. no point is allocated for the evaluated candidates. The potential of all these candidates
+ * is evaluated at once by {@link PotentialEvaluationFunction#getPotentials(double[], double[], int, double[])}.
  */
 public class StepCircleOptimizerDiscrete extends StepCircleOptimizer {
 
@@ -27,19 +31,101 @@ public class StepCircleOptimizerDiscrete extends StepCircleOptimizer {
 	private final Random random;
 	private final static Logger log = Logger.getLogger(StepCircleOptimizerDiscrete.class);
 
+	// reused for each step
+	private PotentialEvaluationFunction potentialEvaluationFunction;
+	private double[] xs;
+	private double[] ys;
+	private double[] potentials;
+
 	public StepCircleOptimizerDiscrete(final double movementThreshold, final Random random) {
 		this.movementThreshold = movementThreshold;
 		this.random = random;
+		this.xs = new double[0];
+		this.ys = new double[0];
+		this.potentials = new double[0];
 	}
 
 	@Override
 	public VPoint getNextPosition(@NotNull final PedestrianOSM pedestrian, @NotNull final Shape reachableArea) {
 		assert reachableArea instanceof VCircle;
 
-		double stepSize = ((VCircle) reachableArea).getRadius();
-		List<VPoint> positions = getReachablePositions(pedestrian, (VCircle) reachableArea, random);
+		VCircle circle = (VCircle) reachableArea;
+		double stepSize = circle.getRadius();
+		AttributesOSM attributesOSM = pedestrian.getAttributesOSM();
+
+		// the number of reachable positions depends on the velocity of the agent
+		if (attributesOSM.getMovementType() == MovementType.DIRECTIONAL) {
+			List<VPoint> positions = getReachablePositions(pedestrian, circle, random);
+			return getNextPosition(pedestrian, positions, stepSize);
+		}
+
+		if (attributesOSM.getNumberOfCircles() < 0) {
+			throw new IllegalArgumentException("number of circles is negative ("+attributesOSM.getNumberOfCircles()+")");
+		}
+
+		DiscStencil stencil = DiscStencil.get(attributesOSM.getNumberOfCircles(), attributesOSM.getStepCircleResolution());
+		if (xs.length < stencil.maxSize()) {
+			xs = new double[stencil.maxSize()];
+			ys = new double[stencil.maxSize()];
+			potentials = new double[stencil.maxSize()];
+		}
+
+		double randOffset = attributesOSM.isVaryStepDirection() ? random.nextDouble() : 0;
+		int n = stencil.fill(circle.getCenter().x, circle.getCenter().y, stepSize, randOffset, xs, ys);
+
+		return getNextPosition(pedestrian, xs, ys, n, stepSize);
+	}
+
+	/**
+	 * Returns the position with the smallest potential among the current position and the positions
+	 * (xs[0], ys[0]), ..., (xs[n-1], ys[n-1]).
+	 */
+	private VPoint getNextPosition(@NotNull final PedestrianOSM pedestrian, @NotNull final double[] xs, @NotNull final double[] ys,
+								   final int n, final double stepSize) {
+
+		if (potentialEvaluationFunction == null || potentialEvaluationFunction.getPedestrian() != pedestrian) {
+			potentialEvaluationFunction = new PotentialEvaluationFunction(pedestrian);
+		}
+		potentialEvaluationFunction.setStepSize(stepSize);
 
-		return getNextPosition(pedestrian, positions, stepSize);
+		VPoint curPos = pedestrian.getPosition();
+		double curPosPotential = pedestrian.getPotential(curPos);
+		double potential = curPosPotential;
+		double currentPotential;
+		int index = -1;
+
+		try {
+			potentialEvaluationFunction.getPotentials(xs, ys, n, potentials);
+			for (int i = 0; i < n; i++) {
+				if(potentials[i] < potential) {
+					potential = potentials[i];
+					index = i;
+				}
+			}
+		} catch (Exception e) {
+			// evaluate the positions one by one such that only the position causing the error is skipped
+			for (int i = 0; i < n; i++) {
+				try {
+					currentPotential = potentialEvaluationFunction.getPotential(xs[i], ys[i]);
+
+					if(currentPotential < potential) {
+						potential = currentPotential;
+						index = i;
+					}
+				} catch (Exception ex) {
+					Logger.getLogger(StepCircleOptimizerDiscrete.class).error("Potential evaluation threw an error: " + ex.getMessage());
+				}
+			}
+		}
+
+		VPoint nextPos = index < 0 ? curPos.clone() : new VPoint(xs[index], ys[index]);
+
+		// pedestrian.getTargetPotential(nextPos) > 0 => agent is not jet on his target otherwise the agent would wait forever
+		if (curPosPotential - potential <= movementThreshold && pedestrian.getTargetPotential(nextPos) > 0) {
+			nextPos = curPos;
+		}
+
+		return nextPos;
 	}
 
 	public VPoint getNextPosition(@NotNull final PedestrianOSM pedestrian, final List<VPoint> positions,
@@ -9,21 +9,42 @@ import org.vadere.state.scenario.Pedestrian;
 import org.vadere.state.scenario.Topography;
 import org.vadere.state.simulation.FootStep;
 
+import org.vadere.util.data.CalendarQueue;
+import org.vadere.util.data.IEventQueue;
+
 import java.util.Comparator;
-import java.util.PriorityQueue;
 
 /**
+ * The events (the next steps of the agents) are processed in the order of their time and agents with events at the
+ * same time are processed in the order of their ids. By default a {@link CalendarQueue} is used which requires
+ * amortized O(1) time to add, poll and remove an event.
+ *
  * @author Benedikt Zoennchen
  */
 public class UpdateSchemeEventDriven implements UpdateSchemeOSM {
 
 	private final Topography topography;
-	protected PriorityQueue<PedestrianOSM> pedestrianEventsQueue;
+	protected final IEventQueue<PedestrianOSM> pedestrianEventsQueue;
 	private final OSMBehaviorController osmBehaviorController;
 
 	public UpdateSchemeEventDriven(@NotNull final Topography topography) {
+		this(topography, createEventQueue());
+	}
+
+	/**
+	 * Returns the default event queue which orders agents by the time of their next step and by their id.
+	 */
+	static IEventQueue<PedestrianOSM> createEventQueue() {
+		return new CalendarQueue<>(PedestrianOSM::getTimeOfNextStep, Comparator.comparingInt(PedestrianOSM::getId));
+	}
+
+	/**
+	 * @param topography            the topography
+	 * @param pedestrianEventsQueue an empty event queue which orders agents by the time of their next step and by their id
+	 */
+	public UpdateSchemeEventDriven(@NotNull final Topography topography, @NotNull final IEventQueue<PedestrianOSM> pedestrianEventsQueue) {
 		this.topography = topography;
-		this.pedestrianEventsQueue = new PriorityQueue<>(100, new ComparatorPedestrianOSM());
+		this.pedestrianEventsQueue = pedestrianEventsQueue;
 		this.pedestrianEventsQueue.addAll(topography.getElements(PedestrianOSM.class));
 		this.osmBehaviorController = new OSMBehaviorController();
 	}
@@ -59,9 +80,9 @@ public class UpdateSchemeEventDriven implements UpdateSchemeOSM {
 			PedestrianOSM candidate = osmBehaviorController.findSwapCandidate(pedestrian, topography);
 
 			if (candidate != null) {
-				pedestrianEventsQueue.remove(candidate);
+				elementRemoved(candidate);
 				osmBehaviorController.swapPedestrians(pedestrian, candidate, topography);
-				pedestrianEventsQueue.add(candidate);
+				elementAdded(candidate);
 			} else {
 				osmBehaviorController.makeStepToTarget(pedestrian, topography);
 			}
@@ -87,32 +108,11 @@ public class UpdateSchemeEventDriven implements UpdateSchemeOSM {
 
 	@Override
 	public void elementRemoved(@NotNull final Pedestrian element) {
-		pedestrianEventsQueue.remove(element);
+		pedestrianEventsQueue.remove((PedestrianOSM) element);
 	}
 
 	@Override
 	public void elementAdded(final Pedestrian element) {
 		pedestrianEventsQueue.add((PedestrianOSM) element);
 	}
-
-	/**
-	 * Compares the time of the next possible move.
-	 */
-	private class ComparatorPedestrianOSM implements Comparator<PedestrianOSM> {
-		@Override
-		public int compare(PedestrianOSM ped1, PedestrianOSM ped2) {
-			int timeCompare = Double.compare(ped1.getTimeOfNextStep(), ped2.getTimeOfNextStep());
-			if(timeCompare != 0) {
-				return timeCompare;
-			}
-			else {
-				if(ped1.getId() < ped2.getId()) {
-					return -1;
-				}
-				else {
-					return 1;
-				}
-			}
-		}
-	}
 }
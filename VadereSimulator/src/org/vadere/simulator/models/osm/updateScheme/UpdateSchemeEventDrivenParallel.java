@@ -10,6 +10,7 @@ import org.vadere.meshing.mesh.gen.PVertex;
 import org.vadere.meshing.mesh.inter.IIncrementalTriangulation;
 import org.vadere.meshing.utils.io.IOUtils;
 import org.vadere.simulator.models.osm.PedestrianOSM;
+import org.vadere.state.scenario.Pedestrian;
 import org.vadere.state.scenario.Topography;
 import org.vadere.util.geometry.LinkedCellsGrid;
 import org.vadere.util.geometry.shapes.IPoint;
@@ -111,4 +112,18 @@ public class UpdateSchemeEventDrivenParallel extends UpdateSchemeEventDriven {
 		iteration++;
 		logger.debug("rounds: " + counter + ", #peds: " + topography.getPedestrianDynamicElements().getElements().size() + ", cells: " + nCells + ", sideLen:" + sideLength);
 	}
+
+	@Override
+	public void elementRemoved(@NotNull final Pedestrian element) {
+		synchronized (pedestrianEventsQueue) {
+			super.elementRemoved(element);
+		}
+	}
+
+	@Override
+	public void elementAdded(final Pedestrian element) {
+		synchronized (pedestrianEventsQueue) {
+			super.elementAdded(element);
+		}
+	}
 }
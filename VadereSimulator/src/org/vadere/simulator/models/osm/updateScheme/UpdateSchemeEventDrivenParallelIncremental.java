@@ -0,0 +1,170 @@
+package org.vadere.simulator.models.osm.updateScheme;
+
+import org.jetbrains.annotations.NotNull;
+import org.vadere.simulator.models.osm.PedestrianOSM;
+import org.vadere.state.scenario.Pedestrian;
+import org.vadere.state.scenario.Topography;
+import org.vadere.util.data.CalendarQueue;
+import org.vadere.util.logging.Logger;
+
+import java.awt.geom.Rectangle2D;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * An incremental version of {@link UpdateSchemeEventDrivenParallel}. The rounds are the same: all agents
+ * whose next event is due are polled in the order of their event times and an agent is updated in the current
+ * round if and only if its cell has not been locked by an earlier event of this round. Each polled agent locks
+ * its own and its neighbouring cells. All agents of one round are updated in parallel.
+ *
+ * Instead of building a new grid, a new lock array and new lists in every round, this scheme keeps one lock grid
+ * and one {@link CalendarQueue} of events (keyed by the time of the next step and the id of the agent) over all
+ * rounds and steps. A cell is locked if its stamp is equal to the current round, i.e. there is no need to reset
+ * the lock grid. The grid is only rebuilt if the required side length of the cells, which depends on the step
+ * length of the agents, increases (or decreases significantly). The cell of an agent is computed from its
+ * position when its event is polled, i.e. only agents whose events are due are touched.
+ */
+public class UpdateSchemeEventDrivenParallelIncremental extends UpdateSchemeEventDriven {
+
+	private final static Logger logger = Logger.getLogger(UpdateSchemeEventDrivenParallelIncremental.class);
+
+	private final Topography topography;
+	private final double pedestrianPotentialWidth;
+
+	private final List<PedestrianOSM> updateAbleAgents;
+	private final List<PedestrianOSM> notUpdateAbleAgents;
+	/**
+	 * the agents polled in the current round, they are added to the event queue again at the end of the round
+	 * unless they have been removed (or rescheduled by a swap) in the meantime.
+	 */
+	private final Set<PedestrianOSM> polledAgents;
+
+	/**
+	 * the lock grid: cell i is locked in the current round if <tt>lockedInRound[i] == round</tt>.
+	 */
+	private int[] lockedInRound;
+	private int round;
+	private int gridWidth;
+	private int gridHeight;
+	private double cellWidth;
+	private double cellHeight;
+	private double sideLength;
+
+	public UpdateSchemeEventDrivenParallelIncremental(@NotNull final Topography topography, final double pedestrianPotentialWidth) {
+		super(topography, createEventQueue());
+		this.topography = topography;
+		this.pedestrianPotentialWidth = pedestrianPotentialWidth;
+		this.updateAbleAgents = new ArrayList<>();
+		this.notUpdateAbleAgents = new ArrayList<>();
+		this.polledAgents = new HashSet<>();
+		this.lockedInRound = new int[0];
+		this.round = 0;
+		this.sideLength = -1;
+	}
+
+	@Override
+	public void update(final double timeStepInSec, final double currentTimeInSec) {
+		topography.getElements(PedestrianOSM.class).parallelStream().forEach(pedestrianOSM -> pedestrianOSM.clearStrides());
+
+		double maxStepSize = topography.getElements(PedestrianOSM.class).parallelStream().mapToDouble(ped -> ped.getDesiredStepSize()).max().orElse(0);
+		double maxDesiredSpeed = topography.getElements(PedestrianOSM.class).parallelStream().mapToDouble(ped -> ped.getDesiredSpeed()).max().orElse(0);
+
+		double stepSize = Math.max(maxStepSize, maxDesiredSpeed * timeStepInSec);
+		// this formula is slightly different than the formula in the PhD of B. Zoennchen (p. 63, eq. 5.3)
+		// bit it is a good approximation
+		updateLockGrid(2.0 * stepSize + pedestrianPotentialWidth);
+
+		int counter = 0;
+		// event driven update ignores time credits
+		while (!pedestrianEventsQueue.isEmpty() && pedestrianEventsQueue.peek().getTimeOfNextStep() < currentTimeInSec) {
+			round++;
+			updateAbleAgents.clear();
+			notUpdateAbleAgents.clear();
+
+			while (!pedestrianEventsQueue.isEmpty() && pedestrianEventsQueue.peek().getTimeOfNextStep() < currentTimeInSec) {
+				PedestrianOSM ped = pedestrianEventsQueue.poll();
+				polledAgents.add(ped);
+				int col = getCol(ped);
+				int row = getRow(ped);
+
+				if(lockedInRound[row * gridWidth + col] != round) {
+					updateAbleAgents.add(ped);
+				} else {
+					notUpdateAbleAgents.add(ped);
+				}
+
+				// lock the cell and its neighbours
+				for(int y = Math.max(0, row - 1); y <= Math.min(gridHeight - 1, row + 1); y++) {
+					for(int x = Math.max(0, col - 1); x <= Math.min(gridWidth - 1, col + 1); x++) {
+						lockedInRound[y * gridWidth + x] = round;
+					}
+				}
+			}
+
+			updateAbleAgents.parallelStream().forEach(ped -> update(ped, timeStepInSec, currentTimeInSec));
+
+			// agents might have been rescheduled by a swap
+			for(PedestrianOSM ped : notUpdateAbleAgents) {
+				if(polledAgents.remove(ped)) {
+					pedestrianEventsQueue.add(ped);
+				}
+			}
+			for(PedestrianOSM ped : updateAbleAgents) {
+				if(polledAgents.remove(ped)) {
+					pedestrianEventsQueue.add(ped);
+				}
+			}
+			counter++;
+		}
+		logger.debug("rounds: " + counter + ", #peds: " + pedestrianEventsQueue.size() + ", cells: " + (gridWidth * gridHeight) + ", sideLen:" + sideLength);
+	}
+
+	/**
+	 * Rebuilds the lock grid if the cells are smaller than the required side length or if they are
+	 * more than twice as large as required.
+	 *
+	 * @param requiredSideLength the minimal side length of a cell
+	 */
+	private void updateLockGrid(final double requiredSideLength) {
+		if(sideLength < requiredSideLength || sideLength > 2.0 * requiredSideLength) {
+			Rectangle2D.Double bounds = topography.getBounds();
+			sideLength = requiredSideLength;
+			gridWidth = (int) Math.max(1, bounds.getWidth() / sideLength);
+			gridHeight = (int) Math.max(1, bounds.getHeight() / sideLength);
+			cellWidth = bounds.getWidth() / gridWidth;
+			cellHeight = bounds.getHeight() / gridHeight;
+			lockedInRound = new int[gridWidth * gridHeight];
+			round = 0;
+		}
+	}
+
+	private int getCol(@NotNull final PedestrianOSM ped) {
+		int col = (int) Math.floor((ped.getPosition().x - topography.getBounds().getMinX()) / cellWidth);
+		return Math.min(gridWidth - 1, Math.max(0, col));
+	}
+
+	private int getRow(@NotNull final PedestrianOSM ped) {
+		int row = (int) Math.floor((ped.getPosition().y - topography.getBounds().getMinY()) / cellHeight);
+		return Math.min(gridHeight - 1, Math.max(0, row));
+	}
+
+	@Override
+	public void elementRemoved(@NotNull final Pedestrian element) {
+		synchronized (pedestrianEventsQueue) {
+			if(!polledAgents.remove(element)) {
+				super.elementRemoved(element);
+			}
+		}
+	}
+
+	@Override
+	public void elementAdded(final Pedestrian element) {
+		synchronized (pedestrianEventsQueue) {
+			if(!polledAgents.contains(element)) {
+				super.elementAdded(element);
+			}
+		}
+	}
+}
@@ -43,14 +43,17 @@ public interface UpdateSchemeOSM extends DynamicElementRemoveListener<Pedestrian
 	}
 
 	static UpdateSchemeOSM create(
-			@NotNull final UpdateType updateType,
+			@NotNull final AttributesOSM attributesOSM,
 			@NotNull final Topography topography,
 			final Random random,
 			final double maxAgentPotentialInfluenceRadius) {
+		UpdateType updateType = attributesOSM.getUpdateType();
 		switch (updateType) {
 			case SEQUENTIAL: return new UpdateSchemeSequential(topography);
 			case PARALLEL: return new UpdateSchemeParallel(topography);
+			case PARALLEL_COLORED: return new UpdateSchemeParallelColored(topography, attributesOSM.getNumberOfThreads(), maxAgentPotentialInfluenceRadius);
 			case EVENT_DRIVEN: return new UpdateSchemeEventDriven(topography);
+			case EVENT_DRIVEN_PARALLEL_INCREMENTAL: return new UpdateSchemeEventDrivenParallelIncremental(topography, maxAgentPotentialInfluenceRadius);
 			case SHUFFLE: return new UpdateSchemeShuffle(topography, random);
 			//TODO: magic number!
 			case EVENT_DRIVEN_PARALLEL:
@@ -0,0 +1,224 @@
+package org.vadere.simulator.models.osm.updateScheme;
+
+import org.jetbrains.annotations.NotNull;
+import org.vadere.simulator.models.osm.PedestrianOSM;
+import org.vadere.state.scenario.Pedestrian;
+import org.vadere.state.scenario.Topography;
+import org.vadere.util.geometry.LinkedCellsGrid;
+import org.vadere.util.geometry.shapes.VRectangle;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * A parallel update scheme which partitions the agents by the cells of a coarse grid (the batch grid) and colours
+ * the cells such that two cells of the same colour are separated by at least two other cells (a 3 x 3 colouring).
+ * The colours are processed one after another. All batches (cells) of the same colour are updated concurrently
+ * on a work stealing {@link ForkJoinPool}, since agents of different batches of the same colour can not influence
+ * each other within one time step. Only the move of an agent inside the spatial map is synchronized on the
+ * topography, as in all other update schemes, which is short compared to the computation of the next step. The agents of one batch are updated sequentially (in the
+ * order of their ids) like in the {@link UpdateSchemeSequential} and several batches are processed by a single
+ * task (chunk) to keep the scheduling overhead small.
+ *
+ * The side length of a cell is at least 2 * s + w, where s is the maximal distance an agent can walk within one
+ * time step and w is the maximal influence radius of the agent potential. Furthermore, each cell of the batch grid
+ * is a union of cells of the spatial map of the topography, i.e. concurrently processed batches never modify the
+ * same cell of the spatial map.
+ *
+ * The result is independent of the number of threads: the order of the colours, the order of agents within
+ * a batch and the order of the agents inside each cell of the spatial map are deterministic. Note that this
+ * requires that each agent uses its own random number generator
+ * (see {@link org.vadere.simulator.models.osm.OptimalStepsModel}).
+ */
+public class UpdateSchemeParallelColored extends UpdateSchemeSequential {
+
+	/**
+	 * the number of colours of the 3 x 3 colouring of the batch grid.
+	 */
+	private static final int NUMBER_OF_COLORS = 9;
+
+	/**
+	 * the minimal number of agents processed by one task, i.e. a task containing less agents will not be split.
+	 */
+	private static final int CHUNK_SIZE = 64;
+
+	private final Topography topography;
+	private final ForkJoinPool forkJoinPool;
+	private final double pedestrianPotentialWidth;
+
+	/**
+	 * agents sorted by their id.
+	 */
+	private PedestrianOSM[] pedestriansById = new PedestrianOSM[0];
+
+	/**
+	 * agents sorted by their batch and by their id inside a batch.
+	 */
+	private PedestrianOSM[] orderedPedestrians = new PedestrianOSM[0];
+
+	/**
+	 * the batch (cell index) of each agent of <tt>pedestriansById</tt>.
+	 */
+	private int[] batchOfPedestrians = new int[0];
+
+	/**
+	 * the agents of batch i are <tt>orderedPedestrians[batchStart[i]]</tt>, ..., <tt>orderedPedestrians[batchStart[i+1]-1]</tt>.
+	 */
+	private int[] batchStart = new int[1];
+	private int[] batchPosition = new int[0];
+
+	/**
+	 * the non-empty batches of each colour.
+	 */
+	private final int[][] batchesOfColor = new int[NUMBER_OF_COLORS][0];
+	private final int[] numberOfBatchesOfColor = new int[NUMBER_OF_COLORS];
+
+	public UpdateSchemeParallelColored(@NotNull final Topography topography, final int numberOfThreads, final double pedestrianPotentialWidth) {
+		super(topography);
+		this.topography = topography;
+		this.pedestrianPotentialWidth = pedestrianPotentialWidth;
+		this.forkJoinPool = new ForkJoinPool(numberOfThreads < 1 ? Runtime.getRuntime().availableProcessors() : numberOfThreads);
+	}
+
+	@Override
+	protected void update(@NotNull final Collection<Pedestrian> pedestrians, final double currentTimeInSec, final double timeStepInSec) {
+		if(pedestrians.isEmpty()) {
+			return;
+		}
+
+		partition(pedestrians, timeStepInSec);
+
+		for(int color = 0; color < NUMBER_OF_COLORS; color++) {
+			if(numberOfBatchesOfColor[color] > 0) {
+				forkJoinPool.invoke(new BatchUpdate(batchesOfColor[color], 0, numberOfBatchesOfColor[color], currentTimeInSec, timeStepInSec));
+			}
+		}
+		skipUdate.clear();
+	}
+
+	/**
+	 * Sorts the agents by their batch (counting sort) and by their id inside each batch and collects the non-empty
+	 * batches of each colour.
+	 *
+	 * @param pedestrians   all agents of the topography
+	 * @param timeStepInSec the duration of the time step in seconds
+	 */
+	private void partition(@NotNull final Collection<Pedestrian> pedestrians, final double timeStepInSec) {
+		int n = pedestrians.size();
+		if(orderedPedestrians.length < n) {
+			pedestriansById = new PedestrianOSM[n];
+			orderedPedestrians = new PedestrianOSM[n];
+			batchOfPedestrians = new int[n];
+		}
+
+		double maxStepSize = 0;
+		double maxDesiredSpeed = 0;
+		int i = 0;
+		for(Pedestrian pedestrian : pedestrians) {
+			PedestrianOSM pedestrianOSM = (PedestrianOSM) pedestrian;
+			maxStepSize = Math.max(maxStepSize, pedestrianOSM.getDesiredStepSize());
+			maxDesiredSpeed = Math.max(maxDesiredSpeed, pedestrianOSM.getDesiredSpeed());
+			pedestriansById[i++] = pedestrianOSM;
+		}
+		Arrays.sort(pedestriansById, 0, n, Comparator.comparingInt(Pedestrian::getId));
+
+		// an agent might do several steps within one time step
+		double stepSize = maxStepSize + maxDesiredSpeed * timeStepInSec;
+		double sideLength = 2.0 * stepSize + pedestrianPotentialWidth;
+
+		// each batch consists of factorX x factorY cells of the spatial map of the topography
+		LinkedCellsGrid<Pedestrian> spatialMap = topography.getSpatialMap(Pedestrian.class);
+		VRectangle cell = spatialMap.getGridCellAsRectangle(0, 0);
+		int factorX = Math.max(1, (int) Math.ceil(sideLength / cell.getWidth()));
+		int factorY = Math.max(1, (int) Math.ceil(sideLength / cell.getHeight()));
+		int gridWidth = (spatialMap.getGridWidth() + factorX - 1) / factorX;
+		int gridHeight = (spatialMap.getGridHeight() + factorY - 1) / factorY;
+		int numberOfBatches = gridWidth * gridHeight;
+
+		if(batchStart.length < numberOfBatches + 1) {
+			batchStart = new int[numberOfBatches + 1];
+			batchPosition = new int[numberOfBatches];
+		} else {
+			Arrays.fill(batchStart, 0, numberOfBatches + 1, 0);
+		}
+
+		for(i = 0; i < n; i++) {
+			int[] gridPos = spatialMap.gridPos(pedestriansById[i].getPosition());
+			int batch = (gridPos[1] / factorY) * gridWidth + gridPos[0] / factorX;
+			batchOfPedestrians[i] = batch;
+			batchStart[batch + 1]++;
+		}
+
+		Arrays.fill(numberOfBatchesOfColor, 0);
+		for(int batch = 0; batch < numberOfBatches; batch++) {
+			if(batchStart[batch + 1] > 0) {
+				int color = ((batch / gridWidth) % 3) * 3 + (batch % gridWidth) % 3;
+				if(batchesOfColor[color].length <= numberOfBatchesOfColor[color]) {
+					batchesOfColor[color] = Arrays.copyOf(batchesOfColor[color], Math.max(16, 2 * batchesOfColor[color].length));
+				}
+				batchesOfColor[color][numberOfBatchesOfColor[color]++] = batch;
+			}
+			batchStart[batch + 1] += batchStart[batch];
+		}
+
+		// stable counting sort i.e. agents of a batch remain sorted by their id
+		System.arraycopy(batchStart, 0, batchPosition, 0, numberOfBatches);
+		for(i = 0; i < n; i++) {
+			orderedPedestrians[batchPosition[batchOfPedestrians[i]]++] = pedestriansById[i];
+		}
+	}
+
+	/**
+	 * Updates all agents of the batches <tt>batches[from]</tt>, ..., <tt>batches[to-1]</tt>. If there are
+	 * many agents involved the task will be split into two tasks which might be stolen by other workers.
+	 */
+	private class BatchUpdate extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+
+		private final int[] batches;
+		private final int from;
+		private final int to;
+		private final double currentTimeInSec;
+		private final double timeStepInSec;
+
+		private BatchUpdate(@NotNull final int[] batches, final int from, final int to, final double currentTimeInSec, final double timeStepInSec) {
+			this.batches = batches;
+			this.from = from;
+			this.to = to;
+			this.currentTimeInSec = currentTimeInSec;
+			this.timeStepInSec = timeStepInSec;
+		}
+
+		@Override
+		protected void compute() {
+			int numberOfPedestrians = 0;
+			for(int i = from; i < to && numberOfPedestrians <= CHUNK_SIZE; i++) {
+				numberOfPedestrians += batchStart[batches[i] + 1] - batchStart[batches[i]];
+			}
+
+			if(to - from > 1 && numberOfPedestrians > CHUNK_SIZE) {
+				int mid = (from + to) / 2;
+				invokeAll(
+						new BatchUpdate(batches, from, mid, currentTimeInSec, timeStepInSec),
+						new BatchUpdate(batches, mid, to, currentTimeInSec, timeStepInSec));
+			} else {
+				for(int i = from; i < to; i++) {
+					for(int j = batchStart[batches[i]]; j < batchStart[batches[i] + 1]; j++) {
+						PedestrianOSM pedestrian = orderedPedestrians[j];
+						if(!skipUdate.contains(pedestrian)) {
+							update(pedestrian, currentTimeInSec, timeStepInSec);
+						}
+					}
+				}
+			}
+		}
+	}
+
+	@Override
+	public void shutdown() {
+		forkJoinPool.shutdown();
+	}
+}
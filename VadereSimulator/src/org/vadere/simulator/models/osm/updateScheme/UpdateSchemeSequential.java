@@ -10,18 +10,18 @@ import org.vadere.state.scenario.Topography;
 import org.vadere.state.simulation.FootStep;
 
 import java.util.Collection;
-import java.util.HashSet;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class UpdateSchemeSequential implements UpdateSchemeOSM {
 
 	private final Topography topography;
 	private final OSMBehaviorController osmBehaviorController;
-	private final Set<PedestrianOSM> skipUdate;
+	protected final Set<PedestrianOSM> skipUdate;
 
 	public UpdateSchemeSequential(@NotNull final Topography topography) {
 		this.topography = topography;
-		this.skipUdate = new HashSet<>();
+		this.skipUdate = ConcurrentHashMap.newKeySet();
 		this.osmBehaviorController = new OSMBehaviorController();
 	}
 
@@ -1,5 +1,6 @@
 package org.vadere.simulator.models.potential;
 
+import org.jetbrains.annotations.NotNull;
 import org.vadere.annotation.factories.models.ModelClass;
 import org.vadere.simulator.models.Model;
 import org.vadere.simulator.models.potential.fields.PotentialFieldAgent;
@@ -12,8 +13,10 @@ import org.vadere.state.scenario.Pedestrian;
 import org.vadere.state.scenario.Topography;
 import org.vadere.util.geometry.shapes.IPoint;
 import org.vadere.util.geometry.shapes.VCircle;
+import org.vadere.util.geometry.shapes.VPoint;
 import org.vadere.util.geometry.shapes.Vector2D;
 
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
 import java.util.Random;
@@ -83,12 +86,20 @@ public class PotentialFieldPedestrianCompactSoftshell implements PotentialFieldA
 	                                Agent otherPedestrian, double height, double width) {
 
 		double radii = pedestrian.getRadius() + otherPedestrian.getRadius(); // 2* r_p (sivers-2016b)
-		double potential = 0;
 		double distanceSq = otherPedestrian.getPosition().distanceSq(pos);
+		return getAgentPotential(distanceSq, radii, height, width);
+	}
+
+	/**
+	 * Returns the potential of an agent at squared distance <tt>distanceSq</tt> where <tt>radii</tt> is the sum of
+	 * the radii of both agents.
+	 */
+	private double getAgentPotential(final double distanceSq, final double radii, final double height, final double width) {
+		double potential = 0;
 		double maxDistanceSq = (Math.max(width, intimateWidth)  + radii) * (Math.max(width, intimateWidth)  + radii);
 
 		if (distanceSq < maxDistanceSq) {
-			double distance = otherPedestrian.getPosition().distance(pos); // Euclidean distance d_j(x) between agent j and position x
+			double distance = Math.sqrt(distanceSq); // Euclidean distance d_j(x) between agent j and position x
 
 			int intPower = this.attributes.getIntimateSpacePower(); // b_p
 			int perPower = this.attributes.getPersonalSpacePower(); // not defined in sivers-2016b (perPower = 1)
@@ -159,6 +170,45 @@ public class PotentialFieldPedestrianCompactSoftshell implements PotentialFieldA
 		return potential;
 	}
 
+	/**
+	 * Packs the positions and radii of the neighbours once into primitive arrays and evaluates the potential of all
+	 * positions in a loop over these arrays. The neighbours are summed up in the same order as by
+	 * {@link #getAgentPotential(IPoint, Agent, Collection)}, therefore both methods return equal values.
+	 */
+	@Override
+	public void getAgentPotentials(@NotNull final double[] xs, @NotNull final double[] ys, final int n,
+	                               @NotNull final Agent pedestrian, @NotNull final Collection<? extends Agent> otherAgents,
+	                               @NotNull final double[] potentials) {
+		final double[] neighbourXs = new double[otherAgents.size()];
+		final double[] neighbourYs = new double[otherAgents.size()];
+		final double[] neighbourRadii = new double[otherAgents.size()];
+		int numberOfNeighbours = 0;
+
+		for (Agent neighbor : otherAgents) {
+			if (neighbor.getId() != pedestrian.getId()) {
+				VPoint position = neighbor.getPosition();
+				neighbourXs[numberOfNeighbours] = position.x;
+				neighbourYs[numberOfNeighbours] = position.y;
+				neighbourRadii[numberOfNeighbours] = pedestrian.getRadius() + neighbor.getRadius();
+				numberOfNeighbours++;
+			}
+		}
+
+		Arrays.fill(potentials, 0, n, 0.0);
+		final double width = getPersonalWidth();
+		final double height = getHeight();
+		for (int j = 0; j < numberOfNeighbours; j++) {
+			final double x = neighbourXs[j];
+			final double y = neighbourYs[j];
+			final double radii = neighbourRadii[j];
+			for (int i = 0; i < n; i++) {
+				final double dx = x - xs[i];
+				final double dy = y - ys[i];
+				potentials[i] += getAgentPotential(dx * dx + dy * dy, radii, height, width);
+			}
+		}
+	}
+
 	@Override
 	public Vector2D getAgentPotentialGradient(IPoint pos,
 			Vector2D velocity, Agent pedestrian,
@@ -2,6 +2,7 @@ package org.vadere.simulator.models.potential.combinedPotentials;
 
  import org.vadere.state.scenario.Agent;
  import org.vadere.util.geometry.shapes.IPoint;
+ import org.vadere.util.geometry.shapes.VPoint;
 
  import java.util.Collection;
 
@@ -31,4 +32,17 @@ public interface ICombinedPotentialStrategy {
      */
     public double getValue(IPoint newPos, Agent thisAgent, Collection<? extends Agent> otherAgents);
 
+    /**
+     * Get the combined potential at the positions (xs[0], ys[0]), ..., (xs[n-1], ys[n-1]) and
+     * write it into values[0], ..., values[n-1].
+     */
+    default void getValues(double[] xs, double[] ys, int n, Agent thisAgent, Collection<? extends Agent> otherAgents, double[] values) {
+        VPoint newPos = new VPoint();
+        for (int i = 0; i < n; i++) {
+            newPos.x = xs[i];
+            newPos.y = ys[i];
+            values[i] = getValue(newPos, thisAgent, otherAgents);
+        }
+    }
+
 }
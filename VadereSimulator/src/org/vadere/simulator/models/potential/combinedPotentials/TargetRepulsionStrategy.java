@@ -5,6 +5,7 @@ import org.vadere.simulator.models.potential.fields.PotentialFieldAgent;
 import org.vadere.simulator.models.potential.fields.PotentialFieldObstacle;
 import org.vadere.state.scenario.Agent;
 import org.vadere.util.geometry.shapes.IPoint;
+import org.vadere.util.geometry.shapes.VPoint;
 
 import java.util.Collection;
 
@@ -37,4 +38,25 @@ public class TargetRepulsionStrategy implements ICombinedPotentialStrategy {
 
         return targetPotential + agentPotential + obstaclePotential;
     }
+
+    /**
+     * Computes the agent potential of all positions at once, see
+     * {@link PotentialFieldAgent#getAgentPotentials(double[], double[], int, Agent, Collection, double[])}.
+     */
+    @Override
+    public void getValues(double[] xs, double[] ys, int n, Agent thisAgent, Collection<? extends Agent> otherAgents, double[] values) {
+        potentialFieldAgent.getAgentPotentials(xs, ys, n, thisAgent, otherAgents, values);
+
+        VPoint newPos = new VPoint();
+        for (int i = 0; i < n; i++) {
+            newPos.x = xs[i];
+            newPos.y = ys[i];
+            double targetPotential = potentialFieldTarget.getPotential(newPos, thisAgent);
+            if (targetPotential != Double.MAX_VALUE) {
+                targetPotential *= -1;
+            }
+            double obstaclePotential = potentialFieldObstacle.getObstaclePotential(newPos, thisAgent);
+            values[i] = targetPotential + values[i] + obstaclePotential;
+        }
+    }
 }
@@ -33,6 +33,18 @@ public interface IPotentialFieldTargetGrid extends IPotentialFieldTarget {
      */
 	Map<Integer, CellGrid> getCellGrids();
 
+	/**
+	 * Returns the CellGrid (reference) of a specific target or <tt>null</tt> if there is no such CellGrid.
+	 * In contrast to {@link #getCellGrids()} implementations should avoid any allocation since this method
+	 * is called for each gradient evaluation.
+	 *
+	 * @param targetId  the id of the target
+	 * @return the CellGrid (reference) of the target or <tt>null</tt>
+	 */
+	default CellGrid getCellGrid(final int targetId) {
+		return getCellGrids().get(targetId);
+	}
+
     /**
      * A factory method to create different target potential fields which use a Cartesian grid.
      *
@@ -0,0 +1,80 @@
+package org.vadere.simulator.models.potential.fields;
+
+import org.jetbrains.annotations.NotNull;
+import org.vadere.simulator.utils.cache.ScenarioCache;
+import org.vadere.state.attributes.models.AttributesFloorField;
+import org.vadere.state.scenario.Topography;
+import org.vadere.util.geometry.shapes.IPoint;
+import org.vadere.util.geometry.shapes.VRectangle;
+import org.vadere.util.logging.Logger;
+import org.vadere.util.math.IDistanceFunctionCached;
+
+import java.util.stream.Collectors;
+
+/**
+ * The obstacle distance function of a {@link Topography} (negative distances outside of obstacles) which looks up
+ * the distance in a precomputed grid, see {@link PotentialFieldDistancesBruteForce}. The target potential
+ * and the obstacle potential of each candidate position of an agent share this grid via
+ * {@link Topography#distanceToObstacle(IPoint, Object)}, i.e. no geometric query is required while agents move.
+ *
+ * If the obstacles of the topography change, see {@link Topography#getObstacleVersion()}, the grid is recomputed
+ * before the next look up. The recomputed grid is not cached since the cache identifier refers to the
+ * original obstacles.
+ */
+public class ObstacleDistanceFunction implements IDistanceFunctionCached {
+
+	private static Logger logger = Logger.getLogger(ObstacleDistanceFunction.class);
+
+	private final Topography topography;
+	private final AttributesFloorField attributesFloorField;
+
+	private volatile PotentialFieldDistancesBruteForce distanceField;
+	private volatile int obstacleVersion;
+
+	public ObstacleDistanceFunction(@NotNull final Topography topography,
+	                                @NotNull final AttributesFloorField attributesFloorField,
+	                                @NotNull final ScenarioCache cache) {
+		this.topography = topography;
+		this.attributesFloorField = attributesFloorField;
+		computeDistanceField(cache);
+	}
+
+	@Override
+	public double apply(@NotNull final IPoint point, final Object caller) {
+		return -getDistanceField().getPotential(point, null);
+	}
+
+	@Override
+	public Double apply(@NotNull final IPoint point) {
+		return apply(point, null);
+	}
+
+	private PotentialFieldDistancesBruteForce getDistanceField() {
+		if(isOutdated()) {
+			synchronized (this) {
+				if(isOutdated()) {
+					logger.info("the obstacles have changed, recompute the obstacle distances.");
+					computeDistanceField(ScenarioCache.empty());
+				}
+			}
+		}
+		return distanceField;
+	}
+
+	private boolean isOutdated() {
+		return obstacleVersion != topography.getObstacleVersion();
+	}
+
+	private PotentialFieldDistancesBruteForce computeDistanceField(@NotNull final ScenarioCache cache) {
+		int version = topography.getObstacleVersion();
+		PotentialFieldDistancesBruteForce field = new PotentialFieldDistancesBruteForce(
+				topography.getObstacles().stream().map(obs -> obs.getShape()).collect(Collectors.toList()),
+				new VRectangle(topography.getBounds()),
+				attributesFloorField, cache);
+
+		// the field has to be assigned before the version is updated such that other threads never use an outdated field
+		distanceField = field;
+		obstacleVersion = version;
+		return field;
+	}
+}
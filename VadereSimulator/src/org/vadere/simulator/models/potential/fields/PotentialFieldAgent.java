@@ -1,5 +1,6 @@
 package org.vadere.simulator.models.potential.fields;
 
+import org.jetbrains.annotations.NotNull;
 import org.vadere.simulator.models.Model;
 import org.vadere.simulator.models.potential.PedestrianRepulsionPotentialCycle;
 import org.vadere.simulator.projects.Domain;
@@ -9,6 +10,7 @@ import org.vadere.state.scenario.Agent;
 import org.vadere.state.scenario.Topography;
 import org.vadere.util.geometry.shapes.IPoint;
 import org.vadere.util.geometry.shapes.VCircle;
+import org.vadere.util.geometry.shapes.VPoint;
 import org.vadere.util.geometry.shapes.Vector2D;
 import org.vadere.util.logging.Logger;
 import org.vadere.util.reflection.DynamicClassInstantiator;
@@ -57,6 +59,23 @@ public interface PotentialFieldAgent extends Model {
 	double getAgentPotential(IPoint pos, Agent pedestrian,
 			Collection<? extends Agent> otherAgents);
 
+	/**
+	 * Computes the agent potential {@link #getAgentPotential(IPoint, Agent, Collection)} of the positions
+	 * (xs[0], ys[0]), ..., (xs[n-1], ys[n-1]) and writes it into potentials[0], ..., potentials[n-1].
+	 * Implementations should override this method if the potential of many positions can be computed faster
+	 * at once, e.g. by reading the positions of the other agents only once.
+	 */
+	default void getAgentPotentials(@NotNull final double[] xs, @NotNull final double[] ys, final int n,
+	                                @NotNull final Agent pedestrian, @NotNull final Collection<? extends Agent> otherAgents,
+	                                @NotNull final double[] potentials) {
+		VPoint pos = new VPoint();
+		for (int i = 0; i < n; i++) {
+			pos.x = xs[i];
+			pos.y = ys[i];
+			potentials[i] = getAgentPotential(pos, pedestrian, otherAgents);
+		}
+	}
+
 	Vector2D getAgentPotentialGradient(IPoint pos,
 			Vector2D velocity, Agent pedestrian,
 			Collection<? extends Agent> otherAgents);
@@ -5,11 +5,14 @@ import org.jetbrains.annotations.Nullable;
 import org.vadere.simulator.models.potential.solver.calculators.EikonalSolver;
 import org.vadere.simulator.models.potential.solver.calculators.PotentialFieldCalculatorNone;
 import org.vadere.simulator.models.potential.solver.calculators.cartesian.EikonalSolverFIM;
+import org.vadere.simulator.models.potential.solver.calculators.cartesian.EikonalSolverFIMParallel;
 import org.vadere.simulator.models.potential.solver.calculators.cartesian.EikonalSolverFMM;
 import org.vadere.simulator.models.potential.solver.calculators.cartesian.EikonalSolverFSM;
+import org.vadere.simulator.models.potential.solver.calculators.cartesian.EikonalSolverFSMParallel;
 import org.vadere.simulator.models.potential.solver.calculators.cartesian.EikonalSolverIFIM;
 import org.vadere.simulator.models.potential.solver.timecost.UnitTimeCostFunction;
 import org.vadere.simulator.utils.cache.CacheException;
+import org.vadere.simulator.utils.cache.CacheLock;
 import org.vadere.simulator.utils.cache.ICellGridCacheObject;
 import org.vadere.simulator.utils.cache.ScenarioCache;
 import org.vadere.state.attributes.models.AttributesFloorField;
@@ -54,29 +57,32 @@ public class PotentialFieldDistanceEikonalEq implements IPotentialField {
 			double ms = System.currentTimeMillis();
 			String cacheIdentifier = cache.distToIdentifier("BruteForce");
 			ICellGridCacheObject cacheObject = (ICellGridCacheObject) cache.getCache(cacheIdentifier); // todo allow user setting in scenario.
-			if(cacheObject.readable()){
-				// cache found
-				try{
-					cacheObject.initializeObjectFromCache(cellGrid);
-					isInitialized = true;
-					logger.info("floor field initialization time:" + (System.currentTimeMillis() - ms + "[ms] (cache load time)"));
-				} catch (CacheException e){
-					logger.errorf("Error loading cache solve manually. " + e);
-				}
-			} else if(cacheObject.writable()) {
-				// no cache found
-				ms = System.currentTimeMillis();
-				logger.infof("No cache found for scenario solve floor field");
-				compute(obstacles, attributesFloorField);
-				logger.info("floor field initialization time:" + (System.currentTimeMillis() - ms + "[ms]"));
-				isInitialized = true;
-				try{
+			// waits if another run is writing the cache
+			try (CacheLock lock = cacheObject.lock()) {
+				if(cacheObject.readable()){
+					// cache found
+					try{
+						cacheObject.initializeObjectFromCache(cellGrid);
+						isInitialized = true;
+						logger.info("floor field initialization time:" + (System.currentTimeMillis() - ms + "[ms] (cache load time)"));
+					} catch (CacheException e){
+						logger.errorf("Error loading cache solve manually. " + e);
+					}
+				} else if(cacheObject.writable()) {
+					// no cache found
 					ms = System.currentTimeMillis();
-					logger.info("save floor field cache:");
-					cacheObject.persistObject(cellGrid);
-					logger.info("save floor field cache time:" + (System.currentTimeMillis() - ms + "[ms]"));
-				} catch (CacheException e){
-					logger.errorf("Error saving cache.", e);
+					logger.infof("No cache found for scenario solve floor field");
+					compute(obstacles, attributesFloorField);
+					logger.info("floor field initialization time:" + (System.currentTimeMillis() - ms + "[ms]"));
+					isInitialized = true;
+					try{
+						ms = System.currentTimeMillis();
+						logger.info("save floor field cache:");
+						cacheObject.persistObject(cellGrid);
+						logger.info("save floor field cache time:" + (System.currentTimeMillis() - ms + "[ms]"));
+					} catch (CacheException e){
+						logger.errorf("Error saving cache.", e);
+					}
 				}
 			}
 		}
@@ -117,6 +123,12 @@ public class PotentialFieldDistanceEikonalEq implements IPotentialField {
 			case FAST_SWEEPING_METHOD:
 				eikonalSolver = new EikonalSolverFSM(cellGrid, distFunc, isHighAccuracyFM, new UnitTimeCostFunction(), attributesFloorField.getObstacleGridPenalty(), attributesFloorField.getTargetAttractionStrength());
 				break;
+			case FAST_ITERATIVE_METHOD_PARALLEL:
+				eikonalSolver = new EikonalSolverFIMParallel(cellGrid, distFunc, new UnitTimeCostFunction(), attributesFloorField.getObstacleGridPenalty(), attributesFloorField.getTargetAttractionStrength());
+				break;
+			case FAST_SWEEPING_METHOD_PARALLEL:
+				eikonalSolver = new EikonalSolverFSMParallel(cellGrid, distFunc, new UnitTimeCostFunction(), attributesFloorField.getObstacleGridPenalty(), attributesFloorField.getTargetAttractionStrength());
+				break;
 			default:
 				eikonalSolver = new EikonalSolverFMM(cellGrid, distFunc, isHighAccuracyFM, new UnitTimeCostFunction(), attributesFloorField.getObstacleGridPenalty(), attributesFloorField.getTargetAttractionStrength());
 		}
@@ -3,23 +3,27 @@ package org.vadere.simulator.models.potential.fields;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.vadere.simulator.utils.cache.CacheException;
+import org.vadere.simulator.utils.cache.CacheLock;
 import org.vadere.simulator.utils.cache.ICellGridCacheObject;
 import org.vadere.simulator.utils.cache.ScenarioCache;
 import org.vadere.state.attributes.models.AttributesFloorField;
 import org.vadere.state.scenario.Agent;
+import org.vadere.util.data.aabb.BoundingVolumeHierarchy;
 import org.vadere.util.data.cellgrid.CellGrid;
 import org.vadere.util.data.cellgrid.CellState;
 import org.vadere.util.data.cellgrid.PathFindingTag;
+import org.vadere.util.data.cellgrid.PrimitiveCellGrid;
 import org.vadere.util.geometry.shapes.IPoint;
 import org.vadere.util.geometry.shapes.VPoint;
 import org.vadere.util.geometry.shapes.VRectangle;
 import org.vadere.util.geometry.shapes.VShape;
 import org.vadere.util.logging.Logger;
 
-import java.awt.*;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
 
 /**
  * @author Benedikt Zoennchen
@@ -29,21 +33,45 @@ import java.util.stream.Collectors;
  * bilinear interpolated. To compute the distance at these grid points the the exact distances
  * to all obstacles are computed choosing the minimum.
  *
- * Note: This can be computational expensive if there are many and or complex obstacles.
+ * Note: This can be computational expensive if there are many and or complex obstacles. Therefore, the grid
+ * is split into tiles which are computed in parallel (by the common {@link java.util.concurrent.ForkJoinPool}) and
+ * for each tile only obstacles which might be the closest obstacle of a grid point of the tile are evaluated.
+ * Since the distance function is 1-Lipschitz, an obstacle can only be the closest obstacle of a point p of the tile
+ * if its distance to the center c of the tile is at most d(c) + 2h where h is the distance between c and the corners
+ * of the tile. The result is exactly the same as the result of a loop over all obstacles.
+ *
+ * The distances are stored in a {@link PrimitiveCellGrid} and looked up without allocations, since the distance is
+ * evaluated for each candidate position of each agent, see {@link ObstacleDistanceFunction}.
  */
 public class PotentialFieldDistancesBruteForce implements IPotentialField {
 
 	private static Logger logger = Logger.getLogger(PotentialFieldDistancesBruteForce.class);
+
+	/**
+	 * Number of grid points of a (square) tile in x- and y-direction.
+	 */
+	private static final int TILE_SIZE = 32;
+
+	/**
+	 * Progress is reported in steps of 10 percent.
+	 */
+	private static final int PROGRESS_STEPS = 10;
+
+	/**
+	 * Relative tolerance of the culling radius to compensate rounding errors.
+	 */
+	private static final double CULLING_TOLERANCE = 1e-9;
+
 	private final CellGrid cellGrid;
-	private final Collection<VShape> obstacles;
+	private final BoundingVolumeHierarchy<VShape> obstacles;
 
 	public PotentialFieldDistancesBruteForce(@NotNull final Collection<VShape> obstacles,
 											 @NotNull final VRectangle bounds,
 											 @NotNull final AttributesFloorField attributesFloorField,
 											 @NotNull final ScenarioCache cache) {
 
-		this.obstacles = obstacles;
-		this.cellGrid = new CellGrid(bounds.getWidth(), bounds.getHeight(), attributesFloorField.getPotentialFieldResolution(), new CellState(), bounds.getMinX(), bounds.getMinY());
+		this.obstacles = new BoundingVolumeHierarchy<>(obstacles, VShape::getBounds2D);
+		this.cellGrid = new PrimitiveCellGrid(bounds.getWidth(), bounds.getHeight(), attributesFloorField.getPotentialFieldResolution(), new CellState(), bounds.getMinX(), bounds.getMinY());
 
 		boolean isInitialized = false;
 		logger.info("solve floor field (PotentialFieldDistancesBruteForce)");
@@ -51,75 +79,122 @@ public class PotentialFieldDistancesBruteForce implements IPotentialField {
 			double ms = System.currentTimeMillis();
 			String cacheIdentifier = cache.distToIdentifier("BruteForce");
 			ICellGridCacheObject cacheObject = (ICellGridCacheObject) cache.getCache(cacheIdentifier); // todo allow user setting in scenario.
-			if(cacheObject.readable()){
-				// cache found
-				try{
-					cacheObject.initializeObjectFromCache(cellGrid);
-					isInitialized = true;
-					logger.info("floor field initialization time:" + (System.currentTimeMillis() - ms + "[ms] (cache load time)"));
-				} catch (CacheException e){
-					logger.errorf("Error loading cache solve manually. " + e);
-				}
-			} else if(cacheObject.writable()) {
-				// no cache found
-				ms = System.currentTimeMillis();
-				logger.infof("No cache found for scenario solve floor field");
-				this.cellGrid.pointStream().forEach(this::computeDistanceToGridPoint);
-				logger.info("floor field initialization time:" + (System.currentTimeMillis() - ms + "[ms]"));
-				isInitialized = true;
-				try{
+			// waits if another run is writing the cache
+			try (CacheLock lock = cacheObject.lock()) {
+				if(cacheObject.readable()){
+					// cache found
+					try{
+						cacheObject.initializeObjectFromCache(cellGrid);
+						isInitialized = true;
+						logger.info("floor field initialization time:" + (System.currentTimeMillis() - ms + "[ms] (cache load time)"));
+					} catch (CacheException e){
+						logger.errorf("Error loading cache solve manually. " + e);
+					}
+				} else if(cacheObject.writable()) {
+					// no cache found
 					ms = System.currentTimeMillis();
-					logger.info("save floor field cache:");
-					cacheObject.persistObject(cellGrid);
-					logger.info("save floor field cache time:" + (System.currentTimeMillis() - ms + "[ms]"));
-				} catch (CacheException e){
-					logger.errorf("Error saving cache.", e);
+					logger.infof("No cache found for scenario solve floor field");
+					computeDistances();
+					logger.info("floor field initialization time:" + (System.currentTimeMillis() - ms + "[ms]"));
+					isInitialized = true;
+					try{
+						ms = System.currentTimeMillis();
+						logger.info("save floor field cache:");
+						cacheObject.persistObject(cellGrid);
+						logger.info("save floor field cache time:" + (System.currentTimeMillis() - ms + "[ms]"));
+					} catch (CacheException e){
+						logger.errorf("Error saving cache.", e);
+					}
 				}
 			}
 		}
 
 		if (!isInitialized){
 			long ms = System.currentTimeMillis();
+			computeDistances();
+			logger.info("floor field initialization time:" + (System.currentTimeMillis() - ms + "[ms]"));
+		}
+	}
 
-			List<Point> points = this.cellGrid.pointStream().collect(Collectors.toList());
-			int totalPoints = points.size();
-			int processedPoints = 0;
-			double checkpointInPercentage = 0.0;
-
-
-			for (Point point : points) {
-				checkpointInPercentage = printProgressIfCheckpointReached(processedPoints, totalPoints, checkpointInPercentage);
-				computeDistanceToGridPoint(point);
-				processedPoints++;
+	/**
+	 * Computes the distances of all grid points tile by tile in parallel. The distances are written into a primitive
+	 * array (row by row) which is transferred into the cell grid at the end.
+	 */
+	private void computeDistances() {
+		int numPointsX = cellGrid.getNumPointsX();
+		int numPointsY = cellGrid.getNumPointsY();
+		int numTilesX = (numPointsX + TILE_SIZE - 1) / TILE_SIZE;
+		int numTilesY = (numPointsY + TILE_SIZE - 1) / TILE_SIZE;
+		int numTiles = numTilesX * numTilesY;
+		int totalPoints = numPointsX * numPointsY;
+
+		double[] distances = new double[totalPoints];
+		AtomicInteger processedPoints = new AtomicInteger(0);
+		AtomicInteger nextCheckpoint = new AtomicInteger(0);
+		logProgress(0, totalPoints, nextCheckpoint);
+
+		IntStream.range(0, numTiles).parallel().forEach(tile -> {
+			int fromX = (tile % numTilesX) * TILE_SIZE;
+			int fromY = (tile / numTilesX) * TILE_SIZE;
+			int toX = Math.min(fromX + TILE_SIZE, numPointsX);
+			int toY = Math.min(fromY + TILE_SIZE, numPointsY);
+			computeTile(fromX, fromY, toX, toY, distances);
+			logProgress(processedPoints.addAndGet((toX - fromX) * (toY - fromY)), totalPoints, nextCheckpoint);
+		});
+
+		for(int y = 0; y < numPointsY; y++) {
+			for(int x = 0; x < numPointsX; x++) {
+				cellGrid.setPotential(x, y, distances[y * numPointsX + x]);
+				cellGrid.setTag(x, y, PathFindingTag.Reachable);
 			}
-
-			logger.info("floor field initialization time:" + (System.currentTimeMillis() - ms + "[ms]"));
 		}
 	}
 
-	private double printProgressIfCheckpointReached(int processedPoints, int totalPoints, double checkpointInPercentage) {
-		double newCheckpoint = checkpointInPercentage;
+	private void computeTile(final int fromX, final int fromY, final int toX, final int toY, @NotNull final double[] distances) {
+		int numPointsX = cellGrid.getNumPointsX();
+		double resolution = cellGrid.getResolution();
+		double minX = cellGrid.getMinX();
+		double minY = cellGrid.getMinY();
+
+		VPoint center = new VPoint(minX + (fromX + toX - 1) * resolution / 2.0, minY + (fromY + toY - 1) * resolution / 2.0);
+		double halfDiagonal = resolution / 2.0 * Math.sqrt((toX - fromX - 1) * (toX - fromX - 1) + (toY - fromY - 1) * (toY - fromY - 1));
+		double centerDistance = obstacles.distance(center, VShape::distance);
+
+		// only these obstacles can be the closest obstacle of some point of the tile
+		List<VShape> candidates = centerDistance == Double.MAX_VALUE ? Collections.emptyList() :
+				obstacles.withinDistance(center, centerDistance + 2 * halfDiagonal + CULLING_TOLERANCE * (1 + Math.abs(centerDistance) + halfDiagonal), VShape::distance);
+
+		VPoint point = new VPoint();
+		for(int y = fromY; y < toY; y++) {
+			for(int x = fromX; x < toX; x++) {
+				// same coordinates as CellGrid.pointToCoord
+				point.x = minX + x * resolution;
+				point.y = minY + y * resolution;
+				double distance = Double.MAX_VALUE;
+				for(VShape shape : candidates) {
+					distance = Math.min(distance, shape.distance(point));
+				}
+				distances[y * numPointsX + x] = distance;
+			}
+		}
+	}
 
+	private void logProgress(final int processedPoints, final int totalPoints, @NotNull final AtomicInteger nextCheckpoint) {
+		int checkpoint = nextCheckpoint.get();
 		double progressInPercentage = ((double) processedPoints / totalPoints) * 100;
 
-		if (progressInPercentage >= checkpointInPercentage) {
-			logger.info(String.format("Progress: %2.0f%% -> %d/%d [points]", progressInPercentage, processedPoints, totalPoints));
-			double stepSize = 10.0;
-			newCheckpoint += stepSize;
+		// only one thread reports a checkpoint
+		if (checkpoint <= PROGRESS_STEPS && progressInPercentage >= checkpoint * (100.0 / PROGRESS_STEPS)) {
+			int newCheckpoint = Math.min((int) (progressInPercentage / (100.0 / PROGRESS_STEPS)), PROGRESS_STEPS) + 1;
+			if (nextCheckpoint.compareAndSet(checkpoint, newCheckpoint)) {
+				logger.info(String.format("Progress: %2.0f%% -> %d/%d [points]", progressInPercentage, processedPoints, totalPoints));
+			}
 		}
-
-		return newCheckpoint;
-	}
-
-	private void computeDistanceToGridPoint(@NotNull final Point gridPoint) {
-		VPoint point = cellGrid.pointToCoord(gridPoint);
-		double distance = obstacles.stream().map(shape -> shape.distance(point)).min(Double::compareTo).orElse(Double.MAX_VALUE);
-		cellGrid.setValue(gridPoint, new CellState(distance, PathFindingTag.Reachable));
 	}
 
 	@Override
 	public double getPotential(@NotNull IPoint pos, @Nullable Agent agent) {
-		return cellGrid.getInterpolatedValueAt(pos).getLeft();
+		return cellGrid.getInterpolatedPotentialAt(pos.getX(), pos.getY());
 	}
 
 }
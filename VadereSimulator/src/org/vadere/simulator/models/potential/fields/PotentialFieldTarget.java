@@ -1,8 +1,12 @@
 package org.vadere.simulator.models.potential.fields;
 
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.vadere.meshing.mesh.inter.IMesh;
+import org.vadere.simulator.models.potential.solver.EikonalSolverProvider;
 import org.vadere.simulator.models.potential.solver.calculators.EikonalSolver;
 import org.vadere.simulator.projects.Domain;
 import org.vadere.state.attributes.Attributes;
@@ -13,19 +17,34 @@ import org.vadere.state.scenario.ScenarioElement;
 import org.vadere.state.scenario.Target;
 import org.vadere.state.scenario.TargetPedestrian;
 import org.vadere.state.scenario.Topography;
+import org.vadere.state.types.EikonalSolverType;
+import org.vadere.util.config.VadereConfig;
 import org.vadere.util.geometry.shapes.IPoint;
+import org.vadere.util.geometry.shapes.VCircle;
 import org.vadere.util.geometry.shapes.VPoint;
+import org.vadere.util.geometry.shapes.VPolygon;
+import org.vadere.util.geometry.shapes.VRectangle;
 import org.vadere.util.geometry.shapes.VShape;
 import org.vadere.util.geometry.shapes.Vector2D;
 import org.vadere.util.logging.Logger;
 import org.vadere.util.math.MathUtil;
 
+import java.awt.geom.Rectangle2D;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * @author Benedikt Zoennchen
@@ -34,6 +53,16 @@ public class PotentialFieldTarget implements IPotentialFieldTarget {
 
 	private static Logger logger = Logger.getLogger(PotentialFieldTargetGrid.class);
 
+	private static final String maxConcurrentSolvesKey = "Vadere.floorField.maxConcurrentSolves";
+
+	/**
+	 * estimated number of bytes of a grid point of a {@link org.vadere.util.data.cellgrid.CellGrid}
+	 * (including its CellState) and of a {@link org.vadere.util.data.cellgrid.PrimitiveCellGrid}
+	 * plus the data of the solver.
+	 */
+	private static final long bytesPerGridPoint = 64;
+	private static final long bytesPerPrimitiveGridPoint = 32;
+
 	/**
 	 * the simulation time in seconds in which the last update was performed.
 	 */
@@ -61,9 +90,21 @@ public class PotentialFieldTarget implements IPotentialFieldTarget {
 
 	/**
 	 * Stores all potential fields which represent to a target (targetId).
-	 * This Map has to be filled by classes extending this class.
+	 * This Map has to be filled by classes extending this class. The map uses
+	 * primitive keys, i.e. a look up via {@link Int2ObjectMap#get(int)} does not allocate any memory.
+	 */
+	protected final Int2ObjectMap<EikonalSolver> eikonalSolvers;
+
+	/**
+	 * the target shapes (see {@link #fingerprint(List)}) of moving targets for which their
+	 * EikonalSolver was computed.
+	 */
+	private final Int2ObjectMap<List<Object>> movingTargetFingerprints;
+
+	/**
+	 * the maximal number of target floor fields computed at the same time.
 	 */
-	protected final Map<Integer, EikonalSolver> eikonalSolvers;
+	private int maxConcurrentSolves;
 
 
 	public PotentialFieldTarget(@NotNull final Domain domain,
@@ -72,19 +113,16 @@ public class PotentialFieldTarget implements IPotentialFieldTarget {
 		this.domain = domain;
 		this.attributesPedestrian = attributesPedestrian;
 		this.attributes = attributesPotential;
-		this.eikonalSolvers = new HashMap<>();
+		this.eikonalSolvers = new Int2ObjectOpenHashMap<>();
+		this.movingTargetFingerprints = new Int2ObjectOpenHashMap<>();
+		this.maxConcurrentSolves = Math.min(VadereConfig.getConfig().getInt(maxConcurrentSolvesKey, 4), Runtime.getRuntime().availableProcessors());
 	}
 
 	@Override
 	public IPotentialField getSolution() {
 		Map<Integer, Function<IPoint, Double>> clone = new HashMap<>();
 
-		for(Map.Entry<Integer, EikonalSolver> entry : eikonalSolvers.entrySet()) {
-			Integer targetId = entry.getKey();
-			EikonalSolver eikonalSolver = entry.getValue();
-
-			clone.put(targetId, eikonalSolver.getPotentialField());
-		}
+		eikonalSolvers.forEach((targetId, eikonalSolver) -> clone.put(targetId, eikonalSolver.getPotentialField()));
 
 		return (pos, agent) -> clone.get(agent.getNextTargetId()).apply(pos);
 	}
@@ -93,11 +131,7 @@ public class PotentialFieldTarget implements IPotentialFieldTarget {
 	public Function<Agent, IMesh<?, ?, ?>> getDiscretization() {
 		Map<Integer, IMesh<?, ?, ?>> clone = new HashMap<>();
 
-		for(Map.Entry<Integer, EikonalSolver> entry : eikonalSolvers.entrySet()) {
-			Integer targetId = entry.getKey();
-			EikonalSolver eikonalSolver = entry.getValue();
-			clone.put(targetId, eikonalSolver.getDiscretization());
-		}
+		eikonalSolvers.forEach((targetId, eikonalSolver) -> clone.put(targetId, eikonalSolver.getDiscretization()));
 
 		return agent -> clone.get(agent.getNextTargetId());
 	}
@@ -161,15 +195,14 @@ public class PotentialFieldTarget implements IPotentialFieldTarget {
 		}
 
 		/* Find minimal potential of given targets. */
-		Optional<EikonalSolver> optEikonalSolver = getSolver(targetId);
+		EikonalSolver eikonalSolver = getEikonalSolver(targetId);
 
 		// no target exist
-		if (!optEikonalSolver.isPresent()) {
+		if (eikonalSolver == null) {
 			logger.error("no target potential field for target = " + targetId + ", was found!");
 			return 0.0;
 		}
 
-		EikonalSolver eikonalSolver = optEikonalSolver.get();
 		if(caller == null) {
 			return eikonalSolver.getPotential(pos);
 		} else {
@@ -197,14 +230,15 @@ public class PotentialFieldTarget implements IPotentialFieldTarget {
 	protected void updatePotentialField(final double simTimeInSec, final Target target, final List<VShape> targetShapes) {
 		if (target.isTargetPedestrian()) {
 			if (!((TargetPedestrian) target).isDeleted()) {
-				addEikonalSolver(target.getId(), targetShapes);
+				moveEikonalSolver(target.getId(), targetShapes);
 			}
 		} else if (target.isMovingTarget()) {
-			addEikonalSolver(target.getId(), targetShapes);
+			moveEikonalSolver(target.getId(), targetShapes);
 		}
 
-		if (eikonalSolvers.containsKey(target.getId())) {
-			eikonalSolvers.get(target.getId()).update();
+		EikonalSolver eikonalSolver = eikonalSolvers.get(target.getId());
+		if (eikonalSolver != null) {
+			eikonalSolver.update();
 		} else {
 			logger.warn("potential field for target " + target.getId() + " is not contained in " + this);
 		}
@@ -219,19 +253,207 @@ public class PotentialFieldTarget implements IPotentialFieldTarget {
 	 * @param shapes    the target area
 	 */
 	protected void addEikonalSolver(final int targetId, final List<VShape> shapes) {
-		EikonalSolver eikonalSolver = IPotentialField.create(domain, targetId, shapes, attributesPedestrian, attributes);
+		putEikonalSolver(targetId, IPotentialField.create(domain, targetId, shapes, attributesPedestrian, attributes));
+	}
+
+	private void putEikonalSolver(final int targetId, @NotNull final EikonalSolver eikonalSolver) {
 		potentialFieldsNeedUpdate = potentialFieldsNeedUpdate || eikonalSolver.needsUpdate();
 		eikonalSolvers.put(targetId, eikonalSolver);
 	}
 
+	/**
+	 * Moves the target of the EikonalSolver of a moving target, see {@link EikonalSolver#moveTarget(List)}.
+	 * Nothing is re-computed if the target did not move since the last call. If the solver does not
+	 * support moving targets it is replaced by a new solver.
+	 *
+	 * @param targetId  the targetId of the target
+	 * @param shapes    the current target area
+	 */
+	protected void moveEikonalSolver(final int targetId, final List<VShape> shapes) {
+		List<Object> fingerprint = fingerprint(shapes);
+		EikonalSolver eikonalSolver = eikonalSolvers.get(targetId);
+
+		if (eikonalSolver != null && fingerprint != null && fingerprint.equals(movingTargetFingerprints.get(targetId))) {
+			return;
+		}
+
+		if (eikonalSolver == null || !eikonalSolver.moveTarget(shapes)) {
+			addEikonalSolver(targetId, shapes);
+		}
+
+		if (fingerprint != null) {
+			movingTargetFingerprints.put(targetId, fingerprint);
+		} else {
+			movingTargetFingerprints.remove(targetId);
+		}
+	}
+
 	@Override
 	public void initialize(List<Attributes> attributesList, Domain topography, AttributesAgent attributesPedestrian, Random random) {}
 
+	/**
+	 * Adds an EikonalSolver for each target without one. Targets of equal shapes share one EikonalSolver
+	 * if it is static, since all solvers of this field use the same attributes such that their solutions are
+	 * equal. Solvers of moving targets and dynamic solvers (e.g. those using the density of agents heading to
+	 * the target) are never shared. The solvers of different shapes are computed concurrently, see
+	 * {@link #createEikonalSolvers(List, Map)}.
+	 */
 	private void addMissingEikonalSolvers() {
 		Map<Integer, List<VShape>> mergeMap = domain.getTopography().getTargetShapes();
-		domain.getTopography().getTargets().stream()
-				.filter(t -> !getSolver(t.getId()).isPresent())
-				.forEach(t -> addEikonalSolver(t.getId(), mergeMap.get(t.getId())));
+
+		// targets with equal shapes are grouped, the first target of each group is solved
+		Map<List<Object>, List<Integer>> sharingTargets = new HashMap<>();
+		List<List<Integer>> groups = new ArrayList<>();
+		Set<Integer> targetIds = new HashSet<>();
+		for (Target target : domain.getTopography().getTargets()) {
+			if (getSolver(target.getId()).isPresent() || !targetIds.add(target.getId())) {
+				continue;
+			}
+
+			List<Object> fingerprint = fingerprint(mergeMap.get(target.getId()));
+			if (target.isMovingTarget() || target.isTargetPedestrian()) {
+				if (fingerprint != null) {
+					movingTargetFingerprints.put(target.getId(), fingerprint);
+				}
+				fingerprint = null;
+			}
+			List<Integer> group = fingerprint != null ? sharingTargets.get(fingerprint) : null;
+			if (group == null) {
+				group = new ArrayList<>();
+				groups.add(group);
+				if (fingerprint != null) {
+					sharingTargets.put(fingerprint, group);
+				}
+			}
+			group.add(target.getId());
+		}
+
+		List<Integer> solvedTargetIds = groups.stream().map(group -> group.get(0)).collect(Collectors.toList());
+		List<EikonalSolver> solvers = createEikonalSolvers(solvedTargetIds, mergeMap);
+		int numberOfSolvers = 0;
+
+		for (int i = 0; i < groups.size(); i++) {
+			EikonalSolver eikonalSolver = solvers.get(i);
+			putEikonalSolver(solvedTargetIds.get(i), eikonalSolver);
+			numberOfSolvers++;
+
+			for (Integer targetId : groups.get(i).subList(1, groups.get(i).size())) {
+				if (eikonalSolver.needsUpdate()) {
+					addEikonalSolver(targetId, mergeMap.get(targetId));
+					numberOfSolvers++;
+				} else {
+					eikonalSolvers.put(targetId, eikonalSolver);
+				}
+			}
+		}
+
+		if (targetIds.size() > numberOfSolvers) {
+			logger.infof("%d target floor fields are computed by %d solvers (ratio %.2f).",
+					targetIds.size(), numberOfSolvers, (double) numberOfSolvers / targetIds.size());
+		}
+	}
+
+	/**
+	 * Creates (and solves) the EikonalSolvers of the targets in the order of the targets. Grid based solvers
+	 * which do not depend on the state of other solvers or the (OpenCL) density filters are computed
+	 * concurrently. The number of concurrent solves is bounded by {@link #setMaxConcurrentSolves(int)}
+	 * and by the free heap, see {@link #estimateSolverMemory()}, such that the peak
+	 * memory is predictable. Each solver is computed by a single thread therefore the result does not depend
+	 * on the number of threads.
+	 */
+	private List<EikonalSolver> createEikonalSolvers(@NotNull final List<Integer> targetIds, @NotNull final Map<Integer, List<VShape>> mergeMap) {
+		int numberOfThreads = isConcurrentSolvable() ? getNumberOfConcurrentSolves(targetIds.size()) : 1;
+		if (numberOfThreads <= 1) {
+			return targetIds.stream()
+					.map(targetId -> IPotentialField.create(domain, targetId, mergeMap.get(targetId), attributesPedestrian, attributes))
+					.collect(Collectors.toList());
+		}
+
+		logger.infof("solve %d target floor fields using %d threads.", targetIds.size(), numberOfThreads);
+		ExecutorService executor = Executors.newFixedThreadPool(numberOfThreads);
+		try {
+			List<Future<EikonalSolver>> futures = new ArrayList<>(targetIds.size());
+			for (Integer targetId : targetIds) {
+				futures.add(executor.submit(() -> IPotentialField.create(domain, targetId, mergeMap.get(targetId), attributesPedestrian, attributes)));
+			}
+
+			List<EikonalSolver> solvers = new ArrayList<>(targetIds.size());
+			for (Future<EikonalSolver> future : futures) {
+				solvers.add(future.get());
+			}
+			return solvers;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("computation of the target floor fields was interrupted.", e);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			throw new IllegalStateException(e.getCause());
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * Returns true if the solvers can be computed concurrently, i.e. they are grid based (mesh based solvers
+	 * share the floor field mesh) and the time cost function neither depends on agents nor uses a (OpenCL)
+	 * density filter.
+	 */
+	private boolean isConcurrentSolvable() {
+		return attributes.getCreateMethod().isUsingCellGrid()
+				&& attributes.getCreateMethod() != EikonalSolverType.NONE
+				&& EikonalSolverProvider.hasThreadSafeTimeCost(attributes);
+	}
+
+	private int getNumberOfConcurrentSolves(final int numberOfSolves) {
+		Runtime runtime = Runtime.getRuntime();
+		long freeMemory = runtime.maxMemory() - (runtime.totalMemory() - runtime.freeMemory());
+
+		// use at most half of the free heap for the floor fields which are computed at the same time
+		long maxByMemory = Math.max(1, freeMemory / 2 / estimateSolverMemory());
+		return (int) Math.min(maxConcurrentSolves, Math.min(maxByMemory, numberOfSolves));
+	}
+
+	/**
+	 * Sets the maximal number of target floor fields computed at the same time, by default
+	 * <tt>Vadere.floorField.maxConcurrentSolves</tt> or the number of processors if it is smaller.
+	 */
+	void setMaxConcurrentSolves(final int maxConcurrentSolves) {
+		this.maxConcurrentSolves = maxConcurrentSolves;
+	}
+
+	/**
+	 * Returns a rough upper bound of the heap in bytes required by one grid based solver (grid and solver data).
+	 */
+	private long estimateSolverMemory() {
+		Rectangle2D.Double bounds = domain.getTopography().getBounds();
+		double resolution = attributes.getPotentialFieldResolution();
+		long numberOfPoints = (long) (Math.floor(bounds.getWidth() / resolution) + 1) * (long) (Math.floor(bounds.getHeight() / resolution) + 1);
+		long bytesPerPoint = attributes.isUsePrimitiveCellGrid() ? bytesPerPrimitiveGridPoint : bytesPerGridPoint;
+		return Math.max(1, numberOfPoints * bytesPerPoint);
+	}
+
+	/**
+	 * Returns a key which is equal for equal target shapes or <tt>null</tt> if the shapes can not be compared.
+	 */
+	private static @Nullable List<Object> fingerprint(@Nullable final List<VShape> shapes) {
+		if (shapes == null) {
+			return null;
+		}
+
+		List<Object> fingerprint = new ArrayList<>(shapes.size());
+		for (VShape shape : shapes) {
+			if (shape instanceof VCircle) {
+				// the path of a circle does not contain its radius
+				fingerprint.add(Arrays.asList(((VCircle) shape).getCenter(), ((VCircle) shape).getRadius()));
+			} else if (shape instanceof VPolygon || shape instanceof VRectangle) {
+				fingerprint.add(shape.getPath());
+			} else {
+				return null;
+			}
+		}
+		return fingerprint;
 	}
 
 	/**
@@ -252,11 +474,18 @@ public class PotentialFieldTarget implements IPotentialFieldTarget {
 	 * @return an Optional of EikonalSover which solves the eikonal equation for a specific target
 	 */
 	protected Optional<EikonalSolver> getSolver(int targetId) {
-		if(eikonalSolvers.containsKey(targetId)) {
-			return Optional.of(eikonalSolvers.get(targetId));
-		} else {
-			return Optional.empty();
-		}
+		return Optional.ofNullable(eikonalSolvers.get(targetId));
+	}
+
+	/**
+	 * Returns the EikonalSover which solves the eikonal equation for a specific target (defined by the targetId)
+	 * without any allocation or <tt>null</tt> if there exists no such solver.
+	 *
+	 * @param targetId  the targetId which defines the target
+	 * @return the EikonalSover of the target or <tt>null</tt>
+	 */
+	protected @Nullable EikonalSolver getEikonalSolver(final int targetId) {
+		return eikonalSolvers.get(targetId);
 	}
 
 	@Override
@@ -31,24 +31,30 @@ public class PotentialFieldTargetGrid extends PotentialFieldTarget implements IP
     public Map<Integer, CellGrid> getCellGrids() {
         Map<Integer, CellGrid> map = new HashMap<>();
 
-        for (Map.Entry<Integer, EikonalSolver> entry : eikonalSolvers.entrySet()) {
-            Integer targetId = entry.getKey();
-            EikonalSolver eikonalSolver = entry.getValue();
-
+        eikonalSolvers.forEach((targetId, eikonalSolver) -> {
             if(eikonalSolver instanceof AGridEikonalSolver){
                 map.put(targetId, ((AGridEikonalSolver)eikonalSolver).getCellGrid());
             }
-        }
+        });
 
         return map;
     }
 
+    @Override
+    public CellGrid getCellGrid(final int targetId) {
+        EikonalSolver eikonalSolver = getEikonalSolver(targetId);
+        if(eikonalSolver instanceof AGridEikonalSolver) {
+            return ((AGridEikonalSolver)eikonalSolver).getCellGrid();
+        }
+        return null;
+    }
+
     @Override
     public Vector2D getTargetPotentialGradient(VPoint pos, Agent ped) {
         double[] gradient = { 0.0, 0.0 };
 
         if (ped.hasNextTarget()) {
-            InterpolationUtil.getGradientMollified(getCellGrids().get(ped.getNextTargetId()), new double[]{pos.getX(), pos.getY()}, gradient, 0.1);
+            InterpolationUtil.getGradientMollified(getCellGrid(ped.getNextTargetId()), new double[]{pos.getX(), pos.getY()}, gradient, 0.1);
         }
 
         return new Vector2D(gradient[0], gradient[1]);
@@ -2,6 +2,7 @@ package org.vadere.simulator.models.potential.solver;
 
 import org.vadere.simulator.models.potential.solver.calculators.EikonalSolver;
 import org.vadere.simulator.projects.Domain;
+import org.vadere.simulator.utils.cache.CacheLock;
 import org.vadere.simulator.utils.cache.ICacheObject;
 import org.vadere.simulator.utils.cache.ScenarioCache;
 import org.vadere.state.attributes.models.AttributesFloorField;
@@ -39,20 +40,23 @@ public class EikonalSolverCacheProvider extends EikonalSolverProvider {
 		if (attributesPotential.isUseCachedFloorField() && cache.isNotEmpty()){
 			long ms = System.currentTimeMillis();
 			ICacheObject cacheObject = cache.getCacheForTarget(targetId);
-			if (cacheObject.readable()){
-				isInitialized = eikonalSolver.loadCachedFloorField(cacheObject);
-				logger.info("floor field initialization time:" + (System.currentTimeMillis() - ms + "[ms] (cache load time)"));
-			} else if (cacheObject.writable()) {
-				ms = System.currentTimeMillis();
-				logger.infof("No cache found for scenario solve floor field");
-				eikonalSolver.solve();
-				isInitialized = true;
+			// waits if another run is writing the cache
+			try (CacheLock lock = cacheObject.lock()) {
+				if (cacheObject.readable()){
+					isInitialized = eikonalSolver.loadCachedFloorField(cacheObject);
+					logger.info("floor field initialization time:" + (System.currentTimeMillis() - ms + "[ms] (cache load time)"));
+				} else if (cacheObject.writable()) {
+					ms = System.currentTimeMillis();
+					logger.infof("No cache found for scenario solve floor field");
+					eikonalSolver.solve();
+					isInitialized = true;
 
-				logger.info("floor field initialization time:" + (System.currentTimeMillis() - ms + "[ms]"));
-				ms = System.currentTimeMillis();
-				logger.info("save floor field cache:");
-				eikonalSolver.saveFloorFieldToCache(cacheObject);
-				logger.info("save floor field cache time:" + (System.currentTimeMillis() - ms + "[ms]"));
+					logger.info("floor field initialization time:" + (System.currentTimeMillis() - ms + "[ms]"));
+					ms = System.currentTimeMillis();
+					logger.info("save floor field cache:");
+					eikonalSolver.saveFloorFieldToCache(cacheObject);
+					logger.info("save floor field cache time:" + (System.currentTimeMillis() - ms + "[ms]"));
+				}
 			}
 		}
 
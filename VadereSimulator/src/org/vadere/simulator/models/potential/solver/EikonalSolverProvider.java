@@ -11,8 +11,10 @@ import org.vadere.simulator.models.potential.fields.IPotentialField;
 import org.vadere.simulator.models.potential.solver.calculators.EikonalSolver;
 import org.vadere.simulator.models.potential.solver.calculators.PotentialFieldCalculatorNone;
 import org.vadere.simulator.models.potential.solver.calculators.cartesian.EikonalSolverFIM;
+import org.vadere.simulator.models.potential.solver.calculators.cartesian.EikonalSolverFIMParallel;
 import org.vadere.simulator.models.potential.solver.calculators.cartesian.EikonalSolverFMM;
 import org.vadere.simulator.models.potential.solver.calculators.cartesian.EikonalSolverFSM;
+import org.vadere.simulator.models.potential.solver.calculators.cartesian.EikonalSolverFSMParallel;
 import org.vadere.simulator.models.potential.solver.calculators.cartesian.EikonalSolverIFIM;
 import org.vadere.simulator.models.potential.solver.calculators.mesh.MeshEikonalSolverFIM;
 import org.vadere.simulator.models.potential.solver.calculators.mesh.MeshEikonalSolverFIMLockFree;
@@ -24,6 +26,7 @@ import org.vadere.simulator.models.potential.solver.timecost.UnitTimeCostFunctio
 import org.vadere.simulator.models.potential.timeCostFunction.TimeCostFunctionFactory;
 import org.vadere.simulator.projects.Domain;
 import org.vadere.state.attributes.models.AttributesFloorField;
+import org.vadere.state.attributes.models.TimeCostFunctionType;
 import org.vadere.state.attributes.scenario.AttributesAgent;
 import org.vadere.state.scenario.Obstacle;
 import org.vadere.state.scenario.Topography;
@@ -32,6 +35,7 @@ import org.vadere.util.data.cellgrid.CellGrid;
 import org.vadere.util.data.cellgrid.CellState;
 import org.vadere.util.data.cellgrid.FloorDiscretizer;
 import org.vadere.util.data.cellgrid.PathFindingTag;
+import org.vadere.util.data.cellgrid.PrimitiveCellGrid;
 import org.vadere.util.geometry.shapes.VShape;
 import org.vadere.util.logging.Logger;
 import org.vadere.util.math.DistanceFunctionTarget;
@@ -95,8 +99,14 @@ public abstract class EikonalSolverProvider  {
 		 * Use a regular grid based method.
 		 */
 		if(createMethod.isUsingCellGrid()) {
-			CellGrid cellGrid = new CellGrid(bounds.getWidth(), bounds.getHeight(),
-					attributesPotential.getPotentialFieldResolution(), new CellState(), bounds.getMinX(), bounds.getMinY());
+			CellGrid cellGrid;
+			if(attributesPotential.isUsePrimitiveCellGrid() && isUsingFastMarching(createMethod)) {
+				cellGrid = new PrimitiveCellGrid(bounds.getWidth(), bounds.getHeight(),
+						attributesPotential.getPotentialFieldResolution(), new CellState(), bounds.getMinX(), bounds.getMinY());
+			} else {
+				cellGrid = new CellGrid(bounds.getWidth(), bounds.getHeight(),
+						attributesPotential.getPotentialFieldResolution(), new CellState(), bounds.getMinX(), bounds.getMinY());
+			}
 
 			if (createMethod != EikonalSolverType.NONE) {
 				for (VShape shape : targetShapes) {
@@ -137,6 +147,22 @@ public abstract class EikonalSolverProvider  {
 				case FAST_SWEEPING_METHOD:
 					eikonalSolver = new EikonalSolverFSM(cellGrid, distFunc, isHighAccuracyFM, timeCost, attributesPotential.getObstacleGridPenalty(), attributesPotential.getTargetAttractionStrength());
 					break;
+				case FAST_ITERATIVE_METHOD_PARALLEL:
+					if(hasThreadSafeTimeCost(attributesPotential)) {
+						eikonalSolver = new EikonalSolverFIMParallel(cellGrid, distFunc, timeCost, attributesPotential.getObstacleGridPenalty(), attributesPotential.getTargetAttractionStrength());
+					} else {
+						warnSequentialFallback(createMethod, EikonalSolverType.FAST_ITERATIVE_METHOD, attributesPotential);
+						eikonalSolver = new EikonalSolverFIM(cellGrid, distFunc, isHighAccuracyFM, timeCost, attributesPotential.getObstacleGridPenalty(), attributesPotential.getTargetAttractionStrength());
+					}
+					break;
+				case FAST_SWEEPING_METHOD_PARALLEL:
+					if(hasThreadSafeTimeCost(attributesPotential)) {
+						eikonalSolver = new EikonalSolverFSMParallel(cellGrid, distFunc, timeCost, attributesPotential.getObstacleGridPenalty(), attributesPotential.getTargetAttractionStrength());
+					} else {
+						warnSequentialFallback(createMethod, EikonalSolverType.FAST_SWEEPING_METHOD, attributesPotential);
+						eikonalSolver = new EikonalSolverFSM(cellGrid, distFunc, isHighAccuracyFM, timeCost, attributesPotential.getObstacleGridPenalty(), attributesPotential.getTargetAttractionStrength());
+					}
+					break;
 				default:
 					eikonalSolver = new EikonalSolverFMM(cellGrid, distFunc, isHighAccuracyFM, timeCost, attributesPotential.getObstacleGridPenalty(), attributesPotential.getTargetAttractionStrength());
 			}
@@ -177,4 +203,40 @@ public abstract class EikonalSolverProvider  {
 		}
 		return eikonalSolver;
 	}
+
+	/**
+	 * Returns true if the time cost function of the floor field can be evaluated by multiple threads at the same
+	 * time, i.e. it neither depends on agents nor uses a (OpenCL) density filter. Time cost functions based on
+	 * densities cache their values in unsynchronized data structures.
+	 */
+	public static boolean hasThreadSafeTimeCost(@NotNull final AttributesFloorField attributesPotential) {
+		TimeCostFunctionType timeCostType = attributesPotential.getTimeCostAttributes().getType();
+		return timeCostType == TimeCostFunctionType.UNIT || timeCostType == TimeCostFunctionType.DISTANCE_TO_OBSTACLES;
+	}
+
+	private static void warnSequentialFallback(
+			@NotNull final EikonalSolverType createMethod,
+			@NotNull final EikonalSolverType sequentialMethod,
+			@NotNull final AttributesFloorField attributesPotential) {
+		logger.warnf("%s does not support the time cost function %s since it is not thread-safe, %s is used instead.",
+				createMethod, attributesPotential.getTimeCostAttributes().getType(), sequentialMethod);
+	}
+
+	/**
+	 * Returns true if the grid based solver of the create method is {@link EikonalSolverFMM}, i.e. the
+	 * solver which only accesses the grid via its primitive accessors.
+	 */
+	private static boolean isUsingFastMarching(@NotNull final EikonalSolverType createMethod) {
+		switch (createMethod) {
+			case FAST_MARCHING:
+			case HIGH_ACCURACY_FAST_MARCHING:
+			case FAST_MARCHING_ADAPTIVE:
+			case HIGH_ACCURACY_FAST_MARCHING_ADAPTIVE:
+			case HIGH_ACCURACY_FAST_MARCHING_DYNAMIC:
+			case HIGH_ACCURACY_FAST_MARCHING_DENSITY:
+				return true;
+			default:
+				return false;
+		}
+	}
 }
@@ -5,8 +5,10 @@ import org.vadere.simulator.models.potential.solver.timecost.ITimeCostFunction;
 import org.vadere.simulator.models.potential.solver.timecost.UnitTimeCostFunction;
 import org.vadere.simulator.utils.cache.ICacheObject;
 import org.vadere.util.geometry.shapes.IPoint;
+import org.vadere.util.geometry.shapes.VShape;
 import org.vadere.util.logging.Logger;
 
+import java.util.List;
 import java.util.function.Function;
 
 /**
@@ -43,6 +45,19 @@ public interface EikonalSolver {
 		return false;
 	}
 
+	/**
+	 * Moves the target of this solver to the given shapes and re-computes the potentials re-using the data
+	 * structures (e.g. the discretized obstacles and the time cost function) of this solver. Returns false if
+	 * the solver does not support moving targets or the target can not be moved, in this case the solver must
+	 * not be used any longer.
+	 *
+	 * @param targetShapes the new target area
+	 * @return true if the target was moved, false otherwise
+	 */
+	default boolean moveTarget(final List<VShape> targetShapes) {
+		return false;
+	}
+
 	double getPotential(final IPoint pos, final double unknownPenalty, final double weight);
 
 	default double getPotential(final IPoint pos, final double unknownPenalty, final double weight, final Object caller) {
@@ -91,7 +106,7 @@ public interface EikonalSolver {
 	 * @param cacheObject path to cached floor field
 	 * @return true if floor field could be loaded and false if not.
 	 */
-	default boolean loadCachedFloorField(ICacheObject cacheObject){
+	default boolean loadCachedFloorField(ICacheObject<?> cacheObject){
 		// default not implemented. This will force a rebuild for each EikonalSolver at creation time.
 		logger.infof("caching not implemented for given EikonalSolver %s", this.getClass().getName());
 		return false;
@@ -106,7 +121,7 @@ public interface EikonalSolver {
 	 * for implementation.
 	 *  @param cache path to cached floor field
 	 */
-	default void saveFloorFieldToCache(ICacheObject cache){
+	default void saveFloorFieldToCache(ICacheObject<?> cache){
 		// default not implemented. This will force a rebuild for each EikonalSolver at creation time.
 		logger.infof("caching not implemented for given EikonalSolver %s", this.getClass().getName());
 	}
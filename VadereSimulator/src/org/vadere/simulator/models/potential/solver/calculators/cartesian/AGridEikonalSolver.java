@@ -1,7 +1,10 @@
 package org.vadere.simulator.models.potential.solver.calculators.cartesian;
 
+import org.jetbrains.annotations.NotNull;
 import org.vadere.util.geometry.shapes.IPoint;
 import org.vadere.util.data.cellgrid.CellGrid;
+import org.vadere.util.data.cellgrid.CellState;
+import org.vadere.util.data.cellgrid.PrimitiveCellGrid;
 import java.util.function.Function;
 
 // TODO: not necessarily abstract!
@@ -36,4 +39,34 @@ public abstract class AGridEikonalSolver implements GridEikonalSolver {
 		return getPotential(potentialField, pos, unknownPenalty, weight);
 	}
 
+	/**
+	 * Returns the grid if the {@link CellState} objects returned by {@link CellGrid#getValue(int, int)} are the
+	 * values of the grid. Solvers which change the grid by changing these objects have to check their grid by this
+	 * method since a {@link PrimitiveCellGrid} returns copies and the changes would be lost.
+	 *
+	 * @param cellGrid the grid of the solver
+	 *
+	 * @return the grid
+	 *
+	 * @throws IllegalArgumentException if the grid is a {@link PrimitiveCellGrid}
+	 */
+	protected static CellGrid requireCellStates(@NotNull final CellGrid cellGrid) {
+		if (cellGrid instanceof PrimitiveCellGrid) {
+			throw new IllegalArgumentException("the solver changes the cell states of the grid which a "
+					+ PrimitiveCellGrid.class.getSimpleName() + " does not contain, use a " + CellGrid.class.getSimpleName() + " instead.");
+		}
+		return cellGrid;
+	}
+
+	/**
+	 * Copies the values of the grid if it is a {@link PrimitiveCellGrid} whose values are shared with other grids,
+	 * e.g. with the floor fields of other runs, see {@link PrimitiveCellGrid#makeWritable()}. Solvers call this
+	 * once before they change the grid.
+	 */
+	protected void makeGridWritable() {
+		if (potentialField instanceof PrimitiveCellGrid) {
+			((PrimitiveCellGrid) potentialField).makeWritable();
+		}
+	}
+
 }
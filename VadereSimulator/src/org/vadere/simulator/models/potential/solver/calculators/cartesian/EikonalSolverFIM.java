@@ -45,7 +45,7 @@ public class EikonalSolverFIM extends AGridEikonalSolver {
 			final ITimeCostFunction timeCostFunction,
             final double unknownPenalty,
             final double weight) {
-	    super(cellGrid, unknownPenalty, weight);
+	    super(requireCellStates(cellGrid), unknownPenalty, weight);
 	    this.cellGrid = cellGrid;
 		this.timeCostFunction = timeCostFunction;
 		this.isHighAccuracy = isHighAccuracy;
@@ -0,0 +1,201 @@
+package org.vadere.simulator.models.potential.solver.calculators.cartesian;
+
+import org.vadere.simulator.models.potential.solver.timecost.ITimeCostFunction;
+import org.vadere.util.data.cellgrid.CellGrid;
+import org.vadere.util.data.cellgrid.CellState;
+import org.vadere.util.data.cellgrid.PathFindingTag;
+import org.vadere.util.logging.Logger;
+import org.vadere.util.math.IDistanceFunction;
+
+import java.awt.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+
+/**
+ * Implementation of the parallel fast iterative method (FIM) presented in
+ * 'A Fast Iterative Method for Eikonal Equations' jeong-2008.
+ *
+ * In contrast to the sequential {@link EikonalSolverFIM} all points of the active list are
+ * updated simultaneously (Jacobi-like) by the common {@link java.util.concurrent.ForkJoinPool}:
+ * <ol>
+ *     <li>the new travelling times of all active points are computed in parallel (read only),</li>
+ *     <li>the new travelling times are written into the grid,</li>
+ *     <li>the travelling times of the neighbours of all converged points are computed in parallel (read only),</li>
+ *     <li>converged points are removed from and improved neighbours are added to the active list.</li>
+ * </ol>
+ * Since no thread writes while others read the result does not depend on the number of threads.
+ *
+ * Note: The time cost function has to be thread-safe, i.e. {@link ITimeCostFunction#costAt} is
+ * called concurrently.
+ */
+public class EikonalSolverFIMParallel extends AGridEikonalSolver {
+
+	private final IDistanceFunction distFunc;
+	private List<Point> targetPoints;
+	private static Logger logger = Logger.getLogger(EikonalSolverFIMParallel.class);
+	private ITimeCostFunction timeCostFunction;
+	private final CellGrid cellGrid;
+	private final double epsilon;
+	private int nUpdates;
+
+	/**
+	 * Active lists smaller than this are processed sequentially to avoid the overhead of forking.
+	 */
+	private static final int PARALLEL_THRESHOLD = 256;
+
+	private ArrayList<Point> activeList;
+
+	public EikonalSolverFIMParallel(
+			final CellGrid cellGrid,
+			final IDistanceFunction distFunc,
+			final ITimeCostFunction timeCostFunction,
+			final double unknownPenalty,
+			final double weight) {
+		super(requireCellStates(cellGrid), unknownPenalty, weight);
+		this.cellGrid = cellGrid;
+		this.timeCostFunction = timeCostFunction;
+		this.distFunc = distFunc;
+		this.targetPoints = cellGrid.pointStream().filter(p -> cellGrid.getValue(p).tag == PathFindingTag.Target).collect(Collectors.toList());
+		this.activeList = new ArrayList<>();
+		this.epsilon = cellGrid.getResolution() / 1000;
+
+		if (targetPoints.size() == 0) {
+			logger.error("PotentialFieldInitializerFastMarching::Run(): "
+					+ "Warning, no target points given. Target missing or grid resolution too low.");
+			return;
+		}
+	}
+
+	protected void resetDynamicPotentialField() {
+		for (CellState data : cellGrid.getRawBuffer()) {
+			data.potential = Double.MAX_VALUE;
+
+			if (data.tag == PathFindingTag.Reached) {
+				data.tag = PathFindingTag.Undefined;
+			} else if (data.tag == PathFindingTag.Target) {
+				data.potential = 0.0;
+			}
+		}
+	}
+
+	private void init() {
+		// set distances of the target neighbor points
+		resetDynamicPotentialField();
+		activeList.clear();
+		targetPoints.stream()
+				.flatMap(p -> cellGrid.getLegitNeumannNeighborhood(p).stream())
+				.filter(neighbor -> cellGrid.getValue(neighbor).tag != PathFindingTag.Obstacle)
+				.forEach(neighbor -> {
+					if (cellGrid.getValue(neighbor).tag != PathFindingTag.NARROW) {
+						activeList.add(neighbor);
+					}
+					cellGrid.setValue(neighbor, new CellState(Math.max(0, -distFunc.apply(cellGrid.pointToCoord(neighbor))), PathFindingTag.NARROW));
+				});
+	}
+
+	private void loop() {
+		while (!activeList.isEmpty()) {
+			int n = activeList.size();
+			nUpdates += n;
+
+			// 1. compute the new travelling times of all active points
+			double[] potentials = new double[n];
+			range(n).forEach(i -> {
+				Point activePoint = activeList.get(i);
+				potentials[i] = Math.min(computeGodunovDifference(activePoint, cellGrid, Direction.ANY), cellGrid.getValue(activePoint).potential);
+			});
+
+			// 2. write the new travelling times and detect converged points
+			boolean[] converged = new boolean[n];
+			for (int i = 0; i < n; i++) {
+				CellState cellState = cellGrid.getValue(activeList.get(i));
+				converged[i] = Math.abs(cellState.potential - potentials[i]) <= epsilon;
+				cellState.potential = potentials[i];
+			}
+
+			// 3. compute the travelling times of the neighbours of converged points
+			List<List<Point>> neighbours = new ArrayList<>(n);
+			for (int i = 0; i < n; i++) {
+				neighbours.add(converged[i] ? cellGrid.getLegitNeumannNeighborhood(activeList.get(i)) : null);
+			}
+			double[][] neighbourPotentials = new double[n][];
+			range(n).filter(i -> converged[i]).forEach(i -> {
+				List<Point> neighbourhood = neighbours.get(i);
+				neighbourPotentials[i] = new double[neighbourhood.size()];
+				for (int j = 0; j < neighbourhood.size(); j++) {
+					Point neighbour = neighbourhood.get(j);
+					if (cellGrid.getValue(neighbour).tag != PathFindingTag.NARROW
+							&& cellGrid.getValue(neighbour).tag != PathFindingTag.Obstacle) {
+						neighbourPotentials[i][j] = computeGodunovDifference(neighbour, cellGrid, Direction.ANY);
+					} else {
+						neighbourPotentials[i][j] = Double.MAX_VALUE;
+					}
+				}
+			});
+
+			// 4. update the active list
+			ArrayList<Point> newActiveList = new ArrayList<>();
+			for (int i = 0; i < n; i++) {
+				Point activePoint = activeList.get(i);
+				if (converged[i]) {
+					List<Point> neighbourhood = neighbours.get(i);
+					for (int j = 0; j < neighbourhood.size(); j++) {
+						Point neighbour = neighbourhood.get(j);
+						double pp = cellGrid.getValue(neighbour).potential;
+						double qq = neighbourPotentials[i][j];
+
+						// the neighbour might already be added by another converged point
+						if (cellGrid.getValue(neighbour).tag != PathFindingTag.NARROW
+								&& cellGrid.getValue(neighbour).tag != PathFindingTag.Obstacle
+								&& qq < (pp - epsilon)) {
+							cellGrid.setValue(neighbour, new CellState(qq, PathFindingTag.NARROW));
+							newActiveList.add(neighbour);
+						}
+					}
+					cellGrid.setValue(activePoint, new CellState(cellGrid.getValue(activePoint).potential, PathFindingTag.Reached));
+				} else {
+					newActiveList.add(activePoint);
+				}
+			}
+			activeList = newActiveList;
+		}
+
+		logger.debug("#update / #vertices: " + nUpdates + " / " + cellGrid.pointStream().filter(p -> cellGrid.getValue(p).tag == PathFindingTag.Reached).count());
+		nUpdates = 0;
+	}
+
+	private static IntStream range(final int n) {
+		IntStream range = IntStream.range(0, n);
+		return n < PARALLEL_THRESHOLD ? range : range.parallel();
+	}
+
+	@Override
+	public void solve() {
+		init();
+		loop();
+	}
+
+	@Override
+	public void update() {
+		timeCostFunction.update();
+		solve();
+	}
+
+	@Override
+	public boolean needsUpdate() {
+		return timeCostFunction.needsUpdate();
+	}
+
+	@Override
+	public ITimeCostFunction getTimeCostFunction() {
+		return timeCostFunction;
+	}
+
+	@Override
+	public boolean isHighAccuracy() {
+		return false;
+	}
+}
@@ -1,16 +1,18 @@
 package org.vadere.simulator.models.potential.solver.calculators.cartesian;
 
 import org.vadere.simulator.models.potential.solver.timecost.ITimeCostFunction;
+import org.vadere.util.data.IndexedBinaryHeap;
 import org.vadere.util.data.cellgrid.CellGrid;
 import org.vadere.util.data.cellgrid.CellState;
+import org.vadere.util.data.cellgrid.FloorDiscretizer;
 import org.vadere.util.data.cellgrid.PathFindingTag;
+import org.vadere.util.geometry.shapes.VShape;
 import org.vadere.util.logging.Logger;
+import org.vadere.util.math.DistanceFunctionTarget;
 import org.vadere.util.math.IDistanceFunction;
-import org.vadere.util.math.MathUtil;
 
 import java.awt.*;
 import java.util.List;
-import java.util.PriorityQueue;
 import java.util.stream.Collectors;
 
 /**
@@ -18,10 +20,14 @@ import java.util.stream.Collectors;
  * of the fast marching algorithm. The potential field is static and therefor
  * not updated by update() (see PotentialFieldInitializerFastMarchingAdaptive).
  * Hence, the initializer may be used to realize static floor fields.
- * 
+ *
+ * The narrow band is an indexed binary heap of cell indices (x * numPointsY + y) ordered by the potential
+ * and (for equal potentials) by the cell index, i.e. by the same total order as {@link ComparatorPotentialFieldValue}.
+ * The grid is only accessed via its primitive accessors, therefore the solver can also be used with a
+ * {@link org.vadere.util.data.cellgrid.PrimitiveCellGrid}.
  */
 public class EikonalSolverFMM extends AGridEikonalSolver {
-	protected final PriorityQueue<Point> narrowBand;
+	protected final IndexedBinaryHeap narrowBand;
 	protected final ITimeCostFunction timeCostFunction;
 
 	protected CellGrid cellGrid;
@@ -50,7 +56,7 @@ public class EikonalSolverFMM extends AGridEikonalSolver {
         this.targetPoints = cellGrid.pointStream().filter(p -> cellGrid.getValue(p).tag == PathFindingTag.Target).collect(Collectors.toList());
         this.distFunc = distFunc;
         this.isHighAccuracy = isHighAccuracy;
-        this.narrowBand = new PriorityQueue<>(50, new ComparatorPotentialFieldValue(potentialField));
+        this.narrowBand = new IndexedBinaryHeap(potentialField.getNumPointsX() * potentialField.getNumPointsY());
         this.timeCostFunction = timeCostFunction;
 
         if (targetPoints.size() == 0) {
@@ -62,6 +68,7 @@ public class EikonalSolverFMM extends AGridEikonalSolver {
 
 	@Override
 	public void solve() {
+		makeGridWritable();
 		for (Point point : targetPoints) {
 			setTargetNeighborsDistances(point);
 		}
@@ -75,9 +82,11 @@ public class EikonalSolverFMM extends AGridEikonalSolver {
 		// it is not possible to work with the cellGrid directly.
 		long ms = System.currentTimeMillis();
 		while (!narrowBand.isEmpty()) {
-			Point tmpPoint = narrowBand.poll();
-			cellGrid.getValue(tmpPoint).tag = PathFindingTag.Reached;
-			setNeighborDistances(tmpPoint);
+			int index = narrowBand.poll();
+			int x = index / cellGrid.getNumPointsY();
+			int y = index % cellGrid.getNumPointsY();
+			cellGrid.setTag(x, y, PathFindingTag.Reached);
+			setNeighborDistances(x, y);
 		}
 		long runTime = System.currentTimeMillis() - ms;
 		logger.debug("fmm on the gird run time = " + runTime + ", #updates = " + updates);
@@ -89,12 +98,13 @@ public class EikonalSolverFMM extends AGridEikonalSolver {
 	 * @param point
 	 */
 	private void furtherRun(final Point point) {
-		Point tmpPoint;
 		while (!narrowBand.isEmpty()
-				&& cellGrid.getValue(point).tag == PathFindingTag.Undefined) {
-			tmpPoint = narrowBand.poll();
-			cellGrid.getValue(tmpPoint).tag = PathFindingTag.Reached;
-			setNeighborDistances(tmpPoint);
+				&& cellGrid.getTag(point.x, point.y) == PathFindingTag.Undefined) {
+			int index = narrowBand.poll();
+			int x = index / cellGrid.getNumPointsY();
+			int y = index % cellGrid.getNumPointsY();
+			cellGrid.setTag(x, y, PathFindingTag.Reached);
+			setNeighborDistances(x, y);
 		}
 	}
 
@@ -104,6 +114,7 @@ public class EikonalSolverFMM extends AGridEikonalSolver {
 		long ms = System.currentTimeMillis();
 		if (needsUpdate()) {
 			timeCostFunction.update();
+			makeGridWritable();
 			resetDynamicPotentialField();
 			solve();
 		}
@@ -112,17 +123,49 @@ public class EikonalSolverFMM extends AGridEikonalSolver {
 	}
 
 	protected void resetDynamicPotentialField() {
-		for (CellState data : cellGrid.getRawBuffer()) {
-			data.potential = Double.MAX_VALUE;
-
-			if (data.tag == PathFindingTag.Reached) {
-				data.tag = PathFindingTag.Undefined;
-			} else if (data.tag == PathFindingTag.Target) {
-				data.potential = 0.0;
+		for (int x = 0; x < cellGrid.getNumPointsX(); x++) {
+			for (int y = 0; y < cellGrid.getNumPointsY(); y++) {
+				PathFindingTag tag = cellGrid.getTag(x, y);
+				cellGrid.setPotential(x, y, Double.MAX_VALUE);
+
+				if (tag == PathFindingTag.Reached) {
+					cellGrid.setTag(x, y, PathFindingTag.Undefined);
+				} else if (tag == PathFindingTag.Target) {
+					cellGrid.setPotential(x, y, 0.0);
+				}
 			}
 		}
 	}
 
+	/**
+	 * Replaces the target grid points by those covered by the new target shapes (obstacles remain obstacles)
+	 * and solves the eikonal equation again. Compared to a new solver the grid, the discretized obstacles and
+	 * the time cost function are re-used. Note that the travel times of all grid points change if the target
+	 * moves, therefore the whole grid is re-computed.
+	 */
+	@Override
+	public boolean moveTarget(final List<VShape> targetShapes) {
+		makeGridWritable();
+		for (Point point : targetPoints) {
+			cellGrid.setTag(point.x, point.y, PathFindingTag.Undefined);
+		}
+
+		for (VShape shape : targetShapes) {
+			FloorDiscretizer.setGridValuesForShape(cellGrid, shape, new CellState(0.0, PathFindingTag.Target),
+					tag -> tag != PathFindingTag.Obstacle);
+		}
+
+		targetPoints = cellGrid.pointStream().filter(p -> cellGrid.getTag(p.x, p.y) == PathFindingTag.Target).collect(Collectors.toList());
+		if (targetPoints.isEmpty()) {
+			return false;
+		}
+
+		distFunc = new DistanceFunctionTarget(cellGrid, targetShapes);
+		resetDynamicPotentialField();
+		solve();
+		return true;
+	}
+
 	@Override
 	public ITimeCostFunction getTimeCostFunction() {
 		return timeCostFunction;
@@ -138,26 +181,32 @@ public class EikonalSolverFMM extends AGridEikonalSolver {
 		return timeCostFunction.needsUpdate();
 	}
 
-	protected void setNeighborDistances(final Point point) {
-		List<Point> neighbors = MathUtil.getNeumannNeighborhood(point);
-		double distance;
+	/**
+	 * Updates the travelling times of the neighbors of the grid point (x, y) which was just reached.
+	 */
+	protected void setNeighborDistances(final int x, final int y) {
+		// same order as MathUtil.getNeumannNeighborhood
+		setNeighborDistance(x - 1, y);
+		setNeighborDistance(x + 1, y);
+		setNeighborDistance(x, y - 1);
+		setNeighborDistance(x, y + 1);
+	}
 
-		for (Point neighbor : neighbors) {
-			if (cellGrid.isValidPoint(neighbor)) {
-				if (cellGrid.getValue(neighbor).tag == PathFindingTag.Undefined) {
-					distance = computeGodunovDifference(neighbor, cellGrid);
-					updates++;
-					cellGrid.setValue(neighbor, new CellState(distance,
-							PathFindingTag.Reachable));
-					narrowBand.add(neighbor);
-				} else if (cellGrid.getValue(neighbor).tag == PathFindingTag.Reachable) {
-					distance = computeGodunovDifference(neighbor, cellGrid);
-					updates++;
-					if (distance < cellGrid.getValue(neighbor).potential) {
-						narrowBand.remove(neighbor);
-						cellGrid.getValue(neighbor).potential = distance;
-						narrowBand.add(neighbor);
-					}
+	private void setNeighborDistance(final int x, final int y) {
+		if (cellGrid.isValidPoint(x, y)) {
+			PathFindingTag tag = cellGrid.getTag(x, y);
+			if (tag == PathFindingTag.Undefined) {
+				double distance = computeGodunovDifference(x, y, cellGrid);
+				updates++;
+				cellGrid.setPotential(x, y, distance);
+				cellGrid.setTag(x, y, PathFindingTag.Reachable);
+				addToNarrowBand(x, y);
+			} else if (tag == PathFindingTag.Reachable) {
+				double distance = computeGodunovDifference(x, y, cellGrid);
+				updates++;
+				if (distance < cellGrid.getPotential(x, y)) {
+					cellGrid.setPotential(x, y, distance);
+					addToNarrowBand(x, y);
 				}
 			}
 		}
@@ -167,13 +216,21 @@ public class EikonalSolverFMM extends AGridEikonalSolver {
 		List<Point> neighbors = cellGrid.getLegitNeumannNeighborhood(point);
 
 		for (Point neighbor : neighbors) {
-			if (cellGrid.getValue(neighbor).tag == PathFindingTag.Undefined) {
+			if (cellGrid.getTag(neighbor.x, neighbor.y) == PathFindingTag.Undefined) {
 				double distance = Math.max(0, -distFunc.apply(cellGrid.pointToCoord(neighbor)));
 				double timeCost = timeCostFunction.costAt(cellGrid.pointToCoord(neighbor));
 				double potential = distance / timeCost;
-				cellGrid.setValue(neighbor, new CellState(potential, PathFindingTag.Reachable));
-				narrowBand.add(neighbor);
+				cellGrid.setPotential(neighbor.x, neighbor.y, potential);
+				cellGrid.setTag(neighbor.x, neighbor.y, PathFindingTag.Reachable);
+				addToNarrowBand(neighbor.x, neighbor.y);
 			}
 		}
 	}
+
+	/**
+	 * Adds the grid point to the narrow band or updates its position if its potential decreased.
+	 */
+	private void addToNarrowBand(final int x, final int y) {
+		narrowBand.add(x * cellGrid.getNumPointsY() + y, cellGrid.getPotential(x, y));
+	}
 }
@@ -41,7 +41,7 @@ public class EikonalSolverFSM extends AGridEikonalSolver {
 			final ITimeCostFunction timeCostFunction,
 			final double unknownPenalty,
 			final double weight) {
-	    super(cellGrid, unknownPenalty, weight);
+	    super(requireCellStates(cellGrid), unknownPenalty, weight);
 	    this.distFunc = distFunc;
 		this.timeCostFunction = timeCostFunction;
 		this.isHighAccuracy = isHighAccuracy;
@@ -0,0 +1,189 @@
+package org.vadere.simulator.models.potential.solver.calculators.cartesian;
+
+import org.vadere.simulator.models.potential.solver.timecost.ITimeCostFunction;
+import org.vadere.util.data.cellgrid.CellGrid;
+import org.vadere.util.data.cellgrid.CellState;
+import org.vadere.util.data.cellgrid.PathFindingTag;
+import org.vadere.util.logging.Logger;
+import org.vadere.util.math.IDistanceFunction;
+
+import java.awt.*;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Implementation of the parallel fast sweeping method (FSM) presented in
+ * 'Parallel implementations of the fast sweeping method' zhao-2007.
+ *
+ * In each iteration the 4 sweeps of the sequential {@link EikonalSolverFSM} are executed
+ * concurrently (by the common {@link java.util.concurrent.ForkJoinPool}), each on its own copy
+ * of the travelling times. At the end of an iteration the copies are merged by taking the minimum
+ * for each grid point. The merge costs about as much as a sweep, therefore it is executed
+ * concurrently as well (column by column). The method converges to the same solution as the
+ * sequential method but might require more iterations.
+ *
+ * Note: The time cost function has to be thread-safe, i.e. {@link ITimeCostFunction#costAt} is
+ * called concurrently.
+ */
+public class EikonalSolverFSMParallel extends AGridEikonalSolver {
+	private final CellGrid cellGrid;
+	private static Logger logger = Logger.getLogger(EikonalSolverFSMParallel.class);
+	private final ITimeCostFunction timeCostFunction;
+	private List<Point> targetPoints;
+	private final IDistanceFunction distFunc;
+	private static final double EPSILON = 0.001;
+	private static final int NUMBER_OF_SWEEPS = 4;
+
+	public EikonalSolverFSMParallel(
+			final CellGrid cellGrid,
+			final IDistanceFunction distFunc,
+			final ITimeCostFunction timeCostFunction,
+			final double unknownPenalty,
+			final double weight) {
+		super(requireCellStates(cellGrid), unknownPenalty, weight);
+		this.distFunc = distFunc;
+		this.timeCostFunction = timeCostFunction;
+		this.targetPoints = cellGrid.pointStream().filter(p -> cellGrid.getValue(p).tag == PathFindingTag.Target).collect(Collectors.toList());
+		this.cellGrid = cellGrid;
+
+		if (targetPoints.size() == 0) {
+			logger.error("PotentialFieldInitializerFastMarching::Run(): "
+					+ "Warning, no target points given. Target missing or grid resolution too low.");
+			return;
+		}
+	}
+
+	@Override
+	public void solve() {
+		init();
+		loop();
+	}
+
+	private void init() {
+		// set distances of the target neighbor points
+		targetPoints.stream()
+				.flatMap(p -> cellGrid.getLegitNeumannNeighborhood(p).stream())
+				.filter(neighbor -> cellGrid.getValue(neighbor).tag != PathFindingTag.Obstacle)
+				.forEach(neighbor -> {
+					cellGrid.setValue(neighbor, new CellState(Math.max(0, -distFunc.apply(cellGrid.pointToCoord(neighbor))), PathFindingTag.NARROW));
+				});
+	}
+
+	private void loop() {
+		int numPointsX = cellGrid.getNumPointsX();
+		int numPointsY = cellGrid.getNumPointsY();
+		int iterations = 0;
+		boolean allFrozen = false;
+
+		CellGrid[] copies = new CellGrid[NUMBER_OF_SWEEPS];
+		for (int sweep = 0; sweep < NUMBER_OF_SWEEPS; sweep++) {
+			copies[sweep] = cellGrid.clone();
+		}
+
+		while (!allFrozen) {
+			iterations++;
+			logger.debug("iteration number: " + iterations);
+
+			// the sweeps are independent since each sweep operates on its own copy
+			allFrozen = IntStream.range(0, NUMBER_OF_SWEEPS)
+					.parallel()
+					.mapToObj(sweep -> sweep(copies[sweep], sweep))
+					.reduce(true, (frozen1, frozen2) -> frozen1 && frozen2);
+
+			// min-reduction of all copies, the columns are independent
+			IntStream.range(0, numPointsX)
+					.parallel()
+					.forEach(x -> reduce(copies, x, numPointsY));
+		}
+	}
+
+	/**
+	 * Sets the travelling times of the column of the grid and of all copies to the minimum of the copies.
+	 *
+	 * @param copies        the copies of the sweeps
+	 * @param x             the column
+	 * @param numPointsY    the number of grid points of the column
+	 */
+	private void reduce(final CellGrid[] copies, final int x, final int numPointsY) {
+		for (int y = 0; y < numPointsY; y++) {
+			double min = copies[0].getValue(x, y).potential;
+			for (int sweep = 1; sweep < NUMBER_OF_SWEEPS; sweep++) {
+				min = Math.min(min, copies[sweep].getValue(x, y).potential);
+			}
+			cellGrid.getValue(x, y).potential = min;
+			for (int sweep = 0; sweep < NUMBER_OF_SWEEPS; sweep++) {
+				copies[sweep].getValue(x, y).potential = min;
+			}
+		}
+	}
+
+	/**
+	 * Executes one of the 4 sweeps of the sequential FSM on the grid.
+	 *
+	 * @param grid  the copy of the travelling times the sweep operates on
+	 * @param sweep the number of the sweep (0, 1, 2 or 3)
+	 * @return true if no travelling time changed significantly, false otherwise
+	 */
+	private boolean sweep(final CellGrid grid, final int sweep) {
+		int numPointsX = grid.getNumPointsX();
+		int numPointsY = grid.getNumPointsY();
+		boolean frozen = true;
+
+		switch (sweep) {
+			case 0:
+				for (int x = 0; x < numPointsX; x++) {
+					for (int y = 0; y < numPointsY; y++) {
+						frozen &= update(grid, x, y);
+					}
+				}
+				break;
+			case 1:
+				for (int x = numPointsX - 1; x >= 0; x--) {
+					for (int y = 0; y < numPointsY; y++) {
+						frozen &= update(grid, x, y);
+					}
+				}
+				break;
+			case 2:
+				for (int y = numPointsY - 1; y >= 0; y--) {
+					for (int x = numPointsX - 1; x >= 0; x--) {
+						frozen &= update(grid, x, y);
+					}
+				}
+				break;
+			default:
+				for (int y = numPointsY - 1; y >= 0; y--) {
+					for (int x = 0; x < numPointsX; x++) {
+						frozen &= update(grid, x, y);
+					}
+				}
+		}
+		return frozen;
+	}
+
+	private boolean update(final CellGrid grid, final int x, final int y) {
+		Point point = new Point(x, y);
+		if (isRelevant(grid, point)) {
+			double p = grid.getValue(point).potential;
+			double q = Math.min(computeGodunovDifference(point, grid, Direction.ANY), p);
+			grid.getValue(point).potential = q;
+			return Math.abs(q - p) <= EPSILON;
+		}
+		return true;
+	}
+
+	private boolean isRelevant(final CellGrid grid, final Point point) {
+		return grid.getValue(point).tag != PathFindingTag.Target && grid.getValue(point).tag != PathFindingTag.Obstacle;
+	}
+
+	@Override
+	public ITimeCostFunction getTimeCostFunction() {
+		return timeCostFunction;
+	}
+
+	@Override
+	public boolean isHighAccuracy() {
+		return false;
+	}
+}
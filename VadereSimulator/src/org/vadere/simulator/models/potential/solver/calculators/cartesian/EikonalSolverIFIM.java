@@ -44,7 +44,7 @@ public class EikonalSolverIFIM extends AGridEikonalSolver {
 			final ITimeCostFunction timeCostFunction,
             final double unknownPenalty,
             final double weight) {
-	    super(cellGrid, unknownPenalty, weight);
+	    super(requireCellStates(cellGrid), unknownPenalty, weight);
 	    this.cellGrid = cellGrid;
 		this.timeCostFunction = timeCostFunction;
 		this.distFunc = distFunc;
@@ -3,7 +3,6 @@ package org.vadere.simulator.models.potential.solver.calculators.cartesian;
 import org.apache.commons.math3.util.Pair;
 import org.vadere.simulator.models.potential.solver.timecost.ITimeCostFunction;
 import org.vadere.util.data.cellgrid.CellGrid;
-import org.vadere.util.data.cellgrid.CellState;
 import org.vadere.util.data.cellgrid.PathFindingTag;
 import org.vadere.util.logging.Logger;
 import org.vadere.util.math.IDistanceFunction;
@@ -18,7 +17,8 @@ import java.util.stream.Collectors;
 /**
  * EikonalSolverSFMM is almost identical to EikonalSolverFMM avoiding
  * the update of values inside the priority queue. Instead the queue contains
- * duplicates.
+ * duplicates. The grid is only accessed via its primitive accessors, therefore the solver also works
+ * on a {@link org.vadere.util.data.cellgrid.PrimitiveCellGrid}.
  *
  * See: jones-2006 (3D distance fields: a survey of techniques and applications)
  * See: gomez-2015 (Fast Methods for Eikonal Equations: an Experimental Survey)
@@ -66,6 +66,7 @@ public class EikonalSolverSFMM extends AGridEikonalSolver {
 
 	@Override
 	public void solve() {
+		makeGridWritable();
 		for (Point point : targetPoints) {
 			setTargetNeighborsDistances(point);
 		}
@@ -79,8 +80,8 @@ public class EikonalSolverSFMM extends AGridEikonalSolver {
 			Point tmpPoint = pair.getKey();
 			double value = pair.getValue();
 
-			if(value <= cellGrid.getValue(tmpPoint).potential) {
-				cellGrid.getValue(tmpPoint).tag = PathFindingTag.Reached;
+			if(value <= cellGrid.getPotential(tmpPoint.x, tmpPoint.y)) {
+				cellGrid.setTag(tmpPoint.x, tmpPoint.y, PathFindingTag.Reached);
 				setNeighborDistances(tmpPoint);
 			}
 		}
@@ -92,14 +93,14 @@ public class EikonalSolverSFMM extends AGridEikonalSolver {
 	 * @param point
 	 */
 	private void furtherRun(final Point point) {
-		while (!narrowBand.isEmpty() && cellGrid.getValue(point).tag == PathFindingTag.Undefined) {
+		while (!narrowBand.isEmpty() && cellGrid.getTag(point.x, point.y) == PathFindingTag.Undefined) {
 			Pair<Point, Double> pair = narrowBand.poll();
 			Point tmpPoint = pair.getKey();
 			double value = pair.getValue();
 
 			// this might be an old value
-			if(value <= cellGrid.getValue(tmpPoint).potential) {
-				cellGrid.getValue(tmpPoint).tag = PathFindingTag.Reached;
+			if(value <= cellGrid.getPotential(tmpPoint.x, tmpPoint.y)) {
+				cellGrid.setTag(tmpPoint.x, tmpPoint.y, PathFindingTag.Reached);
 				setNeighborDistances(tmpPoint);
 			}
 		}
@@ -111,6 +112,7 @@ public class EikonalSolverSFMM extends AGridEikonalSolver {
 		long ms = System.currentTimeMillis();
 		if (needsUpdate()) {
 			timeCostFunction.update();
+			makeGridWritable();
 			resetDynamicPotentialField();
 			solve();
 		}
@@ -119,13 +121,16 @@ public class EikonalSolverSFMM extends AGridEikonalSolver {
 	}
 
 	protected void resetDynamicPotentialField() {
-		for (CellState data : cellGrid.getRawBuffer()) {
-			data.potential = Double.MAX_VALUE;
-
-			if (data.tag == PathFindingTag.Reached) {
-				data.tag = PathFindingTag.Undefined;
-			} else if (data.tag == PathFindingTag.Target) {
-				data.potential = 0.0;
+		for (int x = 0; x < cellGrid.getNumPointsX(); x++) {
+			for (int y = 0; y < cellGrid.getNumPointsY(); y++) {
+				PathFindingTag tag = cellGrid.getTag(x, y);
+				cellGrid.setPotential(x, y, Double.MAX_VALUE);
+
+				if (tag == PathFindingTag.Reached) {
+					cellGrid.setTag(x, y, PathFindingTag.Undefined);
+				} else if (tag == PathFindingTag.Target) {
+					cellGrid.setPotential(x, y, 0.0);
+				}
 			}
 		}
 	}
@@ -152,18 +157,18 @@ public class EikonalSolverSFMM extends AGridEikonalSolver {
 		for (Point neighbor : neighbors) {
 
 			if (cellGrid.isValidPoint(neighbor)) {
-				if (cellGrid.getValue(neighbor).tag == PathFindingTag.Undefined) {
+				if (cellGrid.getTag(neighbor.x, neighbor.y) == PathFindingTag.Undefined) {
 					distance = computeGodunovDifference(neighbor, cellGrid);
-					cellGrid.setValue(neighbor, new CellState(distance,
-							PathFindingTag.Reachable));
-					narrowBand.add(Pair.create(new Point(neighbor), cellGrid.getValue(neighbor).potential));
-				} else if (cellGrid.getValue(neighbor).tag == PathFindingTag.Reachable) {
+					cellGrid.setPotential(neighbor.x, neighbor.y, distance);
+					cellGrid.setTag(neighbor.x, neighbor.y, PathFindingTag.Reachable);
+					narrowBand.add(Pair.create(new Point(neighbor), distance));
+				} else if (cellGrid.getTag(neighbor.x, neighbor.y) == PathFindingTag.Reachable) {
 					distance = computeGodunovDifference(neighbor, cellGrid);
 
-					if (distance < cellGrid.getValue(neighbor).potential) {
-						narrowBand.remove(neighbor);
-						cellGrid.getValue(neighbor).potential = distance;
-						narrowBand.add(Pair.create(new Point(neighbor), cellGrid.getValue(neighbor).potential));
+					// the outdated entry stays inside the queue and is skipped when it is polled
+					if (distance < cellGrid.getPotential(neighbor.x, neighbor.y)) {
+						cellGrid.setPotential(neighbor.x, neighbor.y, distance);
+						narrowBand.add(Pair.create(new Point(neighbor), distance));
 					}
 				}
 			}
@@ -174,12 +179,13 @@ public class EikonalSolverSFMM extends AGridEikonalSolver {
 		List<Point> neighbors = cellGrid.getLegitNeumannNeighborhood(point);
 
 		for (Point neighbor : neighbors) {
-			if (cellGrid.getValue(neighbor).tag == PathFindingTag.Undefined) {
+			if (cellGrid.getTag(neighbor.x, neighbor.y) == PathFindingTag.Undefined) {
 				double distance = Math.max(0, -distFunc.apply(cellGrid.pointToCoord(neighbor)));
 				double timeCost = timeCostFunction.costAt(cellGrid.pointToCoord(neighbor));
 				double potential = distance / timeCost;
-				cellGrid.setValue(neighbor, new CellState(potential, PathFindingTag.Reachable));
-				narrowBand.add(Pair.create(new Point(neighbor.x, neighbor.y), cellGrid.getValue(neighbor.x, neighbor.y).potential));
+				cellGrid.setPotential(neighbor.x, neighbor.y, potential);
+				cellGrid.setTag(neighbor.x, neighbor.y, PathFindingTag.Reachable);
+				narrowBand.add(Pair.create(new Point(neighbor.x, neighbor.y), potential));
 			}
 		}
 	}
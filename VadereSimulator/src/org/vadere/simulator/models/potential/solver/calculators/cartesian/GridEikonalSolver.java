@@ -435,11 +435,15 @@ public interface GridEikonalSolver extends EikonalSolver {
 	}
 
 	default double computeGodunovDifference(final Point point, final CellGrid cellGrid) {
+		return computeGodunovDifference(point.x, point.y, cellGrid);
+	}
+
+	default double computeGodunovDifference(final int x, final int y, final CellGrid cellGrid) {
 		double result = Double.MAX_VALUE;
 
 		// enables cost fields with cost != 1
-		VPoint position = cellGrid.pointToCoord(point.x, point.y);
-		double cost = getTimeCostFunction().costAt(new VPoint(position.x, position.y));
+		VPoint position = cellGrid.pointToCoord(x, y);
+		double cost = getTimeCostFunction().costAt(position);
 
 		double speed = (1.0 / cellGrid.getResolution()) / cost; // = F/cost
 
@@ -455,21 +459,21 @@ public interface GridEikonalSolver extends EikonalSolver {
 			double val2 = Double.MAX_VALUE;
 
 			for (int i = 0; i < 2; i++) {
-				Point pni = new Point(point.x + neighbors.get(2 * j + i).x,
-						point.y + neighbors.get(2 * j + i).y);
-				Point pni2 = new Point(
-						point.x + neighbors.get(2 * j + i).x * 2, point.y
-						+ neighbors.get(2 * j + i).y * 2);
+				// use the primitive accessors of the grid to avoid any allocation
+				int pniX = x + neighbors.get(2 * j + i).x;
+				int pniY = y + neighbors.get(2 * j + i).y;
+				int pni2X = x + neighbors.get(2 * j + i).x * 2;
+				int pni2Y = y + neighbors.get(2 * j + i).y * 2;
 
-				if (isValidPoint(cellGrid, pni) && cellGrid.getValue(pni).tag.frozen) {
-					double val1n = cellGrid.getValue(pni).potential;
+				if (cellGrid.isValidPoint(pniX, pniY) && cellGrid.getTag(pniX, pniY).frozen) {
+					double val1n = cellGrid.getPotential(pniX, pniY);
 
 					if (val1n < val1) {
 						val1 = val1n;
 
-						if (isValidPoint(cellGrid, pni2)) {
-							double val2n = cellGrid.getValue(pni2).potential;
-							if (cellGrid.getValue(pni2).tag.frozen
+						if (cellGrid.isValidPoint(pni2X, pni2Y)) {
+							double val2n = cellGrid.getPotential(pni2X, pni2Y);
+							if (cellGrid.getTag(pni2X, pni2Y).frozen
 									&& val2n <= val1n) {
 								val2 = val2n;
 							} else {
@@ -519,7 +523,7 @@ public interface GridEikonalSolver extends EikonalSolver {
 	}
 
 	@Override
-	default boolean loadCachedFloorField(ICacheObject cacheObject) {
+	default boolean loadCachedFloorField(ICacheObject<?> cacheObject) {
 		// loadFromFilesystem floor field from cache. If it succeeds return true to indicate that the floor field
 		// is initialized.
 		boolean cacheLoaded = false;
@@ -535,7 +539,7 @@ public interface GridEikonalSolver extends EikonalSolver {
 	}
 
 	@Override
-	default void saveFloorFieldToCache(ICacheObject cacheObject) {
+	default void saveFloorFieldToCache(ICacheObject<?> cacheObject) {
 		try{
 			ICellGridCacheObject cellGridCache = (ICellGridCacheObject) cacheObject;
 			cellGridCache.persistObject(getCellGrid());
@@ -15,7 +15,7 @@ public class PotentialFieldCalculatorAirLine extends AGridEikonalSolver {
 			final LinkedList<Point> targetPoints,
 			final double knownPenalty,
             final double weight) {
-		super(potentialField, knownPenalty, weight);
+		super(requireCellStates(potentialField), knownPenalty, weight);
 		this.potentialField = potentialField;
 		this.targetPoints = targetPoints;
 	}
@@ -20,7 +20,7 @@ public class PotentialFieldCalculatorDijkstra extends AGridEikonalSolver {
 			final LinkedList<Point> targetPoints,
             final double unknownPenalty,
             final double weight) {
-		super(potentialField, unknownPenalty, weight);
+		super(requireCellStates(potentialField), unknownPenalty, weight);
 		this.potentialField = potentialField;
 		this.targetPoints = targetPoints;
 	}
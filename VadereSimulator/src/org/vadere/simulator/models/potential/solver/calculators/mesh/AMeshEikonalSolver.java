@@ -19,6 +19,9 @@ import org.vadere.meshing.mesh.inter.IVertexContainerBoolean;
 import org.vadere.meshing.mesh.inter.IVertexContainerDouble;
 import org.vadere.simulator.models.potential.solver.timecost.ITimeCostFunction;
 import org.vadere.simulator.models.potential.solver.timecost.ITimeCostFunctionMesh;
+import org.vadere.simulator.utils.cache.CacheException;
+import org.vadere.simulator.utils.cache.ICacheObject;
+import org.vadere.simulator.utils.cache.IMeshCacheObject;
 import org.vadere.util.geometry.GeometryUtils;
 import org.vadere.util.geometry.shapes.IPoint;
 import org.vadere.util.geometry.shapes.VPoint;
@@ -190,6 +193,33 @@ public abstract class AMeshEikonalSolver<V extends IVertex, E extends IHalfEdge,
 		});
 	}
 
+	@Override
+	public boolean loadCachedFloorField(ICacheObject<?> cacheObject) {
+		// loads the travelling times of all vertices from the cache. If it succeeds return true to indicate that the floor field
+		// is initialized.
+		boolean cacheLoaded = false;
+
+		try {
+			IMeshCacheObject meshCache = (IMeshCacheObject) cacheObject;
+			meshCache.initializeObjectFromCache(getMesh(), identifier + "_" + namePotential);
+			getMesh().streamVertices().forEach(v -> setBurned(v));
+			cacheLoaded = true;
+		} catch (CacheException e) {
+			logger.error("Error loading cache. Initialize manually.", e);
+		}
+		return cacheLoaded;
+	}
+
+	@Override
+	public void saveFloorFieldToCache(ICacheObject<?> cacheObject) {
+		try {
+			IMeshCacheObject meshCache = (IMeshCacheObject) cacheObject;
+			meshCache.persistObject(getMesh(), identifier + "_" + namePotential);
+		} catch (CacheException e) {
+			logger.error("Error saving cache.", e);
+		}
+	}
+
 	@Override
 	public IMesh<V, E, F> getMesh() {
 		return triangulation.getMesh();
@@ -89,9 +89,9 @@ public class QueueDetector extends EikonalSolverFMM {
     }
 
     @Override
-    protected void setNeighborDistances(Point point) {
-        super.setNeighborDistances(point);
-        VPoint worldCoord = cellGrid.pointToCoord(point);
+    protected void setNeighborDistances(final int x, final int y) {
+        super.setNeighborDistances(x, y);
+        VPoint worldCoord = cellGrid.pointToCoord(x, y);
         orderedPoints.removeIf(p -> p.distance(worldCoord) <= radius);
 
         if (Math.max(0, -distFunc.apply(worldCoord)) <= radius) {
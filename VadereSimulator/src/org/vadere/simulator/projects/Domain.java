@@ -45,4 +45,12 @@ public class Domain {
 	public Domain clone() {
 		return new Domain(floorFieldMesh == null ? null : floorFieldMesh.clone(), backgroundMesh == null ? null : backgroundMesh.clone(), topography.clone());
 	}
+
+	/**
+	 * Returns a light-weight copy without agents which shares the meshes and the scenario elements with this domain,
+	 * see {@link Topography#shallowClone()}.
+	 */
+	public Domain shallowClone() {
+		return new Domain(floorFieldMesh, backgroundMesh, topography.shallowClone());
+	}
 }
@@ -48,6 +48,8 @@ public class DataProcessingJsonManager {
 	private static final String ATTRIBUTESTYPE_KEY = "attributesType";
 	private static final String TIMESTAMP_KEY = "isTimestamped";
 	private static final String WRITEMETA_KEY = "isWriteMetaData";
+	private static final String STREAMING_INTERVAL_KEY = "streamingInterval";
+	private static final String UPDATE_THREADS_KEY = "updateThreads";
 	public static ObjectWriter writer;
 	private static ObjectMapper mapper;
 
@@ -62,12 +64,23 @@ public class DataProcessingJsonManager {
 	private List<DataProcessor<?, ?>> dataProcessors;
 	private boolean isTimestamped;
 	private boolean isWriteMetaData;
+	/**
+	 * If positive, finished rows are written every streamingInterval steps instead of after the simulation,
+	 * see {@link ProcessorManager}.
+	 */
+	private int streamingInterval;
+	/**
+	 * If greater than one, the processors are updated concurrently by this number of threads, see {@link ProcessorManager}.
+	 */
+	private int updateThreads;
 
 	public DataProcessingJsonManager() {
 		this.outputFiles = new ArrayList<>();
 		this.dataProcessors = new ArrayList<>();
 		this.isTimestamped = true;
 		this.isWriteMetaData = false;
+		this.streamingInterval = 0;
+		this.updateThreads = 1;
 		this.outputFileFactory = OutputFileFactory.instance();
 		this.processorFactory = DataProcessorFactory.instance();
 	}
@@ -153,6 +166,16 @@ public class DataProcessingJsonManager {
 			manager.setWriteMetaData(writeMetaData.asBoolean());
 		}
 
+		JsonNode streamingInterval = node.get(STREAMING_INTERVAL_KEY);
+		if (streamingInterval != null) {
+			manager.setStreamingInterval(streamingInterval.asInt());
+		}
+
+		JsonNode updateThreads = node.get(UPDATE_THREADS_KEY);
+		if (updateThreads != null) {
+			manager.setUpdateThreads(updateThreads.asInt());
+		}
+
 		return manager;
 	}
 
@@ -253,6 +276,22 @@ public class DataProcessingJsonManager {
 		this.isWriteMetaData = isWriteMetaData;
 	}
 
+	public int getStreamingInterval() {
+		return streamingInterval;
+	}
+
+	public void setStreamingInterval(int streamingInterval) {
+		this.streamingInterval = streamingInterval;
+	}
+
+	public int getUpdateThreads() {
+		return updateThreads;
+	}
+
+	public void setUpdateThreads(int updateThreads) {
+		this.updateThreads = updateThreads;
+	}
+
 	public String serialize() throws JsonProcessingException {
 		return writer.writeValueAsString(serializeToNode());
 	}
@@ -278,6 +317,14 @@ public class DataProcessingJsonManager {
 		main.put(TIMESTAMP_KEY, this.isTimestamped);
 		main.put(WRITEMETA_KEY, this.isWriteMetaData);
 
+		// streaming and concurrent updates are optional, therefore existing scenario files do not change
+		if (this.streamingInterval > 0) {
+			main.put(STREAMING_INTERVAL_KEY, this.streamingInterval);
+		}
+		if (this.updateThreads > 1) {
+			main.put(UPDATE_THREADS_KEY, this.updateThreads);
+		}
+
 		return main;
 	}
 
@@ -288,7 +335,10 @@ public class DataProcessingJsonManager {
 			f.setWriteMetaData(isWriteMetaData()); // allow to write meta data
 		}
 
-		return new ProcessorManager(dataProcessors, outputFiles, mainModel, topography);
+		ProcessorManager processorManager = new ProcessorManager(dataProcessors, outputFiles, mainModel, topography);
+		processorManager.setStreamingInterval(getStreamingInterval());
+		processorManager.setUpdateThreads(getUpdateThreads());
+		return processorManager;
 
 	}
 
@@ -6,22 +6,41 @@ import org.vadere.simulator.models.MainModel;
 import org.vadere.simulator.projects.SimulationResult;
 import org.vadere.simulator.projects.dataprocessing.outputfile.OutputFile;
 import org.vadere.simulator.projects.dataprocessing.processor.DataProcessor;
+import org.vadere.simulator.projects.dataprocessing.processor.VoronoiDiagramCache;
 import org.vadere.state.scenario.MeasurementArea;
 import org.vadere.state.scenario.Topography;
 import org.vadere.util.geometry.shapes.VShape;
+import org.vadere.util.logging.Logger;
 
 import java.io.File;
 import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
+ * If the streaming interval is positive, the rows of finished keys (see {@link DataProcessor#getFinishedKeyBound()})
+ * are written every <tt>streamingInterval</tt> steps by a background thread instead of keeping all data until the
+ * simulation finished. This is only done for output files whose processors are neither used by other processors
+ * nor by other output files since written values are removed from the processors.
+ *
+ * If the number of update threads is greater than one, the processors are updated concurrently by a
+ * {@link ProcessorUpdateScheduler}. The dependencies of the processors are the processors they request by
+ * {@link #getProcessor(int)} in their <tt>init</tt> method. The processors only read the simulation state, therefore,
+ * this has to be enabled explicitly for processors which are known to be independent otherwise.
+ *
  * @author Mario Teixeira Parente
  */
 
 public class ProcessorManager {
 
+	private static Logger logger = Logger.getLogger(ProcessorManager.class);
+
 	private MainModel mainModel;
 	private final Topography topography;
 
@@ -29,6 +48,21 @@ public class ProcessorManager {
 	private List<OutputFile<?>> outputFiles;
 	private SimulationResult simulationResult;
 
+	private int streamingInterval;
+	/** ids of processors which are used by other processors, their data has to be kept */
+	private final Set<Integer> referencedProcessorIds;
+	private ExecutorService outputWriter;
+
+	private int updateThreads;
+	/** for each processor id the ids of the processors it requested in its init method */
+	private final Map<Integer, Set<Integer>> dependencyIds;
+	/** the id of the processor whose init method is running, null otherwise */
+	private Integer initializingProcessorId;
+	private ProcessorUpdateScheduler updateScheduler;
+
+	/** Voronoi diagrams of the current step shared by all Voronoi based processors */
+	private final VoronoiDiagramCache voronoiDiagrams;
+
 	public ProcessorManager(List<DataProcessor<?, ?>> dataProcessors,
 							List<OutputFile<?>> outputFiles, MainModel mainModel,
 							final Topography topography) {
@@ -36,12 +70,21 @@ public class ProcessorManager {
 		this.topography = topography;
 
 		this.outputFiles = outputFiles;
+		this.streamingInterval = 0;
+		this.referencedProcessorIds = new HashSet<>();
+		this.updateThreads = 1;
+		this.dependencyIds = new HashMap<>();
+		this.voronoiDiagrams = new VoronoiDiagramCache();
 
 		this.processorMap = new LinkedHashMap<>();
 		for (DataProcessor<?, ?> proc : dataProcessors)
 			this.processorMap.put(proc.getId(), proc);
 
-		dataProcessors.forEach(proc -> proc.init(this));
+		for (DataProcessor<?, ?> proc : dataProcessors) {
+			initializingProcessorId = proc.getId();
+			proc.init(this);
+		}
+		initializingProcessorId = null;
 	}
 
 	public void setMainModel(MainModel mainModel) {
@@ -53,9 +96,29 @@ public class ProcessorManager {
 	}
 
 	public DataProcessor<?, ?> getProcessor(int id) {
+		this.referencedProcessorIds.add(id);
+		if (initializingProcessorId != null) {
+			this.dependencyIds.computeIfAbsent(initializingProcessorId, pid -> new HashSet<>()).add(id);
+		}
 		return this.processorMap.getOrDefault(id, null);
 	}
 
+	public void setStreamingInterval(int streamingInterval) {
+		this.streamingInterval = streamingInterval;
+	}
+
+	public int getStreamingInterval() {
+		return streamingInterval;
+	}
+
+	public void setUpdateThreads(int updateThreads) {
+		this.updateThreads = updateThreads;
+	}
+
+	public int getUpdateThreads() {
+		return updateThreads;
+	}
+
 	public MeasurementArea getMeasurementArea(int measurementAreaId, boolean requireRectangular){
 
 		MeasurementArea measurementArea = topography.getMeasurementArea(measurementAreaId);
@@ -70,6 +133,11 @@ public class ProcessorManager {
 
 		return measurementArea;
 	}
+
+	public VoronoiDiagramCache getVoronoiDiagrams() {
+		return voronoiDiagrams;
+	}
+
 	public List<VShape> getObstacles() {
 		return topography.getObstacleShapes();
 	}
@@ -79,11 +147,53 @@ public class ProcessorManager {
 	}
 
 	public void preLoop(final SimulationState state) {
+		this.voronoiDiagrams.clear();
 		this.processorMap.values().forEach(proc -> proc.preLoop(state));
 	}
 
 	public void update(final SimulationState state) {
-		this.processorMap.values().forEach(proc -> proc.update(state));
+		if (updateThreads > 1 && updateScheduler == null) {
+			updateScheduler = ProcessorUpdateScheduler.create(processorMap, dependencyIds, updateThreads);
+			if (updateScheduler == null) {
+				logger.warn("The dependencies of the data processors are cyclic, they are updated sequentially.");
+				updateThreads = 1;
+			}
+		}
+
+		if (updateScheduler != null) {
+			updateScheduler.update(state);
+		} else {
+			this.processorMap.values().forEach(proc -> proc.update(state));
+		}
+
+		if (streamingInterval > 0 && state.getStep() % streamingInterval == 0) {
+			writeFinishedRows();
+		}
+	}
+
+	private void writeFinishedRows() {
+		for (OutputFile<?> file : outputFiles) {
+			if (isStreamable(file)) {
+				if (outputWriter == null) {
+					outputWriter = Executors.newSingleThreadExecutor(runnable -> {
+						Thread thread = new Thread(runnable, "output-writer");
+						thread.setDaemon(true);
+						return thread;
+					});
+				}
+				file.writeFinishedRows(outputWriter);
+			}
+		}
+	}
+
+	private boolean isStreamable(final OutputFile<?> file) {
+		for (Integer processorId : file.getProcessorIds()) {
+			if (referencedProcessorIds.contains(processorId)
+					|| outputFiles.stream().filter(f -> f != file).anyMatch(f -> f.getProcessorIds().contains(processorId))) {
+				return false;
+			}
+		}
+		return true;
 	}
 
 	public void postLoop(final SimulationState state) {
@@ -100,7 +210,31 @@ public class ProcessorManager {
 	}
 
 	public void writeOutput() {
-		this.outputFiles.forEach(file -> file.write());
+		try {
+			this.outputFiles.forEach(file -> file.write());
+		} finally {
+			close();
+		}
+	}
+
+	/**
+	 * Closes the output files which are still open and stops the threads which write the output files and
+	 * update the processors. This is done by {@link #writeOutput()} and has to be done if the simulation
+	 * fails before the output is written.
+	 */
+	public void close() {
+		try {
+			this.outputFiles.forEach(file -> file.close());
+		} finally {
+			if (outputWriter != null) {
+				outputWriter.shutdown();
+				outputWriter = null;
+			}
+			if (updateScheduler != null) {
+				updateScheduler.shutdown();
+				updateScheduler = null;
+			}
+		}
 	}
 
 	public void setSimulationResult(SimulationResult simulationResult) {
@@ -0,0 +1,139 @@
+package org.vadere.simulator.projects.dataprocessing;
+
+import org.vadere.simulator.control.simulation.SimulationState;
+import org.vadere.simulator.projects.dataprocessing.processor.DataProcessor;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Updates data processors concurrently on a fixed pool of worker threads. A processor is updated after all
+ * processors it depends on, i.e. the processors it requested by {@link ProcessorManager#getProcessor(int)}, have
+ * been updated. Therefore, the update of a dependency which a processor triggers inside its own update does nothing
+ * and processors which do not depend on each other are updated at the same time. The update of a step returns
+ * after all processors are updated.
+ *
+ * Processors only read the {@link SimulationState} and the topography, hence, they are not synchronized otherwise.
+ */
+class ProcessorUpdateScheduler {
+
+	/** processors in topological order, i.e. each processor after its dependencies */
+	private final List<DataProcessor<?, ?>> processors;
+	/** for each processor the indices of its dependencies in {@link #processors} */
+	private final int[][] dependencies;
+	private final ExecutorService executor;
+
+	private ProcessorUpdateScheduler(final List<DataProcessor<?, ?>> processors, final int[][] dependencies, final int threads) {
+		this.processors = processors;
+		this.dependencies = dependencies;
+		AtomicInteger count = new AtomicInteger();
+		this.executor = Executors.newFixedThreadPool(threads, runnable -> {
+			Thread thread = new Thread(runnable, "processor-update-" + count.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	/**
+	 * Creates a scheduler for the processors or returns <tt>null</tt> if the dependencies are cyclic.
+	 *
+	 * @param processorMap the processors by their ids
+	 * @param dependencyIds for each processor id the ids of the processors it depends on
+	 * @param threads the number of worker threads
+	 */
+	static ProcessorUpdateScheduler create(final Map<Integer, DataProcessor<?, ?>> processorMap,
+	                                       final Map<Integer, Set<Integer>> dependencyIds, final int threads) {
+		List<Integer> order = topologicalOrder(processorMap.keySet(), dependencyIds);
+		if (order == null) {
+			return null;
+		}
+
+		Map<Integer, Integer> indices = new HashMap<>();
+		List<DataProcessor<?, ?>> processors = new ArrayList<>(order.size());
+		int[][] dependencies = new int[order.size()][];
+		for (Integer id : order) {
+			dependencies[processors.size()] = dependencyIds.getOrDefault(id, Collections.emptySet()).stream()
+					.filter(indices::containsKey)
+					.mapToInt(indices::get)
+					.toArray();
+			indices.put(id, processors.size());
+			processors.add(processorMap.get(id));
+		}
+		return new ProcessorUpdateScheduler(processors, dependencies, threads);
+	}
+
+	/**
+	 * Returns the ids such that each id is after the ids it depends on or <tt>null</tt> if there is a cycle.
+	 * Dependencies to unknown ids are ignored.
+	 */
+	static List<Integer> topologicalOrder(final Collection<Integer> ids, final Map<Integer, Set<Integer>> dependencyIds) {
+		// 0: not visited, 1: on the current path, 2: finished
+		Map<Integer, Integer> marks = new LinkedHashMap<>();
+		List<Integer> order = new ArrayList<>(ids.size());
+		for (Integer id : ids) {
+			if (!visit(id, ids, dependencyIds, marks, order)) {
+				return null;
+			}
+		}
+		return order;
+	}
+
+	private static boolean visit(final Integer id, final Collection<Integer> ids, final Map<Integer, Set<Integer>> dependencyIds,
+	                             final Map<Integer, Integer> marks, final List<Integer> order) {
+		int mark = marks.getOrDefault(id, 0);
+		if (mark == 1) {
+			return false;
+		} else if (mark == 2) {
+			return true;
+		}
+
+		marks.put(id, 1);
+		for (Integer dependency : dependencyIds.getOrDefault(id, Collections.emptySet())) {
+			if (ids.contains(dependency) && !visit(dependency, ids, dependencyIds, marks, order)) {
+				return false;
+			}
+		}
+		marks.put(id, 2);
+		order.add(id);
+		return true;
+	}
+
+	void update(final SimulationState state) {
+		CompletableFuture<?>[] futures = new CompletableFuture<?>[processors.size()];
+		for (int i = 0; i < futures.length; i++) {
+			DataProcessor<?, ?> processor = processors.get(i);
+			Runnable update = () -> processor.update(state);
+
+			if (dependencies[i].length == 0) {
+				futures[i] = CompletableFuture.runAsync(update, executor);
+			} else {
+				CompletableFuture<?>[] required = new CompletableFuture<?>[dependencies[i].length];
+				for (int j = 0; j < required.length; j++) {
+					required[j] = futures[dependencies[i][j]];
+				}
+				futures[i] = CompletableFuture.allOf(required).thenRunAsync(update, executor);
+			}
+		}
+
+		try {
+			CompletableFuture.allOf(futures).join();
+		} catch (CompletionException e) {
+			throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+		}
+	}
+
+	void shutdown() {
+		executor.shutdown();
+	}
+}
@@ -0,0 +1,108 @@
+package org.vadere.simulator.projects.dataprocessing.outputfile;
+
+import org.vadere.simulator.projects.dataprocessing.datakey.DataKey;
+import org.vadere.simulator.projects.dataprocessing.processor.DataProcessor;
+import org.vadere.simulator.projects.dataprocessing.writer.ColumnarTableWriter;
+import org.vadere.util.logging.Logger;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.stream.Stream;
+
+/**
+ * Base class for output files which are written by a {@link ColumnarTableWriter}, i.e. a binary file with typed
+ * columns, instead of a text file. The columns are the same as the ones of the text file. Their types are given by
+ * {@link #getKeyColumnTypes()} and {@link DataProcessor#getColumnTypes()} and the values are written by
+ * {@link #writeKeyColumns(DataKey, ColumnarTableWriter)} and {@link DataProcessor#writeColumns(DataKey, ColumnarTableWriter)}
+ * without formatting them as text.
+ *
+ * The file can be read by {@link org.vadere.simulator.projects.io.ColumnarTableReader} and converted into the text
+ * format by {@link org.vadere.simulator.projects.io.TableFileConverter}.
+ *
+ * @param <K> key type
+ */
+public abstract class ColumnarOutputFile<K extends DataKey<K>> extends OutputFile<K> {
+
+	private static Logger logger = Logger.getLogger(ColumnarOutputFile.class);
+
+	private ColumnarTableWriter out;
+
+	protected ColumnarOutputFile(final String... dataIndices) {
+		super(dataIndices);
+	}
+
+	/**
+	 * Returns the types of the columns of the key, see {@link #toStrings(DataKey)}.
+	 */
+	protected abstract ColumnarTableWriter.Type[] getKeyColumnTypes();
+
+	/**
+	 * Writes the columns of the key into the columns of {@link #getKeyColumnTypes()}.
+	 */
+	protected abstract void writeKeyColumns(K key, ColumnarTableWriter out);
+
+	@Override
+	public void write() {
+		if (isEmpty()) {
+			return;
+		}
+
+		try (ColumnarTableWriter writer = open()) {
+			writeRows(getDataProcessors().stream().flatMap(p -> p.getKeys().stream()));
+		} catch (IOException e) {
+			logger.error(e.getMessage());
+			throw new UncheckedIOException(e);
+		} finally {
+			out = null;
+		}
+	}
+
+	/**
+	 * Writes the rows of all finished keys like {@link OutputFile#writeFinishedRows(Executor)}. The rows are written
+	 * by the calling thread since the values are only copied into the buffers of the current row group.
+	 */
+	@Override
+	public void writeFinishedRows(final Executor executor) {
+		K bound = getFinishedKeyBound();
+		if (isEmpty() || bound == null) {
+			return;
+		}
+
+		try {
+			open();
+		} catch (IOException e) {
+			logger.error(e.getMessage());
+			throw new UncheckedIOException(e);
+		}
+
+		writeRows(getDataProcessors().stream().flatMap(p -> p.getData().headMap(bound).keySet().stream()));
+		getDataProcessors().forEach(p -> p.removeKeysBefore(bound));
+	}
+
+	private ColumnarTableWriter open() throws IOException {
+		if (out == null) {
+			logger.info("Absolute file name" + getAbsoluteFileName());
+			List<ColumnarTableWriter.Type> types = new ArrayList<>(Arrays.asList(getKeyColumnTypes()));
+			for (DataProcessor<K, ?> dataProcessor : getDataProcessors()) {
+				types.addAll(Arrays.asList(dataProcessor.getColumnTypes()));
+			}
+			out = new ColumnarTableWriter(Paths.get(getAbsoluteFileName()), getEntireHeader().toArray(new String[0]),
+					types.toArray(new ColumnarTableWriter.Type[0]));
+		}
+		return out;
+	}
+
+	private void writeRows(final Stream<K> keys) {
+		keys.distinct().sorted().forEach(key -> {
+			writeKeyColumns(key, out);
+			for (DataProcessor<K, ?> dataProcessor : getDataProcessors()) {
+				dataProcessor.writeColumns(key, out);
+			}
+		});
+	}
+}
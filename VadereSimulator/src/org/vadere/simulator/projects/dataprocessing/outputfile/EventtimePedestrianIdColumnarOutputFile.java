@@ -0,0 +1,33 @@
+package org.vadere.simulator.projects.dataprocessing.outputfile;
+
+import org.vadere.annotation.factories.outputfiles.OutputFileClass;
+import org.vadere.simulator.projects.dataprocessing.datakey.EventtimePedestrianIdKey;
+import org.vadere.simulator.projects.dataprocessing.writer.ColumnarTableWriter;
+
+/**
+ * Binary counterpart of {@link EventtimePedestrianIdOutputFile}, e.g. for the trajectories written by the
+ * {@link org.vadere.simulator.projects.dataprocessing.processor.FootStepProcessor}.
+ */
+@OutputFileClass(dataKeyMapping = EventtimePedestrianIdKey.class)
+public class EventtimePedestrianIdColumnarOutputFile extends ColumnarOutputFile<EventtimePedestrianIdKey> {
+
+	public EventtimePedestrianIdColumnarOutputFile() {
+		super(EventtimePedestrianIdKey.getHeaders());
+	}
+
+	@Override
+	public String[] toStrings(final EventtimePedestrianIdKey key) {
+		return new String[] {Integer.toString(key.getPedestrianId()), Double.toString(key.getSimtime())};
+	}
+
+	@Override
+	protected ColumnarTableWriter.Type[] getKeyColumnTypes() {
+		return new ColumnarTableWriter.Type[] {ColumnarTableWriter.Type.INT, ColumnarTableWriter.Type.DOUBLE};
+	}
+
+	@Override
+	protected void writeKeyColumns(final EventtimePedestrianIdKey key, final ColumnarTableWriter out) {
+		out.writeInt(key.getPedestrianId());
+		out.writeDouble(key.getSimtime());
+	}
+}
@@ -5,6 +5,7 @@ package org.vadere.simulator.projects.dataprocessing.outputfile;
 import org.vadere.simulator.projects.dataprocessing.DataProcessingJsonManager;
 import org.vadere.simulator.projects.dataprocessing.datakey.DataKey;
 import org.vadere.simulator.projects.dataprocessing.processor.DataProcessor;
+import org.vadere.simulator.projects.dataprocessing.writer.VadereStringWriter;
 import org.vadere.simulator.projects.dataprocessing.writer.VadereWriter;
 import org.vadere.simulator.projects.dataprocessing.writer.VadereWriterFactory;
 import org.vadere.util.logging.Logger;
@@ -18,6 +19,9 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -28,6 +32,10 @@ import java.util.stream.Stream;
  * This class knows all the data processors of which the data should be saved. It writes the data
  * with the specified <tt>separator</tt> sign into a file specified by <tt>filename</tt>.
  *
+ * Usually, the file is written after the simulation finished. Alternatively, the rows of finished keys
+ * can be written while the simulation is running by calling {@link #writeFinishedRows(Executor)} which
+ * results in the same file.
+ *
  * @param <K> key type
  * @author Mario Teixeira Parente
  */
@@ -65,6 +73,12 @@ public abstract class OutputFile<K extends DataKey<K>> {
 	private VadereWriterFactory writerFactory;
 	private VadereWriter writer;
 
+	/**
+	 * The writer of the file if rows are written while the simulation is running, otherwise null.
+	 */
+	private VadereWriter streamingWriter;
+	private CompletableFuture<Void> pendingRows;
+
 	protected OutputFile(final String... dataIndices) {
 		this.dataIndices = dataIndices;
 		this.isAddedProcessors = false;  // init method has to be called
@@ -105,7 +119,9 @@ public abstract class OutputFile<K extends DataKey<K>> {
 	}
 
 	public void write() {
-		if (!isEmpty()) {
+		if (!isEmpty() && streamingWriter != null) {
+			writeRemainingRows();
+		} else if (!isEmpty()) {
 			logger.info("Absolute file name" + absoluteFileName);
 			try (VadereWriter out = writerFactory.create(absoluteFileName)) {
 
@@ -129,10 +145,121 @@ public abstract class OutputFile<K extends DataKey<K>> {
 		}
 	}
 
+	/**
+	 * Writes the rows of all keys which are finished, see {@link DataProcessor#getFinishedKeyBound()}, and removes
+	 * their values from the data processors. The rows are composed by the calling thread and written by the executor.
+	 * To bound the memory, the call waits until the rows of the previous call are written. {@link #write()} writes
+	 * the remaining rows and closes the file.
+	 *
+	 * @param executor the executor which writes the rows
+	 */
+	public void writeFinishedRows(final Executor executor) {
+		K bound = getFinishedKeyBound();
+		if (isEmpty() || bound == null) {
+			return;
+		}
+
+		VadereStringWriter rows = new VadereStringWriter();
+		this.writer = rows;
+
+		if (streamingWriter == null) {
+			logger.info("Absolute file name" + absoluteFileName);
+			streamingWriter = writerFactory.create(absoluteFileName);
+			pendingRows = CompletableFuture.completedFuture(null);
+
+			if(this.isWriteMetaData){
+				printMetaData();
+			}
+
+			printHeader();
+		}
+
+		this.dataProcessors.stream().flatMap(p -> p.getData().headMap(bound).keySet().stream())
+				.distinct().sorted()
+				.forEach(key -> printRow(key));
+		this.dataProcessors.forEach(p -> p.removeKeysBefore(bound));
+
+		awaitPendingRows();
+		VadereWriter out = streamingWriter;
+		pendingRows = pendingRows.thenRunAsync(() -> rows.getOutput().forEach(out::println), executor);
+	}
+
+	/**
+	 * Returns the smallest {@link DataProcessor#getFinishedKeyBound()} of all data processors or null if one of them is null.
+	 */
+	K getFinishedKeyBound() {
+		K bound = null;
+		for (DataProcessor<K, ?> dataProcessor : dataProcessors) {
+			K processorBound = dataProcessor.getFinishedKeyBound();
+			if (processorBound == null) {
+				return null;
+			}
+			if (bound == null || processorBound.compareTo(bound) < 0) {
+				bound = processorBound;
+			}
+		}
+		return bound;
+	}
+
+	private void writeRemainingRows() {
+		VadereStringWriter rows = new VadereStringWriter();
+		this.writer = rows;
+
+		this.dataProcessors.stream().flatMap(p -> p.getKeys().stream())
+				.distinct().sorted()
+				.forEach(key -> printRow(key));
+
+		try (VadereWriter out = streamingWriter) {
+			this.writer = out;
+			streamingWriter = null;
+			awaitPendingRows();
+			rows.getOutput().forEach(out::println);
+			out.flush();
+		} catch (IOException e) {
+			logger.error(e.getMessage());
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	private void awaitPendingRows() {
+		try {
+			pendingRows.join();
+		} catch (CompletionException e) {
+			logger.error(e.getCause().getMessage());
+			throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+		}
+	}
+
+	/**
+	 * Closes the file if rows were written while the simulation was running but {@link #write()} did not
+	 * finish, e.g. since the simulation failed. The rows which are not written yet are discarded.
+	 */
+	public void close() {
+		if (streamingWriter == null) {
+			return;
+		}
+
+		try (VadereWriter out = streamingWriter) {
+			streamingWriter = null;
+			pendingRows.join();
+			out.flush();
+		} catch (CompletionException | IOException e) {
+			logger.error("Could not close the output file " + absoluteFileName, e);
+		}
+	}
+
 	public boolean isEmpty() {
 		return this.dataProcessors.isEmpty();
 	}
 
+	List<DataProcessor<K, ?>> getDataProcessors() {
+		return dataProcessors;
+	}
+
+	String getAbsoluteFileName() {
+		return absoluteFileName;
+	}
+
 	private void printMetaData(){
 		// use '#' symbol for comment -- the Java-style comment '//' is not appropriate because it requires two
 		// characters
@@ -31,7 +31,7 @@ public class AreaDensityVoronoiProcessor extends AreaDensityProcessor implements
         MeasurementArea measurementArea = manager.getMeasurementArea(att.getMeasurementAreaId(), true);
         MeasurementArea measurementVoronoiArea = manager.getMeasurementArea(att.getVoronoiMeasurementAreaId(), true);
 
-        this.setAlgorithm(new AreaDensityVoronoiAlgorithm(measurementVoronoiArea, measurementArea));
+        this.setAlgorithm(new AreaDensityVoronoiAlgorithm(measurementVoronoiArea, measurementArea, manager.getVoronoiDiagrams()));
     }
 
     @Override
@@ -6,10 +6,15 @@ import org.vadere.simulator.models.Model;
 import org.vadere.simulator.projects.SimulationResult;
 import org.vadere.simulator.projects.dataprocessing.ProcessorManager;
 import org.vadere.simulator.projects.dataprocessing.datakey.DataKey;
+import org.vadere.simulator.projects.dataprocessing.outputfile.ColumnarOutputFile;
+import org.vadere.simulator.projects.dataprocessing.writer.ColumnarTableWriter;
 import org.vadere.state.attributes.processor.AttributesProcessor;
+import org.vadere.util.logging.Logger;
 
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Map;
+import java.util.NavigableMap;
 import java.util.Optional;
 import java.util.Set;
 import java.util.TreeMap;
@@ -29,6 +34,10 @@ import java.util.TreeMap;
  * To get specific attributes defined in JSON or access to the <tt>MainModel</tt>, one has to use the <tt>init</tt> method which
  * gives access to all significant things via the argument <tt>manager</tt> of type <tt>ProcessorManager</tt>.
  *
+ * Processors which never change the values of old keys can override <tt>getFinishedKeyBound</tt>. Then, their
+ * output files can be written while the simulation is running and the written values are removed from the data
+ * (see {@link org.vadere.simulator.projects.dataprocessing.outputfile.OutputFile#writeFinishedRows}).
+ *
  * @param <K> key type
  * @param <V> value type
  *
@@ -37,15 +46,22 @@ import java.util.TreeMap;
  */
 
 public abstract class DataProcessor<K extends DataKey<K>, V> {
+	private static Logger logger = Logger.getLogger(DataProcessor.class);
+
 	private int id;
 	private AttributesProcessor attributes;
 
 	private String[] headers;
-	private Map<K, V> data;
+	private NavigableMap<K, V> data;
 
 	private int lastStep;
+	private double lastSimTimeInSec;
 	private K lastKey;
 
+	/** all keys smaller than this key have been written and removed, null if nothing has been removed */
+	private K removedKeyBound;
+	private boolean isIgnoringRemovedKeys;
+
 	private boolean stopSimBeforeSimFinish;
 
 	protected DataProcessor() {
@@ -61,7 +77,7 @@ public abstract class DataProcessor<K extends DataKey<K>, V> {
 	}
 
 
-	public Map<K, V> getData() {
+	public NavigableMap<K, V> getData() {
 		return this.data;
 	}
 
@@ -110,11 +126,23 @@ public abstract class DataProcessor<K extends DataKey<K>, V> {
 		return this.lastStep;
 	}
 
+	public double getLastSimTimeInSec() {
+		return lastSimTimeInSec;
+	}
+
 	public K getLastKey() {
 		return lastKey;
 	}
 
 	protected void putValue(final K key, final V value) {
+		if (removedKeyBound != null && key.compareTo(removedKeyBound) < 0) {
+			// the row of the key has been written already
+			if (!isIgnoringRemovedKeys) {
+				logger.warn(getSimpleProcessorTypeName() + " ignores values of keys which have been written already, e.g. " + key);
+				isIgnoringRemovedKeys = true;
+			}
+			return;
+		}
 		this.lastKey = key;
 		this.data.put(key, value);
 	}
@@ -123,7 +151,35 @@ public abstract class DataProcessor<K extends DataKey<K>, V> {
 		this.data.remove(key);
 	}
 
-	public void preLoop(final SimulationState state) { data.clear(); }
+	/**
+	 * Returns a key such that the values of all smaller keys are final, i.e. the processor will neither put nor
+	 * remove values of smaller keys and their {@link #toStrings(DataKey)} does not change in later steps. If all
+	 * processors of an output file return such a key, the rows of smaller keys can be written before the
+	 * simulation finished. The default is <tt>null</tt>, i.e. the values are never final before the simulation
+	 * finished.
+	 *
+	 * @return a key such that the values of all smaller keys are final or <tt>null</tt>
+	 */
+	public K getFinishedKeyBound() {
+		return null;
+	}
+
+	/**
+	 * Removes the values of all keys smaller than the given key after their rows have been written. Values of
+	 * these keys will be ignored afterwards.
+	 *
+	 * @param key a key which is not greater than {@link #getFinishedKeyBound()}
+	 */
+	public void removeKeysBefore(final K key) {
+		this.data.headMap(key).clear();
+		this.removedKeyBound = key;
+	}
+
+	public void preLoop(final SimulationState state) {
+		data.clear();
+		removedKeyBound = null;
+		isIgnoringRemovedKeys = false;
+	}
 
 	protected abstract void doUpdate(final SimulationState state);
 
@@ -133,6 +189,7 @@ public abstract class DataProcessor<K extends DataKey<K>, V> {
 		if (this.lastStep < step)  {
 			this.doUpdate(state);
 			this.lastStep = step;
+			this.lastSimTimeInSec = state.getSimTimeInSec();
 		}
 		// stop simulation if a criteria defined in your data processor is fulfilled
 		state.setSimStop(this.stopSimBeforeSimFinish);
@@ -159,12 +216,35 @@ public abstract class DataProcessor<K extends DataKey<K>, V> {
 	public void init(final ProcessorManager manager){
 		this.data.clear();
 		this.lastStep = 0;
+		this.lastSimTimeInSec = 0;
+		this.removedKeyBound = null;
+		this.isIgnoringRemovedKeys = false;
 	}
 
 	public String[] toStrings(final K key) {
 		return new String[] { this.hasValue(key) ? this.getValue(key).toString() : "NA" };
 	}
 
+	/**
+	 * Returns the types of the columns of this processor in a {@link ColumnarOutputFile}, one for each header.
+	 * The default are string columns containing the values of {@link #toStrings(DataKey)}. Processors which
+	 * override this method have to override {@link #writeColumns(DataKey, ColumnarTableWriter)} as well.
+	 */
+	public ColumnarTableWriter.Type[] getColumnTypes() {
+		ColumnarTableWriter.Type[] types = new ColumnarTableWriter.Type[getHeaders().length];
+		Arrays.fill(types, ColumnarTableWriter.Type.STRING);
+		return types;
+	}
+
+	/**
+	 * Writes the values of the key into the columns of {@link #getColumnTypes()} without formatting them as text.
+	 */
+	public void writeColumns(final K key, final ColumnarTableWriter out) {
+		for (String value : toStrings(key)) {
+			out.writeString(value);
+		}
+	}
+
 	public String getSimpleProcessorTypeName() {
 		return getClass().getSimpleName();
 	}
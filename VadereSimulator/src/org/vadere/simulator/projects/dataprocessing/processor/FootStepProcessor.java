@@ -4,6 +4,7 @@ import org.vadere.annotation.factories.dataprocessors.DataProcessorClass;
 import org.vadere.simulator.control.simulation.SimulationState;
 import org.vadere.simulator.projects.dataprocessing.ProcessorManager;
 import org.vadere.simulator.projects.dataprocessing.datakey.EventtimePedestrianIdKey;
+import org.vadere.simulator.projects.dataprocessing.writer.ColumnarTableWriter;
 import org.vadere.state.psychology.cognition.SelfCategory;
 import org.vadere.state.scenario.Pedestrian;
 import org.vadere.state.simulation.FootStep;
@@ -49,6 +50,15 @@ public class FootStepProcessor extends DataProcessor<EventtimePedestrianIdKey, F
         super.init(manager);
     }
 
+    /**
+     * The trajectories only contain the foot steps since the last update, i.e. foot steps of later updates
+     * start after the last update.
+     */
+    @Override
+    public EventtimePedestrianIdKey getFinishedKeyBound() {
+        return new EventtimePedestrianIdKey(getLastSimTimeInSec(), Integer.MIN_VALUE);
+    }
+
     @Override
     public String[] toStrings(EventtimePedestrianIdKey key) {
         String[] footStepLine = this.getValue(key).getValueString();
@@ -57,4 +67,21 @@ public class FootStepProcessor extends DataProcessor<EventtimePedestrianIdKey, F
         // EventtimePedestrianIdKey
         return Arrays.copyOfRange(footStepLine, 1, footStepLine.length);
     }
+
+    @Override
+    public ColumnarTableWriter.Type[] getColumnTypes() {
+        ColumnarTableWriter.Type[] types = new ColumnarTableWriter.Type[getHeaders().length];
+        Arrays.fill(types, ColumnarTableWriter.Type.DOUBLE);
+        return types;
+    }
+
+    @Override
+    public void writeColumns(final EventtimePedestrianIdKey key, final ColumnarTableWriter out) {
+        FootStep footStep = getValue(key);
+        out.writeDouble(footStep.getEndTime());
+        out.writeDouble(footStep.getStart().x);
+        out.writeDouble(footStep.getStart().y);
+        out.writeDouble(footStep.getEnd().x);
+        out.writeDouble(footStep.getEnd().y);
+    }
 }
\ No newline at end of file
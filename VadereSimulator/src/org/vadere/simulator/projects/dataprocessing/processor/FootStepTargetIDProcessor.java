@@ -4,6 +4,7 @@ import org.vadere.annotation.factories.dataprocessors.DataProcessorClass;
 import org.vadere.simulator.control.simulation.SimulationState;
 import org.vadere.simulator.projects.dataprocessing.datakey.EventtimePedestrianIdKey;
 import org.vadere.simulator.projects.dataprocessing.processor.util.ModelFilter;
+import org.vadere.simulator.projects.dataprocessing.writer.ColumnarTableWriter;
 import org.vadere.state.psychology.cognition.SelfCategory;
 import org.vadere.state.scenario.Pedestrian;
 import org.vadere.state.simulation.FootStep;
@@ -28,4 +29,27 @@ public class FootStepTargetIDProcessor extends DataProcessor<EventtimePedestrian
 			this.putValue(new EventtimePedestrianIdKey(fs.getStartTime(), p.getId()), !p.hasNextTarget() ? -1 : p.getNextTargetId());
 		}));
 	}
+
+	/**
+	 * The trajectories only contain the foot steps since the last update, i.e. foot steps of later updates
+	 * start after the last update.
+	 */
+	@Override
+	public EventtimePedestrianIdKey getFinishedKeyBound() {
+		return new EventtimePedestrianIdKey(getLastSimTimeInSec(), Integer.MIN_VALUE);
+	}
+
+	@Override
+	public ColumnarTableWriter.Type[] getColumnTypes() {
+		return new ColumnarTableWriter.Type[] { ColumnarTableWriter.Type.INT };
+	}
+
+	@Override
+	public void writeColumns(final EventtimePedestrianIdKey key, final ColumnarTableWriter out) {
+		if (hasValue(key)) {
+			out.writeInt(getValue(key));
+		} else {
+			out.writeMissing();
+		}
+	}
 }
\ No newline at end of file
@@ -45,7 +45,8 @@ public class FundamentalDiagramDProcessor extends AreaDataProcessor<Pair<Double,
 		integralVoronoiAlgorithm = new IntegralVoronoiAlgorithm(
 				key -> pedestrianVelocityProcessor.getValue(key),
 				measurementArea,
-				voronoiMeasurementArea);
+				voronoiMeasurementArea,
+				manager.getVoronoiDiagrams());
 	}
 
 	@Override
@@ -50,6 +50,14 @@ public class PedestrianPositionProcessor extends DataProcessor<TimestepPedestria
 		super.init(manager);
 	}
 
+	/**
+	 * Positions are only put for the current step, i.e. all keys up to the last step are finished.
+	 */
+	@Override
+	public TimestepPedestrianIdKey getFinishedKeyBound() {
+		return new TimestepPedestrianIdKey(getLastStep() + 1, Integer.MIN_VALUE);
+	}
+
 	@Override
 	public String[] toStrings(TimestepPedestrianIdKey key) {
 		VPoint p = this.getValue(key);
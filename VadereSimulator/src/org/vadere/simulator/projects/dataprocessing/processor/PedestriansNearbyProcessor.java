@@ -1,5 +1,9 @@
 package org.vadere.simulator.projects.dataprocessing.processor;
 
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ObjectIterator;
+
 import org.vadere.annotation.factories.dataprocessors.DataProcessorClass;
 import org.vadere.simulator.control.simulation.SimulationState;
 import org.vadere.simulator.projects.dataprocessing.ProcessorManager;
@@ -8,12 +12,10 @@ import org.vadere.simulator.projects.dataprocessing.datakey.TimestepPedestriansN
 import org.vadere.state.attributes.processor.AttributesPedestrianNearbyProcessor;
 import org.vadere.state.scenario.DynamicElement;
 import org.vadere.state.scenario.Pedestrian;
-import org.vadere.state.scenario.Topography;
 import org.vadere.util.geometry.LinkedCellsGrid;
 import org.vadere.util.geometry.shapes.VPoint;
 
 import java.util.*;
-import java.util.stream.Collectors;
 
 /**
  * @author Maxim Dudin
@@ -26,7 +28,11 @@ public class PedestriansNearbyProcessor extends DataProcessor<TimestepPedestrian
     private int allowedAbsenceTimestepsIfContactReturns;
     private int minTimespanOfContactTimesteps;
 
-
+    /**
+     * The key of the last contact of each pair of pedestrians, see {@link #pair(int, int)}, as long as it can be
+     * continued. Therefore, a new contact is merged into an existing one in constant time.
+     */
+    private final Long2ObjectMap<TimestepPedestriansNearbyIdKey> openContacts = new Long2ObjectOpenHashMap<>();
 
     public PedestriansNearbyProcessor() {
         super("durationTimesteps", "xPath", "yPath");
@@ -35,62 +41,107 @@ public class PedestriansNearbyProcessor extends DataProcessor<TimestepPedestrian
 
     @Override
     protected void doUpdate(final SimulationState state) {
-        Collection<Pedestrian> peds = state.getTopography().getElements(Pedestrian.class);
         int timeStep = state.getStep();
         if (timeStep % sampleEveryNthStep != 0) {
             return;
         }
+        closeContacts(timeStep);
+        Collection<Pedestrian> peds = state.getTopography().getElements(Pedestrian.class);
+        LinkedCellsGrid<DynamicElement> dynElements = state.getTopography().getSpatialMap(DynamicElement.class);
         for (Pedestrian ped : peds) {
             // get all Pedestrians with at most maxDistance away
             // this reduces the amount of overlap tests
             VPoint pedPos = ped.getPosition();
-            List<DynamicElement> dynElemNneighbours = getDynElementsAtPosition(state.getTopography(), ped.getPosition(), maxDistance);
-            List<PedestriansNearbyData> pedsNearby = dynElemNneighbours
-                    .parallelStream()
-                    .filter(p -> ped.getId() != p.getId())
-                    .map(p -> {
-                        double xAverage = (ped.getPosition().getX() + p.getPosition().getX())/2.;
-                        double yAverage = (ped.getPosition().getY() + p.getPosition().getY())/2.;
-                        VPoint pointOfContact = new VPoint(xAverage, yAverage);
-                        List<VPoint> trajectory = new ArrayList<>();
-                        trajectory.add(pointOfContact);
-                        return new PedestriansNearbyData(ped.getId(), p.getId(), sampleEveryNthStep, timeStep, trajectory);})
-                    .collect(Collectors.toList());
-            pedsNearby.forEach(o -> this.putValue(new TimestepPedestriansNearbyIdKey(timeStep, o.getPedId1(), o.getPedId2()), o));
+            dynElements.forEachObject(pedPos, maxDistance, p -> {
+                if (ped.getId() != p.getId()) {
+                    double xAverage = (pedPos.getX() + p.getPosition().getX())/2.;
+                    double yAverage = (pedPos.getY() + p.getPosition().getY())/2.;
+                    VPoint pointOfContact = new VPoint(xAverage, yAverage);
+                    List<VPoint> trajectory = new ArrayList<>();
+                    trajectory.add(pointOfContact);
+                    PedestriansNearbyData data = new PedestriansNearbyData(ped.getId(), p.getId(), sampleEveryNthStep, timeStep, trajectory);
+                    this.putValue(new TimestepPedestriansNearbyIdKey(timeStep, data.getPedId1(), data.getPedId2()), data);
+                }
+            });
         }
     }
 
-    @Override
-    public void postLoop(final SimulationState state) {
-        List<TimestepPedestriansNearbyIdKey> toBeRemoved = new ArrayList<>();
-        for (TimestepPedestriansNearbyIdKey key : getKeys()) {
-            if (getValue(key).getDurationTimesteps() < minTimespanOfContactTimesteps) {
-                toBeRemoved.add(key);
+    /**
+     * Closes all open contacts which can not be continued at the time step, i.e. the pedestrians have been apart for
+     * more than allowedAbsenceTimestepsIfContactReturns. Contacts shorter than minTimespanOfContactTimesteps are removed.
+     */
+    void closeContacts(final int timeStep) {
+        ObjectIterator<TimestepPedestriansNearbyIdKey> iterator = openContacts.values().iterator();
+        while (iterator.hasNext()) {
+            TimestepPedestriansNearbyIdKey key = iterator.next();
+            PedestriansNearbyData contact = getValue(key);
+            if (contact == null) {
+                iterator.remove();
+            } else if (contact.getStartTimestep() + contact.getDurationTimesteps() + allowedAbsenceTimestepsIfContactReturns < timeStep) {
+                iterator.remove();
+                if (contact.getDurationTimesteps() < minTimespanOfContactTimesteps) {
+                    removeKey(key);
+                }
             }
         }
-        for (TimestepPedestriansNearbyIdKey toRemove: toBeRemoved) {
-            removeKey(toRemove);
+    }
+
+    @Override
+    public void postLoop(final SimulationState state) {
+        closeContacts(Integer.MAX_VALUE);
+    }
+
+    /**
+     * Contacts are keyed by their first time step, therefore, all contacts which start before the first open
+     * contact are final.
+     */
+    @Override
+    public TimestepPedestriansNearbyIdKey getFinishedKeyBound() {
+        int timeStep = getLastStep() + 1;
+        for (TimestepPedestriansNearbyIdKey key : openContacts.values()) {
+            timeStep = Math.min(timeStep, key.getTimeStep());
         }
+        return new TimestepPedestriansNearbyIdKey(timeStep, Integer.MIN_VALUE, Integer.MIN_VALUE);
     }
 
     public String[] toStrings(final TimestepPedestriansNearbyIdKey key) {
         return this.hasValue(key) ? this.getValue(key).toStrings() : new String[]{"N/A", "N/A"};
     }
 
+    /**
+     * Only the open contact of the pair of pedestrians can account for or be continued by the new contact since
+     * older contacts of the pair ended more than allowedAbsenceTimestepsIfContactReturns before it started.
+     */
     @Override
     protected void putValue(final TimestepPedestriansNearbyIdKey key, final PedestriansNearbyData value) {
-        for (TimestepPedestriansNearbyIdKey alreadyExisting : getKeys()) {
-            PedestriansNearbyData currentVal = getValue(alreadyExisting);
+        long pair = pair(key.getPedId1(), key.getPedId2());
+        TimestepPedestriansNearbyIdKey openKey = openContacts.get(pair);
+        PedestriansNearbyData currentVal = openKey != null ? getValue(openKey) : null;
+
+        if (currentVal != null) {
             if (key.isAccountedForBy(currentVal)) {
                 return;
             } else if (key.isContinuationOf(currentVal, allowedAbsenceTimestepsIfContactReturns)) {
-                super.putValue(alreadyExisting, currentVal.getUpdatedData(value, sampleEveryNthStep));
+                super.putValue(openKey, currentVal.getUpdatedData(value, sampleEveryNthStep));
                 return;
+            } else if (currentVal.getDurationTimesteps() < minTimespanOfContactTimesteps) {
+                removeKey(openKey);
             }
         }
+        openContacts.put(pair, key);
         super.putValue(key, value);
     }
 
+    private static long pair(final int pedId1, final int pedId2) {
+        return ((long) pedId1 << 32) | (pedId2 & 0xffffffffL);
+    }
+
+    @Override
+    public void preLoop(final SimulationState state) {
+        super.preLoop(state);
+        openContacts.clear();
+    }
+
     @Override
     public void init(final ProcessorManager manager) {
         super.init(manager);
@@ -99,11 +150,7 @@ public class PedestriansNearbyProcessor extends DataProcessor<TimestepPedestrian
         sampleEveryNthStep = att.getSampleEveryNthStep();
         allowedAbsenceTimestepsIfContactReturns = att.getAllowedAbsenceTimestepsIfContactReturns();
         minTimespanOfContactTimesteps = att.getMinTimespanOfContactTimesteps();
-    }
-
-    private List<DynamicElement> getDynElementsAtPosition(final Topography topography, VPoint sourcePosition, double radius) {
-        LinkedCellsGrid<DynamicElement> dynElements = topography.getSpatialMap(DynamicElement.class);
-        return dynElements.getObjects(sourcePosition, radius);
+        openContacts.clear();
     }
 
 }
@@ -11,10 +11,8 @@ import org.vadere.util.geometry.shapes.VPolygon;
 import org.vadere.util.geometry.shapes.VRectangle;
 import org.vadere.util.voronoi.Face;
 import org.vadere.util.voronoi.HalfEdge;
-import org.vadere.util.voronoi.VoronoiDiagram;
 
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.TreeMap;
@@ -25,19 +23,21 @@ public class SumVoronoiAlgorithm extends AreaDensityAlgorithm implements IAreaVe
 	private VPolygon measurementAreaPolygon;
 	private VRectangle voronoiArea;
 	private final Function<TimestepPedestrianIdKey, Double> agentVelocityFunc;
+	private final VoronoiDiagramCache voronoiDiagrams;
 
-	public SumVoronoiAlgorithm(@NotNull final Function<TimestepPedestrianIdKey, Double> agentVelocityFunc, @NotNull final MeasurementArea measurementArea, @NotNull final MeasurementArea voronoiArea) {
+	public SumVoronoiAlgorithm(@NotNull final Function<TimestepPedestrianIdKey, Double> agentVelocityFunc, @NotNull final MeasurementArea measurementArea, @NotNull final MeasurementArea voronoiArea, @NotNull final VoronoiDiagramCache voronoiDiagrams) {
 		super("areaVoronoi");
 
 		this.measurementArea = measurementArea.asVRectangle();
 		this.measurementAreaPolygon = new VPolygon(measurementArea.getShape());
 		this.voronoiArea = voronoiArea.asVRectangle();
 		this.agentVelocityFunc = agentVelocityFunc;
+		this.voronoiDiagrams = voronoiDiagrams;
 	}
 
 	@Override
 	public double getDensity(final SimulationState state) {
-		List<Face> faces = generateFaces(state);
+		List<Face> faces = voronoiDiagrams.getFaces(state, this.voronoiArea);
 
 		double area = 0.0;
 		int N = 0;
@@ -52,21 +52,9 @@ public class SumVoronoiAlgorithm extends AreaDensityAlgorithm implements IAreaVe
 		return area > 0 ?  N / area : 0;
 	}
 
-	private List<Face> generateFaces(@NotNull final SimulationState state) {
-		VoronoiDiagram voronoiDiagram = new VoronoiDiagram(this.voronoiArea);
-
-		// convert pedestrians to positions
-		List<VPoint> pedestrianPositions = Agent.getPositions(state.getTopography().getElements(Agent.class));
-		voronoiDiagram.computeVoronoiDiagram(pedestrianPositions);
-
-		// compute everything
-		List<Face> faces = voronoiDiagram.getFaces();
-		return faces == null ? Collections.emptyList() : faces;
-	}
-
 	@Override
 	public double getVelocity(SimulationState state) {
-		List<Face> faces = generateFaces(state);
+		List<Face> faces = voronoiDiagrams.getFaces(state, this.voronoiArea);
 
 		Map<Integer, Double> areaMap = new TreeMap<>();
 		Map<Integer, Face> faceMap = new TreeMap<>();
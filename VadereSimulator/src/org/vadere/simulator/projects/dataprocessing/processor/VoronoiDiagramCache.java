@@ -0,0 +1,66 @@
+package org.vadere.simulator.projects.dataprocessing.processor;
+
+import org.jetbrains.annotations.NotNull;
+import org.vadere.simulator.control.simulation.SimulationState;
+import org.vadere.state.scenario.Agent;
+import org.vadere.util.geometry.shapes.VPoint;
+import org.vadere.util.geometry.shapes.VRectangle;
+import org.vadere.util.voronoi.Face;
+import org.vadere.util.voronoi.VoronoiDiagram;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Computes the Voronoi diagram of the agent positions at most once per simulation state and Voronoi area. The
+ * diagram is restricted to the agents inside the area and clipped to it, see {@link VoronoiDiagram}. All Voronoi
+ * based processors of a {@link org.vadere.simulator.projects.dataprocessing.ProcessorManager} share one cache,
+ * therefore, processors and algorithms which use the same Voronoi area, e.g. for the density and the velocity,
+ * compute the diagram only once per step. The faces must not be modified.
+ *
+ * The cache only keeps the diagram of the latest state of each area. It is synchronized since processors may be
+ * updated concurrently.
+ */
+public class VoronoiDiagramCache {
+
+	private final Map<VRectangle, CachedFaces> faces = new HashMap<>();
+
+	public synchronized List<Face> getFaces(@NotNull final SimulationState state, @NotNull final VRectangle voronoiArea) {
+		CachedFaces cachedFaces = faces.get(voronoiArea);
+		if (cachedFaces == null || cachedFaces.state != state || cachedFaces.step != state.getStep()) {
+			cachedFaces = new CachedFaces(state, generateFaces(state, voronoiArea));
+			faces.put(voronoiArea, cachedFaces);
+		}
+		return cachedFaces.faces;
+	}
+
+	public synchronized void clear() {
+		faces.clear();
+	}
+
+	private static List<Face> generateFaces(@NotNull final SimulationState state, @NotNull final VRectangle voronoiArea) {
+		VoronoiDiagram voronoiDiagram = new VoronoiDiagram(voronoiArea);
+
+		// convert pedestrians to positions
+		List<VPoint> pedestrianPositions = Agent.getPositions(state.getTopography().getElements(Agent.class));
+		voronoiDiagram.computeVoronoiDiagram(pedestrianPositions);
+
+		// compute everything
+		List<Face> faces = voronoiDiagram.getFaces();
+		return faces == null ? Collections.emptyList() : Collections.unmodifiableList(faces);
+	}
+
+	private static class CachedFaces {
+		private final SimulationState state;
+		private final int step;
+		private final List<Face> faces;
+
+		private CachedFaces(final SimulationState state, final List<Face> faces) {
+			this.state = state;
+			this.step = state.getStep();
+			this.faces = faces;
+		}
+	}
+}
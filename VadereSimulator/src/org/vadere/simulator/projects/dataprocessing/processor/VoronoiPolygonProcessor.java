@@ -9,7 +9,6 @@ import org.vadere.simulator.projects.dataprocessing.ProcessorManager;
 import org.vadere.simulator.projects.dataprocessing.datakey.TimestepPositionKey;
 import org.vadere.simulator.projects.dataprocessing.flags.UsesMeasurementArea;
 import org.vadere.state.attributes.processor.AttributesVoronoiPolygonProcessor;
-import org.vadere.state.scenario.Agent;
 import org.vadere.state.scenario.MeasurementArea;
 import org.vadere.state.scenario.Obstacle;
 import org.vadere.state.util.StateJsonConverter;
@@ -17,7 +16,6 @@ import org.vadere.util.geometry.shapes.VPoint;
 import org.vadere.util.geometry.shapes.VPolygon;
 import org.vadere.util.geometry.shapes.VShape;
 import org.vadere.util.voronoi.Face;
-import org.vadere.util.voronoi.VoronoiDiagram;
 import org.vadere.util.logging.Logger;
 
 import java.util.*;
@@ -30,6 +28,7 @@ import java.util.stream.Collectors;
 public class VoronoiPolygonProcessor extends DataProcessor<TimestepPositionKey, VPolygon> implements UsesMeasurementArea {
 	private MeasurementArea voronoiMeasurementArea;
 	private List<VPolygon> obstacles;
+	private VoronoiDiagramCache voronoiDiagrams;
 
 	private static Logger logger = Logger.getLogger(VoronoiPolygonProcessor.class);
 
@@ -41,7 +40,7 @@ public class VoronoiPolygonProcessor extends DataProcessor<TimestepPositionKey,
 	protected void doUpdate(final SimulationState state) {
 		// This does not work currently, bcause of the mocking in the tests.
 		// Collection<Pedestrian> pedestrians = state.getTopography().getPedestrianDynamicElements().getElements();
-		List<Face> faces = this.generateFaces(state);
+		List<Face> faces = voronoiDiagrams.getFaces(state, voronoiMeasurementArea.asVRectangle());
 		Map<VPoint, VPolygon> cells = new HashMap<>();
 		boolean substractionSuccess = true;
 
@@ -68,6 +67,7 @@ public class VoronoiPolygonProcessor extends DataProcessor<TimestepPositionKey,
 		AttributesVoronoiPolygonProcessor att = (AttributesVoronoiPolygonProcessor) this.getAttributes();
 		obstacles = manager.getObstacles().stream().map(VPolygon::new).collect(Collectors.toList());
 		voronoiMeasurementArea = manager.getMeasurementArea(att.getVoronoiMeasurementAreaId(), true);
+		voronoiDiagrams = manager.getVoronoiDiagrams();
 	}
 
 	@Override
@@ -90,18 +90,6 @@ public class VoronoiPolygonProcessor extends DataProcessor<TimestepPositionKey,
 		return (AttributesVoronoiPolygonProcessor) super.getAttributes();
 	}
 
-	private List<Face> generateFaces(@NotNull final SimulationState state) {
-		VoronoiDiagram voronoiDiagram = new VoronoiDiagram(this.voronoiMeasurementArea.asVRectangle());
-
-		// convert pedestrians to positions
-		List<VPoint> pedestrianPositions = Agent.getPositions(state.getTopography().getElements(Agent.class));
-		voronoiDiagram.computeVoronoiDiagram(pedestrianPositions);
-
-		// compute everything
-		List<Face> faces = voronoiDiagram.getFaces();
-		return faces == null ? Collections.emptyList() : faces;
-	}
-
 	private VPolygon computeObstacleIntersection(@NotNull final VPolygon cell) {
 		LinkedList<VPolygon> intersectedObstacles = intersectObstacles(cell);
 
@@ -0,0 +1,245 @@
+package org.vadere.simulator.projects.dataprocessing.writer;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.Deflater;
+
+/**
+ * Writes a table into a binary file column by column, i.e. values are never formatted as text. The rows are
+ * buffered in primitive arrays and written in row groups. Each column of a row group is written as one chunk
+ * which is compressed independently, since the values of one column are similar. The file can be read by
+ * {@link org.vadere.simulator.projects.io.ColumnarTableReader}.
+ *
+ * Values are written row by row, i.e. for each row one value for each column in the order of the columns.
+ *
+ * File layout (numbers as written by {@link DataOutputStream}):
+ * <ol>
+ *     <li>{@link #MAGIC}, {@link #VERSION}</li>
+ *     <li>the number of columns and for each column its name and the ordinal of its {@link Type}</li>
+ *     <li>row groups until the end of the file: the number of rows and for each column a chunk: the codec,
+ *     the length of the encoded values, the length of the stored data and the stored data</li>
+ * </ol>
+ * Integers and doubles are encoded by 4 and 8 bytes, strings by the length of their UTF-8 bytes (-1 for missing
+ * values) followed by the bytes. A missing integer is {@link Integer#MIN_VALUE} and a missing double is
+ * {@link Double#NaN} like in tablesaw.
+ */
+public class ColumnarTableWriter implements Closeable {
+
+	public static final int MAGIC = 0x56434F4C; // "VCOL"
+	public static final int VERSION = 1;
+	public static final int DEFAULT_ROW_GROUP_SIZE = 1 << 16;
+
+	public static final byte CODEC_NONE = 0;
+	public static final byte CODEC_DEFLATE = 1;
+
+	public enum Type {
+		INT, DOUBLE, STRING
+	}
+
+	private final DataOutputStream out;
+	private final Type[] types;
+	private final int rowGroupSize;
+
+	// the values of the current row group, for each column only the array of its type is not null
+	private final int[][] ints;
+	private final double[][] doubles;
+	private final String[][] strings;
+	private int rows;
+	private int column;
+
+	private final Deflater deflater;
+	private byte[] encoded;
+	private byte[] compressed;
+
+	public ColumnarTableWriter(final Path file, final String[] names, final Type[] types) throws IOException {
+		this(Files.newOutputStream(file), names, types, DEFAULT_ROW_GROUP_SIZE);
+	}
+
+	public ColumnarTableWriter(final OutputStream out, final String[] names, final Type[] types, final int rowGroupSize) throws IOException {
+		if (names.length != types.length) {
+			throw new IllegalArgumentException("the number of names (" + names.length + ") is not equal to the number of types (" + types.length + ")");
+		}
+		this.out = new DataOutputStream(new BufferedOutputStream(out));
+		this.types = types;
+		this.rowGroupSize = rowGroupSize;
+		this.ints = new int[types.length][];
+		this.doubles = new double[types.length][];
+		this.strings = new String[types.length][];
+		this.deflater = new Deflater(Deflater.BEST_SPEED);
+		this.encoded = new byte[0];
+		this.compressed = new byte[0];
+
+		for (int i = 0; i < types.length; i++) {
+			switch (types[i]) {
+				case INT: ints[i] = new int[rowGroupSize]; break;
+				case DOUBLE: doubles[i] = new double[rowGroupSize]; break;
+				case STRING: strings[i] = new String[rowGroupSize]; break;
+			}
+		}
+
+		this.out.writeInt(MAGIC);
+		this.out.writeInt(VERSION);
+		this.out.writeInt(names.length);
+		for (int i = 0; i < names.length; i++) {
+			this.out.writeUTF(names[i]);
+			this.out.writeByte(types[i].ordinal());
+		}
+	}
+
+	public void writeInt(final int value) {
+		ints[nextColumn(Type.INT)][rows] = value;
+		endValue();
+	}
+
+	public void writeDouble(final double value) {
+		doubles[nextColumn(Type.DOUBLE)][rows] = value;
+		endValue();
+	}
+
+	public void writeString(final String value) {
+		strings[nextColumn(Type.STRING)][rows] = value;
+		endValue();
+	}
+
+	/**
+	 * Writes a missing value into the next column.
+	 */
+	public void writeMissing() {
+		switch (types[column]) {
+			case INT: writeInt(Integer.MIN_VALUE); break;
+			case DOUBLE: writeDouble(Double.NaN); break;
+			case STRING: writeString(null); break;
+		}
+	}
+
+	public Type getType(final int column) {
+		return types[column];
+	}
+
+	public int getColumnCount() {
+		return types.length;
+	}
+
+	private int nextColumn(final Type type) {
+		if (types[column] != type) {
+			throw new IllegalArgumentException("column " + column + " is of type " + types[column] + " but the value is of type " + type);
+		}
+		return column;
+	}
+
+	private void endValue() {
+		column++;
+		if (column == types.length) {
+			column = 0;
+			rows++;
+			if (rows == rowGroupSize) {
+				try {
+					writeRowGroup();
+				} catch (IOException e) {
+					throw new UncheckedIOException(e);
+				}
+			}
+		}
+	}
+
+	private void writeRowGroup() throws IOException {
+		out.writeInt(rows);
+		for (int i = 0; i < types.length; i++) {
+			int length = encode(i);
+			deflater.reset();
+			deflater.setInput(encoded, 0, length);
+			deflater.finish();
+			if (compressed.length < length) {
+				compressed = new byte[length];
+			}
+			int compressedLength = deflater.deflate(compressed, 0, length);
+
+			// store the values as they are if the compression does not pay off
+			if (deflater.finished() && compressedLength < length) {
+				out.writeByte(CODEC_DEFLATE);
+				out.writeInt(length);
+				out.writeInt(compressedLength);
+				out.write(compressed, 0, compressedLength);
+			} else {
+				out.writeByte(CODEC_NONE);
+				out.writeInt(length);
+				out.writeInt(length);
+				out.write(encoded, 0, length);
+			}
+		}
+		rows = 0;
+	}
+
+	private int encode(final int column) {
+		ByteBuffer buffer;
+		switch (types[column]) {
+			case INT:
+				buffer = buffer(4 * rows);
+				for (int row = 0; row < rows; row++) {
+					buffer.putInt(ints[column][row]);
+				}
+				break;
+			case DOUBLE:
+				buffer = buffer(8 * rows);
+				for (int row = 0; row < rows; row++) {
+					buffer.putLong(Double.doubleToRawLongBits(doubles[column][row]));
+				}
+				break;
+			default:
+				byte[][] bytes = new byte[rows][];
+				int length = 4 * rows;
+				for (int row = 0; row < rows; row++) {
+					String value = strings[column][row];
+					if (value != null) {
+						bytes[row] = value.getBytes(StandardCharsets.UTF_8);
+						length += bytes[row].length;
+					}
+					strings[column][row] = null;
+				}
+				buffer = buffer(length);
+				for (int row = 0; row < rows; row++) {
+					if (bytes[row] == null) {
+						buffer.putInt(-1);
+					} else {
+						buffer.putInt(bytes[row].length);
+						buffer.put(bytes[row]);
+					}
+				}
+				break;
+		}
+		return buffer.position();
+	}
+
+	private ByteBuffer buffer(final int length) {
+		if (encoded.length < length) {
+			encoded = new byte[length];
+		}
+		return ByteBuffer.wrap(encoded);
+	}
+
+	/**
+	 * Writes the remaining rows and closes the file.
+	 */
+	@Override
+	public void close() throws IOException {
+		try {
+			if (column != 0) {
+				throw new IllegalStateException("the last row is incomplete, " + column + " of " + types.length + " values were written");
+			}
+			if (rows > 0) {
+				writeRowGroup();
+			}
+		} finally {
+			deflater.end();
+			out.close();
+		}
+	}
+}
@@ -0,0 +1,230 @@
+package org.vadere.simulator.projects.io;
+
+import it.unimi.dsi.fastutil.doubles.DoubleArrayList;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+
+import org.vadere.simulator.projects.dataprocessing.writer.ColumnarTableWriter;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+import tech.tablesaw.api.BooleanColumn;
+import tech.tablesaw.api.DoubleColumn;
+import tech.tablesaw.api.IntColumn;
+import tech.tablesaw.api.StringColumn;
+import tech.tablesaw.api.Table;
+import tech.tablesaw.columns.Column;
+
+/**
+ * Reads a file written by {@link ColumnarTableWriter} into a {@link Table}. Integer and double columns are read
+ * as they are. The values of string columns are the values of processors which do not support typed columns,
+ * therefore, like the csv reader of tablesaw, they are converted into integer, double or boolean columns if all
+ * values can be parsed. "NA" is a missing value.
+ *
+ * A row group which has not been written completely, e.g. by a simulation which has been aborted, is ignored.
+ */
+public class ColumnarTableReader {
+
+	private static final String MISSING = "NA";
+
+	private final Path filePath;
+
+	public ColumnarTableReader(final Path filePath) {
+		this.filePath = filePath;
+	}
+
+	/**
+	 * Tests whether the file starts with {@link ColumnarTableWriter#MAGIC}.
+	 */
+	public static boolean isColumnarFile(final Path filePath) throws IOException {
+		try (DataInputStream in = new DataInputStream(Files.newInputStream(filePath))) {
+			return in.readInt() == ColumnarTableWriter.MAGIC;
+		} catch (EOFException e) {
+			return false;
+		}
+	}
+
+	public Table readFile() throws IOException {
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(filePath)))) {
+			return read(in, filePath.getFileName().toString());
+		}
+	}
+
+	public static Table read(final InputStream inputStream, final String tableName) throws IOException {
+		DataInputStream in = new DataInputStream(inputStream);
+		if (in.readInt() != ColumnarTableWriter.MAGIC) {
+			throw new IOException(tableName + " is not a columnar table.");
+		}
+		int version = in.readInt();
+		if (version != ColumnarTableWriter.VERSION) {
+			throw new IOException("unsupported version " + version + " of the columnar table " + tableName);
+		}
+
+		int columnCount = in.readInt();
+		String[] names = new String[columnCount];
+		ColumnarTableWriter.Type[] types = new ColumnarTableWriter.Type[columnCount];
+		IntArrayList[] ints = new IntArrayList[columnCount];
+		DoubleArrayList[] doubles = new DoubleArrayList[columnCount];
+		List<List<String>> strings = new ArrayList<>(columnCount);
+
+		for (int i = 0; i < columnCount; i++) {
+			names[i] = in.readUTF();
+			types[i] = ColumnarTableWriter.Type.values()[in.readByte()];
+			switch (types[i]) {
+				case INT: ints[i] = new IntArrayList(); break;
+				case DOUBLE: doubles[i] = new DoubleArrayList(); break;
+			}
+			strings.add(types[i] == ColumnarTableWriter.Type.STRING ? new ArrayList<>() : null);
+		}
+
+		Inflater inflater = new Inflater();
+		try {
+			byte[][] chunks = new byte[columnCount][];
+			while (true) {
+				int rows;
+				try {
+					rows = in.readInt();
+					for (int i = 0; i < columnCount; i++) {
+						chunks[i] = readChunk(in, inflater);
+					}
+				} catch (EOFException e) {
+					break;
+				}
+
+				for (int i = 0; i < columnCount; i++) {
+					ByteBuffer buffer = ByteBuffer.wrap(chunks[i]);
+					for (int row = 0; row < rows; row++) {
+						switch (types[i]) {
+							case INT: ints[i].add(buffer.getInt()); break;
+							case DOUBLE: doubles[i].add(Double.longBitsToDouble(buffer.getLong())); break;
+							case STRING:
+								int length = buffer.getInt();
+								String value = null;
+								if (length >= 0) {
+									value = new String(chunks[i], buffer.position(), length, StandardCharsets.UTF_8);
+									buffer.position(buffer.position() + length);
+								}
+								strings.get(i).add(value);
+								break;
+						}
+					}
+				}
+			}
+		} catch (DataFormatException e) {
+			throw new IOException("corrupted columnar table " + tableName, e);
+		} finally {
+			inflater.end();
+		}
+
+		Table table = Table.create(tableName);
+		for (int i = 0; i < columnCount; i++) {
+			switch (types[i]) {
+				case INT: table.addColumns(IntColumn.create(names[i], ints[i].toIntArray())); break;
+				case DOUBLE: table.addColumns(DoubleColumn.create(names[i], doubles[i].toDoubleArray())); break;
+				case STRING: table.addColumns(toColumn(names[i], strings.get(i))); break;
+			}
+		}
+		return table;
+	}
+
+	private static byte[] readChunk(final DataInputStream in, final Inflater inflater) throws IOException, DataFormatException {
+		byte codec = in.readByte();
+		int length = in.readInt();
+		byte[] data = new byte[in.readInt()];
+		in.readFully(data);
+
+		if (codec == ColumnarTableWriter.CODEC_NONE) {
+			return data;
+		} else if (codec == ColumnarTableWriter.CODEC_DEFLATE) {
+			byte[] values = new byte[length];
+			inflater.reset();
+			inflater.setInput(data);
+			if (inflater.inflate(values) != length) {
+				throw new DataFormatException("unexpected length of the inflated chunk");
+			}
+			return values;
+		} else {
+			throw new IOException("unknown codec " + codec);
+		}
+	}
+
+	/**
+	 * Converts string values into the most specific column type.
+	 */
+	private static Column<?> toColumn(final String name, final List<String> values) {
+		boolean isInt = true;
+		boolean isDouble = true;
+		boolean isBoolean = true;
+		boolean isEmpty = true;
+
+		for (String value : values) {
+			if (isMissing(value)) {
+				continue;
+			}
+			isEmpty = false;
+			if (isInt) {
+				try {
+					Integer.parseInt(value);
+				} catch (NumberFormatException e) {
+					isInt = false;
+				}
+			}
+			if (!isInt && isDouble) {
+				try {
+					Double.parseDouble(value);
+				} catch (NumberFormatException e) {
+					isDouble = false;
+				}
+			}
+			if (isBoolean) {
+				isBoolean = value.equalsIgnoreCase("true") || value.equalsIgnoreCase("false");
+			}
+			if (!isInt && !isDouble && !isBoolean) {
+				break;
+			}
+		}
+
+		if (isEmpty) {
+			return StringColumn.create(name, values.size());
+		} else if (isInt) {
+			return IntColumn.create(name, values.stream().mapToInt(v -> isMissing(v) ? Integer.MIN_VALUE : Integer.parseInt(v)).toArray());
+		} else if (isDouble) {
+			return DoubleColumn.create(name, values.stream().mapToDouble(v -> isMissing(v) ? Double.NaN : Double.parseDouble(v)).toArray());
+		} else if (isBoolean) {
+			BooleanColumn column = BooleanColumn.create(name);
+			values.forEach(v -> {
+				if (isMissing(v)) {
+					column.appendMissing();
+				} else {
+					column.append(Boolean.parseBoolean(v));
+				}
+			});
+			return column;
+		} else {
+			StringColumn column = StringColumn.create(name);
+			values.forEach(v -> {
+				if (isMissing(v)) {
+					column.appendMissing();
+				} else {
+					column.append(v);
+				}
+			});
+			return column;
+		}
+	}
+
+	private static boolean isMissing(final String value) {
+		return value == null || value.isEmpty() || value.equals(MISSING);
+	}
+}
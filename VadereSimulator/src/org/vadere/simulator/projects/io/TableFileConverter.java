@@ -0,0 +1,98 @@
+package org.vadere.simulator.projects.io;
+
+import org.vadere.simulator.projects.dataprocessing.DataProcessingJsonManager;
+import org.vadere.simulator.projects.dataprocessing.writer.ColumnarTableWriter;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import tech.tablesaw.api.DoubleColumn;
+import tech.tablesaw.api.IntColumn;
+import tech.tablesaw.api.Table;
+import tech.tablesaw.columns.Column;
+
+/**
+ * Converts output files, e.g. trajectory files, between the text format of
+ * {@link org.vadere.simulator.projects.dataprocessing.outputfile.OutputFile} and the binary format of
+ * {@link org.vadere.simulator.projects.dataprocessing.outputfile.ColumnarOutputFile}.
+ */
+public class TableFileConverter {
+
+	private static final String MISSING = "NA";
+
+	/**
+	 * Converts a text file with a header into a columnar file. Integer and double columns of the text file are
+	 * written as typed columns, all other columns as string columns.
+	 */
+	public static void toColumnar(final Path textFile, final Path columnarFile) throws IOException {
+		write(new TrajectoryReader(textFile).readFile(), columnarFile);
+	}
+
+	/**
+	 * Converts a columnar file into a text file, the values are separated by
+	 * {@link DataProcessingJsonManager#DEFAULT_SEPARATOR}.
+	 */
+	public static void toText(final Path columnarFile, final Path textFile) throws IOException {
+		Table table = new ColumnarTableReader(columnarFile).readFile();
+
+		try (BufferedWriter out = Files.newBufferedWriter(textFile, StandardCharsets.UTF_8)) {
+			out.write(String.join(DataProcessingJsonManager.DEFAULT_SEPARATOR, table.columnNames()));
+			out.newLine();
+
+			String[] values = new String[table.columnCount()];
+			for (int row = 0; row < table.rowCount(); row++) {
+				for (int i = 0; i < table.columnCount(); i++) {
+					values[i] = toString(table.column(i), row);
+				}
+				out.write(String.join(DataProcessingJsonManager.DEFAULT_SEPARATOR, values));
+				out.newLine();
+			}
+		}
+	}
+
+	public static void write(final Table table, final Path columnarFile) throws IOException {
+		ColumnarTableWriter.Type[] types = new ColumnarTableWriter.Type[table.columnCount()];
+		for (int i = 0; i < table.columnCount(); i++) {
+			Column<?> column = table.column(i);
+			if (column instanceof IntColumn) {
+				types[i] = ColumnarTableWriter.Type.INT;
+			} else if (column instanceof DoubleColumn) {
+				types[i] = ColumnarTableWriter.Type.DOUBLE;
+			} else {
+				types[i] = ColumnarTableWriter.Type.STRING;
+			}
+		}
+
+		try (ColumnarTableWriter out = new ColumnarTableWriter(columnarFile, table.columnNames().toArray(new String[0]), types)) {
+			for (int row = 0; row < table.rowCount(); row++) {
+				for (int i = 0; i < table.columnCount(); i++) {
+					Column<?> column = table.column(i);
+					if (column.isMissing(row)) {
+						out.writeMissing();
+					} else if (types[i] == ColumnarTableWriter.Type.INT) {
+						out.writeInt(((IntColumn) column).getInt(row));
+					} else if (types[i] == ColumnarTableWriter.Type.DOUBLE) {
+						out.writeDouble(((DoubleColumn) column).getDouble(row));
+					} else {
+						out.writeString(column.getUnformattedString(row));
+					}
+				}
+			}
+		}
+	}
+
+	private static String toString(final Column<?> column, final int row) {
+		if (column.isMissing(row)) {
+			return MISSING;
+		} else if (column instanceof IntColumn) {
+			return Integer.toString(((IntColumn) column).getInt(row));
+		} else if (column instanceof DoubleColumn) {
+			return Double.toString(((DoubleColumn) column).getDouble(row));
+		} else {
+			return column.getUnformattedString(row);
+		}
+	}
+}
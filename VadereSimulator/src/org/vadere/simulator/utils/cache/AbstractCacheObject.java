@@ -1,15 +1,42 @@
 package org.vadere.simulator.utils.cache;
 
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.vadere.util.logging.Logger;
+
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
+import java.io.IOException;
 import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
 
 public abstract class AbstractCacheObject {
 
+	private static Logger logger = Logger.getLogger(AbstractCacheObject.class);
+
+	private static final String lock_sufix = ".lock";
+	private static final String tmp_sufix = ".tmp";
+
+	/**
+	 * File locks are held by the whole JVM, therefore threads of the same JVM have to be synchronized separately.
+	 * A lock is removed if no thread holds or waits for it, i.e. the map does not grow with the number of caches.
+	 */
+	private static final ConcurrentHashMap<String, ThreadLock> threadLocks = new ConcurrentHashMap<>();
+
 	protected File cacheLocation;
 	protected InputStream inputStream;
 	protected String cacheIdentifier;
+	/** the shared floor field found by {@link #getSharedFloorField()}, it is kept even if it is removed from {@link SharedFloorFields} */
+	private Object sharedFloorField;
 
 	public AbstractCacheObject(String cacheIdentifier, File cacheLocation){
 		this.cacheIdentifier = cacheIdentifier;
@@ -28,9 +55,13 @@ public abstract class AbstractCacheObject {
 		this.inputStream = inputStream;
 	}
 
-
+	/**
+	 * Returns true if the cache file exists or if another run of this JVM shares the floor field of the cache
+	 * file, see {@link SharedFloorFields}. In the latter case the cache is readable even if the file does not exist
+	 * (anymore), since the cache objects which share their floor fields read the shared floor field before the file.
+	 */
 	public boolean readable() {
-		return inputStream!=null;
+		return inputStream!=null || getSharedFloorField() != null;
 	}
 
 	public boolean writable() {
@@ -40,4 +71,139 @@ public abstract class AbstractCacheObject {
 	public String getCacheIdentifier() {
 		return cacheIdentifier;
 	}
+
+	/**
+	 * Acquires a lock of the file <tt>cacheLocation.lock</tt>, see {@link ICacheObject#lock()}. If the file can not
+	 * be locked the cache is written without a lock.
+	 */
+	public CacheLock lock() {
+		if(readable() || !writable()) {
+			return CacheLock.NONE;
+		}
+
+		Path lockFile = new File(cacheLocation.getAbsolutePath() + lock_sufix).toPath();
+		String lockKey = lockFile.toString();
+		ReentrantLock threadLock = acquireThreadLock(lockKey);
+		threadLock.lock();
+		FileChannel channel = null;
+		try {
+			Files.createDirectories(lockFile.getParent());
+			channel = FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+			FileLock fileLock = channel.lock();
+			FileChannel lockedChannel = channel;
+
+			// another run might have written the cache while this run was waiting for the lock
+			reopen();
+
+			return () -> {
+				try {
+					fileLock.release();
+					lockedChannel.close();
+				} catch (IOException e) {
+					throw new CacheException("Cannot release the lock of the cache " + cacheLocation.getAbsolutePath(), e);
+				} finally {
+					threadLock.unlock();
+					releaseThreadLock(lockKey);
+				}
+			};
+		} catch (IOException e) {
+			logger.warnf("cannot lock cache %s, write it without a lock.", cacheLocation.getAbsolutePath());
+			try {
+				if(channel != null) {
+					channel.close();
+				}
+			} catch (IOException ex) {
+				logger.error(ex);
+			}
+			threadLock.unlock();
+			releaseThreadLock(lockKey);
+			return CacheLock.NONE;
+		}
+	}
+
+	/**
+	 * Returns the lock of the key and counts the thread as a user of the lock.
+	 */
+	private static ReentrantLock acquireThreadLock(@NotNull final String key) {
+		return threadLocks.compute(key, (k, threadLock) -> {
+			ThreadLock result = threadLock == null ? new ThreadLock() : threadLock;
+			result.users++;
+			return result;
+		}).lock;
+	}
+
+	/**
+	 * Removes the lock of the key if the thread, which has unlocked it, was its last user.
+	 */
+	private static void releaseThreadLock(@NotNull final String key) {
+		threadLocks.computeIfPresent(key, (k, threadLock) -> --threadLock.users == 0 ? null : threadLock);
+	}
+
+	/**
+	 * The users of a lock are only counted within the atomic operations of {@link #threadLocks}.
+	 */
+	private static class ThreadLock {
+		private final ReentrantLock lock = new ReentrantLock();
+		private int users;
+	}
+
+	static int numberOfThreadLocks() {
+		return threadLocks.size();
+	}
+
+	private void reopen() {
+		if(inputStream == null) {
+			try {
+				this.inputStream = new FileInputStream(cacheLocation);
+			} catch (FileNotFoundException e) {
+				this.inputStream = null;
+			}
+		}
+	}
+
+	/**
+	 * Writes the cache into a temporary file which replaces the cache file afterwards, therefore other processes
+	 * never read a partially written cache.
+	 *
+	 * @param writer writes the cache into the given file
+	 */
+	protected void writeAtomically(@NotNull final CacheWriter writer) throws Exception {
+		Path target = cacheLocation.getAbsoluteFile().toPath();
+		Files.createDirectories(target.getParent());
+		Path tmp = Files.createTempFile(target.getParent(), cacheLocation.getName(), tmp_sufix);
+		try {
+			writer.write(tmp.toFile());
+			try {
+				Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+			} catch (AtomicMoveNotSupportedException e) {
+				Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING);
+			}
+		} finally {
+			Files.deleteIfExists(tmp);
+		}
+	}
+
+	/**
+	 * Returns the floor field of this cache shared by another run of this JVM, see {@link SharedFloorFields}. Once
+	 * found, the floor field is kept by this object, i.e. it is still returned if {@link SharedFloorFields}
+	 * removed it in the meantime and therefore {@link #readable()} stays true.
+	 */
+	@Nullable
+	protected Object getSharedFloorField() {
+		if(sharedFloorField == null && cacheLocation != null) {
+			sharedFloorField = SharedFloorFields.get(cacheLocation);
+		}
+		return sharedFloorField;
+	}
+
+	protected void shareFloorField(@NotNull final Object floorField) {
+		if(cacheLocation != null) {
+			SharedFloorFields.put(cacheLocation, floorField);
+		}
+	}
+
+	@FunctionalInterface
+	protected interface CacheWriter {
+		void write(@NotNull File file) throws Exception;
+	}
 }
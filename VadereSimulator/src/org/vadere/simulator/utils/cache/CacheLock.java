@@ -0,0 +1,16 @@
+package org.vadere.simulator.utils.cache;
+
+/**
+ * Exclusive right to write a cache, see {@link ICacheObject#lock()}. The lock has to be released by
+ * {@link #close()} by the thread which acquired it.
+ */
+public interface CacheLock extends AutoCloseable {
+
+	/**
+	 * A lock which does not lock anything.
+	 */
+	CacheLock NONE = () -> {};
+
+	@Override
+	void close() throws CacheException;
+}
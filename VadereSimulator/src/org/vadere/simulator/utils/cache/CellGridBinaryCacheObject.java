@@ -24,21 +24,30 @@ public class CellGridBinaryCacheObject extends AbstractCacheObject implements IC
 
 	@Override
 	public void initializeObjectFromCache(CellGrid object) throws CacheException {
+		Object sharedGrid = getSharedFloorField();
+		if(sharedGrid instanceof CellGrid) {
+			logger.infof("read shared cache: %s", getCacheLocation());
+			SharedFloorFields.copy((CellGrid) sharedGrid, object);
+			return;
+		}
 		try {
 			logger.infof("read cache: %s", getCacheLocation());
 			CellGridReadWriter.read(object).fromBinary(new DataInputStream(new FastBufferedInputStream(inputStream)));
 		} catch (Exception e) {
 			throw new CacheException("Cannot load cache from BIN InputStream", e);
 		}
+		shareFloorField(SharedFloorFields.snapshot(object));
 	}
 
 	@Override
 	public void persistObject(CellGrid object) throws CacheException {
 		try {
-			CellGridReadWriter.write(object).toBinary(cacheLocation);
+			writeAtomically(file -> CellGridReadWriter.write(object).toBinary(file));
 		} catch (Exception e) {
 			logger.errorf("cannot save cache %s", cacheLocation.getAbsolutePath());
+			return;
 		}
+		shareFloorField(SharedFloorFields.snapshot(object));
 	}
 
 	@Override
@@ -22,21 +22,30 @@ public class CellGridTxtCacheObject extends AbstractCacheObject implements ICell
 
 	@Override
 	public void initializeObjectFromCache(CellGrid object) throws CacheException {
+		Object sharedGrid = getSharedFloorField();
+		if(sharedGrid instanceof CellGrid) {
+			logger.infof("read shared cache: %s", getCacheLocation());
+			SharedFloorFields.copy((CellGrid) sharedGrid, object);
+			return;
+		}
 		try {
 			CellGridReadWriter.read(object).fromTextFile(new FastBufferedInputStream(inputStream));
 		} catch (Exception e) {
 			throw new CacheException("Cannot load cache from TXT InputStream", e);
 		}
+		shareFloorField(SharedFloorFields.snapshot(object));
 	}
 
 	@Override
 	public void persistObject(CellGrid object) throws CacheException {
 		try {
 			logger.infof("write cache: %s", getCacheLocation());
-			CellGridReadWriter.write(object).toTextFile(cacheLocation);
+			writeAtomically(file -> CellGridReadWriter.write(object).toTextFile(file));
 		} catch (Exception e) {
 			logger.errorf("cannot save cache %s", cacheLocation.getAbsolutePath());
+			return;
 		}
+		shareFloorField(SharedFloorFields.snapshot(object));
 	}
 
 	@Override
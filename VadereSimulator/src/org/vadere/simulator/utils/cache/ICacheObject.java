@@ -47,4 +47,16 @@ public interface ICacheObject<T> {
 
 	String getCacheIdentifier();
 
+	/**
+	 * Acquires the exclusive right to write the cache if it is not yet readable but writable, i.e. waits until
+	 * no other thread or process (e.g. another run of a parameter sweep) writes the cache. After the lock is
+	 * acquired {@link #readable()} is true if the cache was written in the meantime, in which case the cache
+	 * should be read instead of computed again.
+	 *
+	 * @return the lock which has to be closed after the cache was written
+	 */
+	default CacheLock lock() {
+		return CacheLock.NONE;
+	}
+
 }
@@ -1,6 +1,30 @@
 package org.vadere.simulator.utils.cache;
 
+import org.jetbrains.annotations.NotNull;
 import org.vadere.meshing.mesh.gen.PMesh;
+import org.vadere.meshing.mesh.inter.IFace;
+import org.vadere.meshing.mesh.inter.IHalfEdge;
+import org.vadere.meshing.mesh.inter.IMesh;
+import org.vadere.meshing.mesh.inter.IVertex;
 
 public interface IMeshCacheObject extends ICacheObject<PMesh> {
+
+	/**
+	 * Sets the per-vertex values of an existing mesh, e.g. the mesh of a floor field solver, to the cached values.
+	 * The mesh has to be the mesh the cache was created from, i.e. the vertices have to be in the same order.
+	 *
+	 * @param mesh          the mesh which is equal to the cached mesh
+	 * @param containerName the name of the vertex container (double) the cached values are written to
+	 */
+	<V extends IVertex, E extends IHalfEdge, F extends IFace> void initializeObjectFromCache(
+			@NotNull IMesh<V, E, F> mesh, @NotNull String containerName) throws CacheException;
+
+	/**
+	 * Persists the mesh and the per-vertex values of the vertex container.
+	 *
+	 * @param mesh          the mesh
+	 * @param containerName the name of the vertex container (double) which will be persisted
+	 */
+	<V extends IVertex, E extends IHalfEdge, F extends IFace> void persistObject(
+			@NotNull IMesh<V, E, F> mesh, @NotNull String containerName) throws CacheException;
 }
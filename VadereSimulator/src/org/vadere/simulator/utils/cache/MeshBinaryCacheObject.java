@@ -0,0 +1,366 @@
+package org.vadere.simulator.utils.cache;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.vadere.meshing.mesh.gen.PMesh;
+import org.vadere.meshing.mesh.inter.IFace;
+import org.vadere.meshing.mesh.inter.IHalfEdge;
+import org.vadere.meshing.mesh.inter.IMesh;
+import org.vadere.meshing.mesh.inter.IVertex;
+import org.vadere.simulator.models.potential.solver.calculators.mesh.MeshEikonalSolverFMM;
+import org.vadere.util.logging.Logger;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * Binary cache of a mesh and one value (the potential) per vertex. In contrast to {@link MeshTxtCacheObject}
+ * the cache is not parsed from text. The file is mapped via {@link FileChannel#map} and the coordinates,
+ * the topology and the values are read from the mapped buffer without an intermediate copy of the file.
+ * Note that the values are still copied into the vertex container of the mesh, i.e. the mesh does not
+ * reference the mapped file.
+ *
+ * The file consists of a header
+ * <pre>
+ *     int magic, int version, int hashLength, byte[hashLength] hash (UTF-8),
+ *     int nVertices, int nHalfEdges, int nFaces, int nHoles, long crc32 (of the payload)
+ * </pre>
+ * followed by the payload
+ * <pre>
+ *     double[2 * nVertices]            x, y of each vertex
+ *     double[nVertices]                value of each vertex
+ *     int[nVertices]                   half-edge of each vertex (ending at the vertex)
+ *     int[4 * nHalfEdges]              end vertex, next, twin and face of each half-edge
+ *     int[nFaces + nHoles + 1]         half-edge of each face, each hole and the border
+ * </pre>
+ * The faces are indexed in the order of {@link IMesh#getFaces()}, followed by {@link IMesh#getHoles()} and the
+ * border {@link IMesh#getBorder()}. The hash of the floor field ({@link org.vadere.state.util.StateJsonConverter#getFloorFieldHash})
+ * is stored in the header and a cache with a different hash or a corrupted payload is rejected.
+ *
+ * The mapped file is shared with other runs of this JVM via {@link SharedFloorFields}.
+ */
+public class MeshBinaryCacheObject extends AbstractCacheObject implements IMeshCacheObject {
+
+	private static Logger logger = Logger.getLogger(MeshBinaryCacheObject.class);
+
+	private static final int MAGIC = 0x56464d43; // VFMC
+	private static final int VERSION = 1;
+
+	@Nullable private final String hash;
+
+	/**
+	 * @param cacheIdentifier   the identifier of the cache
+	 * @param cacheLocation     the cache file
+	 * @param hash              the floor field hash the cache has to match or <tt>null</tt> if the hash should not be checked
+	 */
+	public MeshBinaryCacheObject(@NotNull final String cacheIdentifier, @NotNull final File cacheLocation, @Nullable final String hash) {
+		super(cacheIdentifier, cacheLocation);
+		this.hash = hash;
+	}
+
+	public MeshBinaryCacheObject(@NotNull final String cacheIdentifier, @Nullable final File cacheLocation, @NotNull final InputStream inputStream, @Nullable final String hash) {
+		super(cacheIdentifier, cacheLocation, inputStream);
+		this.hash = hash;
+	}
+
+	/**
+	 * Rebuilds the cached mesh (including its topology) inside the empty mesh. The values of the vertices
+	 * are written to the vertex container {@link MeshEikonalSolverFMM#namePotential}.
+	 */
+	@Override
+	public void initializeObjectFromCache(@NotNull final PMesh mesh) throws CacheException {
+		if(mesh.getNumberOfVertices() > 0) {
+			throw new CacheException("Cannot rebuild the cached mesh inside a non-empty mesh.");
+		}
+		MappedMesh mappedMesh = map();
+		buildMesh(mesh, mappedMesh, MeshEikonalSolverFMM.namePotential);
+	}
+
+	@Override
+	public void persistObject(@NotNull final PMesh mesh) throws CacheException {
+		persistObject(mesh, MeshEikonalSolverFMM.namePotential);
+	}
+
+	@Override
+	public <V extends IVertex, E extends IHalfEdge, F extends IFace> void initializeObjectFromCache(
+			@NotNull final IMesh<V, E, F> mesh, @NotNull final String containerName) throws CacheException {
+		MappedMesh mappedMesh = map();
+		List<V> vertices = mesh.getVertices();
+		List<E> edges = mesh.getEdges();
+
+		if(vertices.size() != mappedMesh.nVertices || edges.size() != mappedMesh.nHalfEdges) {
+			throw new CacheException("The cached mesh (" + mappedMesh.nVertices + " vertices, " + mappedMesh.nHalfEdges
+					+ " half-edges) does not match the mesh (" + vertices.size() + " vertices, " + edges.size() + " half-edges).");
+		}
+
+		for(int i = 0; i < mappedMesh.nVertices; i++) {
+			V v = vertices.get(i);
+			if(mesh.getX(v) != mappedMesh.coordinates.get(2 * i) || mesh.getY(v) != mappedMesh.coordinates.get(2 * i + 1)) {
+				throw new CacheException("The vertex " + i + " of the cached mesh does not match the mesh.");
+			}
+		}
+
+		for(int i = 0; i < mappedMesh.nHalfEdges; i++) {
+			V v = mesh.getVertex(edges.get(i));
+			int end = mappedMesh.halfEdges.get(4 * i);
+			if(mesh.getX(v) != mappedMesh.coordinates.get(2 * end) || mesh.getY(v) != mappedMesh.coordinates.get(2 * end + 1)) {
+				throw new CacheException("The half-edge " + i + " of the cached mesh does not match the mesh.");
+			}
+		}
+
+		for(int i = 0; i < mappedMesh.nVertices; i++) {
+			mesh.setDoubleData(vertices.get(i), containerName, mappedMesh.values.get(i));
+		}
+	}
+
+	@Override
+	public <V extends IVertex, E extends IHalfEdge, F extends IFace> void persistObject(
+			@NotNull final IMesh<V, E, F> mesh, @NotNull final String containerName) throws CacheException {
+		List<V> vertices = mesh.getVertices();
+		List<E> edges = mesh.getEdges();
+		List<F> faces = mesh.getFaces();
+		int nFaces = faces.size();
+		faces.addAll(mesh.getHoles());
+		int nHoles = faces.size() - nFaces;
+		faces.add(mesh.getBorder());
+
+		Map<V, Integer> vertexIndices = new IdentityHashMap<>();
+		for(int i = 0; i < vertices.size(); i++) {
+			vertexIndices.put(vertices.get(i), i);
+		}
+		Map<E, Integer> edgeIndices = new IdentityHashMap<>();
+		for(int i = 0; i < edges.size(); i++) {
+			edgeIndices.put(edges.get(i), i);
+		}
+		Map<F, Integer> faceIndices = new IdentityHashMap<>();
+		for(int i = 0; i < faces.size(); i++) {
+			faceIndices.put(faces.get(i), i);
+		}
+
+		byte[] hashBytes = (hash == null ? "" : hash).getBytes(StandardCharsets.UTF_8);
+		int headerSize = 3 * Integer.BYTES + hashBytes.length + 4 * Integer.BYTES + Long.BYTES;
+		long payloadSize = 3L * vertices.size() * Double.BYTES
+				+ ((long)vertices.size() + 4L * edges.size() + faces.size()) * Integer.BYTES;
+
+		if(headerSize + payloadSize > Integer.MAX_VALUE) {
+			throw new CacheException("The mesh is too large to be cached: " + (headerSize + payloadSize) + " bytes.");
+		}
+
+		ByteBuffer buffer = ByteBuffer.allocate((int)(headerSize + payloadSize));
+		buffer.position(headerSize);
+		for(V v : vertices) {
+			buffer.putDouble(mesh.getX(v));
+			buffer.putDouble(mesh.getY(v));
+		}
+		for(V v : vertices) {
+			buffer.putDouble(mesh.getDoubleData(v, containerName));
+		}
+		for(V v : vertices) {
+			buffer.putInt(indexOf(edgeIndices, mesh.getEdge(v)));
+		}
+		for(E e : edges) {
+			buffer.putInt(indexOf(vertexIndices, mesh.getVertex(e)));
+			buffer.putInt(indexOf(edgeIndices, mesh.getNext(e)));
+			buffer.putInt(indexOf(edgeIndices, mesh.getTwin(e)));
+			buffer.putInt(indexOf(faceIndices, mesh.getFace(e)));
+		}
+		for(F f : faces) {
+			buffer.putInt(indexOf(edgeIndices, mesh.getEdge(f)));
+		}
+
+		CRC32 crc = new CRC32();
+		crc.update(buffer.duplicate().position(headerSize));
+
+		buffer.position(0);
+		buffer.putInt(MAGIC);
+		buffer.putInt(VERSION);
+		buffer.putInt(hashBytes.length);
+		buffer.put(hashBytes);
+		buffer.putInt(vertices.size());
+		buffer.putInt(edges.size());
+		buffer.putInt(nFaces);
+		buffer.putInt(nHoles);
+		buffer.putLong(crc.getValue());
+		buffer.position(0);
+
+		try {
+			writeAtomically(file -> {
+				try (FileChannel channel = FileChannel.open(file.toPath(),
+						StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+					while (buffer.hasRemaining()) {
+						channel.write(buffer);
+					}
+				}
+			});
+		} catch (Exception e) {
+			logger.errorf("cannot save cache %s", cacheLocation.getAbsolutePath());
+		}
+	}
+
+	@Override
+	public String getCacheLocation() {
+		if (cacheLocation != null ){
+			return cacheLocation.getAbsolutePath();
+		} else {
+			return "provided via TraCI";
+		}
+	}
+
+	private static <T> int indexOf(@NotNull final Map<T, Integer> indices, @NotNull final T element) {
+		Integer index = indices.get(element);
+		if(index == null) {
+			throw new CacheException("The mesh is not consistent, it refers to an element which is not part of the mesh.");
+		}
+		return index;
+	}
+
+	/**
+	 * Maps the cache file into memory (or wraps the bytes of a non-file input stream) and validates the header.
+	 */
+	private MappedMesh map() throws CacheException {
+		Object sharedMesh = getSharedFloorField();
+		if(sharedMesh instanceof MappedMesh) {
+			logger.infof("read shared cache: %s", getCacheLocation());
+			return (MappedMesh) sharedMesh;
+		}
+		if(inputStream == null) {
+			throw new CacheException("No cache found: " + getCacheLocation());
+		}
+
+		ByteBuffer buffer;
+		try {
+			logger.infof("read cache: %s", getCacheLocation());
+			if(inputStream instanceof FileInputStream) {
+				FileChannel channel = ((FileInputStream) inputStream).getChannel();
+				buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+			} else {
+				buffer = ByteBuffer.wrap(inputStream.readAllBytes());
+			}
+		} catch (IOException e) {
+			throw new CacheException("Cannot load cache from BIN InputStream", e);
+		}
+
+		try {
+			if(buffer.getInt() != MAGIC) {
+				throw new CacheException("The cache is not a binary mesh cache: " + getCacheLocation());
+			}
+			int version = buffer.getInt();
+			if(version != VERSION) {
+				throw new CacheException("Unsupported version " + version + " of the binary mesh cache: " + getCacheLocation());
+			}
+			byte[] hashBytes = new byte[buffer.getInt()];
+			buffer.get(hashBytes);
+			String cachedHash = new String(hashBytes, StandardCharsets.UTF_8);
+			if(hash != null && !hash.equals(cachedHash)) {
+				throw new CacheException("The hash of the cache " + cachedHash + " does not match the hash of the floor field " + hash);
+			}
+
+			MappedMesh mappedMesh = new MappedMesh(buffer.getInt(), buffer.getInt(), buffer.getInt(), buffer.getInt());
+			long checksum = buffer.getLong();
+			if(buffer.remaining() != mappedMesh.payloadSize()) {
+				throw new CacheException("The size of the cache " + getCacheLocation() + " does not match its header.");
+			}
+
+			CRC32 crc = new CRC32();
+			crc.update(buffer.duplicate());
+			if(crc.getValue() != checksum) {
+				throw new CacheException("The checksum of the cache " + getCacheLocation() + " does not match.");
+			}
+
+			mappedMesh.coordinates = slice(buffer, 2 * mappedMesh.nVertices * Double.BYTES).asDoubleBuffer();
+			mappedMesh.values = slice(buffer, mappedMesh.nVertices * Double.BYTES).asDoubleBuffer();
+			mappedMesh.vertexEdges = slice(buffer, mappedMesh.nVertices * Integer.BYTES).asIntBuffer();
+			mappedMesh.halfEdges = slice(buffer, 4 * mappedMesh.nHalfEdges * Integer.BYTES).asIntBuffer();
+			mappedMesh.faceEdges = slice(buffer, (mappedMesh.nFaces + mappedMesh.nHoles + 1) * Integer.BYTES).asIntBuffer();
+			// the views are only accessed by absolute (thread-safe) reads, therefore they can be shared
+			shareFloorField(mappedMesh);
+			return mappedMesh;
+		} catch (RuntimeException e) {
+			if(e instanceof CacheException) {
+				throw e;
+			}
+			throw new CacheException("The binary mesh cache " + getCacheLocation() + " is corrupted.", e);
+		}
+	}
+
+	private static ByteBuffer slice(@NotNull final ByteBuffer buffer, final int size) {
+		ByteBuffer slice = buffer.slice();
+		slice.limit(size);
+		buffer.position(buffer.position() + size);
+		return slice;
+	}
+
+	private static <V extends IVertex, E extends IHalfEdge, F extends IFace> void buildMesh(
+			@NotNull final IMesh<V, E, F> mesh, @NotNull final MappedMesh mappedMesh, @NotNull final String containerName) {
+		List<V> vertices = new ArrayList<>(mappedMesh.nVertices);
+		for(int i = 0; i < mappedMesh.nVertices; i++) {
+			V v = mesh.createVertex(mappedMesh.coordinates.get(2 * i), mappedMesh.coordinates.get(2 * i + 1));
+			mesh.insertVertex(v);
+			mesh.setDoubleData(v, containerName, mappedMesh.values.get(i));
+			vertices.add(v);
+		}
+
+		List<F> faces = new ArrayList<>(mappedMesh.nFaces + mappedMesh.nHoles + 1);
+		for(int i = 0; i < mappedMesh.nFaces; i++) {
+			faces.add(mesh.createFace());
+		}
+		for(int i = 0; i < mappedMesh.nHoles; i++) {
+			faces.add(mesh.createFace(true));
+		}
+		faces.add(mesh.getBorder());
+
+		List<E> edges = new ArrayList<>(mappedMesh.nHalfEdges);
+		for(int i = 0; i < mappedMesh.nHalfEdges; i++) {
+			edges.add(mesh.createEdge(vertices.get(mappedMesh.halfEdges.get(4 * i)), faces.get(mappedMesh.halfEdges.get(4 * i + 3))));
+		}
+		for(int i = 0; i < mappedMesh.nHalfEdges; i++) {
+			mesh.setNext(edges.get(i), edges.get(mappedMesh.halfEdges.get(4 * i + 1)));
+			mesh.setTwin(edges.get(i), edges.get(mappedMesh.halfEdges.get(4 * i + 2)));
+		}
+		for(int i = 0; i < mappedMesh.nVertices; i++) {
+			mesh.setEdge(vertices.get(i), edges.get(mappedMesh.vertexEdges.get(i)));
+		}
+		for(int i = 0; i < faces.size(); i++) {
+			mesh.setEdge(faces.get(i), edges.get(mappedMesh.faceEdges.get(i)));
+		}
+	}
+
+	/**
+	 * Views of the sections of the mapped cache file.
+	 */
+	private static class MappedMesh {
+		private final int nVertices;
+		private final int nHalfEdges;
+		private final int nFaces;
+		private final int nHoles;
+		private DoubleBuffer coordinates;
+		private DoubleBuffer values;
+		private IntBuffer vertexEdges;
+		private IntBuffer halfEdges;
+		private IntBuffer faceEdges;
+
+		private MappedMesh(final int nVertices, final int nHalfEdges, final int nFaces, final int nHoles) {
+			this.nVertices = nVertices;
+			this.nHalfEdges = nHalfEdges;
+			this.nFaces = nFaces;
+			this.nHoles = nHoles;
+		}
+
+		private long payloadSize() {
+			return 3L * nVertices * Double.BYTES + ((long)nVertices + 4L * nHalfEdges + nFaces + nHoles + 1) * Integer.BYTES;
+		}
+	}
+}
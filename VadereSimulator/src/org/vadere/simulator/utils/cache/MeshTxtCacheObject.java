@@ -4,21 +4,26 @@ import it.unimi.dsi.fastutil.io.FastBufferedInputStream;
 import it.unimi.dsi.fastutil.io.FastBufferedOutputStream;
 
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import org.vadere.meshing.mesh.gen.PFace;
 import org.vadere.meshing.mesh.gen.PHalfEdge;
 import org.vadere.meshing.mesh.gen.PMesh;
 import org.vadere.meshing.mesh.gen.PVertex;
+import org.vadere.meshing.mesh.inter.IFace;
+import org.vadere.meshing.mesh.inter.IHalfEdge;
+import org.vadere.meshing.mesh.inter.IMesh;
+import org.vadere.meshing.mesh.inter.IVertex;
 import org.vadere.meshing.utils.io.poly.MeshPolyReader;
 import org.vadere.meshing.utils.io.poly.MeshPolyWriter;
 import org.vadere.simulator.models.potential.solver.calculators.mesh.MeshEikonalSolverFMM;
 import org.vadere.util.logging.Logger;
 
 import java.io.File;
-import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.PrintWriter;
+import java.util.List;
 
 public class MeshTxtCacheObject extends AbstractCacheObject implements IMeshCacheObject {
 	private  static Logger logger = Logger.getLogger(MeshTxtCacheObject.class);
@@ -27,7 +32,7 @@ public class MeshTxtCacheObject extends AbstractCacheObject implements IMeshCach
 		super(cacheIdentifier, cacheLocation);
 	}
 
-	public MeshTxtCacheObject(@NotNull final String cacheIdentifier, @NotNull final File cacheLocation, @NotNull final InputStream inputStream) {
+	public MeshTxtCacheObject(@NotNull final String cacheIdentifier, @Nullable final File cacheLocation, @NotNull final InputStream inputStream) {
 		super(cacheIdentifier, cacheLocation, inputStream);
 	}
 
@@ -44,11 +49,43 @@ public class MeshTxtCacheObject extends AbstractCacheObject implements IMeshCach
 
 	@Override
 	public void persistObject(@NotNull final PMesh mesh) throws CacheException {
+		persistObject(mesh, MeshEikonalSolverFMM.namePotential);
+	}
+
+	@Override
+	public <V extends IVertex, E extends IHalfEdge, F extends IFace> void initializeObjectFromCache(
+			@NotNull final IMesh<V, E, F> mesh, @NotNull final String containerName) throws CacheException {
+		IMesh<PVertex, PHalfEdge, PFace> cachedMesh;
+		try {
+			MeshPolyReader<PVertex, PHalfEdge, PFace> meshPolyReader = new MeshPolyReader<>(() -> new PMesh());
+			InputStream fastInputStream = new FastBufferedInputStream(inputStream);
+			cachedMesh = meshPolyReader.readMesh(fastInputStream, i -> MeshEikonalSolverFMM.namePotential);
+		} catch (IOException e) {
+			throw new CacheException("Cannot load cache from TXT InputStream", e);
+		}
+
+		// the vertices are written and read in the same order
+		List<V> vertices = mesh.getVertices();
+		List<PVertex> cachedVertices = cachedMesh.getVertices();
+		if(vertices.size() != cachedVertices.size()) {
+			throw new CacheException("The cached mesh (" + cachedVertices.size() + " vertices) does not match the mesh (" + vertices.size() + " vertices).");
+		}
+		for(int i = 0; i < vertices.size(); i++) {
+			mesh.setDoubleData(vertices.get(i), containerName, cachedMesh.getDoubleData(cachedVertices.get(i), MeshEikonalSolverFMM.namePotential));
+		}
+	}
+
+	@Override
+	public <V extends IVertex, E extends IHalfEdge, F extends IFace> void persistObject(
+			@NotNull final IMesh<V, E, F> mesh, @NotNull final String containerName) throws CacheException {
 		try {
-			PrintWriter writer = new PrintWriter(new FastBufferedOutputStream(new FileOutputStream(cacheLocation)));
-			MeshPolyWriter<PVertex, PHalfEdge, PFace> meshPolyWriter = new MeshPolyWriter<>();
-			meshPolyWriter.to2DPoly(mesh, 1, i -> MeshEikonalSolverFMM.namePotential, v -> false, writer);
-		} catch (FileNotFoundException e) {
+			writeAtomically(file -> {
+				try (PrintWriter writer = new PrintWriter(new FastBufferedOutputStream(new FileOutputStream(file)))) {
+					MeshPolyWriter<V, E, F> meshPolyWriter = new MeshPolyWriter<>();
+					meshPolyWriter.to2DPoly(mesh, 1, i -> containerName, v -> false, writer);
+				}
+			});
+		} catch (Exception e) {
 			logger.errorf("cannot save cache %s", cacheLocation.getAbsolutePath());
 		}
 	}
@@ -138,6 +138,9 @@ public class ScenarioCache {
 			if(cacheType == CacheType.TXT_CACHE){
 				file = buildCsvCachePath(cacheIdentifier).toFile();
 				cacheMap.put(cacheIdentifier, new MeshTxtCacheObject(cacheIdentifier, file));
+			} else {
+				file = buildBinCachePath(cacheIdentifier).toFile();
+				cacheMap.put(cacheIdentifier, new MeshBinaryCacheObject(cacheIdentifier, file, hash));
 			}
 		}
 	}
@@ -164,11 +167,19 @@ public class ScenarioCache {
 			throw new IllegalStateException("Empty cache object.");
 		switch (attFF.getCacheType()) {
 			case BIN_CACHE:
-				cacheMap.put(cacheIdentifier, new CellGridBinaryCacheObject(cacheIdentifier, null, new DataInputStream(new FastBufferedInputStream(stream))));
+				if(attFF.getCreateMethod().isUsingCellGrid()) {
+					cacheMap.put(cacheIdentifier, new CellGridBinaryCacheObject(cacheIdentifier, null, new DataInputStream(new FastBufferedInputStream(stream))));
+				} else {
+					cacheMap.put(cacheIdentifier, new MeshBinaryCacheObject(cacheIdentifier, null, stream, hash));
+				}
 				logger.infof("binary cache loaded for identifier: %s", cacheIdentifier);
 				break;
 			case TXT_CACHE:
-				cacheMap.put(cacheIdentifier, new CellGridTxtCacheObject(cacheIdentifier, null, stream));
+				if(attFF.getCreateMethod().isUsingCellGrid()) {
+					cacheMap.put(cacheIdentifier, new CellGridTxtCacheObject(cacheIdentifier, null, stream));
+				} else {
+					cacheMap.put(cacheIdentifier, new MeshTxtCacheObject(cacheIdentifier, null, stream));
+				}
 				logger.infof("csv cache loaded for identifier: %s", cacheIdentifier);
 				break;
 			default:
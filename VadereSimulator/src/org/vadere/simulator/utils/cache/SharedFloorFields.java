@@ -0,0 +1,101 @@
+package org.vadere.simulator.utils.cache;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.vadere.util.config.VadereConfig;
+import org.vadere.util.data.cellgrid.CellGrid;
+import org.vadere.util.data.cellgrid.CellState;
+import org.vadere.util.data.cellgrid.PrimitiveCellGrid;
+
+import java.io.File;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Least recently used cache of the floor fields which were loaded from or written to a cache file within this JVM.
+ * Runs inside the same JVM (e.g. the runs of a parameter sweep) share these floor fields read-only instead of
+ * loading the cache file again. A floor field is identified by the absolute path of its cache file, since the
+ * name of the file contains the floor field hash equal paths refer to equal floor fields.
+ *
+ * Grids are shared as {@link PrimitiveCellGrid}s. The values of a {@link PrimitiveCellGrid} of a run (used by the
+ * fast marching solvers and {@link org.vadere.simulator.models.potential.fields.PotentialFieldDistancesBruteForce})
+ * are shared without copying them, i.e. all runs read the same arrays and a run copies them only if it changes its
+ * floor field. A grid of {@link CellState} objects (used by the other grid based solvers) can not share its values,
+ * it is copied into a {@link PrimitiveCellGrid} once and each run copies the values back into its own grid.
+ */
+public final class SharedFloorFields {
+
+	private static final int capacity = VadereConfig.getConfig().getInt("Vadere.cache.sharedFloorFieldCapacity", 16);
+
+	private static final Map<String, Object> floorFields = new LinkedHashMap<>(16, 0.75f, true) {
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, Object> eldest) {
+			return size() > capacity;
+		}
+	};
+
+	private SharedFloorFields() {}
+
+	public static synchronized boolean contains(@NotNull final File cacheLocation) {
+		return floorFields.containsKey(cacheLocation.getAbsolutePath());
+	}
+
+	/**
+	 * Returns the shared floor field of the cache file or <tt>null</tt> if there is none. The returned object must not be changed.
+	 */
+	@Nullable
+	public static synchronized Object get(@NotNull final File cacheLocation) {
+		return floorFields.get(cacheLocation.getAbsolutePath());
+	}
+
+	/**
+	 * Shares the floor field of the cache file, the floor field must not be changed afterwards.
+	 */
+	public static synchronized void put(@NotNull final File cacheLocation, @NotNull final Object floorField) {
+		if(capacity > 0) {
+			floorFields.put(cacheLocation.getAbsolutePath(), floorField);
+		}
+	}
+
+	public static synchronized void clear() {
+		floorFields.clear();
+	}
+
+	/**
+	 * Returns a grid with the values of the grid which can be shared, i.e. which is never changed. The values
+	 * of a {@link PrimitiveCellGrid} are not copied.
+	 */
+	static CellGrid snapshot(@NotNull final CellGrid cellGrid) {
+		if(cellGrid instanceof PrimitiveCellGrid) {
+			return ((PrimitiveCellGrid) cellGrid).share();
+		}
+		CellGrid snapshot = new PrimitiveCellGrid(cellGrid.getWidth(), cellGrid.getHeight(), cellGrid.getResolution(),
+				new CellState(), cellGrid.getMinX(), cellGrid.getMinY());
+		for (int x = 0; x < cellGrid.getNumPointsX(); x++) {
+			for (int y = 0; y < cellGrid.getNumPointsY(); y++) {
+				snapshot.setPotential(x, y, cellGrid.getPotential(x, y));
+				snapshot.setTag(x, y, cellGrid.getTag(x, y));
+			}
+		}
+		return snapshot;
+	}
+
+	/**
+	 * Copies the values of the shared grid into the (equally sized) grid. A {@link PrimitiveCellGrid} uses the values
+	 * of the shared grid without copying them until it is changed.
+	 */
+	static void copy(@NotNull final CellGrid sharedGrid, @NotNull final CellGrid cellGrid) throws CacheException {
+		if(sharedGrid.getNumPointsX() != cellGrid.getNumPointsX() || sharedGrid.getNumPointsY() != cellGrid.getNumPointsY()) {
+			throw new CacheException("The size of the cached grid does not match the size of the grid.");
+		}
+		if(sharedGrid instanceof PrimitiveCellGrid && cellGrid instanceof PrimitiveCellGrid) {
+			((PrimitiveCellGrid) cellGrid).shareValuesOf((PrimitiveCellGrid) sharedGrid);
+			return;
+		}
+		for (int x = 0; x < cellGrid.getNumPointsX(); x++) {
+			for (int y = 0; y < cellGrid.getNumPointsY(); y++) {
+				cellGrid.setValue(x, y, new CellState(sharedGrid.getPotential(x, y), sharedGrid.getTag(x, y)));
+			}
+		}
+	}
+}
@@ -0,0 +1,85 @@
+package org.vadere.simulator.control.simulation;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.vadere.state.util.StateJsonConverter;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class BatchRunTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private Path scenarioFile;
+	private Path outputDir;
+
+	@Before
+	public void setUp() throws IOException {
+		Path scenarioDir = folder.newFolder("scenarios").toPath();
+		scenarioFile = scenarioDir.resolve("Test1.scenario");
+		try (InputStream in = getClass().getResourceAsStream("/data/VTestMultiRun/scenarios/Test1.scenario")) {
+			Files.copy(in, scenarioFile);
+		}
+		outputDir = folder.getRoot().toPath().resolve("output");
+	}
+
+	@Test
+	public void testRunSeedsConcurrently() throws IOException {
+		List<Path> scenarioFiles = BatchRun.findScenarioFiles(Collections.singletonList(scenarioFile.getParent()));
+		assertEquals(Collections.singletonList(scenarioFile), scenarioFiles);
+
+		BatchRun batchRun = new BatchRun(scenarioFiles, Arrays.asList(3L, 3L, 4L),
+				Collections.singletonList("/scenario/attributesSimulation/finishTime=5"), outputDir, 3);
+		List<BatchRun.Result> results = batchRun.run();
+
+		assertEquals(3, results.size());
+		assertEquals(Arrays.asList("Test1_seed3", "Test1_seed3_1", "Test1_seed4"),
+				Arrays.asList(results.get(0).getRunName(), results.get(1).getRunName(), results.get(2).getRunName()));
+		for (BatchRun.Result result : results) {
+			assertTrue(result.getState(), result.isSuccessful());
+			assertTrue(Files.exists(result.getOutputDir().resolve("postvis.trajectories")));
+		}
+
+		// runs with equal seeds do not influence each other
+		assertArrayEquals(
+				Files.readAllBytes(results.get(0).getOutputDir().resolve("postvis.trajectories")),
+				Files.readAllBytes(results.get(1).getOutputDir().resolve("postvis.trajectories")));
+
+		List<String> summary = Files.readAllLines(batchRun.getSummaryFile());
+		assertEquals(4, summary.size());
+		assertTrue(summary.get(0).startsWith("Run;Scenario_File;Seed;Wall_Time_s;State"));
+		assertTrue(summary.get(3).startsWith("Test1_seed4;" + scenarioFile + ";4;"));
+	}
+
+	@Test
+	public void testApplyOverride() throws IOException {
+		JsonNode node = StateJsonConverter.readTree("{\"a\" : {\"b\" : 1.0, \"c\" : [1, 2]}}");
+		BatchRun.applyOverride(node, "/a/b", "2.5");
+		BatchRun.applyOverride(node, "/a/c/1", "{\"d\" : true}");
+		BatchRun.applyOverride(node, "/a/b", "text");
+
+		assertEquals("text", node.at("/a/b").asText());
+		assertTrue(node.at("/a/c/1/d").asBoolean());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testRejectUnknownOverride() throws IOException {
+		JsonNode node = StateJsonConverter.readTree("{\"a\" : {\"b\" : 1.0}}");
+		BatchRun.applyOverride(node, "/a/x", "2.5");
+	}
+}
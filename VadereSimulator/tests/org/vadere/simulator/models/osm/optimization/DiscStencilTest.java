@@ -0,0 +1,72 @@
+package org.vadere.simulator.models.osm.optimization;
+
+import org.junit.Test;
+import org.vadere.util.geometry.GeometryUtils;
+import org.vadere.util.geometry.shapes.VCircle;
+import org.vadere.util.geometry.shapes.VPoint;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+
+public class DiscStencilTest {
+
+	private static final VCircle circle = new VCircle(new VPoint(3.2, -1.7), 0.74);
+
+	@Test
+	public void testSamePointsAsGeometryUtils() {
+		for(int numberOfCircles = 1; numberOfCircles <= 3; numberOfCircles++) {
+			for(int resolution : new int[]{4, 18, 36}) {
+				List<VPoint> expected = GeometryUtils.getDiscDiscretizationPoints(null, false, circle, numberOfCircles, resolution, 0, 2.0 * Math.PI);
+				DiscStencil stencil = DiscStencil.get(numberOfCircles, resolution);
+				double[] xs = new double[stencil.maxSize()];
+				double[] ys = new double[stencil.maxSize()];
+				int n = stencil.fill(circle.getCenter().x, circle.getCenter().y, circle.getRadius(), 0, xs, ys);
+
+				assertEquals(expected.size(), n);
+				for(int i = 0; i < n; i++) {
+					assertEquals(expected.get(i).x, xs[i], 0.0);
+					assertEquals(expected.get(i).y, ys[i], 0.0);
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testRotatedPointsAsGeometryUtils() {
+		DiscStencil stencil = DiscStencil.get(3, 18);
+		double[] xs = new double[stencil.maxSize()];
+		double[] ys = new double[stencil.maxSize()];
+
+		for(int seed = 0; seed < 10; seed++) {
+			List<VPoint> expected = GeometryUtils.getDiscDiscretizationPoints(new Random(seed), true, circle, 3, 18, 0, 2.0 * Math.PI);
+			double randOffset = new Random(seed).nextDouble();
+			assertNotEquals(0.0, randOffset, 0.0);
+			int n = stencil.fill(circle.getCenter().x, circle.getCenter().y, circle.getRadius(), randOffset, xs, ys);
+
+			assertEquals(expected.size(), n);
+			for(int i = 0; i < n; i++) {
+				// the rotation of the unit offsets differs from GeometryUtils by rounding errors
+				assertEquals(expected.get(i).x, xs[i], 1e-12);
+				assertEquals(expected.get(i).y, ys[i], 1e-12);
+			}
+		}
+	}
+
+	@Test
+	public void testZeroRadius() {
+		DiscStencil stencil = DiscStencil.get(3, 18);
+		double[] xs = new double[stencil.maxSize()];
+		double[] ys = new double[stencil.maxSize()];
+		assertEquals(0, stencil.fill(circle.getCenter().x, circle.getCenter().y, 0, 0, xs, ys));
+		assertEquals(0, stencil.fill(circle.getCenter().x, circle.getCenter().y, 0, 0.5, xs, ys));
+	}
+
+	@Test
+	public void testStencilsAreShared() {
+		assertSame(DiscStencil.get(2, 18), DiscStencil.get(2, 18));
+	}
+}
@@ -0,0 +1,112 @@
+package org.vadere.simulator.models.osm.optimization;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.vadere.simulator.models.Model;
+import org.vadere.simulator.models.osm.OptimalStepsModel;
+import org.vadere.simulator.models.osm.PedestrianOSM;
+import org.vadere.simulator.projects.Domain;
+import org.vadere.state.attributes.Attributes;
+import org.vadere.state.attributes.models.AttributesFloorField;
+import org.vadere.state.attributes.models.AttributesOSM;
+import org.vadere.state.attributes.models.AttributesPotentialCompactSoftshell;
+import org.vadere.state.attributes.scenario.AttributesAgent;
+import org.vadere.state.attributes.scenario.AttributesCar;
+import org.vadere.state.attributes.scenario.AttributesTarget;
+import org.vadere.state.attributes.scenario.AttributesTopography;
+import org.vadere.state.scenario.Pedestrian;
+import org.vadere.state.scenario.Target;
+import org.vadere.state.scenario.Topography;
+import org.vadere.state.types.OptimizationType;
+import org.vadere.util.geometry.shapes.VCircle;
+import org.vadere.util.geometry.shapes.VPoint;
+import org.vadere.util.geometry.shapes.VRectangle;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the discrete optimizer using the precomputed disc stencils with the evaluation of the list of
+ * reachable positions computed by {@link StepCircleOptimizerDiscrete#getReachablePositions}. The optimized
+ * agent is surrounded by other agents.
+ */
+public class PerformanceStepCircleOptimizerDiscrete {
+
+	@State(Scope.Thread)
+	public static class StateOptimizer {
+
+		@Param({"1", "4"})
+		public int numberOfCircles;
+
+		@Param({"18", "72"})
+		public int stepCircleResolution;
+
+		public StepCircleOptimizerDiscrete optimizer;
+		public PedestrianOSM pedestrian;
+		public VCircle reachableArea;
+		public Random random;
+
+		@Setup(Level.Trial)
+		public void doSetup() {
+			AttributesTopography attributesTopography = new AttributesTopography();
+			attributesTopography.setBounds(new VRectangle(0, 0, 24, 20));
+			Topography topography = new Topography(attributesTopography, new AttributesAgent(), new AttributesCar());
+			topography.addTarget(new Target(new AttributesTarget(new VRectangle(22, 0, 2, 20), 1)));
+
+			AttributesOSM attributesOSM = new AttributesOSM();
+			attributesOSM.setOptimizationType(OptimizationType.DISCRETE);
+			attributesOSM.setNumberOfCircles(numberOfCircles);
+			attributesOSM.setStepCircleResolution(stepCircleResolution);
+
+			List<Attributes> attributesList = new ArrayList<>();
+			attributesList.add(attributesOSM);
+			attributesList.add(new AttributesFloorField());
+			attributesList.add(new AttributesPotentialCompactSoftshell());
+
+			random = new Random(0);
+			OptimalStepsModel model = new OptimalStepsModel();
+			model.initialize(attributesList, new Domain(topography), new AttributesAgent(), random);
+
+			// 2 agents per square meter
+			for(int i = 0; i < 800; i++) {
+				VPoint position = new VPoint((i % 40) * 0.5 + 0.25, (i / 40) * 0.5 + 0.25);
+				PedestrianOSM ped = model.createElement(position, i + 1, Pedestrian.class);
+				LinkedList<Integer> targets = new LinkedList<>();
+				targets.add(1);
+				ped.setTargets(targets);
+				topography.addElement(ped);
+			}
+
+			for(Model subModel : model.getSubmodels()) {
+				subModel.preLoop(0);
+			}
+
+			pedestrian = topography.getElements(PedestrianOSM.class).stream().filter(ped -> ped.getId() == 420).findAny().get();
+			reachableArea = new VCircle(pedestrian.getPosition(), pedestrian.getDesiredStepSize());
+			optimizer = new StepCircleOptimizerDiscrete(0, random);
+		}
+	}
+
+	@Benchmark
+	@BenchmarkMode(Mode.AverageTime) @OutputTimeUnit(TimeUnit.MICROSECONDS)
+	public VPoint testStencil(PerformanceStepCircleOptimizerDiscrete.StateOptimizer state) {
+		return state.optimizer.getNextPosition(state.pedestrian, state.reachableArea);
+	}
+
+	@Benchmark
+	@BenchmarkMode(Mode.AverageTime) @OutputTimeUnit(TimeUnit.MICROSECONDS)
+	public VPoint testPointList(PerformanceStepCircleOptimizerDiscrete.StateOptimizer state) {
+		List<VPoint> positions = StepCircleOptimizerDiscrete.getReachablePositions(state.pedestrian, state.reachableArea, state.random);
+		return state.optimizer.getNextPosition(state.pedestrian, positions, state.reachableArea.getRadius());
+	}
+}
@@ -0,0 +1,97 @@
+package org.vadere.simulator.models.osm.optimization;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.vadere.simulator.models.Model;
+import org.vadere.simulator.models.osm.OptimalStepsModel;
+import org.vadere.simulator.models.osm.PedestrianOSM;
+import org.vadere.simulator.projects.Domain;
+import org.vadere.state.attributes.Attributes;
+import org.vadere.state.attributes.models.AttributesFloorField;
+import org.vadere.state.attributes.models.AttributesOSM;
+import org.vadere.state.attributes.models.AttributesPotentialCompactSoftshell;
+import org.vadere.state.attributes.scenario.AttributesAgent;
+import org.vadere.state.attributes.scenario.AttributesCar;
+import org.vadere.state.attributes.scenario.AttributesTarget;
+import org.vadere.state.attributes.scenario.AttributesTopography;
+import org.vadere.state.scenario.Pedestrian;
+import org.vadere.state.scenario.Target;
+import org.vadere.state.scenario.Topography;
+import org.vadere.state.types.OptimizationType;
+import org.vadere.util.geometry.shapes.VPoint;
+import org.vadere.util.geometry.shapes.VRectangle;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class PotentialEvaluationFunctionTest {
+
+	private PedestrianOSM pedestrian;
+
+	@Before
+	public void setUp() {
+		AttributesTopography attributesTopography = new AttributesTopography();
+		attributesTopography.setBounds(new VRectangle(0, 0, 12, 10));
+		Topography topography = new Topography(attributesTopography, new AttributesAgent(), new AttributesCar());
+		topography.addTarget(new Target(new AttributesTarget(new VRectangle(10, 0, 2, 10), 1)));
+
+		AttributesOSM attributesOSM = new AttributesOSM();
+		attributesOSM.setOptimizationType(OptimizationType.DISCRETE);
+
+		List<Attributes> attributesList = new ArrayList<>();
+		attributesList.add(attributesOSM);
+		attributesList.add(new AttributesFloorField());
+		attributesList.add(new AttributesPotentialCompactSoftshell());
+
+		OptimalStepsModel model = new OptimalStepsModel();
+		model.initialize(attributesList, new Domain(topography), new AttributesAgent(), new Random(0));
+
+		// 2 agents per square meter
+		for(int i = 0; i < 200; i++) {
+			VPoint position = new VPoint((i % 20) * 0.5 + 0.25, (i / 20) * 0.5 + 0.25);
+			PedestrianOSM ped = model.createElement(position, i + 1, Pedestrian.class);
+			LinkedList<Integer> targets = new LinkedList<>();
+			targets.add(1);
+			ped.setTargets(targets);
+			topography.addElement(ped);
+		}
+
+		for(Model subModel : model.getSubmodels()) {
+			subModel.preLoop(0);
+		}
+
+		pedestrian = topography.getElements(PedestrianOSM.class).stream().filter(ped -> ped.getId() == 110).findAny().get();
+		pedestrian.refreshRelevantPedestrians();
+	}
+
+	@Test
+	public void testBatchEvaluationEqualsSingleEvaluation() {
+		assertTrue(pedestrian.getRelevantPedestrians().size() > 1);
+
+		double stepSize = pedestrian.getDesiredStepSize();
+		DiscStencil stencil = DiscStencil.get(3, 24);
+		double[] xs = new double[stencil.maxSize() + 1];
+		double[] ys = new double[stencil.maxSize() + 1];
+		int n = stencil.fill(pedestrian.getPosition().x, pedestrian.getPosition().y, stepSize, 0.3, xs, ys);
+
+		// a position which can not be reached within one step
+		xs[n] = pedestrian.getPosition().x + 2 * stepSize;
+		ys[n] = pedestrian.getPosition().y;
+		n++;
+
+		PotentialEvaluationFunction function = new PotentialEvaluationFunction(pedestrian);
+		function.setStepSize(stepSize);
+		double[] potentials = new double[n];
+		function.getPotentials(xs, ys, n, potentials);
+
+		for (int i = 0; i < n; i++) {
+			assertEquals(function.getPotential(xs[i], ys[i]), potentials[i], 0.0);
+		}
+		assertEquals(100000, potentials[n - 1], 0.0);
+	}
+}
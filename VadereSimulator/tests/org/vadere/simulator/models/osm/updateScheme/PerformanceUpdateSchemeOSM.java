@@ -0,0 +1,81 @@
+package org.vadere.simulator.models.osm.updateScheme;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.vadere.simulator.models.Model;
+import org.vadere.simulator.models.osm.OptimalStepsModel;
+import org.vadere.state.attributes.models.AttributesFloorField;
+import org.vadere.state.attributes.models.AttributesOSM;
+import org.vadere.state.types.UpdateType;
+import org.vadere.util.geometry.shapes.VPoint;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the scaling of the different update schemes of the Optimal Steps Model for 1k, 10k and 100k agents
+ * which are uniformly distributed (with a density of approximately 1 agent per square meter) inside a square
+ * and walk towards a target at the right side of the square. Each invocation measures one simulation step.
+ */
+public class PerformanceUpdateSchemeOSM {
+
+	private static final double TIME_STEP = 0.4;
+
+	@State(Scope.Benchmark)
+	public static class StateSimulation {
+
+		@Param({"1000", "10000", "100000"})
+		public int numberOfAgents;
+
+		@Param({"SEQUENTIAL", "EVENT_DRIVEN", "PARALLEL", "EVENT_DRIVEN_PARALLEL", "PARALLEL_COLORED", "EVENT_DRIVEN_PARALLEL_INCREMENTAL"})
+		public UpdateType updateType;
+
+		public OptimalStepsModel model;
+		public double simTimeInSec;
+
+		@Setup(Level.Trial)
+		public void doSetup() {
+			double width = Math.ceil(Math.sqrt(numberOfAgents));
+
+			AttributesOSM attributesOSM = new AttributesOSM();
+			attributesOSM.setUpdateType(updateType);
+			AttributesFloorField attributesFloorField = new AttributesFloorField();
+			attributesFloorField.setPotentialFieldResolution(0.5);
+
+			UpdateSchemeOSMTestEnv env = new UpdateSchemeOSMTestEnv(width + 4, width, attributesOSM, attributesFloorField, new Random(0));
+			for(int i = 0; i < numberOfAgents; i++) {
+				env.addAgent(new VPoint((i % (int)width) + 0.5, (i / (int)width) + 0.5), i + 1);
+			}
+			model = env.getModel();
+
+			for(Model subModel : model.getSubmodels()) {
+				subModel.preLoop(0);
+			}
+			simTimeInSec = 0;
+		}
+
+		@TearDown(Level.Trial)
+		public void doTearDown() {
+			for(Model subModel : model.getSubmodels()) {
+				subModel.postLoop(simTimeInSec);
+			}
+		}
+	}
+
+	@Benchmark
+	@BenchmarkMode(Mode.AverageTime) @OutputTimeUnit(TimeUnit.MILLISECONDS)
+	public void testUpdate(PerformanceUpdateSchemeOSM.StateSimulation state) {
+		state.simTimeInSec += TIME_STEP;
+		for(Model subModel : state.model.getSubmodels()) {
+			subModel.update(state.simTimeInSec);
+		}
+	}
+}
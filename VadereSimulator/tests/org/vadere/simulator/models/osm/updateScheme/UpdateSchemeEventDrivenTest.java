@@ -0,0 +1,111 @@
+package org.vadere.simulator.models.osm.updateScheme;
+
+import org.junit.Test;
+import org.vadere.simulator.models.Model;
+import org.vadere.simulator.models.osm.OptimalStepsModel;
+import org.vadere.simulator.models.osm.PedestrianOSM;
+import org.vadere.state.attributes.models.AttributesOSM;
+import org.vadere.state.psychology.cognition.SelfCategory;
+import org.vadere.state.scenario.Pedestrian;
+import org.vadere.state.scenario.Topography;
+import org.vadere.state.simulation.FootStep;
+import org.vadere.state.types.UpdateType;
+import org.vadere.util.data.CalendarQueue;
+import org.vadere.util.data.HeapEventQueue;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Runs the same scenario with the {@link CalendarQueue} (the default) and the {@link HeapEventQueue}. Since both
+ * queues order the events by the time of the next step and by the id of the agent, the foot steps have to be identical.
+ */
+public class UpdateSchemeEventDrivenTest {
+
+	private static final int NUMBER_OF_AGENTS = UpdateSchemeOSMTestEnv.NUMBER_OF_AGENTS;
+	private static final int NUMBER_OF_STEPS = 15;
+	private static final double TIME_STEP = 0.4;
+	private static final long SEED = 1;
+
+	@Test
+	public void testSameFootStepsWithCalendarQueueAndHeapEventQueue() {
+		List<List<FootStep>> expected = simulate(topography -> new UpdateSchemeEventDriven(topography,
+				new HeapEventQueue<>(PedestrianOSM::getTimeOfNextStep, Comparator.comparingInt(PedestrianOSM::getId))));
+		List<List<FootStep>> actual = simulate(UpdateSchemeEventDriven::new);
+
+		assertEquals(NUMBER_OF_AGENTS, expected.size());
+		assertEquals(expected.size(), actual.size());
+		int numberOfFootSteps = 0;
+		for(int i = 0; i < expected.size(); i++) {
+			assertEquals(expected.get(i).size(), actual.get(i).size());
+			for(int j = 0; j < expected.get(i).size(); j++) {
+				FootStep expectedFootStep = expected.get(i).get(j);
+				FootStep actualFootStep = actual.get(i).get(j);
+				assertEquals(expectedFootStep.getStart(), actualFootStep.getStart());
+				assertEquals(expectedFootStep.getEnd(), actualFootStep.getEnd());
+				assertEquals(expectedFootStep.getStartTime(), actualFootStep.getStartTime(), 0.0);
+				assertEquals(expectedFootStep.getEndTime(), actualFootStep.getEndTime(), 0.0);
+				numberOfFootSteps++;
+			}
+		}
+		// each agent makes about one step per 0.5 seconds
+		assertTrue(numberOfFootSteps > 5 * NUMBER_OF_AGENTS);
+	}
+
+	/**
+	 * Returns the foot steps of all time steps of all agents ordered by the id of the agents.
+	 */
+	private List<List<FootStep>> simulate(final Function<Topography, UpdateSchemeEventDriven> updateSchemeFactory) {
+		UpdateSchemeOSMTestEnv env = createEnv();
+		Topography topography = env.getTopography();
+		OptimalStepsModel model = env.getModel();
+		UpdateSchemeEventDriven updateScheme = updateSchemeFactory.apply(topography);
+		List<List<FootStep>> footSteps = new ArrayList<>();
+		for(int i = 0; i < NUMBER_OF_AGENTS; i++) {
+			footSteps.add(new ArrayList<>());
+		}
+
+		for(Model subModel : model.getSubmodels()) {
+			subModel.preLoop(0);
+		}
+		double simTimeInSec = 0;
+		for(int step = 0; step < NUMBER_OF_STEPS; step++) {
+			simTimeInSec += TIME_STEP;
+			for(Model subModel : model.getSubmodels()) {
+				// the model would use the update scheme created from its attributes
+				if(subModel != model) {
+					subModel.update(simTimeInSec);
+				}
+			}
+			updateScheme.update(TIME_STEP, simTimeInSec);
+
+			// the trajectory contains the foot steps of the last time step only
+			for(Pedestrian pedestrian : topography.getElements(Pedestrian.class)) {
+				footSteps.get(pedestrian.getId() - 1).addAll(pedestrian.getTrajectory().getFootSteps());
+			}
+		}
+		for(Model subModel : model.getSubmodels()) {
+			subModel.postLoop(simTimeInSec);
+		}
+		return footSteps;
+	}
+
+	private UpdateSchemeOSMTestEnv createEnv() {
+		AttributesOSM attributesOSM = new AttributesOSM();
+		attributesOSM.setUpdateType(UpdateType.EVENT_DRIVEN);
+		UpdateSchemeOSMTestEnv env = UpdateSchemeOSMTestEnv.createRandom(attributesOSM, SEED);
+
+		// cooperative agents swap places, i.e. other agents are removed from and added to the queue
+		for(Pedestrian pedestrian : env.getTopography().getElements(Pedestrian.class)) {
+			if((pedestrian.getId() - 1) % 10 == 0) {
+				pedestrian.setSelfCategory(SelfCategory.COOPERATIVE);
+			}
+		}
+		return env;
+	}
+}
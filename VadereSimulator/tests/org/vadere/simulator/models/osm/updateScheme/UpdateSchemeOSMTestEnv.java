@@ -0,0 +1,93 @@
+package org.vadere.simulator.models.osm.updateScheme;
+
+import org.jetbrains.annotations.NotNull;
+import org.vadere.simulator.models.osm.OptimalStepsModel;
+import org.vadere.simulator.models.osm.PedestrianOSM;
+import org.vadere.simulator.projects.Domain;
+import org.vadere.state.attributes.Attributes;
+import org.vadere.state.attributes.models.AttributesFloorField;
+import org.vadere.state.attributes.models.AttributesOSM;
+import org.vadere.state.attributes.models.AttributesPotentialCompactSoftshell;
+import org.vadere.state.attributes.scenario.AttributesAgent;
+import org.vadere.state.attributes.scenario.AttributesCar;
+import org.vadere.state.attributes.scenario.AttributesTarget;
+import org.vadere.state.attributes.scenario.AttributesTopography;
+import org.vadere.state.scenario.Pedestrian;
+import org.vadere.state.scenario.Target;
+import org.vadere.state.scenario.Topography;
+import org.vadere.util.geometry.shapes.VPoint;
+import org.vadere.util.geometry.shapes.VRectangle;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * The scenario shared by the tests and the benchmark of the OSM update schemes: agents inside a rectangle
+ * walk towards a target (id 1) of width 2 at the right side of the rectangle.
+ */
+public class UpdateSchemeOSMTestEnv {
+
+	/** The width of the rectangle of the tests. */
+	public static final double WIDTH = 40;
+	/** The height of the rectangle of the tests. */
+	public static final double HEIGHT = 20;
+	/** The number of agents of the tests. */
+	public static final int NUMBER_OF_AGENTS = 1000;
+
+	private final Topography topography;
+	private final OptimalStepsModel model;
+
+	public UpdateSchemeOSMTestEnv(final double width, final double height,
+	                              @NotNull final AttributesOSM attributesOSM,
+	                              @NotNull final AttributesFloorField attributesFloorField,
+	                              @NotNull final Random random) {
+		AttributesTopography attributesTopography = new AttributesTopography();
+		attributesTopography.setBounds(new VRectangle(0, 0, width, height));
+		topography = new Topography(attributesTopography, new AttributesAgent(), new AttributesCar());
+		topography.addTarget(new Target(new AttributesTarget(new VRectangle(width - 2, 0, 2, height), 1)));
+
+		List<Attributes> attributesList = new ArrayList<>();
+		attributesList.add(attributesOSM);
+		attributesList.add(attributesFloorField);
+		attributesList.add(new AttributesPotentialCompactSoftshell());
+
+		model = new OptimalStepsModel();
+		model.initialize(attributesList, new Domain(topography), new AttributesAgent(), random);
+	}
+
+	/**
+	 * Creates the scenario of the tests, i.e. {@link #NUMBER_OF_AGENTS} agents at random positions inside
+	 * a rectangle of size {@link #WIDTH} x {@link #HEIGHT}.
+	 */
+	public static UpdateSchemeOSMTestEnv createRandom(@NotNull final AttributesOSM attributesOSM, final long seed) {
+		Random random = new Random(seed);
+		UpdateSchemeOSMTestEnv env = new UpdateSchemeOSMTestEnv(WIDTH, HEIGHT, attributesOSM, new AttributesFloorField(), random);
+		for(int i = 0; i < NUMBER_OF_AGENTS; i++) {
+			// keep a distance of 1 to the border and of 2 to the target
+			env.addAgent(new VPoint(1 + random.nextDouble() * (WIDTH - 4), 1 + random.nextDouble() * (HEIGHT - 2)), i + 1);
+		}
+		return env;
+	}
+
+	/**
+	 * Adds an agent which walks towards the target.
+	 */
+	public PedestrianOSM addAgent(@NotNull final VPoint position, final int id) {
+		PedestrianOSM pedestrian = model.createElement(position, id, Pedestrian.class);
+		LinkedList<Integer> targets = new LinkedList<>();
+		targets.add(1);
+		pedestrian.setTargets(targets);
+		topography.addElement(pedestrian);
+		return pedestrian;
+	}
+
+	public Topography getTopography() {
+		return topography;
+	}
+
+	public OptimalStepsModel getModel() {
+		return model;
+	}
+}
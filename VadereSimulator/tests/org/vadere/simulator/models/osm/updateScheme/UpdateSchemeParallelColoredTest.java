@@ -0,0 +1,83 @@
+package org.vadere.simulator.models.osm.updateScheme;
+
+import org.junit.Test;
+import org.vadere.simulator.models.Model;
+import org.vadere.simulator.models.osm.OptimalStepsModel;
+import org.vadere.state.attributes.models.AttributesOSM;
+import org.vadere.state.scenario.Pedestrian;
+import org.vadere.state.scenario.Topography;
+import org.vadere.state.types.UpdateType;
+import org.vadere.util.geometry.shapes.VPoint;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class UpdateSchemeParallelColoredTest {
+
+	private static final int NUMBER_OF_STEPS = 15;
+	private static final double TIME_STEP = 0.4;
+	private static final long SEED = 1;
+
+	@Test
+	public void testSameResultIndependentOfNumberOfThreads() {
+		List<VPoint> expected = simulate(1);
+		List<VPoint> actual = simulate(4);
+
+		assertEquals(expected.size(), actual.size());
+		for(int i = 0; i < expected.size(); i++) {
+			assertEquals(expected.get(i).x, actual.get(i).x, 0.0);
+			assertEquals(expected.get(i).y, actual.get(i).y, 0.0);
+		}
+	}
+
+	@Test
+	public void testAgentsMoveTowardsTheirTarget() {
+		UpdateSchemeOSMTestEnv env = createEnv(2);
+		Topography topography = env.getTopography();
+		OptimalStepsModel model = env.getModel();
+		double meanX = topography.getElements(Pedestrian.class).stream().mapToDouble(ped -> ped.getPosition().x).average().getAsDouble();
+		run(model);
+		double newMeanX = topography.getElements(Pedestrian.class).stream().mapToDouble(ped -> ped.getPosition().x).average().getAsDouble();
+		assertTrue(newMeanX > meanX);
+	}
+
+	private List<VPoint> simulate(final int numberOfThreads) {
+		UpdateSchemeOSMTestEnv env = createEnv(numberOfThreads);
+		Topography topography = env.getTopography();
+		OptimalStepsModel model = env.getModel();
+		run(model);
+
+		return topography.getElements(Pedestrian.class)
+				.stream()
+				.sorted(Comparator.comparingInt(Pedestrian::getId))
+				.map(Pedestrian::getPosition)
+				.collect(Collectors.toList());
+	}
+
+	private void run(final OptimalStepsModel model) {
+		for(Model subModel : model.getSubmodels()) {
+			subModel.preLoop(0);
+		}
+		double simTimeInSec = 0;
+		for(int step = 0; step < NUMBER_OF_STEPS; step++) {
+			simTimeInSec += TIME_STEP;
+			for(Model subModel : model.getSubmodels()) {
+				subModel.update(simTimeInSec);
+			}
+		}
+		for(Model subModel : model.getSubmodels()) {
+			subModel.postLoop(simTimeInSec);
+		}
+	}
+
+	private UpdateSchemeOSMTestEnv createEnv(final int numberOfThreads) {
+		AttributesOSM attributesOSM = new AttributesOSM();
+		attributesOSM.setUpdateType(UpdateType.PARALLEL_COLORED);
+		attributesOSM.setNumberOfThreads(numberOfThreads);
+		return UpdateSchemeOSMTestEnv.createRandom(attributesOSM, SEED);
+	}
+}
@@ -0,0 +1,56 @@
+package org.vadere.simulator.models.potential.fields;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.vadere.simulator.utils.cache.ScenarioCache;
+import org.vadere.state.attributes.models.AttributesFloorField;
+import org.vadere.state.attributes.scenario.AttributesAgent;
+import org.vadere.state.attributes.scenario.AttributesCar;
+import org.vadere.state.attributes.scenario.AttributesObstacle;
+import org.vadere.state.attributes.scenario.AttributesTopography;
+import org.vadere.state.scenario.Obstacle;
+import org.vadere.state.scenario.Topography;
+import org.vadere.util.geometry.shapes.VPoint;
+import org.vadere.util.geometry.shapes.VRectangle;
+
+import static org.junit.Assert.assertEquals;
+
+public class ObstacleDistanceFunctionTest {
+
+	private Topography topography;
+	private ObstacleDistanceFunction distanceFunction;
+
+	@Before
+	public void setUp() {
+		AttributesTopography attributesTopography = new AttributesTopography();
+		attributesTopography.setBounds(new VRectangle(0, 0, 10, 10));
+		topography = new Topography(attributesTopography, new AttributesAgent(), new AttributesCar());
+		topography.addObstacle(new Obstacle(new AttributesObstacle(1, new VRectangle(0, 0, 2, 10))));
+
+		AttributesFloorField attributesFloorField = new AttributesFloorField();
+		attributesFloorField.setPotentialFieldResolution(0.5);
+		distanceFunction = new ObstacleDistanceFunction(topography, attributesFloorField, ScenarioCache.empty());
+		topography.setObstacleDistanceFunction(distanceFunction);
+	}
+
+	@Test
+	public void testDistanceToObstacle() {
+		assertEquals(3.0, topography.distanceToObstacle(new VPoint(5, 5)), 0.0);
+		assertEquals(-3.0, distanceFunction.apply(new VPoint(5, 5), null), 0.0);
+		// interpolated between the grid points
+		assertEquals(3.25, topography.distanceToObstacle(new VPoint(5.25, 5.1)), 1e-12);
+	}
+
+	@Test
+	public void testRecomputeIfObstaclesChange() {
+		assertEquals(3.0, topography.distanceToObstacle(new VPoint(5, 5)), 0.0);
+
+		topography.addObstacle(new Obstacle(new AttributesObstacle(2, new VRectangle(6, 0, 4, 10))));
+		assertEquals(1.0, topography.distanceToObstacle(new VPoint(5, 5)), 0.0);
+
+		// the shape of an obstacle is changed
+		topography.getObstacles().get(1).setShape(new VRectangle(8, 0, 2, 10));
+		topography.invalidateObstacleIndex();
+		assertEquals(3.0, topography.distanceToObstacle(new VPoint(5, 5)), 0.0);
+	}
+}
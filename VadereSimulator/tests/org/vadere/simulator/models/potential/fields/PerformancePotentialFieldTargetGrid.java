@@ -0,0 +1,87 @@
+package org.vadere.simulator.models.potential.fields;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.vadere.simulator.projects.Domain;
+import org.vadere.state.attributes.models.AttributesFloorField;
+import org.vadere.state.attributes.scenario.AttributesAgent;
+import org.vadere.state.attributes.scenario.AttributesCar;
+import org.vadere.state.attributes.scenario.AttributesTarget;
+import org.vadere.state.attributes.scenario.AttributesTopography;
+import org.vadere.state.scenario.Pedestrian;
+import org.vadere.state.scenario.Target;
+import org.vadere.state.scenario.Topography;
+import org.vadere.util.data.cellgrid.CellGrid;
+import org.vadere.util.geometry.shapes.VPoint;
+import org.vadere.util.geometry.shapes.VRectangle;
+import org.vadere.util.geometry.shapes.Vector2D;
+
+import java.util.LinkedList;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the look up of the {@link CellGrid} of a target via {@link PotentialFieldTargetGrid#getCellGrids()}
+ * (which builds a new map for each call) and via {@link PotentialFieldTargetGrid#getCellGrid(int)}, and measures
+ * the gradient evaluation. Run it with the GC profiler (-prof gc) to see the allocation rate per call
+ * (gc.alloc.rate.norm).
+ */
+public class PerformancePotentialFieldTargetGrid {
+
+	@State(Scope.Thread)
+	public static class StateField {
+
+		@Param({"1", "10", "100"})
+		public int numberOfTargets;
+
+		public PotentialFieldTargetGrid potentialFieldTarget;
+		public Pedestrian pedestrian;
+		public VPoint position;
+
+		@Setup(Level.Trial)
+		public void doSetup() {
+			AttributesTopography attributesTopography = new AttributesTopography();
+			attributesTopography.setBounds(new VRectangle(0, 0, 20, 20));
+			Topography topography = new Topography(attributesTopography, new AttributesAgent(), new AttributesCar());
+			for(int i = 1; i <= numberOfTargets; i++) {
+				topography.addTarget(new Target(new AttributesTarget(new VRectangle(18, (i - 1) * 20.0 / numberOfTargets, 1, 0.1), i)));
+			}
+
+			AttributesFloorField attributesFloorField = new AttributesFloorField();
+			attributesFloorField.setPotentialFieldResolution(0.5);
+			potentialFieldTarget = new PotentialFieldTargetGrid(new Domain(topography), new AttributesAgent(), attributesFloorField);
+			potentialFieldTarget.preLoop(0);
+
+			pedestrian = new Pedestrian(new AttributesAgent(1), new Random(0));
+			LinkedList<Integer> targets = new LinkedList<>();
+			targets.add(numberOfTargets);
+			pedestrian.setTargets(targets);
+			position = new VPoint(5.3, 7.9);
+		}
+	}
+
+	@Benchmark
+	@BenchmarkMode(Mode.AverageTime) @OutputTimeUnit(TimeUnit.NANOSECONDS)
+	public CellGrid testGetCellGrids(PerformancePotentialFieldTargetGrid.StateField state) {
+		return state.potentialFieldTarget.getCellGrids().get(state.numberOfTargets);
+	}
+
+	@Benchmark
+	@BenchmarkMode(Mode.AverageTime) @OutputTimeUnit(TimeUnit.NANOSECONDS)
+	public CellGrid testGetCellGrid(PerformancePotentialFieldTargetGrid.StateField state) {
+		return state.potentialFieldTarget.getCellGrid(state.numberOfTargets);
+	}
+
+	@Benchmark
+	@BenchmarkMode(Mode.AverageTime) @OutputTimeUnit(TimeUnit.NANOSECONDS)
+	public Vector2D testGradient(PerformancePotentialFieldTargetGrid.StateField state) {
+		return state.potentialFieldTarget.getTargetPotentialGradient(state.position, state.pedestrian);
+	}
+}
@@ -0,0 +1,50 @@
+package org.vadere.simulator.models.potential.fields;
+
+import org.junit.Test;
+import org.vadere.simulator.utils.cache.ScenarioCache;
+import org.vadere.state.attributes.models.AttributesFloorField;
+import org.vadere.util.geometry.GeometryUtils;
+import org.vadere.util.geometry.shapes.VCircle;
+import org.vadere.util.geometry.shapes.VPoint;
+import org.vadere.util.geometry.shapes.VRectangle;
+import org.vadere.util.geometry.shapes.VShape;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+public class PotentialFieldDistancesBruteForceTest {
+
+	/**
+	 * The tiled and culled computation has to produce exactly the distances of a loop over all obstacles.
+	 */
+	@Test
+	public void testSameDistancesAsLoopOverAllObstacles() {
+		Random random = new Random(0);
+		VRectangle bounds = new VRectangle(0, 0, 60, 45);
+		List<VShape> obstacles = new ArrayList<>();
+		for(int i = 0; i < 60; i++) {
+			double x = random.nextDouble() * 60;
+			double y = random.nextDouble() * 45;
+			switch (i % 3) {
+				case 0: obstacles.add(new VRectangle(x, y, 0.5 + random.nextDouble() * 4, 0.5 + random.nextDouble() * 4)); break;
+				case 1: obstacles.add(new VCircle(new VPoint(x, y), 0.2 + random.nextDouble() * 2)); break;
+				default: obstacles.add(GeometryUtils.polygonFromPoints2D(new VPoint(x, y), new VPoint(x + 3, y + 0.5), new VPoint(x + 0.5, y + 2)));
+			}
+		}
+
+		AttributesFloorField attributesFloorField = new AttributesFloorField();
+		attributesFloorField.setPotentialFieldResolution(0.3);
+		PotentialFieldDistancesBruteForce distanceField = new PotentialFieldDistancesBruteForce(obstacles, bounds, attributesFloorField, ScenarioCache.empty());
+
+		for(int y = 0; y * 0.3 <= 45; y++) {
+			for(int x = 0; x * 0.3 <= 60; x++) {
+				VPoint point = new VPoint(x * 0.3, y * 0.3);
+				double expected = obstacles.stream().map(shape -> shape.distance(point)).min(Double::compareTo).get();
+				assertEquals(expected, distanceField.getPotential(point, null), 0.0);
+			}
+		}
+	}
+}
@@ -0,0 +1,132 @@
+package org.vadere.simulator.models.potential.fields;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.vadere.simulator.models.potential.solver.calculators.EikonalSolver;
+import org.vadere.simulator.models.potential.solver.calculators.cartesian.AGridEikonalSolver;
+import org.vadere.simulator.projects.Domain;
+import org.vadere.state.attributes.models.AttributesFloorField;
+import org.vadere.state.attributes.scenario.AttributesAgent;
+import org.vadere.state.attributes.scenario.AttributesCar;
+import org.vadere.state.attributes.scenario.AttributesObstacle;
+import org.vadere.state.attributes.scenario.AttributesTarget;
+import org.vadere.state.attributes.scenario.AttributesTopography;
+import org.vadere.state.scenario.Obstacle;
+import org.vadere.state.scenario.Target;
+import org.vadere.state.scenario.Topography;
+import org.vadere.util.data.cellgrid.CellGrid;
+import org.vadere.util.geometry.shapes.VCircle;
+import org.vadere.util.geometry.shapes.VPoint;
+import org.vadere.util.geometry.shapes.VRectangle;
+import org.vadere.util.geometry.shapes.VShape;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+public class PotentialFieldTargetTest {
+
+	private Topography topography;
+	private AttributesFloorField attributesFloorField;
+
+	@Before
+	public void setUp() {
+		AttributesTopography attributesTopography = new AttributesTopography();
+		attributesTopography.setBounds(new VRectangle(0, 0, 10, 10));
+		topography = new Topography(attributesTopography, new AttributesAgent(), new AttributesCar());
+		attributesFloorField = new AttributesFloorField();
+		attributesFloorField.setPotentialFieldResolution(0.5);
+	}
+
+	@Test
+	public void testShareSolverOfEqualTargets() {
+		topography.addTarget(new Target(new AttributesTarget(new VRectangle(8, 4, 1, 1), 1)));
+		topography.addTarget(new Target(new AttributesTarget(new VRectangle(8, 4, 1, 1), 2)));
+		topography.addTarget(new Target(new AttributesTarget(new VRectangle(1, 4, 1, 1), 3)));
+		topography.addTarget(new Target(new AttributesTarget(new VCircle(new VPoint(5, 5), 1), 4)));
+		topography.addTarget(new Target(new AttributesTarget(new VCircle(new VPoint(5, 5), 2), 5)));
+
+		PotentialFieldTargetGrid potentialField = new PotentialFieldTargetGrid(new Domain(topography), new AttributesAgent(), attributesFloorField);
+		potentialField.preLoop(0);
+
+		assertSame(potentialField.getCellGrid(1), potentialField.getCellGrid(2));
+		assertNotSame(potentialField.getCellGrid(1), potentialField.getCellGrid(3));
+		assertNotSame(potentialField.getCellGrid(4), potentialField.getCellGrid(5));
+	}
+
+	@Test
+	public void testConcurrentSolvesEqualSequentialSolves() {
+		for (int i = 1; i <= 6; i++) {
+			topography.addTarget(new Target(new AttributesTarget(new VRectangle(9, i, 0.5, 0.5), i)));
+		}
+		topography.addObstacle(new Obstacle(new AttributesObstacle(1, new VRectangle(4, 2, 1, 6))));
+		Domain domain = new Domain(topography);
+
+		PotentialFieldTargetGrid potentialField = new PotentialFieldTargetGrid(domain, new AttributesAgent(), attributesFloorField);
+		potentialField.setMaxConcurrentSolves(3);
+		potentialField.preLoop(0);
+
+		Map<Integer, List<VShape>> targetShapes = topography.getTargetShapes();
+		for (int i = 1; i <= 6; i++) {
+			EikonalSolver eikonalSolver = IPotentialField.create(domain, i, targetShapes.get(i), new AttributesAgent(), attributesFloorField);
+			CellGrid expected = ((AGridEikonalSolver) eikonalSolver).getCellGrid();
+			CellGrid actual = potentialField.getCellGrid(i);
+			for (int x = 0; x < expected.getNumPointsX(); x++) {
+				for (int y = 0; y < expected.getNumPointsY(); y++) {
+					assertEquals(expected.getValue(x, y), actual.getValue(x, y));
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testDoNotShareSolverOfMovingTargets() {
+		topography.addTarget(new Target(new AttributesTarget(new VRectangle(8, 4, 1, 1), 1)));
+		topography.addTarget(new Target(new AttributesTarget(new VRectangle(8, 4, 1, 1), 2)) {
+			@Override
+			public boolean isMovingTarget() {
+				return true;
+			}
+		});
+
+		PotentialFieldTargetGrid potentialField = new PotentialFieldTargetGrid(new Domain(topography), new AttributesAgent(), attributesFloorField);
+		potentialField.preLoop(0);
+
+		assertNotSame(potentialField.getCellGrid(1), potentialField.getCellGrid(2));
+	}
+
+	@Test
+	public void testMoveTarget() {
+		topography.addObstacle(new Obstacle(new AttributesObstacle(1, new VRectangle(4, 2, 1, 6))));
+		Target movingTarget = new Target(new AttributesTarget(new VRectangle(8, 4, 1, 1), 1)) {
+			@Override
+			public boolean isMovingTarget() {
+				return true;
+			}
+		};
+		topography.addTarget(movingTarget);
+		Domain domain = new Domain(topography);
+
+		PotentialFieldTargetGrid potentialField = new PotentialFieldTargetGrid(domain, new AttributesAgent(), attributesFloorField);
+		potentialField.preLoop(0);
+		CellGrid cellGrid = potentialField.getCellGrid(1);
+
+		// the target moves into the obstacle partially
+		movingTarget.setShape(new VRectangle(4.5, 1, 1, 2));
+		potentialField.update(1);
+
+		// the solver is re-used
+		assertSame(cellGrid, potentialField.getCellGrid(1));
+
+		EikonalSolver eikonalSolver = IPotentialField.create(domain, 1, topography.getTargetShapes().get(1), new AttributesAgent(), attributesFloorField);
+		CellGrid expected = ((AGridEikonalSolver) eikonalSolver).getCellGrid();
+		for (int x = 0; x < expected.getNumPointsX(); x++) {
+			for (int y = 0; y < expected.getNumPointsY(); y++) {
+				assertEquals(expected.getValue(x, y), cellGrid.getValue(x, y));
+			}
+		}
+	}
+}
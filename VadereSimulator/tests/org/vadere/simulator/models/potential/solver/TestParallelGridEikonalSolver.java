@@ -0,0 +1,124 @@
+package org.vadere.simulator.models.potential.solver;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.vadere.simulator.models.potential.solver.calculators.EikonalSolver;
+import org.vadere.simulator.models.potential.solver.calculators.cartesian.EikonalSolverFIM;
+import org.vadere.simulator.models.potential.solver.calculators.cartesian.EikonalSolverFIMParallel;
+import org.vadere.simulator.models.potential.solver.calculators.cartesian.EikonalSolverFSM;
+import org.vadere.simulator.models.potential.solver.calculators.cartesian.EikonalSolverFSMParallel;
+import org.vadere.simulator.models.potential.solver.timecost.ITimeCostFunction;
+import org.vadere.simulator.models.potential.solver.timecost.UnitTimeCostFunction;
+import org.vadere.simulator.projects.Domain;
+import org.vadere.state.attributes.models.AttributesFloorField;
+import org.vadere.state.attributes.models.TimeCostFunctionType;
+import org.vadere.state.attributes.scenario.AttributesAgent;
+import org.vadere.state.scenario.Topography;
+import org.vadere.state.types.EikonalSolverType;
+import org.vadere.state.util.StateJsonConverter;
+import org.vadere.util.data.cellgrid.CellGrid;
+import org.vadere.util.data.cellgrid.CellState;
+import org.vadere.util.data.cellgrid.FloorDiscretizer;
+import org.vadere.util.data.cellgrid.PathFindingTag;
+import org.vadere.util.geometry.shapes.VPoint;
+import org.vadere.util.geometry.shapes.VRectangle;
+import org.vadere.util.geometry.shapes.VShape;
+import org.vadere.util.math.IDistanceFunction;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Compares the parallel grid solvers with their sequential counterparts on a grid containing an obstacle and
+ * checks that the parallel solvers are only used with thread-safe time cost functions.
+ */
+public class TestParallelGridEikonalSolver {
+
+	private static final double resolution = 0.1;
+	private static final double maxError = 1e-2;
+
+	private CellGrid sequentialGrid;
+	private CellGrid parallelGrid;
+	private IDistanceFunction distFunc;
+	private ITimeCostFunction timeCostFunction;
+
+	@Before
+	public void setUp() {
+		CellGrid cellGrid = new CellGrid(20, 15, resolution, new CellState(Double.MAX_VALUE, PathFindingTag.Undefined), 0, 0);
+		VRectangle target = new VRectangle(18, 1, 1, 1);
+		FloorDiscretizer.setGridValuesForShape(cellGrid, target, new CellState(0.0, PathFindingTag.Target));
+		FloorDiscretizer.setGridValuesForShape(cellGrid, new VRectangle(8, 0, 1, 12), new CellState(Double.MAX_VALUE, PathFindingTag.Obstacle));
+		sequentialGrid = cellGrid.clone();
+		parallelGrid = cellGrid.clone();
+		distFunc = p -> -target.distance(p);
+		timeCostFunction = new UnitTimeCostFunction();
+	}
+
+	@Test
+	public void testFSMParallel() {
+		new EikonalSolverFSM(sequentialGrid, distFunc, false, timeCostFunction, 0.1, 1.0).solve();
+		new EikonalSolverFSMParallel(parallelGrid, distFunc, timeCostFunction, 0.1, 1.0).solve();
+		assertSameTravellingTimes();
+	}
+
+	@Test
+	public void testFIMParallel() {
+		new EikonalSolverFIM(sequentialGrid, distFunc, false, timeCostFunction, 0.1, 1.0).solve();
+		new EikonalSolverFIMParallel(parallelGrid, distFunc, timeCostFunction, 0.1, 1.0).solve();
+		assertSameTravellingTimes();
+	}
+
+	@Test
+	public void testFIMParallelIsRepeatable() {
+		EikonalSolver solver = new EikonalSolverFIMParallel(parallelGrid, distFunc, timeCostFunction, 0.1, 1.0);
+		solver.solve();
+		CellGrid firstSolution = parallelGrid.clone();
+		solver.solve();
+		for (int x = 0; x < parallelGrid.getNumPointsX(); x++) {
+			for (int y = 0; y < parallelGrid.getNumPointsY(); y++) {
+				assertEquals(firstSolution.getValue(x, y).potential, parallelGrid.getValue(x, y).potential, 0.0);
+			}
+		}
+	}
+
+	@Test
+	public void testDensityTimeCostFallsBackToSequentialSolver() throws IOException {
+		Domain domain = new Domain(new Topography());
+		List<VShape> targetShapes = Collections.singletonList(new VRectangle(1, 1, 1, 1));
+		EikonalSolverProvider provider = new EikonalSolverDefaultProvider();
+
+		assertSame(EikonalSolverFIM.class, provider.buildBase(domain, 1, targetShapes, new AttributesAgent(),
+				attributesFloorField(EikonalSolverType.FAST_ITERATIVE_METHOD_PARALLEL, TimeCostFunctionType.NAVIGATION)).getClass());
+		assertSame(EikonalSolverFSM.class, provider.buildBase(domain, 1, targetShapes, new AttributesAgent(),
+				attributesFloorField(EikonalSolverType.FAST_SWEEPING_METHOD_PARALLEL, TimeCostFunctionType.NAVIGATION)).getClass());
+
+		assertSame(EikonalSolverFIMParallel.class, provider.buildBase(domain, 1, targetShapes, new AttributesAgent(),
+				attributesFloorField(EikonalSolverType.FAST_ITERATIVE_METHOD_PARALLEL, TimeCostFunctionType.UNIT)).getClass());
+		assertSame(EikonalSolverFSMParallel.class, provider.buildBase(domain, 1, targetShapes, new AttributesAgent(),
+				attributesFloorField(EikonalSolverType.FAST_SWEEPING_METHOD_PARALLEL, TimeCostFunctionType.DISTANCE_TO_OBSTACLES)).getClass());
+	}
+
+	private static AttributesFloorField attributesFloorField(final EikonalSolverType createMethod, final TimeCostFunctionType timeCostType) throws IOException {
+		return StateJsonConverter.deserializeObjectFromJson(
+				"{\"createMethod\" : \"" + createMethod + "\", \"timeCostAttributes\" : {\"type\" : \"" + timeCostType + "\"}}",
+				AttributesFloorField.class);
+	}
+
+	private void assertSameTravellingTimes() {
+		for (int x = 0; x < sequentialGrid.getNumPointsX(); x++) {
+			for (int y = 0; y < sequentialGrid.getNumPointsY(); y++) {
+				double expected = sequentialGrid.getValue(x, y).potential;
+				double actual = parallelGrid.getValue(x, y).potential;
+				if (expected == Double.MAX_VALUE) {
+					assertEquals(expected, actual, 0.0);
+				} else {
+					assertEquals("at " + new VPoint(x, y), expected, actual, maxError * Math.max(1.0, expected));
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,103 @@
+package org.vadere.simulator.models.potential.solver;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.vadere.simulator.models.potential.solver.calculators.cartesian.EikonalSolverFIM;
+import org.vadere.simulator.models.potential.solver.calculators.cartesian.EikonalSolverFIMParallel;
+import org.vadere.simulator.models.potential.solver.calculators.cartesian.EikonalSolverFMM;
+import org.vadere.simulator.models.potential.solver.calculators.cartesian.EikonalSolverFSM;
+import org.vadere.simulator.models.potential.solver.calculators.cartesian.EikonalSolverFSMParallel;
+import org.vadere.simulator.models.potential.solver.calculators.cartesian.EikonalSolverIFIM;
+import org.vadere.simulator.models.potential.solver.calculators.cartesian.EikonalSolverSFMM;
+import org.vadere.simulator.models.potential.solver.timecost.ITimeCostFunction;
+import org.vadere.simulator.models.potential.solver.timecost.UnitTimeCostFunction;
+import org.vadere.util.data.cellgrid.CellGrid;
+import org.vadere.util.data.cellgrid.CellState;
+import org.vadere.util.data.cellgrid.FloorDiscretizer;
+import org.vadere.util.data.cellgrid.PathFindingTag;
+import org.vadere.util.data.cellgrid.PrimitiveCellGrid;
+import org.vadere.util.geometry.shapes.VPoint;
+import org.vadere.util.geometry.shapes.VRectangle;
+import org.vadere.util.math.IDistanceFunction;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests that the fast marching solvers compute exactly the same travelling times on a
+ * {@link PrimitiveCellGrid} as on a {@link CellGrid} and that the other grid based solvers reject it.
+ */
+public class TestPrimitiveCellGridEikonalSolver {
+
+	private static final double resolution = 0.1;
+
+	private CellGrid cellGrid;
+	private CellGrid primitiveCellGrid;
+	private IDistanceFunction distFunc;
+	private ITimeCostFunction timeCostFunction;
+
+	@Before
+	public void setUp() {
+		cellGrid = new CellGrid(20, 15, resolution, new CellState(Double.MAX_VALUE, PathFindingTag.Undefined), 0, 0);
+		primitiveCellGrid = new PrimitiveCellGrid(20, 15, resolution, new CellState(Double.MAX_VALUE, PathFindingTag.Undefined), 0, 0);
+		VRectangle target = new VRectangle(18, 1, 1, 1);
+		VRectangle obstacle = new VRectangle(8, 0, 1, 12);
+		for (CellGrid grid : new CellGrid[]{cellGrid, primitiveCellGrid}) {
+			FloorDiscretizer.setGridValuesForShape(grid, target, new CellState(0.0, PathFindingTag.Target));
+			FloorDiscretizer.setGridValuesForShape(grid, obstacle, new CellState(Double.MAX_VALUE, PathFindingTag.Obstacle));
+		}
+		distFunc = p -> -target.distance(p);
+		timeCostFunction = new UnitTimeCostFunction();
+	}
+
+	@Test
+	public void testFMM() {
+		new EikonalSolverFMM(cellGrid, distFunc, false, timeCostFunction, 0.1, 1.0).solve();
+		new EikonalSolverFMM(primitiveCellGrid, distFunc, false, timeCostFunction, 0.1, 1.0).solve();
+		assertSameTravellingTimes();
+	}
+
+	@Test
+	public void testHighAccuracyFMM() {
+		new EikonalSolverFMM(cellGrid, distFunc, true, timeCostFunction, 0.1, 1.0).solve();
+		new EikonalSolverFMM(primitiveCellGrid, distFunc, true, timeCostFunction, 0.1, 1.0).solve();
+		assertSameTravellingTimes();
+	}
+
+	@Test
+	public void testSFMM() {
+		new EikonalSolverSFMM(cellGrid, distFunc, false, timeCostFunction, 0.1, 1.0).solve();
+		new EikonalSolverSFMM(primitiveCellGrid, distFunc, false, timeCostFunction, 0.1, 1.0).solve();
+		assertSameTravellingTimes();
+	}
+
+	@Test
+	public void testSolversChangingCellStatesRejectPrimitiveCellGrid() {
+		List<Runnable> constructors = Arrays.asList(
+				() -> new EikonalSolverFSM(primitiveCellGrid, distFunc, false, timeCostFunction, 0.1, 1.0),
+				() -> new EikonalSolverFIM(primitiveCellGrid, distFunc, false, timeCostFunction, 0.1, 1.0),
+				() -> new EikonalSolverIFIM(primitiveCellGrid, distFunc, timeCostFunction, 0.1, 1.0),
+				() -> new EikonalSolverFSMParallel(primitiveCellGrid, distFunc, timeCostFunction, 0.1, 1.0),
+				() -> new EikonalSolverFIMParallel(primitiveCellGrid, distFunc, timeCostFunction, 0.1, 1.0));
+
+		for (Runnable constructor : constructors) {
+			try {
+				constructor.run();
+				fail("a solver which changes the cell states must not accept a " + PrimitiveCellGrid.class.getSimpleName());
+			} catch (IllegalArgumentException e) {
+				// expected
+			}
+		}
+	}
+
+	private void assertSameTravellingTimes() {
+		for (int x = 0; x < cellGrid.getNumPointsX(); x++) {
+			for (int y = 0; y < cellGrid.getNumPointsY(); y++) {
+				assertEquals("at " + new VPoint(x, y), cellGrid.getValue(x, y), primitiveCellGrid.getValue(x, y));
+			}
+		}
+	}
+}
@@ -0,0 +1,132 @@
+package org.vadere.simulator.projects.dataprocessing;
+
+import org.junit.Test;
+import org.vadere.simulator.control.simulation.SimulationState;
+import org.vadere.simulator.projects.dataprocessing.datakey.TimestepKey;
+import org.vadere.simulator.projects.dataprocessing.processor.DataProcessor;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ProcessorManagerTest {
+
+	@Test
+	public void testTopologicalOrder() {
+		Map<Integer, Set<Integer>> dependencies = new HashMap<>();
+		dependencies.put(1, new HashSet<>(Arrays.asList(3, 2)));
+		dependencies.put(3, new HashSet<>(Collections.singletonList(2)));
+		dependencies.put(4, new HashSet<>(Collections.singletonList(7))); // unknown processor
+
+		List<Integer> order = ProcessorUpdateScheduler.topologicalOrder(Arrays.asList(1, 2, 3, 4), dependencies);
+		assertEquals(Arrays.asList(2, 3, 1, 4), order);
+
+		dependencies.put(2, new HashSet<>(Collections.singletonList(1)));
+		assertNull(ProcessorUpdateScheduler.topologicalOrder(Arrays.asList(1, 2, 3, 4), dependencies));
+	}
+
+	@Test
+	public void testConcurrentUpdateRespectsDependencies() {
+		Queue<String> errors = new ConcurrentLinkedQueue<>();
+		List<DataProcessor<?, ?>> processors = new ArrayList<>();
+		processors.add(new StepProcessor(5, errors, true, 4));
+		processors.add(new StepProcessor(1, errors, true));
+		processors.add(new StepProcessor(2, errors, true));
+		processors.add(new StepProcessor(3, errors, true, 1));
+		processors.add(new StepProcessor(4, errors, true, 3, 2));
+		processors.add(new StepProcessor(6, errors, true));
+
+		ProcessorManager manager = new ProcessorManager(processors, new ArrayList<>(), null, null);
+		manager.setUpdateThreads(4);
+		updateSteps(manager, processors, 20);
+
+		assertTrue(errors.toString(), errors.isEmpty());
+		manager.writeOutput();
+	}
+
+	@Test
+	public void testCyclicDependenciesAreUpdatedSequentially() {
+		Queue<String> errors = new ConcurrentLinkedQueue<>();
+		List<DataProcessor<?, ?>> processors = new ArrayList<>();
+		processors.add(new StepProcessor(1, errors, false, 2));
+		processors.add(new StepProcessor(2, errors, false, 1));
+
+		ProcessorManager manager = new ProcessorManager(processors, new ArrayList<>(), null, null);
+		manager.setUpdateThreads(4);
+		updateSteps(manager, processors, 3);
+
+		assertEquals(1, manager.getUpdateThreads());
+	}
+
+	private void updateSteps(final ProcessorManager manager, final List<DataProcessor<?, ?>> processors, final int steps) {
+		for (int step = 1; step <= steps; step++) {
+			SimulationState state = mock(SimulationState.class);
+			when(state.getStep()).thenReturn(step);
+			manager.update(state);
+
+			for (DataProcessor<?, ?> processor : processors) {
+				assertEquals(step, ((StepProcessor) processor).getValue(new TimestepKey(step)).intValue());
+			}
+		}
+	}
+
+	/**
+	 * Puts the current step and checks that the processors it depends on have been updated before. Like most
+	 * processors, it updates its dependencies itself if <tt>pull</tt> is true.
+	 */
+	private static class StepProcessor extends DataProcessor<TimestepKey, Integer> {
+
+		private final int[] dependencyIds;
+		private final List<StepProcessor> dependencies;
+		private final Queue<String> errors;
+		private final boolean pull;
+
+		StepProcessor(final int id, final Queue<String> errors, final boolean pull, final int... dependencyIds) {
+			super("step");
+			setId(id);
+			this.dependencyIds = dependencyIds;
+			this.dependencies = new ArrayList<>();
+			this.errors = errors;
+			this.pull = pull;
+		}
+
+		@Override
+		public void init(final ProcessorManager manager) {
+			super.init(manager);
+			dependencies.clear();
+			for (int id : dependencyIds) {
+				dependencies.add((StepProcessor) manager.getProcessor(id));
+			}
+		}
+
+		@Override
+		protected void doUpdate(final SimulationState state) {
+			TimestepKey key = new TimestepKey(state.getStep());
+			for (StepProcessor dependency : dependencies) {
+				if (!dependency.hasValue(key)) {
+					errors.add(getId() + " before " + dependency.getId() + " in step " + state.getStep());
+				}
+			}
+			Thread.yield();
+			if (pull) {
+				for (StepProcessor dependency : dependencies) {
+					dependency.update(state);
+				}
+			}
+			putValue(key, state.getStep());
+		}
+	}
+}
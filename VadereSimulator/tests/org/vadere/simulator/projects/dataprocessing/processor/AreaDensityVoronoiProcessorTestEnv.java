@@ -38,7 +38,7 @@ public class AreaDensityVoronoiProcessorTestEnv extends ProcessorTestEnv<Timeste
 				new AttributesMeasurementArea(42, new VRectangle(0, 0, 16, 16)));
 		Mockito.when(manager.getMeasurementArea(42, false)).thenReturn(measurementArea);
 		Mockito.when(manager.getMeasurementArea(42, true)).thenReturn(measurementArea);
-
+		Mockito.when(manager.getVoronoiDiagrams()).thenReturn(new VoronoiDiagramCache());
 	}
 
 	public void loadCollinearSetup() {
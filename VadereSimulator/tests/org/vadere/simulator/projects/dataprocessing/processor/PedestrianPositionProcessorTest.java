@@ -2,8 +2,12 @@ package org.vadere.simulator.projects.dataprocessing.processor;
 
 import org.junit.Before;
 import org.junit.Test;
+import org.vadere.simulator.control.simulation.SimulationState;
+import org.vadere.simulator.projects.dataprocessing.outputfile.OutputFile;
 import org.vadere.simulator.utils.reflection.ReflectionHelper;
 
+import static org.junit.Assert.assertEquals;
+
 
 /**
  * Tests for {@link PedestrianPositionProcessor} for Test data see {@link
@@ -33,5 +37,25 @@ public class PedestrianPositionProcessorTest extends ProcessorTest {
 		super.init();
 	}
 
+	/**
+	 * Writing the rows of finished steps while the simulation is running results in the same output
+	 * and removes the written values.
+	 */
+	@Test
+	public void writeFinishedRows() throws Exception {
+		assertInit(p);
+		OutputFile outputFile = processorTestEnv.getOutputFile();
+
+		for (SimulationState s : processorTestEnv.getSimStates()) {
+			p.update(s);
+			outputFile.writeFinishedRows(Runnable::run);
+			assertEquals(0, p.getData().size());
+		}
+		outputFile.write();
+
+		assertEquals(processorTestEnv.getHeader(), outputFile.getHeaderLine());
+		assertEquals(processorTestEnv.getExpectedOutputAsList(), processorTestEnv.getOutput(1));
+	}
+
 
 }
\ No newline at end of file
@@ -0,0 +1,150 @@
+package org.vadere.simulator.projects.dataprocessing.processor;
+
+import org.junit.Test;
+import org.vadere.simulator.control.simulation.SimulationState;
+import org.vadere.simulator.projects.dataprocessing.datakey.PedestriansNearbyData;
+import org.vadere.simulator.projects.dataprocessing.datakey.TimestepPedestriansNearbyIdKey;
+import org.vadere.state.attributes.processor.AttributesPedestrianNearbyProcessor;
+import org.vadere.state.scenario.Topography;
+import org.vadere.util.geometry.shapes.VPoint;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class PedestriansNearbyProcessorTest {
+
+	private static final int SAMPLE_EVERY_NTH_STEP = 2;
+	private static final int ALLOWED_ABSENCE = 3;
+	private static final int MIN_TIMESPAN = 5;
+
+	/**
+	 * Compares the contacts of random encounters with the contacts of merging each new contact with all existing
+	 * contacts, with and without writing the finished contacts during the simulation.
+	 */
+	@Test
+	public void testContactsEqualMergingWithAllContacts() {
+		Random random = new Random(42);
+		List<List<int[]>> steps = new ArrayList<>();
+		for (int step = SAMPLE_EVERY_NTH_STEP; step <= 400; step += SAMPLE_EVERY_NTH_STEP) {
+			List<int[]> encounters = new ArrayList<>();
+			for (int ped1 = 1; ped1 <= 6; ped1++) {
+				for (int ped2 = ped1 + 1; ped2 <= 6; ped2++) {
+					if (random.nextDouble() < 0.4) {
+						// each encounter is found by both pedestrians
+						encounters.add(new int[]{ped1, ped2});
+						encounters.add(new int[]{ped2, ped1});
+					}
+				}
+			}
+			Collections.shuffle(encounters, random);
+			steps.add(encounters);
+		}
+
+		Map<TimestepPedestriansNearbyIdKey, PedestriansNearbyData> expected = mergeWithAllContacts(steps);
+
+		PedestriansNearbyProcessor processor = createProcessor();
+		Map<TimestepPedestriansNearbyIdKey, PedestriansNearbyData> streamed = new TreeMap<>();
+		update(processor, steps, streamed);
+		assertContacts(expected, processor.getData());
+
+		processor = createProcessor();
+		update(processor, steps, null);
+		assertContacts(expected, processor.getData());
+	}
+
+	private PedestriansNearbyProcessor createProcessor() {
+		AttributesPedestrianNearbyProcessor attributes = mock(AttributesPedestrianNearbyProcessor.class);
+		when(attributes.getSampleEveryNthStep()).thenReturn(SAMPLE_EVERY_NTH_STEP);
+		when(attributes.getAllowedAbsenceTimestepsIfContactReturns()).thenReturn(ALLOWED_ABSENCE);
+		when(attributes.getMinTimespanOfContactTimesteps()).thenReturn(MIN_TIMESPAN);
+
+		PedestriansNearbyProcessor processor = new PedestriansNearbyProcessor();
+		processor.setAttributes(attributes);
+		processor.init(null);
+		processor.preLoop(null);
+		return processor;
+	}
+
+	/**
+	 * Updates the processor without pedestrians and puts the encounters like
+	 * {@link PedestriansNearbyProcessor#doUpdate} afterwards. Moves the finished contacts into
+	 * <tt>streamed</tt> after each step if it is not <tt>null</tt>.
+	 */
+	private void update(final PedestriansNearbyProcessor processor, final List<List<int[]>> steps,
+	                    final Map<TimestepPedestriansNearbyIdKey, PedestriansNearbyData> streamed) {
+		for (int i = 0; i < steps.size(); i++) {
+			int step = (i + 1) * SAMPLE_EVERY_NTH_STEP;
+			SimulationState state = mock(SimulationState.class);
+			when(state.getStep()).thenReturn(step);
+			when(state.getTopography()).thenReturn(mock(Topography.class));
+			processor.update(state);
+			for (int[] encounter : steps.get(i)) {
+				PedestriansNearbyData data = contact(encounter, step);
+				processor.putValue(new TimestepPedestriansNearbyIdKey(step, encounter[0], encounter[1]), data);
+			}
+
+			if (streamed != null) {
+				TimestepPedestriansNearbyIdKey bound = processor.getFinishedKeyBound();
+				streamed.putAll(processor.getData().headMap(bound));
+				processor.removeKeysBefore(bound);
+			}
+		}
+		processor.postLoop(null);
+
+		if (streamed != null) {
+			streamed.putAll(processor.getData());
+			processor.getData().clear();
+			processor.getData().putAll(streamed);
+		}
+	}
+
+	private Map<TimestepPedestriansNearbyIdKey, PedestriansNearbyData> mergeWithAllContacts(final List<List<int[]>> steps) {
+		TreeMap<TimestepPedestriansNearbyIdKey, PedestriansNearbyData> contacts = new TreeMap<>();
+		for (int i = 0; i < steps.size(); i++) {
+			int step = (i + 1) * SAMPLE_EVERY_NTH_STEP;
+			for (int[] encounter : steps.get(i)) {
+				TimestepPedestriansNearbyIdKey key = new TimestepPedestriansNearbyIdKey(step, encounter[0], encounter[1]);
+				PedestriansNearbyData data = contact(encounter, step);
+				boolean merged = false;
+				for (Map.Entry<TimestepPedestriansNearbyIdKey, PedestriansNearbyData> entry : contacts.entrySet()) {
+					if (key.isAccountedForBy(entry.getValue())) {
+						merged = true;
+						break;
+					} else if (key.isContinuationOf(entry.getValue(), ALLOWED_ABSENCE)) {
+						entry.setValue(entry.getValue().getUpdatedData(data, SAMPLE_EVERY_NTH_STEP));
+						merged = true;
+						break;
+					}
+				}
+				if (!merged) {
+					contacts.put(key, data);
+				}
+			}
+		}
+		contacts.values().removeIf(data -> data.getDurationTimesteps() < MIN_TIMESPAN);
+		return contacts;
+	}
+
+	private PedestriansNearbyData contact(final int[] encounter, final int step) {
+		List<VPoint> trajectory = new ArrayList<>();
+		trajectory.add(new VPoint(step, encounter[0] + encounter[1]));
+		return new PedestriansNearbyData(encounter[0], encounter[1], SAMPLE_EVERY_NTH_STEP, step, trajectory);
+	}
+
+	private void assertContacts(final Map<TimestepPedestriansNearbyIdKey, PedestriansNearbyData> expected,
+	                            final Map<TimestepPedestriansNearbyIdKey, PedestriansNearbyData> actual) {
+		assertEquals(new ArrayList<>(expected.keySet()), new ArrayList<>(actual.keySet()));
+		for (TimestepPedestriansNearbyIdKey key : expected.keySet()) {
+			assertEquals(expected.get(key).getDurationTimesteps(), actual.get(key).getDurationTimesteps());
+			assertEquals(expected.get(key).getTrajectory(), actual.get(key).getTrajectory());
+		}
+	}
+}
@@ -0,0 +1,55 @@
+package org.vadere.simulator.projects.dataprocessing.processor;
+
+import org.junit.Test;
+import org.vadere.simulator.control.simulation.SimulationState;
+import org.vadere.simulator.utils.PedestrianListBuilder;
+import org.vadere.state.scenario.Agent;
+import org.vadere.state.scenario.Topography;
+import org.vadere.util.geometry.shapes.VPoint;
+import org.vadere.util.geometry.shapes.VRectangle;
+import org.vadere.util.voronoi.Face;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class VoronoiDiagramCacheTest {
+
+	@Test
+	public void testDiagramIsComputedOncePerStateAndArea() {
+		PedestrianListBuilder b = new PedestrianListBuilder();
+		b.add(1, new VPoint(1.0, 1.0));
+		b.add(2, new VPoint(3.0, 1.5));
+		b.add(3, new VPoint(2.0, 4.0));
+		b.add(4, new VPoint(9.0, 9.0));
+		SimulationState state = mockState(1, b.getAgentList());
+
+		VRectangle area = new VRectangle(0, 0, 5, 5);
+		VoronoiDiagramCache cache = new VoronoiDiagramCache();
+		List<Face> faces = cache.getFaces(state, area);
+		assertSame(faces, cache.getFaces(state, new VRectangle(0, 0, 5, 5)));
+		verify(state.getTopography(), times(1)).getElements(Agent.class);
+
+		// only agents inside the area have a cell which is clipped to the area
+		assertEquals(3, faces.size());
+		assertEquals(area.getArea(), faces.stream().mapToDouble(Face::computeArea).sum(), 1e-9);
+
+		assertEquals(4, cache.getFaces(state, new VRectangle(0, 0, 10, 10)).size());
+		assertNotSame(faces, cache.getFaces(mockState(2, b.getAgentList()), area));
+	}
+
+	private SimulationState mockState(final int step, final List<Agent> agents) {
+		SimulationState state = mock(SimulationState.class);
+		Topography topography = mock(Topography.class);
+		when(state.getStep()).thenReturn(step);
+		when(state.getTopography()).thenReturn(topography);
+		when(topography.getElements(Agent.class)).thenReturn(agents);
+		return state;
+	}
+}
@@ -0,0 +1,130 @@
+package org.vadere.simulator.projects.io;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.vadere.simulator.control.simulation.SimulationState;
+import org.vadere.simulator.projects.dataprocessing.datakey.EventtimePedestrianIdKey;
+import org.vadere.simulator.projects.dataprocessing.outputfile.EventtimePedestrianIdColumnarOutputFile;
+import org.vadere.simulator.projects.dataprocessing.processor.DataProcessor;
+import org.vadere.simulator.projects.dataprocessing.writer.ColumnarTableWriter;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Collections;
+
+import tech.tablesaw.api.Table;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TableFileConverterTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void testConvertTrajectories() throws Exception {
+		Path text = Paths.get(getClass().getResource("/data/VTestMultiRun.bak/output/Test1_2019-09-23_17-25-51.21/postvis.traj").toURI());
+		Path columnar = folder.getRoot().toPath().resolve("postvis.traj");
+		Path convertedText = folder.getRoot().toPath().resolve("postvis.txt");
+
+		TableFileConverter.toColumnar(text, columnar);
+		assertTrue(ColumnarTableReader.isColumnarFile(columnar));
+		assertFalse(ColumnarTableReader.isColumnarFile(text));
+		assertTrue(Files.size(columnar) < Files.size(text));
+
+		Table expected = new TrajectoryReader(text).readFile();
+		Table actual = new TrajectoryReader(columnar).readFile();
+		assertEquals(expected.columnNames(), actual.columnNames());
+		assertEquals(expected.rowCount(), actual.rowCount());
+		for (int i = 0; i < expected.columnCount(); i++) {
+			assertEquals(expected.column(i).type(), actual.column(i).type());
+			assertEquals(expected.column(i).asList(), actual.column(i).asList());
+		}
+
+		TableFileConverter.toText(columnar, convertedText);
+		assertEquals(Files.readAllLines(text), Files.readAllLines(convertedText));
+	}
+
+	@Test
+	public void testRowGroupsAndMissingValues() throws Exception {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		String[] names = {"id", "x", "state", "count"};
+		ColumnarTableWriter.Type[] types = {ColumnarTableWriter.Type.INT, ColumnarTableWriter.Type.DOUBLE,
+				ColumnarTableWriter.Type.STRING, ColumnarTableWriter.Type.STRING};
+
+		try (ColumnarTableWriter out = new ColumnarTableWriter(bytes, names, types, 3)) {
+			for (int row = 0; row < 7; row++) {
+				if (row == 4) {
+					out.writeMissing();
+					out.writeMissing();
+					out.writeMissing();
+					out.writeString("NA");
+				} else {
+					out.writeInt(row);
+					out.writeDouble(row * 0.1);
+					out.writeString("state" + row);
+					out.writeString(Integer.toString(row * row));
+				}
+			}
+		}
+
+		Table table = ColumnarTableReader.read(new ByteArrayInputStream(bytes.toByteArray()), "test");
+		assertEquals(Arrays.asList(names), table.columnNames());
+		assertEquals(7, table.rowCount());
+		for (int row = 0; row < 7; row++) {
+			if (row == 4) {
+				for (int i = 0; i < names.length; i++) {
+					assertTrue(table.column(i).isMissing(row));
+				}
+			} else {
+				assertEquals(row, table.intColumn(0).getInt(row));
+				assertEquals(row * 0.1, table.doubleColumn(1).getDouble(row), 0.0);
+				assertEquals("state" + row, table.stringColumn(2).get(row));
+				// string values of numbers are read as numbers like in text files
+				assertEquals(row * row, table.intColumn(3).getInt(row));
+			}
+		}
+	}
+
+	@Test
+	public void testColumnarOutputFile() throws Exception {
+		TargetProcessor processor = new TargetProcessor();
+		processor.setId(1);
+		processor.put(new EventtimePedestrianIdKey(0.4, 2), 5);
+		processor.put(new EventtimePedestrianIdKey(0.2, 1), 3);
+
+		Path file = folder.getRoot().toPath().resolve("postvis.traj");
+		EventtimePedestrianIdColumnarOutputFile outputFile = new EventtimePedestrianIdColumnarOutputFile();
+		outputFile.setProcessorIds(Collections.singletonList(1));
+		outputFile.init(Collections.singletonMap(1, processor));
+		outputFile.setAbsoluteFileName(file.toString());
+		outputFile.write();
+
+		Table table = new TrajectoryReader(file).readFile();
+		assertEquals(Arrays.asList("pedestrianId", "simTime", "targetId-PID1"), table.columnNames());
+		assertEquals(Arrays.asList(1, 2), table.intColumn(0).asList());
+		assertEquals(Arrays.asList(0.2, 0.4), table.doubleColumn(1).asList());
+		assertEquals(Arrays.asList(3, 5), table.intColumn(2).asList());
+	}
+
+	private static class TargetProcessor extends DataProcessor<EventtimePedestrianIdKey, Integer> {
+
+		TargetProcessor() {
+			super("targetId");
+		}
+
+		void put(final EventtimePedestrianIdKey key, final int value) {
+			putValue(key, value);
+		}
+
+		@Override
+		protected void doUpdate(final SimulationState state) {}
+	}
+}
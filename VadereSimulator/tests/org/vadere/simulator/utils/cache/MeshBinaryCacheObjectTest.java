@@ -0,0 +1,116 @@
+package org.vadere.simulator.utils.cache;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.vadere.meshing.examples.MeshExamples;
+import org.vadere.meshing.mesh.gen.IncrementalTriangulation;
+import org.vadere.meshing.mesh.gen.PFace;
+import org.vadere.meshing.mesh.gen.PHalfEdge;
+import org.vadere.meshing.mesh.gen.PMesh;
+import org.vadere.meshing.mesh.gen.PVertex;
+import org.vadere.meshing.mesh.inter.IMesh;
+import org.vadere.meshing.utils.io.poly.MeshPolyReader;
+import org.vadere.simulator.models.potential.solver.calculators.mesh.MeshEikonalSolverFMM;
+import org.vadere.simulator.models.potential.solver.timecost.UnitTimeCostFunction;
+import org.vadere.util.geometry.shapes.VPoint;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class MeshBinaryCacheObjectTest {
+
+	private static final String hash = "0123456789abcdef";
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private File cacheFile;
+	private MeshEikonalSolverFMM<PVertex, PHalfEdge, PFace> solver;
+
+	@Before
+	public void setUp() throws IOException {
+		cacheFile = new File(folder.getRoot(), "mesh.ffcache");
+		solver = createSolver();
+		solver.solve();
+		solver.saveFloorFieldToCache(new MeshBinaryCacheObject("target", cacheFile, hash));
+	}
+
+	@Test
+	public void testLoadCachedFloorField() throws IOException {
+		MeshEikonalSolverFMM<PVertex, PHalfEdge, PFace> cachedSolver = createSolver();
+		assertTrue(cachedSolver.loadCachedFloorField(new MeshBinaryCacheObject("target", cacheFile, hash)));
+
+		List<PVertex> vertices = solver.getMesh().getVertices();
+		List<PVertex> cachedVertices = cachedSolver.getMesh().getVertices();
+		for (int i = 0; i < vertices.size(); i++) {
+			assertEquals(solver.getPotential(vertices.get(i)), cachedSolver.getPotential(cachedVertices.get(i)), 0.0);
+		}
+		assertEquals(solver.getPotential(160, 90), cachedSolver.getPotential(160, 90), 0.0);
+	}
+
+	@Test
+	public void testRejectDifferentHash() throws IOException {
+		MeshEikonalSolverFMM<PVertex, PHalfEdge, PFace> cachedSolver = createSolver();
+		assertFalse(cachedSolver.loadCachedFloorField(new MeshBinaryCacheObject("target", cacheFile, "fedcba9876543210")));
+	}
+
+	@Test(expected = CacheException.class)
+	public void testRejectCorruptedCache() {
+		try (RandomAccessFile file = new RandomAccessFile(cacheFile, "rw")) {
+			file.seek(file.length() - 1);
+			int b = file.read();
+			file.seek(file.length() - 1);
+			file.write(b ^ 0xff);
+		} catch (IOException e) {
+			throw new RuntimeException(e);
+		}
+		new MeshBinaryCacheObject("target", cacheFile, hash).initializeObjectFromCache(new PMesh());
+	}
+
+	@Test
+	public void testRebuildMesh() {
+		PMesh cachedMesh = new PMesh();
+		new MeshBinaryCacheObject("target", cacheFile, hash).initializeObjectFromCache(cachedMesh);
+
+		IMesh<PVertex, PHalfEdge, PFace> mesh = solver.getMesh();
+		assertEquals(mesh.getNumberOfVertices(), cachedMesh.getNumberOfVertices());
+		assertEquals(mesh.getNumberOfFaces(), cachedMesh.getNumberOfFaces());
+		assertEquals(mesh.getNumberOfHoles(), cachedMesh.getNumberOfHoles());
+
+		List<PVertex> vertices = mesh.getVertices();
+		List<PVertex> cachedVertices = cachedMesh.getVertices();
+		for (int i = 0; i < vertices.size(); i++) {
+			assertEquals(mesh.toPoint(vertices.get(i)), cachedMesh.toPoint(cachedVertices.get(i)));
+			assertEquals(solver.getPotential(vertices.get(i)), cachedMesh.getDoubleData(cachedVertices.get(i), MeshEikonalSolverFMM.namePotential), 0.0);
+		}
+
+		List<PHalfEdge> edges = mesh.getEdges();
+		List<PHalfEdge> cachedEdges = cachedMesh.getEdges();
+		assertEquals(edges.size(), cachedEdges.size());
+		for (int i = 0; i < edges.size(); i++) {
+			PHalfEdge edge = edges.get(i);
+			PHalfEdge cachedEdge = cachedEdges.get(i);
+			assertEquals(mesh.toPoint(mesh.getNext(edge)), cachedMesh.toPoint(cachedMesh.getNext(cachedEdge)));
+			assertEquals(mesh.toPoint(mesh.getPrev(edge)), cachedMesh.toPoint(cachedMesh.getPrev(cachedEdge)));
+			assertEquals(mesh.toPoint(mesh.getTwin(edge)), cachedMesh.toPoint(cachedMesh.getTwin(cachedEdge)));
+			assertEquals(mesh.isBoundary(edge), cachedMesh.isBoundary(cachedEdge));
+		}
+	}
+
+	private static MeshEikonalSolverFMM<PVertex, PHalfEdge, PFace> createSolver() throws IOException {
+		final InputStream inputStream = MeshExamples.class.getResourceAsStream("/poly/muenchner_freiheit.poly");
+		MeshPolyReader<PVertex, PHalfEdge, PFace> meshReader = new MeshPolyReader<>(() -> new PMesh());
+		var mesh = meshReader.readMesh(inputStream);
+		return new MeshEikonalSolverFMM<>(new UnitTimeCostFunction(), Collections.singleton(new VPoint(150, 80)), new IncrementalTriangulation<>(mesh));
+	}
+}
@@ -0,0 +1,157 @@
+package org.vadere.simulator.utils.cache;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.vadere.util.data.cellgrid.CellGrid;
+import org.vadere.util.data.cellgrid.CellState;
+import org.vadere.util.data.cellgrid.PathFindingTag;
+import org.vadere.util.data.cellgrid.PrimitiveCellGrid;
+
+import java.io.File;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class SharedFloorFieldsTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private File cacheFile;
+	private CellGrid cellGrid;
+
+	@Before
+	public void setUp() {
+		SharedFloorFields.clear();
+		cacheFile = new File(folder.getRoot(), "cache/grid.ffcache");
+		cellGrid = new CellGrid(3, 2, 0.5, new CellState(), 0, 0);
+		for (int x = 0; x < cellGrid.getNumPointsX(); x++) {
+			for (int y = 0; y < cellGrid.getNumPointsY(); y++) {
+				cellGrid.setValue(x, y, new CellState(x + 0.1 * y, x == 0 ? PathFindingTag.Target : PathFindingTag.Reached));
+			}
+		}
+	}
+
+	@Test
+	public void testPersistIsAtomicAndShared() {
+		new CellGridBinaryCacheObject("grid", cacheFile).persistObject(cellGrid);
+
+		assertTrue(cacheFile.exists());
+		assertArrayEquals(new String[]{cacheFile.getName()}, cacheFile.getParentFile().list());
+		assertTrue(SharedFloorFields.contains(cacheFile));
+
+		CellGrid loadedGrid = new CellGrid(3, 2, 0.5, new CellState(), 0, 0);
+		new CellGridBinaryCacheObject("grid", cacheFile).initializeObjectFromCache(loadedGrid);
+		assertEqualGrids(cellGrid, loadedGrid);
+	}
+
+	@Test
+	public void testLoadSharedGridWithoutFile() {
+		new CellGridBinaryCacheObject("grid", cacheFile).persistObject(cellGrid);
+		assertTrue(cacheFile.delete());
+
+		CellGridBinaryCacheObject cacheObject = new CellGridBinaryCacheObject("grid", cacheFile);
+		assertTrue(cacheObject.readable());
+		CellGrid loadedGrid = new CellGrid(3, 2, 0.5, new CellState(), 0, 0);
+		cacheObject.initializeObjectFromCache(loadedGrid);
+		assertEqualGrids(cellGrid, loadedGrid);
+	}
+
+	@Test
+	public void testReadableSharedGridIsKeptIfRemoved() {
+		new CellGridBinaryCacheObject("grid", cacheFile).persistObject(cellGrid);
+		assertTrue(cacheFile.delete());
+
+		CellGridBinaryCacheObject cacheObject = new CellGridBinaryCacheObject("grid", cacheFile);
+		assertTrue(cacheObject.readable());
+		// e.g. removed since the capacity of the shared floor fields is exceeded
+		SharedFloorFields.clear();
+		assertTrue(cacheObject.readable());
+		CellGrid loadedGrid = new CellGrid(3, 2, 0.5, new CellState(), 0, 0);
+		cacheObject.initializeObjectFromCache(loadedGrid);
+		assertEqualGrids(cellGrid, loadedGrid);
+	}
+
+	@Test
+	public void testChangesOfPrimitiveGridsAreNotShared() {
+		PrimitiveCellGrid writtenGrid = new PrimitiveCellGrid(3, 2, 0.5, new CellState(), 0, 0);
+		SharedFloorFields.copy(cellGrid, writtenGrid);
+		new CellGridBinaryCacheObject("grid", cacheFile).persistObject(writtenGrid);
+		writtenGrid.makeWritable();
+		writtenGrid.setPotential(0, 0, -1.0);
+
+		PrimitiveCellGrid loadedGrid = new PrimitiveCellGrid(3, 2, 0.5, new CellState(), 0, 0);
+		new CellGridBinaryCacheObject("grid", cacheFile).initializeObjectFromCache(loadedGrid);
+		assertEqualGrids(cellGrid, loadedGrid);
+		loadedGrid.makeWritable();
+		loadedGrid.setPotential(1, 0, -1.0);
+
+		CellGrid otherGrid = new CellGrid(3, 2, 0.5, new CellState(), 0, 0);
+		new CellGridBinaryCacheObject("grid", cacheFile).initializeObjectFromCache(otherGrid);
+		assertEqualGrids(cellGrid, otherGrid);
+	}
+
+	@Test
+	public void testLockWaitsForWriter() throws Exception {
+		CellGridBinaryCacheObject writer = new CellGridBinaryCacheObject("grid", cacheFile);
+		CellGridBinaryCacheObject reader = new CellGridBinaryCacheObject("grid", cacheFile);
+		assertFalse(reader.readable());
+
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			CountDownLatch locked = new CountDownLatch(1);
+			Future<?> writing = executor.submit(() -> {
+				try (CacheLock lock = writer.lock()) {
+					locked.countDown();
+					Thread.sleep(200);
+					writer.persistObject(cellGrid);
+				}
+				return null;
+			});
+			assertTrue(locked.await(10, TimeUnit.SECONDS));
+
+			try (CacheLock lock = reader.lock()) {
+				// the writer released the lock, therefore the cache has to be readable
+				assertTrue(reader.readable());
+			}
+			writing.get();
+		} finally {
+			executor.shutdown();
+		}
+		assertEquals(0, AbstractCacheObject.numberOfThreadLocks());
+	}
+
+	@Test
+	public void testThreadLocksAreRemoved() {
+		for (int i = 0; i < 10; i++) {
+			CellGridBinaryCacheObject cacheObject = new CellGridBinaryCacheObject("grid", new File(folder.getRoot(), "cache/grid" + i + ".ffcache"));
+			try (CacheLock lock = cacheObject.lock()) {
+				assertEquals(1, AbstractCacheObject.numberOfThreadLocks());
+			}
+		}
+		assertEquals(0, AbstractCacheObject.numberOfThreadLocks());
+	}
+
+	@Test
+	public void testNoLockForReadableCache() {
+		new CellGridBinaryCacheObject("grid", cacheFile).persistObject(cellGrid);
+		assertEquals(CacheLock.NONE, new CellGridBinaryCacheObject("grid", cacheFile).lock());
+	}
+
+	private static void assertEqualGrids(CellGrid expected, CellGrid actual) {
+		for (int x = 0; x < expected.getNumPointsX(); x++) {
+			for (int y = 0; y < expected.getNumPointsY(); y++) {
+				assertEquals(expected.getValue(x, y), actual.getValue(x, y));
+			}
+		}
+	}
+}
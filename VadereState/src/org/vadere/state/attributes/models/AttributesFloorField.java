@@ -76,6 +76,15 @@ public class AttributesFloorField extends Attributes {
 	@JsonView(Views.CacheViewExclude.class)
 	private String cacheDir = "";
 
+	/**
+	 * If true, the travelling times of grid based fast marching methods are stored in primitive arrays
+	 * (see org.vadere.util.data.cellgrid.PrimitiveCellGrid) instead of one object per grid point.
+	 * This reduces the memory footprint and the runtime of the computation of large floor fields
+	 * without changing the result. @JsonView(...) since the floor field does not depend on it.
+	 */
+	@JsonView(Views.CacheViewExclude.class)
+	private boolean usePrimitiveCellGrid = false;
+
 	private AttributesTimeCost timeCostAttributes;
 
 	public AttributesFloorField() {
@@ -140,6 +149,15 @@ public class AttributesFloorField extends Attributes {
 	}
 
 
+	public boolean isUsePrimitiveCellGrid() {
+		return usePrimitiveCellGrid;
+	}
+
+	public void setUsePrimitiveCellGrid(boolean usePrimitiveCellGrid) {
+		checkSealed();
+		this.usePrimitiveCellGrid = usePrimitiveCellGrid;
+	}
+
 	public void setTimeCostAttributes(AttributesTimeCost timeCostAttributes) {
 		checkSealed();
 		this.timeCostAttributes = timeCostAttributes;
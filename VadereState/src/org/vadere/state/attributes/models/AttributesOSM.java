@@ -165,6 +165,12 @@ public class AttributesOSM extends Attributes {
 	 */
 	private boolean seeSmallWalls = false;
 
+	/**
+	 * Only used if {@link AttributesOSM#updateType} is <tt>PARALLEL_COLORED</tt>. The number of worker threads which
+	 * update the agents. If the value is smaller than 1, the number of available processors is used.
+	 */
+	private int numberOfThreads = 0;
+
 
 	private String targetPotentialModel = "org.vadere.simulator.models.potential.fields.PotentialFieldTargetGrid";
 	private String pedestrianPotentialModel = "org.vadere.simulator.models.potential.PotentialFieldPedestrianCompactSoftshell";
@@ -228,6 +234,10 @@ public class AttributesOSM extends Attributes {
 		return seeSmallWalls;
 	}
 
+	public int getNumberOfThreads() {
+		return numberOfThreads;
+	}
+
 	public boolean isMinimumStepLength() {
 		return minimumStepLength;
 	}
@@ -256,4 +266,35 @@ public class AttributesOSM extends Attributes {
 	public double getMinStepLength() {
 		return minStepLength;
 	}
+
+	// Setters...
+	public void setUpdateType(UpdateType updateType) {
+		checkSealed();
+		this.updateType = updateType;
+	}
+
+	public void setNumberOfThreads(int numberOfThreads) {
+		checkSealed();
+		this.numberOfThreads = numberOfThreads;
+	}
+
+	public void setStepCircleResolution(int stepCircleResolution) {
+		checkSealed();
+		this.stepCircleResolution = stepCircleResolution;
+	}
+
+	public void setNumberOfCircles(int numberOfCircles) {
+		checkSealed();
+		this.numberOfCircles = numberOfCircles;
+	}
+
+	public void setOptimizationType(OptimizationType optimizationType) {
+		checkSealed();
+		this.optimizationType = optimizationType;
+	}
+
+	public void setVaryStepDirection(boolean varyStepDirection) {
+		checkSealed();
+		this.varyStepDirection = varyStepDirection;
+	}
 }
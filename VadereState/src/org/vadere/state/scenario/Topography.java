@@ -11,6 +11,7 @@ import org.vadere.state.attributes.scenario.AttributesDynamicElement;
 import org.vadere.state.attributes.scenario.AttributesObstacle;
 import org.vadere.state.attributes.scenario.AttributesTopography;
 import org.vadere.state.util.Views;
+import org.vadere.util.data.aabb.BoundingVolumeHierarchy;
 import org.vadere.util.geometry.LinkedCellsGrid;
 import org.vadere.util.geometry.shapes.IPoint;
 import org.vadere.util.geometry.shapes.VPoint;
@@ -31,13 +32,14 @@ import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Random;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
-@JsonIgnoreProperties(value = {"allOtherAttributes", "obstacleDistanceFunction", "contextId", "reachablePointProvider"})
+@JsonIgnoreProperties(value = {"allOtherAttributes", "obstacleDistanceFunction", "contextId", "reachablePointProvider", "obstacleIndex"})
 public class Topography implements DynamicElementMover{
 
 	/** Transient to prevent JSON serialization. */
@@ -62,6 +64,14 @@ public class Topography implements DynamicElementMover{
 	 * iteration between frames.
 	 */
 	private final List<Obstacle> obstacles;
+	/**
+	 * Spatial index of the obstacles which is lazily (re-)built if the obstacles change.
+	 */
+	private transient volatile ObstacleIndex obstacleIndex;
+	/**
+	 * Is increased whenever the obstacles change, see {@link #invalidateObstacleIndex()}.
+	 */
+	private final transient AtomicInteger obstacleVersion;
 	/**
 	 * Sources of scenario by id. Tree maps ensures same update order during
 	 * iteration between frames.
@@ -145,6 +155,7 @@ public class Topography implements DynamicElementMover{
 		// (as constructor argument).
 
 		obstacles = new LinkedList<>();
+		obstacleVersion = new AtomicInteger();
 		stairs = new LinkedList<>();
 		sources = new LinkedList<>();
 		targets = new LinkedList<>();
@@ -174,11 +185,7 @@ public class Topography implements DynamicElementMover{
 		this.obstacleDistanceFunction = new IDistanceFunctionCached() {
 			@Override
 			public double apply(@NotNull IPoint point, Object caller) {
-				return -obstacles.stream()
-						.map(Obstacle::getShape)
-						.map(shape -> shape.distance(point))
-						.min(Double::compareTo)
-						.orElse(Double.MAX_VALUE);
+				return -getDistanceToNearestObstacle(point);
 			}
 
 			@Override
@@ -460,6 +467,98 @@ public class Topography implements DynamicElementMover{
 		return obstacles.stream().map(obs -> obs.getShape()).collect(Collectors.toList());
 	}
 
+	/**
+	 * Returns the (exact) distance between the point and the closest obstacle which is negative if the point
+	 * lies inside an obstacle or {@link Double#MAX_VALUE} if there is no obstacle.
+	 *
+	 * @param point the point
+	 * @return the distance between the point and the closest obstacle
+	 */
+	public double getDistanceToNearestObstacle(@NotNull final IPoint point) {
+		return getObstacleIndex().distance(point, (obstacle, p) -> obstacle.getShape().distance(p));
+	}
+
+	/**
+	 * Returns the obstacle which is closest to the point if its distance is smaller than <tt>maxDistance</tt>.
+	 *
+	 * @param point         the point
+	 * @param maxDistance   the maximal (exclusive) distance
+	 * @return the closest obstacle or an empty optional if there is no obstacle closer than <tt>maxDistance</tt>
+	 */
+	public Optional<Obstacle> getNearestObstacle(@NotNull final IPoint point, final double maxDistance) {
+		return Optional.ofNullable(getObstacleIndex().nearest(point, maxDistance, (obstacle, p) -> obstacle.getShape().distance(p)));
+	}
+
+	/**
+	 * Returns all obstacles whose distance to the point is smaller than <tt>maxDistance</tt>
+	 * in the order of {@link #getObstacles()}.
+	 *
+	 * @param point         the point
+	 * @param maxDistance   the maximal (exclusive) distance
+	 * @return all obstacles whose distance to the point is smaller than <tt>maxDistance</tt>
+	 */
+	public List<Obstacle> getObstaclesWithinDistance(@NotNull final IPoint point, final double maxDistance) {
+		return getObstacleIndex().withinDistance(point, maxDistance, (obstacle, p) -> obstacle.getShape().distance(p));
+	}
+
+	/**
+	 * Tests if the shape intersects any obstacle.
+	 *
+	 * @param shape the shape
+	 * @return true if the shape intersects an obstacle, false otherwise
+	 */
+	public boolean intersectsObstacle(@NotNull final VShape shape) {
+		return getObstacleIndex().anyMatch(shape.getBounds2D(), obstacle -> obstacle.getShape().intersects(shape));
+	}
+
+	/**
+	 * Forces the spatial index of the obstacles to be rebuilt. {@link #addObstacle(Obstacle)},
+	 * {@link #setObstacles(Collection)} and {@link #removeBoundary()} call this method. Callers which modify the
+	 * list returned by {@link #getObstacles()} or the shape or the attributes of an obstacle have to call it
+	 * afterwards.
+	 */
+	public void invalidateObstacleIndex() {
+		obstacleVersion.incrementAndGet();
+	}
+
+	/**
+	 * Returns a number which changes whenever {@link #invalidateObstacleIndex()} is called. Structures derived from
+	 * the obstacles, e.g. a distance grid, can compare it to the version of the obstacles they were built from to
+	 * detect that they are outdated.
+	 */
+	public int getObstacleVersion() {
+		return obstacleVersion.get();
+	}
+
+	private BoundingVolumeHierarchy<Obstacle> getObstacleIndex() {
+		ObstacleIndex index = obstacleIndex;
+		int version = getObstacleVersion();
+		if(index == null || index.version != version) {
+			synchronized (obstacles) {
+				index = obstacleIndex;
+				version = getObstacleVersion();
+				if(index == null || index.version != version) {
+					index = new ObstacleIndex(new BoundingVolumeHierarchy<>(obstacles, obstacle -> obstacle.getShape().getBounds2D()), version);
+					obstacleIndex = index;
+				}
+			}
+		}
+		return index.hierarchy;
+	}
+
+	/**
+	 * The spatial index of the obstacles together with the version of the obstacles it was built from.
+	 */
+	private static class ObstacleIndex {
+		private final BoundingVolumeHierarchy<Obstacle> hierarchy;
+		private final int version;
+
+		private ObstacleIndex(@NotNull final BoundingVolumeHierarchy<Obstacle> hierarchy, final int version) {
+			this.hierarchy = hierarchy;
+			this.version = version;
+		}
+	}
+
 	public List<Stairs> getStairs() {
 		return stairs;
 	}
@@ -502,6 +601,18 @@ public class Topography implements DynamicElementMover{
 
 	public void addObstacle(Obstacle obstacle) {
 		this.obstacles.add(obstacle);
+		invalidateObstacleIndex();
+	}
+
+	/**
+	 * Replaces all obstacles of this topography. The boundary obstacles are kept only if they are contained
+	 * in <tt>obstacles</tt>.
+	 */
+	public void setObstacles(@NotNull final Collection<Obstacle> obstacles) {
+		this.obstacles.clear();
+		this.obstacles.addAll(obstacles);
+		this.boundaryObstacles.retainAll(obstacles);
+		invalidateObstacleIndex();
 	}
 
 	public void addMeasurementArea(MeasurementArea measurementArea){
@@ -598,6 +709,7 @@ public class Topography implements DynamicElementMover{
 			this.obstacles.remove(boundaryObstacle);
 		}
 		this.boundaryObstacles.clear();
+		invalidateObstacleIndex();
 	}
 
 	/**
@@ -699,6 +811,42 @@ public class Topography implements DynamicElementMover{
 		return s;
 	}
 
+	/**
+	 * Returns a light-weight copy of this topography without agents, e.g. to display a running simulation whose
+	 * agents are copied separately. In contrast to {@link #clone()} the static scenario elements (obstacles, targets,
+	 * sources, ...) are not copied but shared by reference. Only the changing aerosol clouds and droplets are copied.
+	 * No listeners are copied.
+	 */
+	public Topography shallowClone() {
+		Topography s = new Topography(this.attributes, this.attributesPedestrian, this.attributesCar);
+
+		for (Obstacle obstacle : this.getObstacles()) {
+			if (boundaryObstacles.contains(obstacle))
+				s.addBoundary(obstacle);
+			else
+				s.addObstacle(obstacle);
+		}
+
+		s.measurementAreas.addAll(measurementAreas);
+		s.stairs.addAll(stairs);
+		s.targets.addAll(targets);
+		s.targetChangers.addAll(targetChangers);
+		s.absorbingAreas.addAll(absorbingAreas);
+		s.sources.addAll(sources);
+
+		for (AerosolCloud aerosolCloud: getAerosolClouds()) {
+			s.addAerosolCloud(aerosolCloud.clone());
+		}
+		for (Droplets droplets : getDroplets()) {
+			s.addDroplets(droplets.clone());
+		}
+		if (hasTeleporter()) {
+			s.setTeleporter(teleporter);
+		}
+
+		return s;
+	}
+
 	public int getNextFreeTargetID() {
 		Collections.sort(this.targets);
 		return targets.getLast().getId() + 1;
@@ -14,6 +14,8 @@ public enum EikonalSolverType {
 	FAST_ITERATIVE_METHOD,
 	INFORMED_FAST_ITERATIVE_METHOD,
 	FAST_SWEEPING_METHOD,
+	FAST_ITERATIVE_METHOD_PARALLEL,
+	FAST_SWEEPING_METHOD_PARALLEL,
 
 	/**
 	 * Solvers on an triangle mesh
@@ -45,6 +47,8 @@ public enum EikonalSolverType {
 				this == HIGH_ACCURACY_FAST_MARCHING_DENSITY ||
 				this == FAST_ITERATIVE_METHOD ||
 				this == INFORMED_FAST_ITERATIVE_METHOD ||
-				this == FAST_SWEEPING_METHOD;
+				this == FAST_SWEEPING_METHOD ||
+				this == FAST_ITERATIVE_METHOD_PARALLEL ||
+				this == FAST_SWEEPING_METHOD_PARALLEL;
 	}
 }
@@ -1,5 +1,5 @@
 package org.vadere.state.types;
 
 public enum UpdateType {
-	SEQUENTIAL, EVENT_DRIVEN, PARALLEL, SHUFFLE, PARALLEL_OPEN_CL, EVENT_DRIVEN_CL, EVENT_DRIVEN_PARALLEL;
+	SEQUENTIAL, EVENT_DRIVEN, PARALLEL, SHUFFLE, PARALLEL_OPEN_CL, EVENT_DRIVEN_CL, EVENT_DRIVEN_PARALLEL, PARALLEL_COLORED, EVENT_DRIVEN_PARALLEL_INCREMENTAL;
 }
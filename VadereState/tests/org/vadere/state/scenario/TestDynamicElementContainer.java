@@ -0,0 +1,64 @@
+package org.vadere.state.scenario;
+
+import org.junit.Test;
+import org.vadere.state.attributes.scenario.AttributesAgent;
+import org.vadere.util.geometry.LinkedCellsGrid;
+import org.vadere.util.geometry.shapes.VPoint;
+import org.vadere.util.geometry.shapes.VRectangle;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TestDynamicElementContainer {
+
+	@Test
+	public void testConcurrentMovesOfDifferentElements() throws Exception {
+		DynamicElementContainer<Pedestrian> container = new DynamicElementContainer<>(new VRectangle(0, 0, 20, 20), 1.0);
+		List<Pedestrian> pedestrians = new ArrayList<>();
+		for (int id = 1; id <= 200; id++) {
+			Pedestrian pedestrian = new Pedestrian(new AttributesAgent(id), new Random(id));
+			pedestrian.setPosition(new VPoint(0.5 + (id % 19), 0.5 + (id / 19)));
+			container.addElement(pedestrian);
+			pedestrians.add(pedestrian);
+		}
+
+		int numberOfThreads = 4;
+		ExecutorService executor = Executors.newFixedThreadPool(numberOfThreads);
+		try {
+			List<Future<?>> futures = new ArrayList<>();
+			for (int t = 0; t < numberOfThreads; t++) {
+				final int thread = t;
+				futures.add(executor.submit(() -> {
+					Random random = new Random(thread);
+					for (int step = 0; step < 200; step++) {
+						// each thread moves its own pedestrians
+						for (int i = thread; i < pedestrians.size(); i += numberOfThreads) {
+							Pedestrian pedestrian = pedestrians.get(i);
+							VPoint oldPosition = pedestrian.getPosition();
+							pedestrian.setPosition(new VPoint(0.5 + 19 * random.nextDouble(), 0.5 + 19 * random.nextDouble()));
+							container.moveElement(pedestrian, oldPosition);
+						}
+					}
+				}));
+			}
+			for (Future<?> future : futures) {
+				future.get();
+			}
+		} finally {
+			executor.shutdown();
+		}
+
+		LinkedCellsGrid<Pedestrian> grid = container.getCellsElements();
+		assertEquals(pedestrians.size(), grid.size());
+		for (Pedestrian pedestrian : pedestrians) {
+			assertTrue(grid.getObjects(pedestrian.getPosition(), 0.01).contains(pedestrian));
+		}
+	}
+}
@@ -0,0 +1,76 @@
+package org.vadere.state.scenario;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.vadere.state.attributes.scenario.AttributesAgent;
+import org.vadere.state.attributes.scenario.AttributesCar;
+import org.vadere.state.attributes.scenario.AttributesObstacle;
+import org.vadere.state.attributes.scenario.AttributesTopography;
+import org.vadere.util.geometry.shapes.VPoint;
+import org.vadere.util.geometry.shapes.VRectangle;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+/**
+ * The obstacle queries of {@link Topography} use a spatial index which is rebuilt after the obstacles are changed
+ * via {@link Topography} or after {@link Topography#invalidateObstacleIndex()} is called.
+ */
+public class TestTopographyObstacleIndex {
+
+	private Topography topography;
+	private final VPoint point = new VPoint(5, 5);
+
+	@Before
+	public void setUp() {
+		topography = new Topography(new AttributesTopography(), new AttributesAgent(), new AttributesCar());
+		topography.addObstacle(createObstacle(1, new VRectangle(0, 0, 2, 10)));
+		assertEquals(3.0, topography.getDistanceToNearestObstacle(point), 0.0);
+	}
+
+	@Test
+	public void testAddObstacle() {
+		int version = topography.getObstacleVersion();
+		topography.addObstacle(createObstacle(2, new VRectangle(6, 0, 4, 10)));
+		assertNotEquals(version, topography.getObstacleVersion());
+		assertEquals(1.0, topography.getDistanceToNearestObstacle(point), 0.0);
+	}
+
+	@Test
+	public void testSetObstacles() {
+		// the number of obstacles does not change
+		topography.setObstacles(Collections.singletonList(createObstacle(2, new VRectangle(6, 0, 4, 10))));
+		assertEquals(1.0, topography.getDistanceToNearestObstacle(point), 0.0);
+
+		topography.setObstacles(Collections.emptyList());
+		assertEquals(Double.MAX_VALUE, topography.getDistanceToNearestObstacle(point), 0.0);
+	}
+
+	@Test
+	public void testSetObstaclesKeepsContainedBoundary() {
+		Obstacle boundary = createObstacle(2, new VRectangle(6, 0, 4, 10));
+		topography.addBoundary(boundary);
+		topography.setObstacles(Arrays.asList(boundary, createObstacle(3, new VRectangle(0, 0, 1, 10))));
+		assertEquals(Collections.singletonList(boundary), topography.getBoundaryObstacles());
+
+		topography.removeBoundary();
+		assertEquals(4.0, topography.getDistanceToNearestObstacle(point), 0.0);
+	}
+
+	@Test
+	public void testInvalidateAfterShapeChange() {
+		Obstacle obstacle = topography.getObstacles().get(0);
+		obstacle.setShape(new VRectangle(0, 0, 4, 10));
+		int version = topography.getObstacleVersion();
+		topography.invalidateObstacleIndex();
+		assertNotEquals(version, topography.getObstacleVersion());
+		assertEquals(1.0, topography.getDistanceToNearestObstacle(point), 0.0);
+	}
+
+	private Obstacle createObstacle(final int id, final VRectangle shape) {
+		return new Obstacle(new AttributesObstacle(id, shape));
+	}
+}
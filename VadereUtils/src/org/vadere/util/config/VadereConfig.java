@@ -246,6 +246,7 @@ public class VadereConfig {
 		defaultConfig.put("History.lastUsedProject", "");
 		defaultConfig.put("History.recentProjects", "");
 		defaultConfig.put("Messages.language", Locale.ENGLISH.getLanguage());
+		defaultConfig.put("OnlineVis.maxFramesPerSecond", "40");
 		defaultConfig.put("Pedestrian.radius", "0.195");
 		defaultConfig.put("PostVis.SVGWidth", "1024");
 		defaultConfig.put("PostVis.SVGHeight", "768");
@@ -276,6 +277,8 @@ public class VadereConfig {
 		defaultConfig.put("TopographyCreator.dotRadius", "0.5");
 		defaultConfig.put("Vadere.cache.useGlobalCacheBaseDir", "false");
 		defaultConfig.put("Vadere.cache.globalCacheBaseDir", defaultSearchDirectory + "/.cache/vadere");
+		defaultConfig.put("Vadere.cache.sharedFloorFieldCapacity", "16");
+		defaultConfig.put("Vadere.floorField.maxConcurrentSolves", "4");
 
 		return defaultConfig;
 	}
@@ -0,0 +1,313 @@
+package org.vadere.util.data;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * A calendar queue (see R. Brown, Calendar Queues: A Fast O(1) Priority Queue Implementation for the Simulation
+ * Event Set Problem, 1988) i.e. a bucketed priority queue for events. An event e with priority p is contained in the
+ * bucket (floor(p / width) mod #buckets). Each bucket is a sorted, doubly linked list. The width of the buckets and
+ * the number of buckets are adapted to the number of events such that each bucket contains only a few events.
+ * Therefore, adding and polling events requires amortized O(1) time if the priorities of the events are distributed
+ * uniformly. Events with the same priority are ordered by the tie-break comparator. They are contained in the same
+ * bucket whatever its width is, therefore a new event is inserted by searching backwards from the end of its bucket,
+ * i.e. adding events with the same priority in the order of the tie-break requires O(1) time as well.
+ *
+ * The priority of an event is evaluated (and stored) once it is added to the queue, i.e. the priority of an event
+ * should not change while it is contained in the queue. Events can be removed by their handle (an entry)
+ * which requires O(1) time. Entries of polled events are kept and reused if the event is added again
+ * until the event is removed via {@link #remove(Object)}. This avoids allocations if the same events are polled
+ * and added over and over again as it is the case for event driven simulations.
+ *
+ * @param <E> the type of the events
+ */
+public class CalendarQueue<E> implements IEventQueue<E> {
+
+	private static final int MIN_NUMBER_OF_BUCKETS = 16;
+
+	private static class Entry<E> {
+		private final E element;
+		private double priority;
+		private long day;
+		private int bucket;
+		private boolean queued;
+		private Entry<E> prev;
+		private Entry<E> next;
+
+		private Entry(@NotNull final E element) {
+			this.element = element;
+		}
+	}
+
+	private final ToDoubleFunction<? super E> priorityFunction;
+	private final Comparator<? super E> tieBreak;
+	private final Map<E, Entry<E>> entries;
+
+	private Entry<E>[] buckets;
+	private Entry<E>[] tails;
+	private double width;
+	private int size;
+
+	/**
+	 * the day (i.e. floor(p / width)) of the last polled or peeked event. There is no event in the queue with a smaller day.
+	 */
+	private long currentDay;
+
+	public CalendarQueue(@NotNull final ToDoubleFunction<? super E> priorityFunction, @NotNull final Comparator<? super E> tieBreak) {
+		this.priorityFunction = priorityFunction;
+		this.tieBreak = tieBreak;
+		this.entries = new HashMap<>();
+		this.width = 1.0;
+		this.size = 0;
+		this.currentDay = Long.MAX_VALUE;
+		this.buckets = newBuckets(MIN_NUMBER_OF_BUCKETS);
+		this.tails = newBuckets(MIN_NUMBER_OF_BUCKETS);
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	@Override
+	public boolean contains(@NotNull final E element) {
+		Entry<E> entry = entries.get(element);
+		return entry != null && entry.queued;
+	}
+
+	/**
+	 * Adds the element to the queue if it is not already contained. The priority of the element is evaluated once.
+	 *
+	 * @param element the element
+	 * @return true if the element was added, false if it is already contained in the queue
+	 */
+	@Override
+	public boolean add(@NotNull final E element) {
+		Entry<E> entry = entries.get(element);
+		if(entry == null) {
+			entry = new Entry<>(element);
+			entries.put(element, entry);
+		} else if(entry.queued) {
+			return false;
+		}
+		entry.priority = priorityFunction.applyAsDouble(element);
+		insert(entry);
+		size++;
+
+		if(size > 2 * buckets.length) {
+			resize(2 * buckets.length);
+		}
+		return true;
+	}
+
+	/**
+	 * Returns the element with the smallest priority without removing it.
+	 *
+	 * @return the element with the smallest priority or <tt>null</tt> if the queue is empty
+	 */
+	@Override
+	public @Nullable E peek() {
+		Entry<E> entry = first();
+		return entry == null ? null : entry.element;
+	}
+
+	/**
+	 * Removes and returns the element with the smallest priority.
+	 *
+	 * @return the element with the smallest priority or <tt>null</tt> if the queue is empty
+	 */
+	@Override
+	public @Nullable E poll() {
+		Entry<E> entry = first();
+		if(entry == null) {
+			return null;
+		}
+		unlink(entry);
+		size--;
+
+		if(size < buckets.length / 2 && buckets.length > MIN_NUMBER_OF_BUCKETS) {
+			resize(buckets.length / 2);
+		}
+		return entry.element;
+	}
+
+	/**
+	 * Removes the element from the queue and forgets its entry.
+	 *
+	 * @param element the element
+	 * @return true if the element was contained in the queue, false otherwise
+	 */
+	@Override
+	public boolean remove(@NotNull final E element) {
+		Entry<E> entry = entries.remove(element);
+		if(entry != null && entry.queued) {
+			unlink(entry);
+			size--;
+			return true;
+		}
+		return false;
+	}
+
+	@Override
+	public void clear() {
+		entries.clear();
+		buckets = newBuckets(MIN_NUMBER_OF_BUCKETS);
+		tails = newBuckets(MIN_NUMBER_OF_BUCKETS);
+		size = 0;
+		currentDay = Long.MAX_VALUE;
+	}
+
+	private int compare(@NotNull final Entry<E> e1, @NotNull final Entry<E> e2) {
+		int priorityCompare = Double.compare(e1.priority, e2.priority);
+		if(priorityCompare != 0) {
+			return priorityCompare;
+		}
+		return tieBreak.compare(e1.element, e2.element);
+	}
+
+	private long dayOf(final double priority) {
+		return (long) Math.floor(priority / width);
+	}
+
+	private void insert(@NotNull final Entry<E> entry) {
+		entry.day = dayOf(entry.priority);
+		entry.bucket = (int) Math.floorMod(entry.day, (long) buckets.length);
+		entry.queued = true;
+
+		// an event might be earlier than the last polled event
+		if(entry.day < currentDay) {
+			currentDay = entry.day;
+		}
+
+		// search backwards since events are mostly added in the order of their priorities and their tie-breaks
+		Entry<E> prev = tails[entry.bucket];
+		while (prev != null && compare(prev, entry) > 0) {
+			prev = prev.prev;
+		}
+
+		entry.prev = prev;
+		if(prev == null) {
+			entry.next = buckets[entry.bucket];
+			buckets[entry.bucket] = entry;
+		} else {
+			entry.next = prev.next;
+			prev.next = entry;
+		}
+
+		if(entry.next == null) {
+			tails[entry.bucket] = entry;
+		} else {
+			entry.next.prev = entry;
+		}
+	}
+
+	private void unlink(@NotNull final Entry<E> entry) {
+		if(entry.prev == null) {
+			buckets[entry.bucket] = entry.next;
+		} else {
+			entry.prev.next = entry.next;
+		}
+
+		if(entry.next == null) {
+			tails[entry.bucket] = entry.prev;
+		} else {
+			entry.next.prev = entry.prev;
+		}
+		entry.prev = null;
+		entry.next = null;
+		entry.queued = false;
+	}
+
+	/**
+	 * Searches for the entry with the smallest priority starting at the current day. If there is no
+	 * event within one year (i.e. #buckets days) the heads of all buckets are compared.
+	 *
+	 * @return the entry with the smallest priority or <tt>null</tt> if the queue is empty
+	 */
+	private @Nullable Entry<E> first() {
+		if(size == 0) {
+			return null;
+		}
+
+		for(int i = 0; i < buckets.length; i++) {
+			long day = currentDay + i;
+			Entry<E> head = buckets[(int) Math.floorMod(day, (long) buckets.length)];
+			if(head != null && head.day <= day) {
+				currentDay = head.day;
+				return head;
+			}
+		}
+
+		// direct search
+		Entry<E> min = null;
+		for(Entry<E> head : buckets) {
+			if(head != null && (min == null || compare(head, min) < 0)) {
+				min = head;
+			}
+		}
+		assert min != null;
+		currentDay = min.day;
+		return min;
+	}
+
+	/**
+	 * Rebuilds the queue using a new number of buckets and a new bucket width such that on average
+	 * a few different priorities are contained in each bucket. Events with the same priority are contained
+	 * in the same bucket anyway, therefore only different priorities are counted. If all events have the same
+	 * priority, the width of the last estimate is kept for the events which will be added.
+	 *
+	 * @param numberOfBuckets the new number of buckets
+	 */
+	private void resize(final int numberOfBuckets) {
+		Entry<E>[] oldBuckets = buckets;
+		double minPriority = Double.POSITIVE_INFINITY;
+		double maxPriority = Double.NEGATIVE_INFINITY;
+		int numberOfPriorities = 0;
+		for(Entry<E> head : oldBuckets) {
+			for(Entry<E> entry = head; entry != null; entry = entry.next) {
+				minPriority = Math.min(minPriority, entry.priority);
+				maxPriority = Math.max(maxPriority, entry.priority);
+				// the entries of a bucket are sorted, i.e. equal priorities are neighbours
+				if(entry.prev == null || entry.prev.priority != entry.priority) {
+					numberOfPriorities++;
+				}
+			}
+		}
+
+		if(numberOfPriorities > 1) {
+			double newWidth = 3.0 * (maxPriority - minPriority) / numberOfPriorities;
+			if(newWidth > 0 && Double.isFinite(newWidth)) {
+				width = newWidth;
+			}
+		}
+
+		buckets = newBuckets(numberOfBuckets);
+		tails = newBuckets(numberOfBuckets);
+		currentDay = Long.MAX_VALUE;
+		for(Entry<E> head : oldBuckets) {
+			Entry<E> entry = head;
+			while (entry != null) {
+				Entry<E> next = entry.next;
+				insert(entry);
+				entry = next;
+			}
+		}
+	}
+
+	private static <E> Entry<E>[] newBuckets(final int numberOfBuckets) {
+		// generic arrays can not be created, the array only ever contains entries of type E
+		@SuppressWarnings("unchecked")
+		Entry<E>[] buckets = (Entry<E>[]) new Entry<?>[numberOfBuckets];
+		return buckets;
+	}
+}
@@ -0,0 +1,76 @@
+package org.vadere.util.data;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * An {@link IEventQueue} backed by a binary heap ({@link PriorityQueue}). Adding and polling events requires
+ * O(log n) time but removing an arbitrary event requires O(n) time. The priority of an event is evaluated
+ * whenever it is compared, see {@link CalendarQueue} for a queue which requires amortized O(1) time.
+ *
+ * @param <E> the type of the events
+ */
+public class HeapEventQueue<E> implements IEventQueue<E> {
+
+	private final PriorityQueue<E> priorityQueue;
+	private final Set<E> queued;
+
+	public HeapEventQueue(@NotNull final ToDoubleFunction<? super E> priorityFunction, @NotNull final Comparator<? super E> tieBreak) {
+		this.priorityQueue = new PriorityQueue<>(100, Comparator.<E>comparingDouble(priorityFunction).thenComparing(tieBreak));
+		this.queued = new HashSet<>();
+	}
+
+	@Override
+	public int size() {
+		return priorityQueue.size();
+	}
+
+	@Override
+	public boolean contains(@NotNull final E element) {
+		return queued.contains(element);
+	}
+
+	@Override
+	public boolean add(@NotNull final E element) {
+		if(queued.add(element)) {
+			priorityQueue.add(element);
+			return true;
+		}
+		return false;
+	}
+
+	@Override
+	public @Nullable E peek() {
+		return priorityQueue.peek();
+	}
+
+	@Override
+	public @Nullable E poll() {
+		E element = priorityQueue.poll();
+		if(element != null) {
+			queued.remove(element);
+		}
+		return element;
+	}
+
+	@Override
+	public boolean remove(@NotNull final E element) {
+		if(queued.remove(element)) {
+			priorityQueue.remove(element);
+			return true;
+		}
+		return false;
+	}
+
+	@Override
+	public void clear() {
+		priorityQueue.clear();
+		queued.clear();
+	}
+}
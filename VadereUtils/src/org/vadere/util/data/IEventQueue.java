@@ -0,0 +1,61 @@
+package org.vadere.util.data;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A priority queue of events used by event driven simulations. Events are polled in the order of their
+ * priority (e.g. the time of the event) and events with the same priority are polled in the order of a
+ * tie-break, i.e. the order of polled events is deterministic. An event is contained at most once in the queue
+ * and its priority should not change while it is contained in the queue.
+ *
+ * @param <E> the type of the events
+ */
+public interface IEventQueue<E> {
+
+	int size();
+
+	default boolean isEmpty() {
+		return size() == 0;
+	}
+
+	boolean contains(@NotNull E element);
+
+	/**
+	 * Adds the element to the queue if it is not already contained.
+	 *
+	 * @param element the element
+	 * @return true if the element was added, false if it is already contained in the queue
+	 */
+	boolean add(@NotNull E element);
+
+	default void addAll(@NotNull final Iterable<? extends E> elements) {
+		for(E element : elements) {
+			add(element);
+		}
+	}
+
+	/**
+	 * Returns the element with the smallest priority without removing it.
+	 *
+	 * @return the element with the smallest priority or <tt>null</tt> if the queue is empty
+	 */
+	@Nullable E peek();
+
+	/**
+	 * Removes and returns the element with the smallest priority.
+	 *
+	 * @return the element with the smallest priority or <tt>null</tt> if the queue is empty
+	 */
+	@Nullable E poll();
+
+	/**
+	 * Removes the element from the queue.
+	 *
+	 * @param element the element
+	 * @return true if the element was contained in the queue, false otherwise
+	 */
+	boolean remove(@NotNull E element);
+
+	void clear();
+}
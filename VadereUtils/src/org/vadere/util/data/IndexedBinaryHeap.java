@@ -0,0 +1,193 @@
+package org.vadere.util.data;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * A binary min-heap of int elements (e.g. indices of grid cells) in [0, capacity) with double keys. The heap
+ * stores the position of each element, therefore changing the key of an element or removing an
+ * arbitrary element requires O(log n) instead of O(n) operations of {@link java.util.PriorityQueue}
+ * and no operation allocates any memory. Elements with equal keys are ordered by their value, i.e. the
+ * order of the elements is total and does not depend on the order of insertion.
+ */
+public class IndexedBinaryHeap {
+
+	private static final int MIN_CAPACITY = 16;
+
+	/** the elements in heap order */
+	private int[] heap;
+	/** the keys in heap order */
+	private double[] keys;
+	/** the position of each element in the heap or -1 if it is not contained */
+	private final int[] positions;
+	private int size;
+
+	/**
+	 * Creates an empty heap.
+	 *
+	 * @param capacity the number of possible elements, i.e. elements have to be in [0, capacity)
+	 */
+	public IndexedBinaryHeap(final int capacity) {
+		this.positions = new int[capacity];
+		Arrays.fill(positions, -1);
+		this.heap = new int[Math.min(capacity, MIN_CAPACITY)];
+		this.keys = new double[heap.length];
+		this.size = 0;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	public boolean contains(final int element) {
+		return positions[element] >= 0;
+	}
+
+	/**
+	 * Returns the key of the element.
+	 *
+	 * @param element the element which has to be contained in the heap
+	 * @return the key of the element
+	 */
+	public double getKey(final int element) {
+		return keys[positions[element]];
+	}
+
+	/**
+	 * Adds the element or changes its key if it is already contained in the heap.
+	 *
+	 * @param element   the element
+	 * @param key       the (new) key of the element
+	 */
+	public void add(final int element, final double key) {
+		int position = positions[element];
+		if(position >= 0) {
+			double oldKey = keys[position];
+			keys[position] = key;
+			if(key < oldKey) {
+				siftUp(position);
+			} else {
+				siftDown(position);
+			}
+		} else {
+			if(size == heap.length) {
+				int capacity = Math.min(Math.max(MIN_CAPACITY, 2 * heap.length), positions.length);
+				heap = Arrays.copyOf(heap, capacity);
+				keys = Arrays.copyOf(keys, capacity);
+			}
+			heap[size] = element;
+			keys[size] = key;
+			positions[element] = size;
+			size++;
+			siftUp(size - 1);
+		}
+	}
+
+	/**
+	 * Returns the element with the smallest key without removing it.
+	 *
+	 * @return the element with the smallest key
+	 */
+	public int peek() {
+		if(size == 0) {
+			throw new NoSuchElementException();
+		}
+		return heap[0];
+	}
+
+	/**
+	 * Removes and returns the element with the smallest key.
+	 *
+	 * @return the element with the smallest key
+	 */
+	public int poll() {
+		int element = peek();
+		removeAt(0);
+		return element;
+	}
+
+	/**
+	 * Removes the element if it is contained in the heap.
+	 *
+	 * @param element the element
+	 * @return true if the element was contained in the heap, false otherwise
+	 */
+	public boolean remove(final int element) {
+		int position = positions[element];
+		if(position < 0) {
+			return false;
+		}
+		removeAt(position);
+		return true;
+	}
+
+	public void clear() {
+		for(int i = 0; i < size; i++) {
+			positions[heap[i]] = -1;
+		}
+		size = 0;
+	}
+
+	private void removeAt(final int position) {
+		positions[heap[position]] = -1;
+		size--;
+		if(position < size) {
+			heap[position] = heap[size];
+			keys[position] = keys[size];
+			positions[heap[position]] = position;
+			siftDown(position);
+			siftUp(position);
+		}
+	}
+
+	private void siftUp(int position) {
+		int element = heap[position];
+		double key = keys[position];
+		while (position > 0) {
+			int parent = (position - 1) >>> 1;
+			if(!less(key, element, keys[parent], heap[parent])) {
+				break;
+			}
+			move(parent, position);
+			position = parent;
+		}
+		heap[position] = element;
+		keys[position] = key;
+		positions[element] = position;
+	}
+
+	private void siftDown(int position) {
+		int element = heap[position];
+		double key = keys[position];
+		int half = size >>> 1;
+		while (position < half) {
+			int child = 2 * position + 1;
+			int right = child + 1;
+			if(right < size && less(keys[right], heap[right], keys[child], heap[child])) {
+				child = right;
+			}
+			if(!less(keys[child], heap[child], key, element)) {
+				break;
+			}
+			move(child, position);
+			position = child;
+		}
+		heap[position] = element;
+		keys[position] = key;
+		positions[element] = position;
+	}
+
+	private void move(final int from, final int to) {
+		heap[to] = heap[from];
+		keys[to] = keys[from];
+		positions[heap[to]] = to;
+	}
+
+	private static boolean less(final double key1, final int element1, final double key2, final int element2) {
+		return key1 < key2 || (key1 == key2 && element1 < element2);
+	}
+}
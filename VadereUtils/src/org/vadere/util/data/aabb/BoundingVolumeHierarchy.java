@@ -0,0 +1,393 @@
+package org.vadere.util.data.aabb;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.vadere.util.geometry.shapes.IPoint;
+
+import java.awt.geom.Rectangle2D;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.IntConsumer;
+import java.util.function.Predicate;
+import java.util.function.ToDoubleBiFunction;
+
+/**
+ * A static bounding volume hierarchy (a binary tree of axis aligned bounding boxes) over a fixed collection of
+ * elements, e.g. obstacles. The tree is built once by recursively splitting the elements at the median of the
+ * centers of their bounding boxes along the longer side. Nodes are stored in primitive arrays.
+ *
+ * The index supports the queries which are required to replace loops over all elements:
+ * <ul>
+ *     <li>the minimal distance between a point and all elements ({@link #distance(IPoint, ToDoubleBiFunction)}),</li>
+ *     <li>the element closest to a point within a maximal distance ({@link #nearest(IPoint, double, ToDoubleBiFunction)}),</li>
+ *     <li>all elements closer than a distance ({@link #withinDistance(IPoint, double, ToDoubleBiFunction, Consumer)}),</li>
+ *     <li>the elements whose bounding boxes intersect a rectangle ({@link #anyMatch(Rectangle2D, Predicate)}).</li>
+ * </ul>
+ * The distance of a point to an element has to be at least the distance of the point to the bounding box of the
+ * element if the point lies outside of the bounding box, which is true for any Euclidean distance. Since
+ * the tree is only used to skip elements, the results are exactly the same as the results of a loop over all elements.
+ *
+ * The hierarchy is immutable and can be queried by multiple threads concurrently.
+ *
+ * @param <D> the type of the elements
+ */
+public class BoundingVolumeHierarchy<D> {
+
+	private static final int MAX_ELEMENTS_PER_LEAF = 4;
+
+	private final Object[] elements;
+	private final double[] elementMinX;
+	private final double[] elementMinY;
+	private final double[] elementMaxX;
+	private final double[] elementMaxY;
+
+	// the index of the i-th element in the original collection
+	private final int[] originalIndex;
+
+	// node i covers the elements start[i], ..., end[i]-1, a leaf has left[i] == -1
+	private double[] minX;
+	private double[] minY;
+	private double[] maxX;
+	private double[] maxY;
+	private int[] left;
+	private int[] right;
+	private int[] start;
+	private int[] end;
+	private int numberOfNodes;
+	private int depth;
+
+	/**
+	 * @param elements  the elements
+	 * @param bounds    a function which returns the bounding box of an element
+	 */
+	public BoundingVolumeHierarchy(@NotNull final Collection<? extends D> elements, @NotNull final Function<? super D, Rectangle2D> bounds) {
+		int n = elements.size();
+		this.elements = elements.toArray();
+		this.elementMinX = new double[n];
+		this.elementMinY = new double[n];
+		this.elementMaxX = new double[n];
+		this.elementMaxY = new double[n];
+
+		int[] order = new int[n];
+		for(int i = 0; i < n; i++) {
+			@SuppressWarnings("unchecked")
+			Rectangle2D rectangle = bounds.apply((D) this.elements[i]);
+			elementMinX[i] = rectangle.getMinX();
+			elementMinY[i] = rectangle.getMinY();
+			elementMaxX[i] = rectangle.getMaxX();
+			elementMaxY[i] = rectangle.getMaxY();
+			order[i] = i;
+		}
+
+		int capacity = Math.max(1, 2 * n);
+		minX = new double[capacity];
+		minY = new double[capacity];
+		maxX = new double[capacity];
+		maxY = new double[capacity];
+		left = new int[capacity];
+		right = new int[capacity];
+		start = new int[capacity];
+		end = new int[capacity];
+		numberOfNodes = 0;
+		depth = 0;
+
+		if(n > 0) {
+			build(order, 0, n, 1);
+		}
+
+		// store the elements and their bounds in the order of the leaves
+		originalIndex = order;
+		Object[] sortedElements = new Object[n];
+		double[][] sortedBounds = new double[4][n];
+		for(int i = 0; i < n; i++) {
+			sortedElements[i] = this.elements[order[i]];
+			sortedBounds[0][i] = elementMinX[order[i]];
+			sortedBounds[1][i] = elementMinY[order[i]];
+			sortedBounds[2][i] = elementMaxX[order[i]];
+			sortedBounds[3][i] = elementMaxY[order[i]];
+		}
+		System.arraycopy(sortedElements, 0, this.elements, 0, n);
+		System.arraycopy(sortedBounds[0], 0, elementMinX, 0, n);
+		System.arraycopy(sortedBounds[1], 0, elementMinY, 0, n);
+		System.arraycopy(sortedBounds[2], 0, elementMaxX, 0, n);
+		System.arraycopy(sortedBounds[3], 0, elementMaxY, 0, n);
+	}
+
+	public int size() {
+		return elements.length;
+	}
+
+	/**
+	 * Returns the minimal distance between the point and all elements or {@link Double#MAX_VALUE} if there is no element.
+	 *
+	 * @param point     the point
+	 * @param distance  the distance function of an element and a point
+	 * @return the minimal distance between the point and all elements
+	 */
+	public double distance(@NotNull final IPoint point, @NotNull final ToDoubleBiFunction<? super D, IPoint> distance) {
+		double[] minDistance = { Double.MAX_VALUE };
+		search(point, Double.MAX_VALUE, distance, minDistance);
+		return minDistance[0];
+	}
+
+	/**
+	 * Returns the element which is closest to the point if its distance is smaller than <tt>maxDistance</tt>.
+	 * If there are multiple closest elements the first one (in the order of the collection) is returned.
+	 *
+	 * @param point         the point
+	 * @param maxDistance   the maximal (exclusive) distance
+	 * @param distance      the distance function of an element and a point
+	 * @return the closest element or <tt>null</tt> if there is no element closer than <tt>maxDistance</tt>
+	 */
+	@SuppressWarnings("unchecked")
+	public @Nullable D nearest(@NotNull final IPoint point, final double maxDistance, @NotNull final ToDoubleBiFunction<? super D, IPoint> distance) {
+		double[] minDistance = { maxDistance };
+		Object element = search(point, maxDistance, distance, minDistance);
+		return (D) element;
+	}
+
+	/**
+	 * Passes all elements whose distance to the point is smaller than <tt>maxDistance</tt> to the consumer.
+	 *
+	 * @param point         the point
+	 * @param maxDistance   the maximal (exclusive) distance
+	 * @param distance      the distance function of an element and a point
+	 * @param consumer      the consumer of the elements
+	 */
+	@SuppressWarnings("unchecked")
+	public void withinDistance(@NotNull final IPoint point, final double maxDistance, @NotNull final ToDoubleBiFunction<? super D, IPoint> distance, @NotNull final Consumer<? super D> consumer) {
+		visitWithinDistance(point, maxDistance, distance, i -> consumer.accept((D) elements[i]));
+	}
+
+	/**
+	 * Returns a list of all elements whose distance to the point is smaller than <tt>maxDistance</tt>
+	 * in the order of the collection.
+	 *
+	 * @param point         the point
+	 * @param maxDistance   the maximal (exclusive) distance
+	 * @param distance      the distance function of an element and a point
+	 * @return a list of all elements whose distance to the point is smaller than <tt>maxDistance</tt>
+	 */
+	@SuppressWarnings("unchecked")
+	public List<D> withinDistance(@NotNull final IPoint point, final double maxDistance, @NotNull final ToDoubleBiFunction<? super D, IPoint> distance) {
+		List<Integer> indices = new ArrayList<>();
+		visitWithinDistance(point, maxDistance, distance, indices::add);
+		indices.sort(Comparator.comparingInt(i -> originalIndex[i]));
+
+		List<D> result = new ArrayList<>(indices.size());
+		for(int i : indices) {
+			result.add((D) elements[i]);
+		}
+		return result;
+	}
+
+	@SuppressWarnings("unchecked")
+	private void visitWithinDistance(@NotNull final IPoint point, final double maxDistance, @NotNull final ToDoubleBiFunction<? super D, IPoint> distance, @NotNull final IntConsumer consumer) {
+		if(numberOfNodes == 0) {
+			return;
+		}
+
+		int[] stack = new int[2 * depth + 2];
+		int top = 0;
+		stack[top++] = 0;
+		while (top > 0) {
+			int node = stack[--top];
+			if(mightBeCloser(boxDistance(point, minX[node], minY[node], maxX[node], maxY[node]), maxDistance)) {
+				if(left[node] < 0) {
+					for(int i = start[node]; i < end[node]; i++) {
+						if(mightBeCloser(boxDistance(point, elementMinX[i], elementMinY[i], elementMaxX[i], elementMaxY[i]), maxDistance)
+								&& distance.applyAsDouble((D) elements[i], point) < maxDistance) {
+							consumer.accept(i);
+						}
+					}
+				} else {
+					stack[top++] = right[node];
+					stack[top++] = left[node];
+				}
+			}
+		}
+	}
+
+	/**
+	 * Tests if there is an element whose bounding box intersects (or touches) the rectangle and which fulfils the predicate.
+	 *
+	 * @param rectangle the rectangle
+	 * @param predicate the (exact) test of an element
+	 * @return true if there is such an element, false otherwise
+	 */
+	@SuppressWarnings("unchecked")
+	public boolean anyMatch(@NotNull final Rectangle2D rectangle, @NotNull final Predicate<? super D> predicate) {
+		if(numberOfNodes == 0) {
+			return false;
+		}
+
+		double rMinX = rectangle.getMinX();
+		double rMinY = rectangle.getMinY();
+		double rMaxX = rectangle.getMaxX();
+		double rMaxY = rectangle.getMaxY();
+
+		int[] stack = new int[2 * depth + 2];
+		int top = 0;
+		stack[top++] = 0;
+		while (top > 0) {
+			int node = stack[--top];
+			if(overlaps(rMinX, rMinY, rMaxX, rMaxY, minX[node], minY[node], maxX[node], maxY[node])) {
+				if(left[node] < 0) {
+					for(int i = start[node]; i < end[node]; i++) {
+						if(overlaps(rMinX, rMinY, rMaxX, rMaxY, elementMinX[i], elementMinY[i], elementMaxX[i], elementMaxY[i])
+								&& predicate.test((D) elements[i])) {
+							return true;
+						}
+					}
+				} else {
+					stack[top++] = right[node];
+					stack[top++] = left[node];
+				}
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Branch and bound search for the closest element. Subtrees whose bounding box is further away than the current
+	 * minimum are skipped. Note that the distance might be negative if the point lies inside an element, therefore
+	 * subtrees containing the point are never skipped.
+	 */
+	@SuppressWarnings("unchecked")
+	private Object search(@NotNull final IPoint point, final double maxDistance, @NotNull final ToDoubleBiFunction<? super D, IPoint> distance, final double[] minDistance) {
+		if(numberOfNodes == 0) {
+			return null;
+		}
+
+		Object closest = null;
+		int closestIndex = Integer.MAX_VALUE;
+		int[] stack = new int[2 * depth + 2];
+		int top = 0;
+		stack[top++] = 0;
+		while (top > 0) {
+			int node = stack[--top];
+			double nodeDistance = boxDistance(point, minX[node], minY[node], maxX[node], maxY[node]);
+			if(nodeDistance > 0 && nodeDistance > minDistance[0]) {
+				continue;
+			}
+
+			if(left[node] < 0) {
+				for(int i = start[node]; i < end[node]; i++) {
+					double elementDistance = boxDistance(point, elementMinX[i], elementMinY[i], elementMaxX[i], elementMaxY[i]);
+					if(elementDistance > 0 && elementDistance > minDistance[0]) {
+						continue;
+					}
+
+					// ties are resolved by the order of the collection
+					double d = distance.applyAsDouble((D) elements[i], point);
+					if(d < minDistance[0] || (d == minDistance[0] && closest != null && originalIndex[i] < closestIndex)) {
+						minDistance[0] = d;
+						closest = elements[i];
+						closestIndex = originalIndex[i];
+					}
+				}
+			} else {
+				// visit the closer child first
+				double leftDistance = boxDistance(point, minX[left[node]], minY[left[node]], maxX[left[node]], maxY[left[node]]);
+				double rightDistance = boxDistance(point, minX[right[node]], minY[right[node]], maxX[right[node]], maxY[right[node]]);
+				if(leftDistance <= rightDistance) {
+					stack[top++] = right[node];
+					stack[top++] = left[node];
+				} else {
+					stack[top++] = left[node];
+					stack[top++] = right[node];
+				}
+			}
+		}
+		return closest;
+	}
+
+	private int build(final int[] order, final int from, final int to, final int level) {
+		int node = numberOfNodes++;
+		depth = Math.max(depth, level);
+
+		double nMinX = Double.POSITIVE_INFINITY;
+		double nMinY = Double.POSITIVE_INFINITY;
+		double nMaxX = Double.NEGATIVE_INFINITY;
+		double nMaxY = Double.NEGATIVE_INFINITY;
+		for(int i = from; i < to; i++) {
+			nMinX = Math.min(nMinX, elementMinX[order[i]]);
+			nMinY = Math.min(nMinY, elementMinY[order[i]]);
+			nMaxX = Math.max(nMaxX, elementMaxX[order[i]]);
+			nMaxY = Math.max(nMaxY, elementMaxY[order[i]]);
+		}
+		minX[node] = nMinX;
+		minY[node] = nMinY;
+		maxX[node] = nMaxX;
+		maxY[node] = nMaxY;
+		start[node] = from;
+		end[node] = to;
+
+		if(to - from <= MAX_ELEMENTS_PER_LEAF) {
+			left[node] = -1;
+			right[node] = -1;
+		} else {
+			boolean splitX = nMaxX - nMinX >= nMaxY - nMinY;
+			int mid = (from + to) >>> 1;
+			select(order, from, to - 1, mid, splitX);
+			left[node] = build(order, from, mid, level + 1);
+			right[node] = build(order, mid, to, level + 1);
+		}
+		return node;
+	}
+
+	private double center(final int element, final boolean x) {
+		return x ? elementMinX[element] + elementMaxX[element] : elementMinY[element] + elementMaxY[element];
+	}
+
+	/**
+	 * Partially sorts order[from..to] (inclusive) by the centers of the elements such that order[k] is the median.
+	 */
+	private void select(final int[] order, int from, int to, final int k, final boolean x) {
+		while (to > from) {
+			double pivot = center(order[(from + to) >>> 1], x);
+			int i = from;
+			int j = to;
+			while (i <= j) {
+				while (center(order[i], x) < pivot) i++;
+				while (center(order[j], x) > pivot) j--;
+				if(i <= j) {
+					int tmp = order[i];
+					order[i] = order[j];
+					order[j] = tmp;
+					i++;
+					j--;
+				}
+			}
+			if(k <= j) {
+				to = j;
+			} else if(k >= i) {
+				from = i;
+			} else {
+				break;
+			}
+		}
+	}
+
+	private static double boxDistance(@NotNull final IPoint point, final double minX, final double minY, final double maxX, final double maxY) {
+		double dx = Math.max(0, Math.max(minX - point.getX(), point.getX() - maxX));
+		double dy = Math.max(0, Math.max(minY - point.getY(), point.getY() - maxY));
+		return Math.sqrt(dx * dx + dy * dy);
+	}
+
+	/**
+	 * Returns false if all elements in a bounding box with a (positive) distance to a point are further away than the maximal distance.
+	 */
+	private static boolean mightBeCloser(final double boxDistance, final double maxDistance) {
+		return boxDistance <= 0 || boxDistance < maxDistance;
+	}
+
+	private static boolean overlaps(final double minX1, final double minY1, final double maxX1, final double maxY1,
+	                                final double minX2, final double minY2, final double maxX2, final double maxY2) {
+		return minX1 <= maxX2 && minX2 <= maxX1 && minY1 <= maxY2 && minY2 <= maxY1;
+	}
+}
@@ -69,6 +69,22 @@ public class CellGrid {
 		reset(value);
 	}
 
+	/**
+	 * Creates an grid with the given width, height and resolution without allocating any values.
+	 * Subclasses using a different storage of the values have to use this constructor.
+	 */
+	protected CellGrid(double width, double height, double resolution, double xMin, double yMin) {
+		this.width = width;
+		this.height = height;
+		this.resolution = resolution;
+		this.xMin = xMin;
+		this.yMin = yMin;
+
+		/* 0.001 avoids that numPointsX/Y are too small due to numerical errors. */
+		numPointsX = (int) Math.floor(width / resolution + 0.001) + 1;
+		numPointsY = (int) Math.floor(height / resolution + 0.001) + 1;
+	}
+
 	/**
 	 * Creates an grid with the given width, height and resolution. All grid
 	 * point values are initialized with 'value'.
@@ -92,7 +108,7 @@ public class CellGrid {
 
 		for (int row = 0; row < numPointsY; row++) {
 			for (int col = 0; col < numPointsX; col++) {
-				values[col][row] = grid.values[col][row].clone();
+				values[col][row] = grid.getValue(col, row).clone();
 			}
 		}
 	}
@@ -139,9 +155,8 @@ public class CellGrid {
 	 */
 	public void loadFromTable(Table table){
 		for (Row r : table){
-			values[r.getInt("x")][r.getInt("y")].potential = r.getDouble("value");
-			values[r.getInt("x")][r.getInt("y")].tag =
-					PathFindingTag.valueOf(r.getString("tag"));
+			setPotential(r.getInt("x"), r.getInt("y"), r.getDouble("value"));
+			setTag(r.getInt("x"), r.getInt("y"), PathFindingTag.valueOf(r.getString("tag")));
 		}
 	}
 
@@ -161,8 +176,8 @@ public class CellGrid {
 			for (int col = 0; col < numPointsX; col++) {
 				colX.set(tblRow, col);
 				colY.set(tblRow, row);
-				colVal.set(tblRow, values[col][row].potential);
-				colTag.set(tblRow, values[col][row].tag.name());
+				colVal.set(tblRow, getPotential(col, row));
+				colTag.set(tblRow, getTag(col, row).name());
 				tblRow++;
 			}
 		}
@@ -212,7 +227,8 @@ public class CellGrid {
 	}
 
 	/**
-	 * Returns the value of the grid point specified by matrix element indices.
+	 * Returns the value of the grid point specified by matrix element indices. Changes of the returned object
+	 * change the grid, except for a {@link PrimitiveCellGrid} which returns a copy.
 	 */
 	public CellState getValue(int pointX, int pointY) {
 		return values[pointX][pointY];
@@ -226,6 +242,36 @@ public class CellGrid {
 		return getValue(p.x, p.y);
 	}
 
+	/**
+	 * Returns the potential of the grid point specified by matrix element indices.
+	 * In contrast to {@link #getValue(int, int)} this method does not require a {@link CellState} object.
+	 */
+	public double getPotential(int pointX, int pointY) {
+		return values[pointX][pointY].potential;
+	}
+
+	/**
+	 * Sets the potential of the grid point specified by matrix element indices.
+	 */
+	public void setPotential(int pointX, int pointY, double potential) {
+		values[pointX][pointY].potential = potential;
+	}
+
+	/**
+	 * Returns the tag of the grid point specified by matrix element indices.
+	 * In contrast to {@link #getValue(int, int)} this method does not require a {@link CellState} object.
+	 */
+	public PathFindingTag getTag(int pointX, int pointY) {
+		return values[pointX][pointY].tag;
+	}
+
+	/**
+	 * Sets the tag of the grid point specified by matrix element indices.
+	 */
+	public void setTag(int pointX, int pointY, PathFindingTag tag) {
+		values[pointX][pointY].tag = tag;
+	}
+
 	/**
 	 * Sets the value of the grid point specified by matrix element indices.
 	 */
@@ -371,10 +417,10 @@ public class CellGrid {
 
 			VPoint gridPointCoord = pointToCoord(gridPoint);
 
-			double z1 = getValue(gridPoint).potential;
-			double z2 = getValue(gridPoint.x + incX, gridPoint.y).potential;
-			double z3 = getValue(gridPoint.x + incX, gridPoint.y + incY).potential;
-			double z4 = getValue(gridPoint.x, gridPoint.y + incY).potential;
+			double z1 = getPotential(gridPoint.x, gridPoint.y);
+			double z2 = getPotential(gridPoint.x + incX, gridPoint.y);
+			double z3 = getPotential(gridPoint.x + incX, gridPoint.y + incY);
+			double z4 = getPotential(gridPoint.x, gridPoint.y + incY);
 
 			double t = (pos.getX() - gridPointCoord.x) / getResolution();
 			double u = (pos.getY() - gridPointCoord.y) / getResolution();
@@ -398,10 +444,10 @@ public class CellGrid {
 		}
 
 
-		gridPotentials[0] = getValue(gridPoint).potential;
-		gridPotentials[1] = getValue(gridPoint.x + incX, gridPoint.y).potential;
-		gridPotentials[2] = getValue(gridPoint.x + incX, gridPoint.y + incY).potential;
-		gridPotentials[3] = getValue(gridPoint.x, gridPoint.y + incY).potential;
+		gridPotentials[0] = getPotential(gridPoint.x, gridPoint.y);
+		gridPotentials[1] = getPotential(gridPoint.x + incX, gridPoint.y);
+		gridPotentials[2] = getPotential(gridPoint.x + incX, gridPoint.y + incY);
+		gridPotentials[3] = getPotential(gridPoint.x, gridPoint.y + incY);
 
 
 		/* Interpolate the known (potential < Double.MAX_VALUE) values. */
@@ -416,4 +462,34 @@ public class CellGrid {
 	public Pair<Double, Double> getInterpolatedValueAt(@NotNull final IPoint pos) {
 		return getInterpolatedValueAt(pos.getX(), pos.getY());
 	}
+
+	/**
+	 * Returns the bilinear interpolated potential at (x, y) which is equal to
+	 * <tt>getInterpolatedValueAt(x, y).getLeft()</tt>. In contrast to {@link #getInterpolatedValueAt(double, double)}
+	 * this method does not allocate any object, therefore it should be used for frequent look ups.
+	 */
+	public double getInterpolatedPotentialAt(final double x, final double y) {
+		// same as getNearestPoint(x, y)
+		double clampedX = Math.min(Math.max(x, xMin), getWidth() + xMin);
+		double clampedY = Math.min(Math.max(y, yMin), getHeight() + yMin);
+		int pointX = (int) ((clampedX - xMin) / resolution + 0.5);
+		int pointY = (int) ((clampedY - yMin) / resolution + 0.5);
+		int incX = pointX + 1 >= getNumPointsX() ? 0 : 1;
+		int incY = pointY + 1 >= getNumPointsY() ? 0 : 1;
+
+		double dx = (x - (xMin + pointX * resolution)) / getResolution();
+		double dy = (y - (yMin + pointY * resolution)) / getResolution();
+
+		// same as InterpolationUtil.bilinearInterpolationWithUnkown
+		double result = 0;
+		result = addKnown(result, (1 - dx) * (1 - dy), getPotential(pointX, pointY));
+		result = addKnown(result, dx * (1 - dy), getPotential(pointX + incX, pointY));
+		result = addKnown(result, dx * dy, getPotential(pointX + incX, pointY + incY));
+		result = addKnown(result, (1 - dx) * dy, getPotential(pointX, pointY + incY));
+		return result;
+	}
+
+	private static double addKnown(final double sum, final double weight, final double potential) {
+		return potential != Double.MAX_VALUE ? sum + weight * potential : sum;
+	}
 }
@@ -4,6 +4,7 @@ import java.awt.Point;
 import java.awt.geom.Rectangle2D;
 import java.util.Collection;
 import java.util.LinkedList;
+import java.util.function.Predicate;
 
 import org.vadere.util.geometry.shapes.Vector2D;
 import org.vadere.util.geometry.shapes.VPoint;
@@ -34,6 +35,15 @@ public class FloorDiscretizer {
 	 */
 	public static void setGridValuesForShape(CellGrid floorGrid,
 			VShape elementShape, CellState value) {
+		setGridValuesForShape(floorGrid, elementShape, value, tag -> true);
+	}
+
+	/**
+	 * Sets the value of the grid points covered by the footprint of the given
+	 * scenario element to 'value' if the current tag of the grid point may be overwritten.
+	 */
+	public static void setGridValuesForShape(CellGrid floorGrid,
+			VShape elementShape, CellState value, Predicate<PathFindingTag> overwrite) {
 		// Axis aligned bounds of the given body.
 		Rectangle2D bodyBounds = elementShape.getBounds2D();
 
@@ -55,7 +65,8 @@ public class FloorDiscretizer {
 			for (int y = pointLeftLower.y - 1; y <= pointRightUpper.y + 1; ++y) {
 				// Convert the grid point to the bodies coordinate system and
 				// verify if lies within the bodies shape.
-				if (elementShape.contains(floorGrid.pointToCoord(x, y)) && floorGrid.isValidPoint(new Point(x, y))) {
+				if (elementShape.contains(floorGrid.pointToCoord(x, y)) && floorGrid.isValidPoint(new Point(x, y))
+						&& overwrite.test(floorGrid.getTag(x, y))) {
 					floorGrid.setValue(x, y, value.clone());
 				}
 			}
@@ -0,0 +1,180 @@
+package org.vadere.util.data.cellgrid;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * A {@link CellGrid} which stores its values as structure of arrays, i.e. the potentials in a
+ * <tt>double[]</tt> and the tags in a <tt>byte[]</tt>, instead of one {@link CellState} object
+ * (containing a boxed potential) per grid point. This reduces the memory footprint of large grids
+ * by an order of magnitude and avoids allocations while solving.
+ *
+ * Since there are no {@link CellState} objects, {@link #getValue(int, int)} and {@link #getRawBuffer()} return
+ * copies of the values of the grid points, i.e. changing the returned objects does not change the grid. Therefore,
+ * only algorithms which change the grid via {@link #setValue(int, int, CellState)},
+ * {@link #setPotential(int, int, double)} and {@link #setTag(int, int, PathFindingTag)} can work
+ * on this grid. Grid based eikonal solvers which change the returned objects reject this grid in their
+ * constructors, only the fast marching solvers accept it.
+ *
+ * The values of a grid can be shared read-only with other grids, see {@link #share()} and
+ * {@link #shareValuesOf(PrimitiveCellGrid)}, e.g. by the runs of a parameter sweep which use the same floor field.
+ * A grid whose values are shared must not be changed until {@link #makeWritable()} copied them, i.e. the owner
+ * of the grid (e.g. a solver) calls it once before it changes the grid instead of checking every change.
+ */
+public class PrimitiveCellGrid extends CellGrid {
+
+	private static final PathFindingTag[] tagValues = PathFindingTag.values();
+
+	/** potentials in column major order, i.e. the potential of (x, y) is at x * numPointsY + y */
+	private double[] potentials;
+	/** ordinals of the tags in column major order */
+	private byte[] tags;
+	/** true if the arrays are shared with other grids, i.e. they have to be copied before they are changed */
+	private boolean shared;
+
+	/**
+	 * Creates an grid with the given width, height and resolution. All grid
+	 * point values are initialized with 'value'.
+	 */
+	public PrimitiveCellGrid(double width, double height, double resolution,
+	                         CellState value, double xMin, double yMin) {
+		super(width, height, resolution, xMin, yMin);
+		this.potentials = new double[numPointsX * numPointsY];
+		this.tags = new byte[numPointsX * numPointsY];
+		reset(value);
+	}
+
+	/**
+	 * Creates a deep copy of the given grid.
+	 */
+	public PrimitiveCellGrid(PrimitiveCellGrid grid) {
+		super(grid.width, grid.height, grid.resolution, grid.xMin, grid.yMin);
+		this.potentials = grid.potentials.clone();
+		this.tags = grid.tags.clone();
+	}
+
+	private PrimitiveCellGrid(PrimitiveCellGrid grid, double[] potentials, byte[] tags) {
+		super(grid.width, grid.height, grid.resolution, grid.xMin, grid.yMin);
+		this.potentials = potentials;
+		this.tags = tags;
+		this.shared = true;
+	}
+
+	/**
+	 * Returns a grid which shares the values of this grid without copying them. Both grids have to copy the
+	 * values by {@link #makeWritable()} before they are changed.
+	 */
+	public PrimitiveCellGrid share() {
+		shared = true;
+		return new PrimitiveCellGrid(this, potentials, tags);
+	}
+
+	/**
+	 * Replaces the values of this grid by the values of the equally sized grid without copying them. This grid
+	 * has to copy the values by {@link #makeWritable()} before it is changed. The other grid must not be changed
+	 * afterwards, which holds if it was created by {@link #share()}.
+	 */
+	public void shareValuesOf(PrimitiveCellGrid grid) {
+		if(grid.numPointsX != numPointsX || grid.numPointsY != numPointsY) {
+			throw new IllegalArgumentException("the size of the grids does not match.");
+		}
+		potentials = grid.potentials;
+		tags = grid.tags;
+		shared = true;
+	}
+
+	/**
+	 * Copies the values of this grid if they are shared with other grids, otherwise does nothing. This has to be
+	 * called before the grid is changed.
+	 */
+	public void makeWritable() {
+		if(shared) {
+			potentials = potentials.clone();
+			tags = tags.clone();
+			shared = false;
+		}
+	}
+
+	/**
+	 * Returns a copy of the value of the grid point, changing the returned object does not change the grid.
+	 */
+	@Override
+	public CellState getValue(int pointX, int pointY) {
+		int index = pointX * numPointsY + pointY;
+		return new CellState(potentials[index], tagValues[tags[index]]);
+	}
+
+	@Override
+	public void setValue(int pointX, int pointY, CellState value) {
+		assert !shared : "the values of the grid are shared, call makeWritable() before changing them.";
+		int index = pointX * numPointsY + pointY;
+		potentials[index] = value.potential;
+		tags[index] = (byte) value.tag.ordinal();
+	}
+
+	@Override
+	public double getPotential(int pointX, int pointY) {
+		return potentials[pointX * numPointsY + pointY];
+	}
+
+	@Override
+	public void setPotential(int pointX, int pointY, double potential) {
+		assert !shared : "the values of the grid are shared, call makeWritable() before changing them.";
+		potentials[pointX * numPointsY + pointY] = potential;
+	}
+
+	@Override
+	public PathFindingTag getTag(int pointX, int pointY) {
+		return tagValues[tags[pointX * numPointsY + pointY]];
+	}
+
+	@Override
+	public void setTag(int pointX, int pointY, PathFindingTag tag) {
+		assert !shared : "the values of the grid are shared, call makeWritable() before changing them.";
+		tags[pointX * numPointsY + pointY] = (byte) tag.ordinal();
+	}
+
+	/**
+	 * Returns copies of the values of all grid points in the order of {@link CellGrid#getRawBuffer()}, see
+	 * {@link #getValue(int, int)}. Changing the returned objects does not change the grid.
+	 */
+	@Override
+	public Iterable<CellState> getRawBuffer() {
+		return () -> new Iterator<CellState>() {
+			private int row = 0;
+			private int col = 0;
+
+			@Override
+			public CellState next() {
+				if (!hasNext()) {
+					throw new NoSuchElementException();
+				}
+				CellState result = getValue(col, row);
+				col++;
+				if (col >= numPointsX) {
+					col = 0;
+					row++;
+				}
+				return result;
+			}
+
+			@Override
+			public boolean hasNext() {
+				return col < numPointsX && row < numPointsY;
+			}
+		};
+	}
+
+	@Override
+	public void reset(CellState value) {
+		assert !shared : "the values of the grid are shared, call makeWritable() before changing them.";
+		Arrays.fill(potentials, value.potential);
+		Arrays.fill(tags, (byte) value.tag.ordinal());
+	}
+
+	@Override
+	public PrimitiveCellGrid clone() {
+		return new PrimitiveCellGrid(this);
+	}
+}
@@ -1,7 +1,9 @@
 package org.vadere.util.geometry;
 
-import java.lang.reflect.Array;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
 
 import org.jetbrains.annotations.NotNull;
 import org.vadere.util.geometry.shapes.VPoint;
@@ -11,6 +13,12 @@ import org.vadere.util.geometry.shapes.VRectangle;
  * A grid augmenting the position of generic objects, for faster access. O(1)
  * instead of O(n) for one fixed radius check. See
  * {@link LinkedCellsGrid#getObjects(VPoint, double)}.
+ *
+ * The grid is optimized for many concurrent reads: each cell is an immutable array of objects
+ * stored in an int-indexed array of cells (index = x * gridHeight + y). Writers replace the array of
+ * a cell by a modified copy (copy-on-write) via compare-and-set, therefore reads never block and
+ * always see a consistent state of each cell. Use {@link #forEachObject(VPoint, double, Consumer)}
+ * for neighbour queries without allocations.
  * 
  * 
  */
@@ -19,60 +27,14 @@ public class LinkedCellsGrid<T extends PointPositioned> implements Iterable<T> {
 	final private double top;
 	final private double width;
 	final private double height;
-	private GridCell<T>[][] grid;
+	private final AtomicReferenceArray<Object[]> cells;
 	private int[] gridSize = new int[2];
 	private double[] cellSize = new double[2];
 
 	private double sideLength;
-	private int size;
+	private final AtomicInteger size;
 
-	/**
-	 * One cell in the grid. It triangleContains a mapping from points to lists of
-	 * objects. This means that one can store multiple objects in one cell.
-	 * 
-	 * 
-	 * @param <E>
-	 *        type of objects stored in this cell.
-	 */
-	private class GridCell<E extends PointPositioned> {
-		public List<E> objects = new ArrayList<>();
-
-		@Override
-		public int hashCode() {
-			final int prime = 31;
-			int result = 1;
-			result = prime * result + getOuterType().hashCode();
-			result = prime * result
-					+ ((objects == null) ? 0 : objects.hashCode());
-			return result;
-		}
-
-		@Override
-		public boolean equals(Object obj) {
-			if (this == obj) {
-				return true;
-			}
-			if (obj == null) {
-				return false;
-			}
-			if (!(obj instanceof GridCell)) {
-				return false;
-			}
-			GridCell other = (GridCell) obj;
-			if (objects == null) {
-				if (other.objects != null) {
-					return false;
-				}
-			} else if (!objects.equals(other.objects)) {
-				return false;
-			}
-			return true;
-		}
-
-		private LinkedCellsGrid getOuterType() {
-			return LinkedCellsGrid.this;
-		}
-	}
+	private static final Object[] EMPTY_CELL = new Object[0];
 
 	private class ContainerisedElement {
 		final private int[] cell;
@@ -101,29 +63,6 @@ public class LinkedCellsGrid<T extends PointPositioned> implements Iterable<T> {
 		}
 	}
 
-	/**
-	 * Generates an empty grid of GridCell&lt;T&gt; objects.
-	 * 
-	 * @param s
-	 *        grid side length
-	 * @return A two-dimensional grid of size "s^2" containing GridCell&lt;T&gt;
-	 *         objects.
-	 */
-	@SuppressWarnings("unchecked")
-	private GridCell<T>[][] generateGrid(int... s) {
-		// Use Array native method to create array of a type only known at run
-		// time
-		this.grid = (GridCell<T>[][]) Array.newInstance(GridCell.class, s);
-		for (int r = 0; r < grid.length; r++) {
-			// TODO [priority=medium] [task=test] changed this [20.08.2014] here 1 to r - pls check this
-			for (int c = 0; c < grid[r].length; c++) {
-				grid[r][c] = new GridCell<>();
-			}
-		}
-
-		return this.grid;
-	}
-
 	public int getGridWidth() {
 		return gridSize[0];
 	}
@@ -158,7 +97,7 @@ public class LinkedCellsGrid<T extends PointPositioned> implements Iterable<T> {
 		this.top = top;
 		this.width = width;
 		this.height = height;
-		this.size = 0;
+		this.size = new AtomicInteger(0);
 		this.sideLength = sideLength;
 
 
@@ -175,7 +114,8 @@ public class LinkedCellsGrid<T extends PointPositioned> implements Iterable<T> {
 		this.cellSize[0] = this.width / gridSize[0];
 		this.cellSize[1] = this.height / gridSize[1];
 
-		this.grid = generateGrid(this.gridSize[0], this.gridSize[1]);
+		this.cells = new AtomicReferenceArray<>(gridSize[0] * gridSize[1]);
+		clear();
 	}
 
 	/**
@@ -188,17 +128,24 @@ public class LinkedCellsGrid<T extends PointPositioned> implements Iterable<T> {
 	 *         coordinates.
 	 */
 	public int[] gridPos(VPoint pos) {
-		// compute position in the grid
-		int iX = (int) Math.max(
-				0,
-				Math.min(this.gridSize[0] - 1,
-						Math.floor((pos.x - left) / width * this.gridSize[0])));
-		int iY = (int) Math.max(
-				0,
-				Math.min(this.gridSize[1] - 1,
-						Math.floor((pos.y - top) / height * this.gridSize[1])));
+		return new int[] {gridX(pos.x), gridY(pos.y)};
+	}
 
-		return new int[] {iX, iY};
+	private int gridX(final double x) {
+		return (int) Math.max(0, Math.min(this.gridSize[0] - 1, Math.floor((x - left) / width * this.gridSize[0])));
+	}
+
+	private int gridY(final double y) {
+		return (int) Math.max(0, Math.min(this.gridSize[1] - 1, Math.floor((y - top) / height * this.gridSize[1])));
+	}
+
+	private int cellIndex(final VPoint pos) {
+		return gridX(pos.x) * gridSize[1] + gridY(pos.y);
+	}
+
+	@SuppressWarnings("unchecked")
+	private List<T> cellObjects(final int x, final int y) {
+		return (List<T>) (List<?>) Collections.unmodifiableList(Arrays.asList(cells.get(x * gridSize[1] + y)));
 	}
 
 	public VRectangle getGridCellAsRectangle(int iX, int iY) {
@@ -215,20 +162,22 @@ public class LinkedCellsGrid<T extends PointPositioned> implements Iterable<T> {
 
 	public int[][] getCellObjectCount(){
 		int[][] count = new int[this.gridSize[0]][this.gridSize[1]];
-		for (int r = 0; r < grid.length; r++) {
-			for (int c = 0; c < grid[r].length; c++) {
-				count[r][c] = grid[r][c].objects.size();
+		for (int r = 0; r < gridSize[0]; r++) {
+			for (int c = 0; c < gridSize[1]; c++) {
+				count[r][c] = cells.get(r * gridSize[1] + c).length;
 			}
 		}
 		return count;
 	}
 
+	/**
+	 * Returns the objects of each cell, the lists are snapshots of the cells.
+	 */
 	public Map<int[], List<T>> getElementsByCell() {
 		Map<int[], List<T>> elementsByCell = new HashMap<>();
-		for (int r = 0; r < grid.length; r++) {
-			for (int c = 0; c < grid[r].length; c++) {
-				List<T> cellElements = grid[r][c].objects;
-				elementsByCell.put(new int[]{r, c}, cellElements);
+		for (int r = 0; r < gridSize[0]; r++) {
+			for (int c = 0; c < gridSize[1]; c++) {
+				elementsByCell.put(new int[]{r, c}, cellObjects(r, c));
 			}
 		}
 		return elementsByCell;
@@ -240,15 +189,59 @@ public class LinkedCellsGrid<T extends PointPositioned> implements Iterable<T> {
 	 * 
 	 * @param object object to add
 	 */
-	public synchronized void addObject(final T object) {
-		int[] gridPos = gridPos(object.getPosition());
-		grid[gridPos[0]][gridPos[1]].objects.add(object);
-		size++;
+	public void addObject(final T object) {
+		int index = cellIndex(object.getPosition());
+		Object[] cell;
+		Object[] newCell;
+		do {
+			cell = cells.get(index);
+			newCell = Arrays.copyOf(cell, cell.length + 1);
+			newCell[cell.length] = object;
+		} while (!cells.compareAndSet(index, cell, newCell));
+		size.incrementAndGet();
 	}
 
+	/**
+	 * Moves the object which is already at its new position from its old position. If both positions
+	 * are in the same cell, the cell is changed only once. The object becomes the last one of its cell,
+	 * i.e. the order of the objects is the same as after removing and adding the object. Since a cell only
+	 * contains the few objects of a small area, copying it is cheap; if the object is the last one of its
+	 * cell already (e.g. if it is the only one), the cell is not copied at all.
+	 *
+	 * @param object        the object at its new position
+	 * @param oldPosition   the old position of the object
+	 *
+	 * @throws IllegalArgumentException if the object is not in the cell of its old position
+	 */
 	public void moveObject(final T object, final VPoint oldPosition) {
-		removeObject(object, oldPosition);
-		addObject(object);
+		int oldIndex = cellIndex(oldPosition);
+		if (oldIndex != cellIndex(object.getPosition())) {
+			if (!removeObject(object, oldIndex)) {
+				throw notInCell(object, oldPosition);
+			}
+			addObject(object);
+			return;
+		}
+
+		Object[] cell;
+		Object[] newCell;
+		do {
+			cell = cells.get(oldIndex);
+			int index = indexOf(cell, object);
+			if (index < 0) {
+				throw notInCell(object, oldPosition);
+			}
+			if (index == cell.length - 1) {
+				return;
+			}
+			newCell = remove(cell, object);
+			newCell = Arrays.copyOf(newCell, newCell.length + 1);
+			newCell[newCell.length - 1] = object;
+		} while (!cells.compareAndSet(oldIndex, cell, newCell));
+	}
+
+	private IllegalArgumentException notInCell(final T object, final VPoint oldPosition) {
+		return new IllegalArgumentException("the object " + object + " is not in the cell of its old position " + oldPosition + ".");
 	}
 
 	/**
@@ -260,66 +253,127 @@ public class LinkedCellsGrid<T extends PointPositioned> implements Iterable<T> {
 	 *        radius of the ball
 	 * @return set of objects, or an empty set if no objects are present.
 	 */
-	public synchronized List<T> getObjects(final VPoint pos, final double radius) {
-		final List<T> result = new LinkedList<T>();
-
-		int[] gridPos = gridPos(pos);
-		int[] discreteRad = new int[2];
-		discreteRad[0] = (int) Math.ceil(radius / cellSize[0]);
-		discreteRad[1] = (int) Math.ceil(radius / cellSize[1]);
-
-		final int maxRow = Math.min(gridSize[0] - 1, gridPos[0] + discreteRad[0]);
-		final int maxCol = Math.min(gridSize[1] - 1, gridPos[1] + discreteRad[1]);
-
-		for (int row = Math.max(0, gridPos[0] - discreteRad[0]); row <= maxRow; row++) {
-			for (int col = Math.max(0, gridPos[1] - discreteRad[1]); col <= maxCol; col++) {
+	public List<T> getObjects(final VPoint pos, final double radius) {
+		final List<T> result = new ArrayList<>();
+		forEachObject(pos, radius, result::add);
+		return result;
+	}
 
-				for (T object : grid[row][col].objects) {
+	/**
+	 * Calls the consumer for each object in the ball around pos with given radius in the same
+	 * order as {@link #getObjects(VPoint, double)} returns them. The query does not allocate memory
+	 * (except for the consumer) and does not block.
+	 *
+	 * @param pos       position of the center of the ball
+	 * @param radius    radius of the ball
+	 * @param consumer  the consumer called for each object
+	 */
+	@SuppressWarnings("unchecked")
+	public void forEachObject(@NotNull final VPoint pos, final double radius, @NotNull final Consumer<? super T> consumer) {
+		final int gridX = gridX(pos.x);
+		final int gridY = gridY(pos.y);
+		final int discreteRadX = (int) Math.ceil(radius / cellSize[0]);
+		final int discreteRadY = (int) Math.ceil(radius / cellSize[1]);
+
+		final int maxRow = Math.min(gridSize[0] - 1, gridX + discreteRadX);
+		final int maxCol = Math.min(gridSize[1] - 1, gridY + discreteRadY);
+
+		for (int row = Math.max(0, gridX - discreteRadX); row <= maxRow; row++) {
+			for (int col = Math.max(0, gridY - discreteRadY); col <= maxCol; col++) {
+				for (Object object : cells.get(row * gridSize[1] + col)) {
 					// if the given position is closer than the radius, add all objects stored there
-					if (object.getPosition().distance(pos) < radius) {
-						result.add(object);
+					if (((T) object).getPosition().distance(pos) < radius) {
+						consumer.accept((T) object);
 					}
 				}
 			}
 		}
-		return result;
 	}
 
 	/**
-	 * Removes the objects equal to the given object from the grid regardless of
-	 * their position. Note that this function has complexity O(N), with N =
-	 * number of objects in the grid.
+	 * Removes the objects equal to the given object from the grid. The cell of the object is
+	 * determined by its current position.
 	 * 
 	 * @param object
 	 */
-	public synchronized void removeObject(T object) {
-		int[] gridPos = gridPos(object.getPosition());
-		if(grid[gridPos[0]][gridPos[1]].objects.removeIf(element -> element.equals(object))){
-			size--;
+	public void removeObject(T object) {
+		removeObject(object, object.getPosition());
+	}
+
+	public void removeObject(T object, final VPoint oldPosition) {
+		removeObject(object, cellIndex(oldPosition));
+	}
+
+	/**
+	 * Removes the objects equal to the given object from the cell and returns true if there was such an object.
+	 */
+	private boolean removeObject(final T object, final int index) {
+		Object[] cell;
+		Object[] newCell;
+		do {
+			cell = cells.get(index);
+			newCell = remove(cell, object);
+			if (newCell == cell) {
+				return false;
+			}
+		} while (!cells.compareAndSet(index, cell, newCell));
+		size.decrementAndGet();
+		return true;
+	}
+
+	/**
+	 * Returns the index of the first object equal to the given object in the cell or -1 if there is none.
+	 */
+	private static int indexOf(@NotNull final Object[] cell, @NotNull final Object object) {
+		for (int i = 0; i < cell.length; i++) {
+			if (cell[i].equals(object)) {
+				return i;
+			}
 		}
+		return -1;
 	}
 
-	public synchronized void removeObject(T object, final VPoint oldPosition) {
-		int[] gridPos = gridPos(oldPosition);
-		if(grid[gridPos[0]][gridPos[1]].objects.removeIf(element -> element.equals(object))){
-			size--;
+	/**
+	 * Returns a copy of the cell without the objects equal to the given object or the cell itself
+	 * if there is no such object.
+	 */
+	private static Object[] remove(@NotNull final Object[] cell, @NotNull final Object object) {
+		int count = 0;
+		for (Object element : cell) {
+			if (element.equals(object)) {
+				count++;
+			}
+		}
+
+		if (count == 0) {
+			return cell;
+		}
+
+		Object[] newCell = new Object[cell.length - count];
+		int i = 0;
+		for (Object element : cell) {
+			if (!element.equals(object)) {
+				newCell[i++] = element;
+			}
 		}
+		return newCell;
 	}
 
 	/**
 	 * Removes all objects.
 	 */
 	public void clear() {
-		grid = generateGrid(gridSize[0], gridSize[1]);
-		size = 0;
+		for (int i = 0; i < cells.length(); i++) {
+			cells.set(i, EMPTY_CELL);
+		}
+		size.set(0);
 	}
 
 	public List<T> getElements() {
 		List<T> elements = new ArrayList<>();
-		for (int r = 0; r < grid.length; r++) {
-			// TODO [priority=medium] [task=test] changed this [20.08.2014] here 1 to r - pls check this
-			for (int c = 0; c < grid[r].length; c++) {
-				elements.addAll(grid[r][c].objects);
+		for (int r = 0; r < gridSize[0]; r++) {
+			for (int c = 0; c < gridSize[1]; c++) {
+				elements.addAll(cellObjects(r, c));
 			}
 		}
 
@@ -340,7 +394,7 @@ public class LinkedCellsGrid<T extends PointPositioned> implements Iterable<T> {
 	 * @return the size (number of different keys &lt;T&gt;) of List
 	 */
 	public int size() {
-		return size;
+		return size.get();
 	}
 
 	/**
@@ -362,10 +416,9 @@ public class LinkedCellsGrid<T extends PointPositioned> implements Iterable<T> {
 
 	public List<ContainerisedElement> getElementContainer(final T element){
 		List<ContainerisedElement> elements  = new ArrayList<>();
-		for (int r = 0; r < grid.length; r++) {
-			// TODO [priority=medium] [task=test] changed this [20.08.2014] here 1 to r - pls check this
-			for (int c = 0; c < grid[r].length; c++) {
-				if (grid[r][c].objects.contains(element)){
+		for (int r = 0; r < gridSize[0]; r++) {
+			for (int c = 0; c < gridSize[1]; c++) {
+				if (cellObjects(r, c).contains(element)){
 					elements.add(new ContainerisedElement(new int[]{r, c}, element));
 				}
 			}
@@ -373,6 +426,14 @@ public class LinkedCellsGrid<T extends PointPositioned> implements Iterable<T> {
 		return elements;
 	}
 
+	private List<List<T>> getElementsByCellList() {
+		List<List<T>> elements = new ArrayList<>(cells.length());
+		for (int i = 0; i < cells.length(); i++) {
+			elements.add(cellObjects(i / gridSize[1], i % gridSize[1]));
+		}
+		return elements;
+	}
+
 	@Override
 	public int hashCode() {
 		final int prime = 31;
@@ -380,7 +441,7 @@ public class LinkedCellsGrid<T extends PointPositioned> implements Iterable<T> {
 		long temp;
 		temp = java.lang.Double.doubleToLongBits(cellSize[0]);
 		result = prime * result + (int) (temp ^ (temp >>> 32));
-		result = prime * result + Arrays.hashCode(grid);
+		result = prime * result + getElementsByCellList().hashCode();
 		result = prime * result + gridSize[1];
 		temp = java.lang.Double.doubleToLongBits(height);
 		result = prime * result + (int) (temp ^ (temp >>> 32));
@@ -409,7 +470,7 @@ public class LinkedCellsGrid<T extends PointPositioned> implements Iterable<T> {
 				.doubleToLongBits(other.cellSize[0])) {
 			return false;
 		}
-		if (!Arrays.deepEquals(grid, other.grid)) {
+		if (!getElementsByCellList().equals(other.getElementsByCellList())) {
 			return false;
 		}
 		if (!Arrays.equals(gridSize, other.gridSize)) {
@@ -0,0 +1,151 @@
+package org.vadere.util.data;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class CalendarQueueTest {
+
+	private static class Event {
+		private final int id;
+		private double time;
+
+		private Event(final int id, final double time) {
+			this.id = id;
+			this.time = time;
+		}
+	}
+
+	private static final Comparator<Event> comparator = Comparator.<Event>comparingDouble(e -> e.time).thenComparingInt(e -> e.id);
+
+	private CalendarQueue<Event> calendarQueue;
+	private PriorityQueue<Event> priorityQueue;
+	private Random random;
+
+	@Before
+	public void setUp() {
+		calendarQueue = new CalendarQueue<>(e -> e.time, Comparator.comparingInt(e -> e.id));
+		priorityQueue = new PriorityQueue<>(comparator);
+		random = new Random(0);
+	}
+
+	@Test
+	public void testEmptyQueue() {
+		assertTrue(calendarQueue.isEmpty());
+		assertNull(calendarQueue.peek());
+		assertNull(calendarQueue.poll());
+	}
+
+	@Test
+	public void testTiesAreOrderedById() {
+		for(int id = 9; id >= 0; id--) {
+			calendarQueue.add(new Event(id, 1.0));
+		}
+
+		for(int id = 0; id < 10; id++) {
+			assertEquals(id, calendarQueue.poll().id);
+		}
+		assertTrue(calendarQueue.isEmpty());
+	}
+
+	/**
+	 * Like in an event driven simulation, all events have the same priority at first and are rescheduled in the
+	 * order they are polled to the same time. Each event should be compared only a constant number of times.
+	 */
+	@Test
+	public void testEqualPrioritiesAreAddedInConstantTime() {
+		int numberOfEvents = 100000;
+		long[] comparisons = new long[1];
+		calendarQueue = new CalendarQueue<>(e -> e.time, (e1, e2) -> {
+			comparisons[0]++;
+			return Integer.compare(e1.id, e2.id);
+		});
+
+		for(int id = 0; id < numberOfEvents; id++) {
+			calendarQueue.add(new Event(id, -1.0));
+		}
+
+		for(int id = 0; id < numberOfEvents; id++) {
+			Event event = calendarQueue.poll();
+			assertEquals(id, event.id);
+			event.time = 0.4;
+			calendarQueue.add(event);
+		}
+
+		for(int id = 0; id < numberOfEvents; id++) {
+			assertEquals(id, calendarQueue.poll().id);
+		}
+		assertTrue(comparisons[0] < 10L * numberOfEvents);
+	}
+
+	@Test
+	public void testAddIsIgnoredIfContained() {
+		Event event = new Event(0, 1.0);
+		assertTrue(calendarQueue.add(event));
+		assertFalse(calendarQueue.add(event));
+		assertEquals(1, calendarQueue.size());
+
+		assertSame(event, calendarQueue.poll());
+		assertFalse(calendarQueue.contains(event));
+		assertTrue(calendarQueue.add(event));
+	}
+
+	/**
+	 * Simulates an event driven simulation, i.e. events are polled and rescheduled into the future, some events
+	 * are removed and new events are added. The calendar queue has to produce exactly the same sequence of
+	 * events as a {@link PriorityQueue}.
+	 */
+	@Test
+	public void testSameOrderAsPriorityQueue() {
+		List<Event> events = new ArrayList<>();
+		int nextId = 0;
+		for(; nextId < 1000; nextId++) {
+			// discrete times to produce many ties
+			Event event = new Event(nextId, Math.floor(random.nextDouble() * 100) / 10.0);
+			events.add(event);
+			calendarQueue.add(event);
+			priorityQueue.add(event);
+		}
+
+		for(int i = 0; i < 50000; i++) {
+			assertEquals(priorityQueue.size(), calendarQueue.size());
+			Event expected = priorityQueue.poll();
+			Event actual = calendarQueue.poll();
+			assertSame(expected, actual);
+
+			if(random.nextDouble() < 0.01) {
+				// remove an arbitrary event
+				Event removed = events.get(random.nextInt(events.size()));
+				assertEquals(priorityQueue.remove(removed), calendarQueue.remove(removed));
+			}
+
+			if(random.nextDouble() < 0.01) {
+				// add a new event, possibly earlier than the last polled event
+				Event event = new Event(nextId++, actual.time + random.nextDouble() - 0.5);
+				events.add(event);
+				calendarQueue.add(event);
+				priorityQueue.add(event);
+			}
+
+			actual.time += Math.floor(random.nextDouble() * 20) / 10.0;
+			calendarQueue.add(actual);
+			priorityQueue.add(actual);
+		}
+
+		while (!priorityQueue.isEmpty()) {
+			assertSame(priorityQueue.poll(), calendarQueue.poll());
+		}
+		assertTrue(calendarQueue.isEmpty());
+	}
+}
@@ -0,0 +1,111 @@
+package org.vadere.util.data;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class HeapEventQueueTest {
+
+	private static class Event {
+		private final int id;
+		private double time;
+
+		private Event(final int id, final double time) {
+			this.id = id;
+			this.time = time;
+		}
+	}
+
+	private HeapEventQueue<Event> heapEventQueue;
+	private Random random;
+
+	@Before
+	public void setUp() {
+		heapEventQueue = new HeapEventQueue<>(e -> e.time, Comparator.comparingInt(e -> e.id));
+		random = new Random(0);
+	}
+
+	@Test
+	public void testEmptyQueue() {
+		assertTrue(heapEventQueue.isEmpty());
+		assertNull(heapEventQueue.peek());
+		assertNull(heapEventQueue.poll());
+	}
+
+	@Test
+	public void testTiesAreOrderedById() {
+		for(int id = 9; id >= 0; id--) {
+			heapEventQueue.add(new Event(id, 1.0));
+		}
+
+		for(int id = 0; id < 10; id++) {
+			assertEquals(id, heapEventQueue.poll().id);
+		}
+		assertTrue(heapEventQueue.isEmpty());
+	}
+
+	@Test
+	public void testAddIsIgnoredIfContained() {
+		Event event = new Event(0, 1.0);
+		assertTrue(heapEventQueue.add(event));
+		assertFalse(heapEventQueue.add(event));
+		assertEquals(1, heapEventQueue.size());
+
+		assertTrue(heapEventQueue.remove(event));
+		assertFalse(heapEventQueue.remove(event));
+		assertFalse(heapEventQueue.contains(event));
+		assertTrue(heapEventQueue.add(event));
+		assertSame(event, heapEventQueue.poll());
+		assertFalse(heapEventQueue.contains(event));
+	}
+
+	/**
+	 * Both implementations of {@link IEventQueue} have to produce exactly the same sequence of events, i.e. the
+	 * event queue of an event driven simulation can be exchanged without changing its result.
+	 */
+	@Test
+	public void testSameOrderAsCalendarQueue() {
+		CalendarQueue<Event> calendarQueue = new CalendarQueue<>(e -> e.time, Comparator.comparingInt(e -> e.id));
+		List<Event> events = new ArrayList<>();
+		int nextId = 0;
+		for(; nextId < 1000; nextId++) {
+			// discrete times to produce many ties
+			Event event = new Event(nextId, Math.floor(random.nextDouble() * 100) / 10.0);
+			events.add(event);
+			calendarQueue.add(event);
+			heapEventQueue.add(event);
+		}
+
+		for(int i = 0; i < 50000; i++) {
+			assertEquals(calendarQueue.size(), heapEventQueue.size());
+			Event expected = calendarQueue.poll();
+			Event actual = heapEventQueue.poll();
+			assertSame(expected, actual);
+
+			if(random.nextDouble() < 0.01) {
+				// remove an arbitrary event
+				Event removed = events.get(random.nextInt(events.size()));
+				assertEquals(calendarQueue.remove(removed), heapEventQueue.remove(removed));
+			}
+
+			actual.time += Math.floor(random.nextDouble() * 20) / 10.0;
+			calendarQueue.add(actual);
+			heapEventQueue.add(actual);
+		}
+
+		while (!calendarQueue.isEmpty()) {
+			assertSame(calendarQueue.poll(), heapEventQueue.poll());
+		}
+		assertTrue(heapEventQueue.isEmpty());
+	}
+}
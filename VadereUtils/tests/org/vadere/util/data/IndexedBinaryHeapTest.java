@@ -0,0 +1,117 @@
+package org.vadere.util.data;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Comparator;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class IndexedBinaryHeapTest {
+
+	private static final int capacity = 1000;
+
+	private IndexedBinaryHeap heap;
+	private double[] keys;
+	private TreeSet<Integer> expected;
+	private Random random;
+
+	@Before
+	public void setUp() {
+		heap = new IndexedBinaryHeap(capacity);
+		keys = new double[capacity];
+		expected = new TreeSet<>(Comparator.<Integer>comparingDouble(e -> keys[e]).thenComparingInt(e -> e));
+		random = new Random(0);
+	}
+
+	@Test
+	public void testEmptyHeap() {
+		assertTrue(heap.isEmpty());
+		assertEquals(0, heap.size());
+		assertFalse(heap.contains(0));
+		assertFalse(heap.remove(0));
+	}
+
+	@Test(expected = NoSuchElementException.class)
+	public void testPollEmptyHeap() {
+		heap.poll();
+	}
+
+	@Test
+	public void testEqualKeysAreOrderedByElement() {
+		heap.add(7, 1.0);
+		heap.add(3, 1.0);
+		heap.add(5, 0.5);
+		heap.add(4, 1.0);
+
+		assertEquals(5, heap.poll());
+		assertEquals(3, heap.poll());
+		assertEquals(4, heap.poll());
+		assertEquals(7, heap.poll());
+		assertTrue(heap.isEmpty());
+	}
+
+	@Test
+	public void testDecreaseAndIncreaseKey() {
+		heap.add(0, 3.0);
+		heap.add(1, 2.0);
+		heap.add(2, 1.0);
+
+		heap.add(0, 0.5);
+		assertEquals(3, heap.size());
+		assertEquals(0.5, heap.getKey(0), 0.0);
+		assertEquals(0, heap.peek());
+
+		heap.add(0, 4.0);
+		assertEquals(2, heap.poll());
+		assertEquals(1, heap.poll());
+		assertEquals(0, heap.poll());
+	}
+
+	@Test
+	public void testClear() {
+		heap.add(1, 1.0);
+		heap.add(2, 2.0);
+		heap.clear();
+
+		assertTrue(heap.isEmpty());
+		assertFalse(heap.contains(1));
+		heap.add(2, 0.0);
+		assertEquals(2, heap.poll());
+	}
+
+	@Test
+	public void testRandomOperations() {
+		for (int i = 0; i < 20000; i++) {
+			int element = random.nextInt(capacity);
+			int operation = random.nextInt(4);
+
+			if (operation < 2) {
+				expected.remove(element);
+				// few different keys to test the order of equal keys
+				keys[element] = random.nextInt(50);
+				expected.add(element);
+				heap.add(element, keys[element]);
+			} else if (operation == 2) {
+				assertEquals(expected.remove(element), heap.remove(element));
+			} else if (!expected.isEmpty()) {
+				assertEquals(expected.pollFirst().intValue(), heap.poll());
+			}
+
+			assertEquals(expected.size(), heap.size());
+			assertEquals(expected.contains(element), heap.contains(element));
+		}
+
+		while (!expected.isEmpty()) {
+			int element = expected.pollFirst();
+			assertEquals(keys[element], heap.getKey(element), 0.0);
+			assertEquals(element, heap.poll());
+		}
+		assertTrue(heap.isEmpty());
+	}
+}
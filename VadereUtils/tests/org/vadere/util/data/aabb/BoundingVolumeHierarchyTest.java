@@ -0,0 +1,124 @@
+package org.vadere.util.data.aabb;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.vadere.util.geometry.GeometryUtils;
+import org.vadere.util.geometry.shapes.VCircle;
+import org.vadere.util.geometry.shapes.VPoint;
+import org.vadere.util.geometry.shapes.VRectangle;
+import org.vadere.util.geometry.shapes.VShape;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Compares the queries of the {@link BoundingVolumeHierarchy} with loops over all shapes.
+ */
+public class BoundingVolumeHierarchyTest {
+
+	private List<VShape> shapes;
+	private BoundingVolumeHierarchy<VShape> hierarchy;
+	private Random random;
+
+	@Before
+	public void setUp() {
+		random = new Random(42);
+		shapes = new ArrayList<>();
+		for(int i = 0; i < 200; i++) {
+			double x = random.nextDouble() * 100;
+			double y = random.nextDouble() * 100;
+			switch (i % 3) {
+				case 0: shapes.add(new VRectangle(x, y, 0.1 + random.nextDouble() * 5, 0.1 + random.nextDouble() * 5)); break;
+				case 1: shapes.add(new VCircle(new VPoint(x, y), 0.1 + random.nextDouble() * 3)); break;
+				default: shapes.add(GeometryUtils.polygonFromPoints2D(new VPoint(x, y), new VPoint(x + 4, y + 1), new VPoint(x + 1, y + 3)));
+			}
+		}
+		// a duplicate to test ties
+		shapes.add(new VRectangle(50, 50, 1, 1));
+		shapes.add(new VRectangle(50, 50, 1, 1));
+		hierarchy = new BoundingVolumeHierarchy<>(shapes, VShape::getBounds2D);
+	}
+
+	@Test
+	public void testDistance() {
+		for(int i = 0; i < 1000; i++) {
+			VPoint point = randomPoint();
+			double expected = shapes.stream().mapToDouble(shape -> shape.distance(point)).min().getAsDouble();
+			assertEquals(expected, hierarchy.distance(point, VShape::distance), 0.0);
+		}
+	}
+
+	@Test
+	public void testDistanceInside() {
+		for(VShape shape : shapes) {
+			VPoint point = shape.getCentroid();
+			double expected = shapes.stream().mapToDouble(s -> s.distance(point)).min().getAsDouble();
+			assertEquals(expected, hierarchy.distance(point, VShape::distance), 0.0);
+		}
+	}
+
+	@Test
+	public void testNearest() {
+		for(int i = 0; i < 1000; i++) {
+			VPoint point = randomPoint();
+			double maxDistance = random.nextDouble() * 5;
+			VShape expected = null;
+			double minDistance = Double.MAX_VALUE;
+			for(VShape shape : shapes) {
+				double distance = shape.distance(point);
+				if(distance < maxDistance && distance < minDistance) {
+					expected = shape;
+					minDistance = distance;
+				}
+			}
+			assertSame(expected, hierarchy.nearest(point, maxDistance, VShape::distance));
+		}
+	}
+
+	@Test
+	public void testNearestTie() {
+		VPoint point = new VPoint(50.5, 52);
+		assertSame(shapes.get(shapes.size() - 2), hierarchy.nearest(point, 2, VShape::distance));
+	}
+
+	@Test
+	public void testWithinDistance() {
+		for(int i = 0; i < 1000; i++) {
+			VPoint point = randomPoint();
+			double maxDistance = random.nextDouble() * 10;
+			List<VShape> expected = shapes.stream().filter(shape -> shape.distance(point) < maxDistance).collect(Collectors.toList());
+			assertEquals(expected, hierarchy.withinDistance(point, maxDistance, VShape::distance));
+		}
+	}
+
+	@Test
+	public void testAnyMatch() {
+		for(int i = 0; i < 200; i++) {
+			VShape circle = new VCircle(randomPoint(), random.nextDouble() * 3);
+			boolean expected = shapes.stream().anyMatch(shape -> shape.intersects(circle));
+			assertEquals(expected, hierarchy.anyMatch(circle.getBounds2D(), shape -> shape.intersects(circle)));
+		}
+	}
+
+	@Test
+	public void testEmpty() {
+		BoundingVolumeHierarchy<VShape> empty = new BoundingVolumeHierarchy<>(Collections.emptyList(), VShape::getBounds2D);
+		VPoint point = new VPoint(1, 1);
+		assertEquals(Double.MAX_VALUE, empty.distance(point, VShape::distance), 0.0);
+		assertNull(empty.nearest(point, 10, VShape::distance));
+		assertEquals(Collections.emptyList(), empty.withinDistance(point, 10, VShape::distance));
+		assertFalse(empty.anyMatch(new VRectangle(0, 0, 2, 2), shape -> true));
+	}
+
+	private VPoint randomPoint() {
+		return new VPoint(random.nextDouble() * 110 - 5, random.nextDouble() * 110 - 5);
+	}
+}
@@ -1,7 +1,9 @@
 package org.vadere.util.data.cellgrid;
 
 import org.junit.Assert;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
 import java.io.File;
 import java.net.URL;
@@ -11,6 +13,9 @@ import static org.junit.Assert.assertEquals;
 
 public class CellGridReadWriterTest {
 
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
 	private File loadTestResource(String path){
 		URL resource1 = CellGridTest.class.getResource(path);
 		if (resource1 == null){
@@ -71,4 +76,29 @@ public class CellGridReadWriterTest {
 		}
 	}
 
-}
\ No newline at end of file
+	@Test
+	public void testPrimitiveCellGrid() throws Exception {
+		File pathBIN = loadTestResource("/org/vadere/util/data/cellgrid/test001.bincache");
+		CellGrid cellGrid = new CellGrid(3.0, 3.0, 1.0, new CellState(), 0.0, 0.0);
+		CellGridReadWriter.read(cellGrid).fromBinary(pathBIN);
+
+		PrimitiveCellGrid primitiveCellGrid = new PrimitiveCellGrid(3.0, 3.0, 1.0, new CellState(), 0.0, 0.0);
+		CellGridReadWriter.read(primitiveCellGrid).fromBinary(pathBIN);
+
+		// write back
+		File pathCSV = folder.newFile("test001.ffcache");
+		CellGridReadWriter.write(primitiveCellGrid).toTextFile(pathCSV);
+
+		// read again
+		CellGrid cellGrid2 = new CellGrid(3.0, 3.0, 1.0, new CellState(), 0.0, 0.0);
+		CellGridReadWriter.read(cellGrid2).fromTextFile(pathCSV);
+
+		// compare
+		for (int row = 0; row < cellGrid.getNumPointsY(); row++) {
+			for (int col = 0; col < cellGrid.getNumPointsX(); col++) {
+				assertEquals(cellGrid.getValue(col, row), primitiveCellGrid.getValue(col, row));
+				assertEquals(cellGrid.getValue(col, row), cellGrid2.getValue(col, row));
+			}
+		}
+	}
+}
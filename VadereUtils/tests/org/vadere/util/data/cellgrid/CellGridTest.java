@@ -42,6 +42,25 @@ public class CellGridTest {
 		compare(t, cellGrid);
 	}
 
+	@Test
+	public void interpolatedPotentialEqualsInterpolatedValue(){
+		Random rnd = new Random(0);
+		CellGrid cellGrid = new CellGrid(3.0, 2.0, 0.5, new CellState(), 1.0, -1.0);
+		for (int row = 0; row < cellGrid.numPointsY; row++) {
+			for (int col = 0; col < cellGrid.numPointsX; col++) {
+				// some unknown values
+				cellGrid.setPotential(col, row, rnd.nextInt(5) == 0 ? Double.MAX_VALUE : rnd.nextDouble());
+			}
+		}
+
+		// includes points outside the grid
+		for (int i = 0; i < 1000; i++) {
+			double x = 0.5 + rnd.nextDouble() * 4.0;
+			double y = -1.5 + rnd.nextDouble() * 3.0;
+			assertThat(cellGrid.getInterpolatedPotentialAt(x, y), equalTo(cellGrid.getInterpolatedValueAt(x, y).getLeft()));
+		}
+	}
+
 	@Test
 	public void saveGridToCache(){
 		Random rnd = new Random(0);
@@ -0,0 +1,115 @@
+package org.vadere.util.data.cellgrid;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Iterator;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+
+public class PrimitiveCellGridTest {
+
+	private PrimitiveCellGrid cellGrid;
+
+	@Before
+	public void setUp() {
+		cellGrid = new PrimitiveCellGrid(4.0, 2.0, 0.5, new CellState(Double.MAX_VALUE, PathFindingTag.Undefined), 1.0, 2.0);
+	}
+
+	@Test
+	public void testDimensions() {
+		CellGrid reference = new CellGrid(4.0, 2.0, 0.5, new CellState(), 1.0, 2.0);
+		assertEquals(reference.getNumPointsX(), cellGrid.getNumPointsX());
+		assertEquals(reference.getNumPointsY(), cellGrid.getNumPointsY());
+		assertEquals(reference.pointToCoord(3, 2), cellGrid.pointToCoord(3, 2));
+	}
+
+	@Test
+	public void testSetAndGetValues() {
+		cellGrid.setValue(1, 2, new CellState(3.0, PathFindingTag.Target));
+		cellGrid.setPotential(2, 1, 4.0);
+		cellGrid.setTag(2, 1, PathFindingTag.Obstacle);
+
+		assertEquals(new CellState(3.0, PathFindingTag.Target), cellGrid.getValue(1, 2));
+		assertEquals(4.0, cellGrid.getPotential(2, 1), 0.0);
+		assertEquals(PathFindingTag.Obstacle, cellGrid.getTag(2, 1));
+		assertEquals(new CellState(Double.MAX_VALUE, PathFindingTag.Undefined), cellGrid.getValue(2, 2));
+	}
+
+	@Test
+	public void testGetValueReturnsCopy() {
+		cellGrid.getValue(0, 0).potential = 1.0;
+		assertEquals(Double.MAX_VALUE, cellGrid.getPotential(0, 0), 0.0);
+	}
+
+	@Test
+	public void testRawBufferReturnsCopiesInTheOrderOfCellGrid() {
+		CellGrid reference = new CellGrid(4.0, 2.0, 0.5, new CellState(), 1.0, 2.0);
+		for (int x = 0; x < cellGrid.getNumPointsX(); x++) {
+			for (int y = 0; y < cellGrid.getNumPointsY(); y++) {
+				cellGrid.setValue(x, y, new CellState(10.0 * x + y, PathFindingTag.Reachable));
+				reference.setValue(x, y, new CellState(10.0 * x + y, PathFindingTag.Reachable));
+			}
+		}
+
+		Iterator<CellState> expected = reference.getRawBuffer().iterator();
+		for (CellState value : cellGrid.getRawBuffer()) {
+			assertEquals(expected.next(), value);
+			value.potential = -1.0;
+		}
+		assertFalse(expected.hasNext());
+		assertEquals(12.0, cellGrid.getPotential(1, 2), 0.0);
+	}
+
+	@Test
+	public void testClone() {
+		cellGrid.setValue(1, 1, new CellState(1.0, PathFindingTag.Reached));
+		PrimitiveCellGrid clone = cellGrid.clone();
+		cellGrid.setPotential(1, 1, 2.0);
+
+		assertNotSame(cellGrid, clone);
+		assertEquals(new CellState(1.0, PathFindingTag.Reached), clone.getValue(1, 1));
+	}
+
+	@Test
+	public void testSharedValuesAreCopiedByMakeWritable() {
+		cellGrid.setValue(1, 1, new CellState(1.0, PathFindingTag.Reached));
+		PrimitiveCellGrid shared = cellGrid.share();
+		PrimitiveCellGrid other = new PrimitiveCellGrid(4.0, 2.0, 0.5, new CellState(), 1.0, 2.0);
+		other.shareValuesOf(shared);
+		assertEquals(new CellState(1.0, PathFindingTag.Reached), other.getValue(1, 1));
+
+		cellGrid.makeWritable();
+		cellGrid.setPotential(1, 1, 2.0);
+		other.makeWritable();
+		other.setTag(1, 1, PathFindingTag.Target);
+		assertEquals(new CellState(2.0, PathFindingTag.Reached), cellGrid.getValue(1, 1));
+		assertEquals(new CellState(1.0, PathFindingTag.Target), other.getValue(1, 1));
+		assertEquals(new CellState(1.0, PathFindingTag.Reached), shared.getValue(1, 1));
+
+		// the values are copied only once
+		other.makeWritable();
+		other.setPotential(1, 1, 3.0);
+		assertEquals(new CellState(3.0, PathFindingTag.Target), other.getValue(1, 1));
+		assertEquals(new CellState(1.0, PathFindingTag.Reached), shared.getValue(1, 1));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testShareValuesOfDifferentSize() {
+		cellGrid.shareValuesOf(new PrimitiveCellGrid(2.0, 2.0, 0.5, new CellState(), 1.0, 2.0));
+	}
+
+	@Test
+	public void testReset() {
+		cellGrid.setValue(1, 1, new CellState(1.0, PathFindingTag.Reached));
+		cellGrid.reset(new CellState(0.0, PathFindingTag.Target));
+
+		for (int x = 0; x < cellGrid.getNumPointsX(); x++) {
+			for (int y = 0; y < cellGrid.getNumPointsY(); y++) {
+				assertEquals(new CellState(0.0, PathFindingTag.Target), cellGrid.getValue(x, y));
+			}
+		}
+	}
+}
@@ -5,13 +5,19 @@ import org.junit.Test;
 import org.vadere.util.geometry.shapes.VPoint;
 import org.vadere.util.logging.Logger;
 
+import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 /**
  * Thorough test of the {@link LinkedCellsGrid}.
@@ -373,6 +379,132 @@ public class TestLinkedCellsGrid {
 				linkedCellsInteger.contains(coordinatedInteger4));
 	}
 
+	/**
+	 * Test method for
+	 * {@link org.vadere.util.geometry.LinkedCellsGrid#forEachObject(VPoint, double, java.util.function.Consumer)}.
+	 * The visitor has to visit the same objects in the same order as getObjects returns them.
+	 */
+	@Test
+	public void testForEachObject() {
+		fillGrid(linkedCellsInteger, 400);
+
+		for (VPoint pos : new VPoint[]{pos1, pos2, pos3}) {
+			List<CoordinatedInteger> visited = new ArrayList<>();
+			linkedCellsInteger.forEachObject(pos, 12.5, visited::add);
+			assertEquals("forEachObject did not visit the objects of getObjects.",
+					linkedCellsInteger.getObjects(pos, 12.5), visited);
+		}
+	}
+
+	/**
+	 * Test method for
+	 * {@link org.vadere.util.geometry.LinkedCellsGrid#moveObject(PointPositioned, VPoint)}
+	 * within a cell and between cells.
+	 */
+	@Test
+	public void testMoveObject() {
+		linkedCellsObject.addObject(obj1);
+		linkedCellsObject.addObject(obj2);
+		linkedCellsObject.addObject(obj3);
+
+		// obj3 moves within its cell
+		VPoint oldPosition = obj3.coord;
+		obj3.coord = new VPoint(50.5, 10.5);
+		linkedCellsObject.moveObject(obj3, oldPosition);
+		assertEquals("moveObject changed the size.", 3, linkedCellsObject.size());
+		assertEquals(1, linkedCellsObject.getObjects(obj3.coord, 0.1).size());
+
+		// obj1 moves into the cell of obj2
+		oldPosition = obj1.coord;
+		obj1.coord = new VPoint(10.5, 10.5);
+		linkedCellsObject.moveObject(obj1, oldPosition);
+		assertEquals("moveObject changed the size.", 3, linkedCellsObject.size());
+		assertEquals(0, linkedCellsObject.getCellObjectCount()[0][0]);
+		assertEquals(2, linkedCellsObject.getCellObjectCount()[10][10]);
+	}
+
+	/**
+	 * Test method for
+	 * {@link org.vadere.util.geometry.LinkedCellsGrid#moveObject(PointPositioned, VPoint)}
+	 * with an old position whose cell does not contain the object.
+	 */
+	@Test
+	public void testMoveObjectNotInCell() {
+		linkedCellsObject.addObject(obj1);
+		linkedCellsObject.addObject(obj2);
+
+		obj1.coord = new VPoint(10.5, 10.5);
+		try {
+			// the cell of the position of obj2 does not contain obj1
+			linkedCellsObject.moveObject(obj1, obj2.coord);
+			fail("moveObject accepted an old position whose cell does not contain the object.");
+		} catch (IllegalArgumentException e) {
+			// expected
+		}
+		try {
+			linkedCellsObject.moveObject(obj1, new VPoint(30.5, 30.5));
+			fail("moveObject accepted an old position whose cell does not contain the object.");
+		} catch (IllegalArgumentException e) {
+			// expected
+		}
+		assertEquals("moveObject changed the size.", 2, linkedCellsObject.size());
+		assertEquals(1, linkedCellsObject.getCellObjectCount()[0][0]);
+		assertEquals(1, linkedCellsObject.getCellObjectCount()[10][10]);
+	}
+
+	/**
+	 * Objects are moved while other threads query the grid. Readers must never fail and the
+	 * number of objects has to be unchanged afterwards.
+	 */
+	@Test
+	public void testConcurrentMoveAndGetObjects() throws Exception {
+		final int numberOfObjects = 100;
+		List<NotComparableObject> objects = new ArrayList<>();
+		for (int i = 0; i < numberOfObjects; i++) {
+			NotComparableObject object = new NotComparableObject(i, new VPoint(i % 10, i / 10));
+			objects.add(object);
+			linkedCellsObject.addObject(object);
+		}
+
+		ExecutorService executor = Executors.newFixedThreadPool(3);
+		AtomicBoolean moving = new AtomicBoolean(true);
+		try {
+			List<Future<?>> readers = new ArrayList<>();
+			for (int r = 0; r < 2; r++) {
+				readers.add(executor.submit(() -> {
+					while (moving.get()) {
+						linkedCellsObject.forEachObject(new VPoint(5, 5), 10, object -> assertTrue(object.value < numberOfObjects));
+					}
+				}));
+			}
+
+			Future<?> writer = executor.submit(() -> {
+				for (int step = 0; step < 200; step++) {
+					for (NotComparableObject object : objects) {
+						VPoint oldPosition = object.coord;
+						object.coord = new VPoint((oldPosition.x + 0.3) % 10, oldPosition.y);
+						linkedCellsObject.moveObject(object, oldPosition);
+					}
+				}
+				moving.set(false);
+			});
+
+			writer.get();
+			for (Future<?> reader : readers) {
+				reader.get();
+			}
+		} finally {
+			moving.set(false);
+			executor.shutdown();
+		}
+
+		assertEquals(numberOfObjects, linkedCellsObject.size());
+		assertEquals(numberOfObjects, linkedCellsObject.getElements().size());
+		for (NotComparableObject object : objects) {
+			assertTrue(linkedCellsObject.getObjects(object.coord, 0.01).contains(object));
+		}
+	}
+
 	/**
 	 * Test method for the complexity of
 	 * {@link LinkedCellsGrid#getObjects(VPoint, double)}. Should be O(1).